@@ -0,0 +1,283 @@
+package controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.ObjLongConsumer;
+
+import controller.command.Command;
+
+/**
+ * Executes commands for a controller, either synchronously on the calling thread or with their
+ * model work on a pool of worker threads. In the latter case, each command is prepared on the
+ * calling thread, usually the event dispatch thread, through {@link Command#prepare()}, so the
+ * view is only ever touched there; the model work it returns runs on a worker, and its error and
+ * completion callbacks are passed back to the callback executor, usually
+ * {@code SwingUtilities::invokeLater}.
+ *
+ * <p>Commands that modify the model run one at a time, and never alongside commands that only
+ * read it, which may run together. Every command changing the model does so in the work it
+ * returns, and code reading the model outside of commands holds {@link #getReadLock()}. A
+ * command can be cancelled through the returned future until its work starts; cancelling fails
+ * once the work runs, so the model is never left half-modified.</p>
+ */
+public class CommandExecutor {
+  private final ExecutorService workers;
+  private final Executor callbacks;
+  private final ReadWriteLock modelLock;
+  private final AtomicInteger pending;
+  private IntConsumer progressListener;
+  private ObjLongConsumer<Command> latencyListener;
+
+  /**
+   * Constructs an executor running every command synchronously on the calling thread.
+   */
+  public CommandExecutor() {
+    this.workers = null;
+    this.callbacks = Runnable::run;
+    this.modelLock = new ReentrantReadWriteLock();
+    this.pending = new AtomicInteger();
+  }
+
+  /**
+   * Constructs an executor running the model work of commands on the given number of worker
+   * threads, and passing results back through the given callback executor.
+   *
+   * @param workerCount The number of worker threads.
+   * @param callbacks   The executor running the callbacks, usually on the event dispatch thread.
+   * @throws IllegalArgumentException if the worker count is not positive or the callback executor
+   *                                  is null.
+   */
+  public CommandExecutor(int workerCount, Executor callbacks) {
+    if (workerCount <= 0 || callbacks == null) {
+      throw new IllegalArgumentException("Invalid worker count or callback executor");
+    }
+    this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+      Thread thread = new Thread(runnable, "command-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.callbacks = callbacks;
+    this.modelLock = new ReentrantReadWriteLock();
+    this.pending = new AtomicInteger();
+  }
+
+  /**
+   * Sets the listener told the number of commands submitted but not yet finished, whenever it
+   * changes, on the callback executor. The view can use it to show that work is in progress.
+   *
+   * @param listener The listener, or null to remove it.
+   */
+  public void setProgressListener(IntConsumer listener) {
+    this.progressListener = listener;
+  }
+
+  /**
+   * Sets the listener told how long each command took, in nanoseconds from being submitted to
+   * finishing, failing or being cancelled, including the time spent waiting for a worker. It is
+   * called on the thread finishing the command, before its callbacks are passed back.
+   *
+   * @param listener The listener, or null to remove it.
+   */
+  public void setLatencyListener(ObjLongConsumer<Command> listener) {
+    this.latencyListener = listener;
+  }
+
+  /**
+   * Gets the number of commands submitted but not yet finished or cancelled.
+   *
+   * @return The number of pending commands.
+   */
+  public int getPendingCount() {
+    return pending.get();
+  }
+
+  /**
+   * Submits a command. The command is prepared on the calling thread right away; its remaining
+   * work runs synchronously or on a worker, after which the error callback is called if the
+   * command failed, and then the completion callback, both through the callback executor. A
+   * command failing while being prepared has its callbacks called on the calling thread.
+   *
+   * @param command The command to execute.
+   * @param onError The callback receiving the error the command failed with.
+   * @param onDone  The callback called once the command finished, failed or was cancelled.
+   * @return The future of the command's work, which can be used to cancel it before it starts.
+   * @throws IllegalArgumentException if an argument is null.
+   */
+  public Future<?> submit(Command command, Consumer<Exception> onError, Runnable onDone) {
+    if (command == null || onError == null || onDone == null) {
+      throw new IllegalArgumentException("Command and callbacks cannot be null");
+    }
+    long submitted = System.nanoTime();
+    Runnable work;
+    try {
+      work = command.prepare();
+    } catch (Exception e) {
+      this.recordLatency(command, submitted);
+      onError.accept(e);
+      onDone.run();
+      return this.completed();
+    }
+    if (work == null) {
+      this.recordLatency(command, submitted);
+      onDone.run();
+      return this.completed();
+    }
+
+    Lock lock = command.isReadOnly() ? modelLock.readLock() : modelLock.writeLock();
+    this.changePending(1);
+    CommandTask task = new CommandTask(() -> {
+      lock.lock();
+      try {
+        work.run();
+      } finally {
+        lock.unlock();
+      }
+    }, command, submitted, onError, onDone);
+    if (workers == null) {
+      task.run();
+    } else {
+      workers.execute(task);
+    }
+    return task;
+  }
+
+  /**
+   * Gets the lock to hold while reading the model outside of commands, such as while the view
+   * paints it, so the model is never read while a command running on a worker modifies it.
+   *
+   * @return The read lock of the model.
+   */
+  public Lock getReadLock() {
+    return modelLock.readLock();
+  }
+
+  /**
+   * Runs an action through the callback executor, so it happens on the same thread as the
+   * command callbacks. Model notifications sent from a worker use it to reach the view.
+   *
+   * @param action The action to run.
+   */
+  public void dispatch(Runnable action) {
+    this.callbacks.execute(action);
+  }
+
+  /**
+   * Stops the worker threads once the submitted commands have finished.
+   */
+  public void shutdown() {
+    if (workers != null) {
+      workers.shutdown();
+    }
+  }
+
+  /**
+   * Tells the latency listener how long a command took since it was submitted.
+   *
+   * @param command   The command.
+   * @param submitted The time the command was submitted, from {@link System#nanoTime()}.
+   */
+  private void recordLatency(Command command, long submitted) {
+    ObjLongConsumer<Command> listener = this.latencyListener;
+    if (listener != null) {
+      listener.accept(command, System.nanoTime() - submitted);
+    }
+  }
+
+  /**
+   * Updates the number of pending commands and tells the progress listener.
+   *
+   * @param delta The change in the number of pending commands.
+   */
+  private void changePending(int delta) {
+    int count = pending.addAndGet(delta);
+    IntConsumer listener = this.progressListener;
+    if (listener != null) {
+      callbacks.execute(() -> listener.accept(count));
+    }
+  }
+
+  /**
+   * The model work of a submitted command. Unlike a plain {@link FutureTask}, it can only be
+   * cancelled before it starts, so its callbacks never run while its work is still running.
+   */
+  private final class CommandTask extends FutureTask<Void> {
+    private final AtomicBoolean started;
+    private final Command command;
+    private final long submitted;
+    private final Consumer<Exception> onError;
+    private final Runnable onDone;
+
+    /**
+     * Constructs the task of the given work and callbacks.
+     *
+     * @param work      The model work of the command.
+     * @param command   The command the work is of.
+     * @param submitted The time the command was submitted, from {@link System#nanoTime()}.
+     * @param onError   The callback receiving the error the work failed with.
+     * @param onDone    The callback called once the work finished, failed or was cancelled.
+     */
+    private CommandTask(Runnable work, Command command, long submitted,
+                        Consumer<Exception> onError, Runnable onDone) {
+      super(work, null);
+      this.started = new AtomicBoolean();
+      this.command = command;
+      this.submitted = submitted;
+      this.onError = onError;
+      this.onDone = onDone;
+    }
+
+    @Override
+    public void run() {
+      if (started.compareAndSet(false, true)) {
+        super.run();
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      return started.compareAndSet(false, true) && super.cancel(false);
+    }
+
+    @Override
+    protected void done() {
+      Exception error = null;
+      if (!this.isCancelled()) {
+        try {
+          this.get();
+        } catch (Exception e) {
+          error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+      }
+      Exception failure = error;
+      recordLatency(command, submitted);
+      changePending(-1);
+      callbacks.execute(() -> {
+        if (failure != null) {
+          onError.accept(failure);
+        }
+        onDone.run();
+      });
+    }
+  }
+
+  /**
+   * Creates the future of a command that completed while being prepared.
+   *
+   * @return A completed future.
+   */
+  private Future<?> completed() {
+    FutureTask<Void> task = new FutureTask<>(() -> { }, null);
+    task.run();
+    return task;
+  }
+}
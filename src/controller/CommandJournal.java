@@ -0,0 +1,218 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import controller.command.Command;
+import plannersystem.EventDelta;
+import plannersystem.PlannerSystem;
+
+/**
+ * Keeps the undo and redo history of the commands run on a planner. For each command, only the
+ * changes it made are kept, as {@link EventDelta}s naming the changed events by ID, so undoing or
+ * redoing a command puts just those events back the way they were, without searching the
+ * schedules or rebuilding events from the view's fields. At most a given number of commands is
+ * kept, the oldest being forgotten first.
+ *
+ * <p>Undoing and redoing assume every change to the planner goes through the tracked commands.
+ * If the planner changed some other way, the history no longer applies, so it is cleared and the
+ * undo or redo fails. Only changes to the weekly events can be undone: a command that changes
+ * anything else, such as a recurring event or a group, clears the history as well.</p>
+ */
+public class CommandJournal {
+  private final PlannerSystem model;
+  private final int capacity;
+  private final Deque<List<EventDelta>> undoable = new ArrayDeque<>();
+  private final Deque<List<EventDelta>> redoable = new ArrayDeque<>();
+  private long expectedVersion;
+
+  /**
+   * Constructs an empty journal for the given planner.
+   *
+   * @param model    The planner the commands change.
+   * @param capacity The most commands to keep.
+   * @throws IllegalArgumentException if the planner is null or the capacity is not positive.
+   */
+  public CommandJournal(PlannerSystem model, int capacity) {
+    if (model == null || capacity <= 0) {
+      throw new IllegalArgumentException("Invalid planner or capacity");
+    }
+    this.model = model;
+    this.capacity = capacity;
+    this.expectedVersion = model.getVersion();
+  }
+
+  /**
+   * Wraps a command so that the changes its model work makes are recorded for undoing. Running a
+   * new command forgets the commands that were undone.
+   *
+   * @param command The command to track.
+   * @return The tracked command, prepared and run like the original.
+   * @throws IllegalArgumentException if the command is null.
+   */
+  public Command track(Command command) {
+    if (command == null) {
+      throw new IllegalArgumentException("Command cannot be null");
+    }
+    return new Command() {
+      @Override
+      public void execute() {
+        Runnable work = this.prepare();
+        if (work != null) {
+          work.run();
+        }
+      }
+
+      @Override
+      public Runnable prepare() {
+        long version = model.getVersion();
+        Runnable work = command.prepare();
+        if (work == null) {
+          record(version);
+          return null;
+        }
+        return () -> {
+          long start = model.getVersion();
+          work.run();
+          record(start);
+        };
+      }
+
+      @Override
+      public boolean isReadOnly() {
+        return command.isReadOnly();
+      }
+    };
+  }
+
+  /**
+   * Checks whether there is a command to undo.
+   *
+   * @return true if a command can be undone, false otherwise.
+   */
+  public synchronized boolean canUndo() {
+    return !this.undoable.isEmpty();
+  }
+
+  /**
+   * Checks whether there is an undone command to redo.
+   *
+   * @return true if a command can be redone, false otherwise.
+   */
+  public synchronized boolean canRedo() {
+    return !this.redoable.isEmpty();
+  }
+
+  /**
+   * Undoes the last command run or redone, putting every event it changed back to its state
+   * before the command, in reverse order.
+   *
+   * @throws IllegalStateException if there is nothing to undo, or the planner changed outside of
+   *                               the tracked commands, in which case the history is cleared.
+   */
+  public synchronized void undo() {
+    List<EventDelta> deltas = this.nextEntry(this.undoable, "Nothing to undo");
+    int applied = 0;
+    try {
+      for (int i = deltas.size() - 1; i >= 0; i--, applied++) {
+        this.model.replaceEvent(deltas.get(i).getId(), deltas.get(i).getBefore());
+      }
+    } catch (RuntimeException e) {
+      for (int i = deltas.size() - applied; i < deltas.size(); i++) {
+        this.model.replaceEvent(deltas.get(i).getId(), deltas.get(i).getAfter());
+      }
+      throw e;
+    }
+    this.redoable.push(this.undoable.pop());
+    this.expectedVersion = this.model.getVersion();
+  }
+
+  /**
+   * Redoes the last command undone, putting every event it changed back to its state after the
+   * command, in order.
+   *
+   * @throws IllegalStateException if there is nothing to redo, or the planner changed outside of
+   *                               the tracked commands, in which case the history is cleared.
+   */
+  public synchronized void redo() {
+    List<EventDelta> deltas = this.nextEntry(this.redoable, "Nothing to redo");
+    int applied = 0;
+    try {
+      for (int i = 0; i < deltas.size(); i++, applied++) {
+        this.model.replaceEvent(deltas.get(i).getId(), deltas.get(i).getAfter());
+      }
+    } catch (RuntimeException e) {
+      for (int i = applied - 1; i >= 0; i--) {
+        this.model.replaceEvent(deltas.get(i).getId(), deltas.get(i).getBefore());
+      }
+      throw e;
+    }
+    this.pushUndoable(this.redoable.pop());
+    this.expectedVersion = this.model.getVersion();
+  }
+
+  /**
+   * Records the changes made since the given version as one command, unless there are none.
+   *
+   * @param version The planner version before the command.
+   */
+  private synchronized void record(long version) {
+    if (this.model.getVersion() == version) {
+      return;
+    }
+    List<EventDelta> deltas;
+    try {
+      deltas = this.model.getChangesSince(version);
+    } catch (IllegalStateException e) {
+      // too many changes to undo, and the older commands cannot be undone past them
+      deltas = null;
+    }
+    // only the weekly events can be put back by ID, so anything else ends the history too
+    if (deltas == null || deltas.stream()
+            .anyMatch(delta -> delta.getSubject() != EventDelta.Subject.EVENT)) {
+      this.undoable.clear();
+      this.redoable.clear();
+      this.expectedVersion = this.model.getVersion();
+      return;
+    }
+    this.redoable.clear();
+    this.pushUndoable(deltas);
+    this.expectedVersion = this.model.getVersion();
+  }
+
+  /**
+   * Adds the changes of a command to the undo history, forgetting the oldest command if the
+   * history is full.
+   *
+   * @param entry The changes to add.
+   */
+  private void pushUndoable(List<EventDelta> entry) {
+    if (this.undoable.size() == this.capacity) {
+      this.undoable.removeLast();
+    }
+    this.undoable.push(entry);
+  }
+
+  /**
+   * Gets the changes of the next command of a history, checking that the planner has not changed
+   * since the journal last changed it.
+   *
+   * @param history The history to take the entry from.
+   * @param empty   The message if the history is empty.
+   * @return The changes of the next command, still in the history.
+   * @throws IllegalStateException if the history is empty or no longer applies.
+   */
+  private List<EventDelta> nextEntry(Deque<List<EventDelta>> history, String empty) {
+    List<EventDelta> entry = history.peek();
+    if (entry == null) {
+      throw new IllegalStateException(empty);
+    }
+    if (this.expectedVersion != this.model.getVersion()) {
+      this.undoable.clear();
+      this.redoable.clear();
+      throw new IllegalStateException("The planner changed since the last command");
+    }
+    return entry;
+  }
+}
@@ -1,9 +1,12 @@
 package controller;
 
+import java.nio.file.Path;
 import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.swing.SwingUtilities;
+
 import schedule.IEvent;
 import schedule.ISchedule;
 import schedulestrategy.ScheduleStrategy;
@@ -14,6 +17,7 @@ import schedule.Schedule;
 
 import plannersystem.NUPlannerSystem;
 import view.PlannerSystemViewImpl;
+import view.ScheduleExporter;
 
 /**
  * The Main class serves as the entry point for the Planner System application.
@@ -23,6 +27,8 @@ import view.PlannerSystemViewImpl;
  * scheduling behaviors.
  */
 public class Main {
+  private static final int EXPORT_WIDTH = 1200;
+  private static final int EXPORT_HEIGHT = 900;
 
   /**
    * Initializes the Planner System application by creating sample events and schedules,
@@ -34,7 +40,8 @@ public class Main {
    *             Supports "Anytime", "Work-hours", and "Lenient" as inputs to select the respective
    *             scheduling strategy. If no argument is provided, defaults to "Anytime".
    *             Additionally, a chosen day of the week like "Saturday" can be used to set the
-   *             start day of the week.
+   *             start day of the week, and a directory as the third argument exports a PNG
+   *             image of every user's week into it instead of opening the window.
    */
   public static void main(String[] args) {
     // Creating events
@@ -74,9 +81,19 @@ public class Main {
     PlannerSystem system = new NUPlannerSystem(schedules);
     system.setFirstDayOfWeek(setPlannerFirstDay(args));
     system.setScheduleStrategy(getStrategy(args));
+    if (args.length > 2) {
+      // Headless batch export, no window is created
+      new ScheduleExporter(system, EXPORT_WIDTH, EXPORT_HEIGHT).exportAll(Path.of(args[2]));
+      return;
+    }
     // Initializing the planner system view
     PlannerSystemViewImpl systemView = new PlannerSystemViewImpl(system);
-    PlannerSystemController controller = new ScheduleViewController(systemView);
+    // Run slow model work such as file parsing and scheduling searches off the Swing thread
+    CommandExecutor executor = new CommandExecutor(2, SwingUtilities::invokeLater);
+    executor.setLatencyListener((command, nanos) -> systemView.getInstrumentation()
+            .recordTime("command " + command.getClass().getSimpleName(), nanos));
+    executor.setProgressListener(systemView::showProgress);
+    PlannerSystemController controller = new ScheduleViewController(systemView, executor);
     controller.launch(system);
   }
 
@@ -109,7 +126,7 @@ public class Main {
   /**
    * Returns the chosen schedule strategy for the planner system based on the provided command-line
    * argument.
-   * Supports "Anytime", "Work-hours", and "Lenient" as scheduling strategies.
+   * Supports "Anytime", "Work-hours", "Lenient" and "Constraint" as scheduling strategies.
    *
    * @param args The command-line arguments specifying the desired scheduling strategy.
    * @return the chosen schedule strategy.
@@ -131,6 +148,10 @@ public class Main {
         scheduleStrategy = ScheduleStrategyCreator
                 .createScheduleStrategy(ScheduleStrategyCreator.ScheduleStrategyType.LENIENT);
         break;
+      case "Constraint":
+        scheduleStrategy = ScheduleStrategyCreator
+                .createScheduleStrategy(ScheduleStrategyCreator.ScheduleStrategyType.CONSTRAINT);
+        break;
       default:
         throw new IllegalArgumentException("Unknown Schedule Strategy: " + strategy);
     }
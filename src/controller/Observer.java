@@ -1,5 +1,7 @@
 package controller;
 
+import plannersystem.PlannerChangeEvent;
+
 /**
  * The Observer interface is part of the Observer design pattern, which is used for creating
  * a subscription mechanism to allow multiple objects to listen and react to events or changes
@@ -18,4 +20,15 @@ public interface Observer {
    * communication between subjects and observers.
    */
   void update();
+
+  /**
+   * Called by the subject to notify this observer about a change whose extent is known, so the
+   * observer can update only what the change affected. By default, the observer is updated as
+   * for any other change.
+   *
+   * @param change The description of the change.
+   */
+  default void update(PlannerChangeEvent change) {
+    this.update();
+  }
 }
@@ -1,5 +1,10 @@
 package controller;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Lock;
+
 import controller.command.AddCalendar;
 import controller.command.Command;
 import controller.command.CreateEvent;
@@ -8,6 +13,7 @@ import controller.command.RemoveEvent;
 import controller.command.SaveCalendars;
 import controller.command.ScheduleEvent;
 import controller.command.SelectUser;
+import plannersystem.PlannerChangeEvent;
 import plannersystem.PlannerSystem;
 import schedule.Event;
 import schedule.ReadOnlyEvent;
@@ -24,25 +30,50 @@ import view.ScheduleEventView;
  * ({@link PlannerSystem}).
  */
 public class ScheduleViewController implements PlannerSystemController {
+  private static final int UNDO_LIMIT = 100;
 
   private final PlannerSystemView view;
   private PlannerSystem model;
+  private CommandJournal journal;
 
   private EventView eventView;
 
+  private final CommandExecutor executor;
+
+  // the commands submitted but not yet finished, which the user can cancel until they start
+  private final Queue<Future<?>> running = new ConcurrentLinkedQueue<>();
+
   /**
    * Constructs a ScheduleViewController with a specified view.
    * Initializes the controller, sets itself as the listener for action and mouse events.
+   * Commands are executed synchronously on the calling thread.
    *
    * @param view The {@link PlannerSystemView} for this controller to manage.
    * @throws IllegalArgumentException if the provided view is null.
    */
   public ScheduleViewController(PlannerSystemView view) {
+    this(view, new CommandExecutor());
+  }
+
+  /**
+   * Constructs a ScheduleViewController with a specified view, executing commands through the
+   * given executor, for example with their model work off the event dispatch thread.
+   *
+   * @param view     The {@link PlannerSystemView} for this controller to manage.
+   * @param executor The executor running the commands.
+   * @throws IllegalArgumentException if the provided view or executor is null.
+   */
+  public ScheduleViewController(PlannerSystemView view, CommandExecutor executor) {
     if (view == null) {
       throw new IllegalArgumentException("View cannot be null");
     }
+    if (executor == null) {
+      throw new IllegalArgumentException("Command executor cannot be null");
+    }
     this.view = view;
+    this.executor = executor;
     this.view.setActionListener(this);
+    this.view.setModelLock(executor.getReadLock());
   }
 
   @Override
@@ -57,13 +88,14 @@ public class ScheduleViewController implements PlannerSystemController {
     assert currentUser != null;
     Command command = this.handleCommands(action, currentUser);
     if (command != null) {
-      try {
-        command.execute();
-      } catch (Exception ise) {
-        this.view.displayErrorMessage(ise.getMessage());
+      Future<?> future = this.executor.submit(command,
+              e -> this.view.displayErrorMessage(e.getMessage()), this::commandDone);
+      if (!future.isDone()) {
+        this.running.add(future);
       }
+    } else {
+      this.view.refresh();
     }
-    this.view.refresh();
   }
 
   /**
@@ -92,7 +124,7 @@ public class ScheduleViewController implements PlannerSystemController {
         this.launchEventView(currentUser, new Event(), "Schedule");
         break;
       case "Add calendar":
-        command = new AddCalendar(view, model);
+        command = this.journal.track(new AddCalendar(view, model));
         break;
       case "Save calendars":
         command = new SaveCalendars(currentUser, view, model);
@@ -101,27 +133,92 @@ public class ScheduleViewController implements PlannerSystemController {
         command = new SelectUser(currentUser, view);
         break;
       case "Create event":
-        command = new CreateEvent(currentUser, model, eventView, eventView.getEvent());
+        command = this.journal.track(new CreateEvent(currentUser, model, eventView,
+                eventView.getEvent()));
         break;
       case "Modify event":
-        command = new ModifyEvent(currentUser, model, eventView, eventView.getEvent());
+        command = this.journal.track(new ModifyEvent(currentUser, model, eventView,
+                eventView.getEvent()));
         break;
       case "Remove event":
-        command = new RemoveEvent(currentUser, model, eventView, eventView.getEvent());
+        command = this.journal.track(new RemoveEvent(currentUser, model, eventView,
+                eventView.getEvent()));
         break;
       case "Schedule event":
-        command = new ScheduleEvent(currentUser, model, eventView, eventView.getEvent());
+        command = this.journal.track(new ScheduleEvent(currentUser, model, eventView,
+                eventView.getEvent()));
         break;
       case "Toggle Color":
         command = null;
         this.handleToggleColor(currentUser);
         break;
+      case "Undo":
+        command = modelWork(this.journal::undo);
+        break;
+      case "Redo":
+        command = modelWork(this.journal::redo);
+        break;
+      case "Overlay users":
+        command = null;
+        this.view.selectOverlayUsers();
+        break;
+      case "Cancel command":
+        command = null;
+        this.cancelCommands();
+        break;
       default:
         command = null;
     }
     return command;
   }
 
+  /**
+   * Creates a command whose whole work is the given change to the model, returned by
+   * {@link Command#prepare()} so the executor runs it under its write lock, like the commands
+   * that made the changes.
+   *
+   * @param change The change to the model.
+   * @return The command.
+   */
+  private static Command modelWork(Runnable change) {
+    return new Command() {
+      @Override
+      public void execute() {
+        change.run();
+      }
+
+      @Override
+      public Runnable prepare() {
+        return change;
+      }
+    };
+  }
+
+  /**
+   * Forgets the commands that finished and refreshes the view, once a command finished, failed
+   * or was cancelled.
+   */
+  private void commandDone() {
+    this.running.removeIf(Future::isDone);
+    this.view.refresh();
+  }
+
+  /**
+   * Cancels every submitted command whose model work has not started yet. Commands already
+   * running are left to finish, so the model is never left half-modified, and the user is told
+   * if nothing could be cancelled.
+   */
+  private void cancelCommands() {
+    boolean cancelled = false;
+    for (Future<?> future : this.running) {
+      cancelled |= future.cancel(false);
+    }
+    this.running.removeIf(Future::isDone);
+    if (!cancelled && !this.running.isEmpty()) {
+      this.view.displayErrorMessage("The running commands can no longer be cancelled.");
+    }
+  }
+
   @Override
   public void processMouseClick(ReadOnlyEvent event) {
     String userId = this.view.getCurrentUser();
@@ -135,8 +232,21 @@ public class ScheduleViewController implements PlannerSystemController {
 
   @Override
   public void update() {
-    this.view.updateUsers();
-    this.view.refresh();
+    // commands running on a worker notify from there, so hand the update to the view's thread
+    this.executor.dispatch(() -> {
+      this.view.updateUsers();
+      this.view.refresh();
+    });
+  }
+
+  @Override
+  public void update(PlannerChangeEvent change) {
+    this.executor.dispatch(() -> {
+      if (change.usersChanged()) {
+        this.view.updateUsers();
+      }
+      this.view.refresh(change);
+    });
   }
 
   /**
@@ -150,6 +260,7 @@ public class ScheduleViewController implements PlannerSystemController {
       throw new IllegalArgumentException("Planner System Model is null");
     }
     this.model = model;
+    this.journal = new CommandJournal(model, UNDO_LIMIT);
     this.model.addObserver(this);
   }
 
@@ -170,12 +281,22 @@ public class ScheduleViewController implements PlannerSystemController {
       view.displayErrorMessage("No user is selected.");
       return;
     }
-    if (frameType.equals("Schedule")) {
-      this.eventView = new ScheduleEventView(event, userId);
-    } else {
-      this.eventView = new EventViewImpl(event, userId);
+    // the view copies the event's details, which a command may be changing on a worker
+    Lock lock = this.executor.getReadLock();
+    lock.lock();
+    try {
+      if (frameType.equals("Schedule")) {
+        this.eventView = new ScheduleEventView(event, userId);
+      } else {
+        this.eventView = new EventViewImpl(event, userId);
+      }
+    } finally {
+      lock.unlock();
     }
     this.eventView.setActionListener(this);
+    if (this.model != null) {
+      this.eventView.setInviteeSearch(this.model, lock);
+    }
     this.eventView.makeVisible();
   }
 
@@ -45,14 +45,30 @@ public class AddCalendar implements Command {
    */
   @Override
   public void execute() {
+    Runnable work = this.prepare();
+    if (work != null) {
+      work.run();
+    }
+  }
+
+  /**
+   * Asks the view for the file to load, and returns the parsing of the file into the model as
+   * the work left to run.
+   *
+   * @return The reading of the chosen file, or null if no file was chosen.
+   */
+  @Override
+  public Runnable prepare() {
     File file = this.view.loadFile();
     if (file == null) {
-      return;
-    }
-    try {
-      this.model.readUserSchedule(file);
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Unable to read user schedule: " + e.getMessage());
+      return null;
     }
+    return () -> {
+      try {
+        this.model.readUserSchedule(file);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Unable to read user schedule: " + e.getMessage());
+      }
+    };
   }
 }
@@ -21,4 +21,27 @@ public interface Command {
    * capability is not a requirement of the interface itself.
    */
   void execute();
+
+  /**
+   * Runs the part of the command that must happen on the calling thread, such as reading the
+   * user's input from the view, and returns the model work left to do, which may then run on a
+   * worker thread. Running the returned work completes the command as {@link #execute()} would.
+   * By default, the whole command runs here and no work is left.
+   *
+   * @return The model work left to run, or null if the command is already complete.
+   */
+  default Runnable prepare() {
+    this.execute();
+    return null;
+  }
+
+  /**
+   * Checks whether the work returned by {@link #prepare()} only reads the model, so it can run
+   * alongside other commands that only read it.
+   *
+   * @return true if the command does not modify the model, false otherwise.
+   */
+  default boolean isReadOnly() {
+    return false;
+  }
 }
@@ -54,25 +54,51 @@ public class CreateEvent implements Command {
    */
   @Override
   public void execute() {
+    this.prepare().run();
+  }
+
+  /**
+   * Reads the event's details from the event view, and returns the creation of the event as the
+   * work left to run, so the model is only changed while no other command uses it.
+   *
+   * @return The creation of the event.
+   * @throws IllegalStateException if a field of the event view is empty or invalid.
+   */
+  @Override
+  public Runnable prepare() {
     try {
       this.eventView.checkFieldsNotEmpty();
     } catch (IllegalStateException e) {
       throw new IllegalStateException(e.getMessage());
     }
 
+    String name;
+    String startDay;
+    String startTime;
+    String endDay;
+    String endTime;
+    String location;
+    boolean isOnline;
+    List<String> invitees;
     try {
-      String name = this.eventView.getEventName();
-      String startDay = this.eventView.getStartDay();
-      String startTime = this.eventView.getStartTime();
-      String endDay = this.eventView.getEndDay();
-      String endTime = this.eventView.getEndTime();
-      String location = this.eventView.getEventLocation();
-      boolean isOnline = this.eventView.getOnline();
-      List<String> invitees = this.eventView.getInvitees();
-      this.model.createEvent(userId, name, startDay, startTime, endDay, endTime, isOnline, location,
-              invitees);
+      name = this.eventView.getEventName();
+      startDay = this.eventView.getStartDay();
+      startTime = this.eventView.getStartTime();
+      endDay = this.eventView.getEndDay();
+      endTime = this.eventView.getEndTime();
+      location = this.eventView.getEventLocation();
+      isOnline = this.eventView.getOnline();
+      invitees = this.eventView.getInvitees();
     } catch (Exception e) {
       throw new IllegalStateException("Cannot create event: " + e.getMessage());
     }
+    return () -> {
+      try {
+        this.model.createEvent(userId, name, startDay, startTime, endDay, endTime, isOnline,
+                location, invitees);
+      } catch (Exception e) {
+        throw new IllegalStateException("Cannot create event: " + e.getMessage());
+      }
+    };
   }
 }
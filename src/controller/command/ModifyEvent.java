@@ -42,25 +42,51 @@ public class ModifyEvent extends CreateEvent {
    */
   @Override
   public void execute() {
+    this.prepare().run();
+  }
+
+  /**
+   * Reads the event's new details from the event view, and returns the modification of the
+   * event as the work left to run, so the model is only changed while no other command uses it.
+   *
+   * @return The modification of the event.
+   * @throws IllegalStateException if a field of the event view is empty or invalid.
+   */
+  @Override
+  public Runnable prepare() {
     try {
       this.eventView.checkFieldsNotEmpty();
     } catch (IllegalStateException e) {
       throw new IllegalStateException(e.getMessage());
     }
 
+    String name;
+    String startDay;
+    String startTime;
+    String endDay;
+    String endTime;
+    String location;
+    boolean isOnline;
+    List<String> invitees;
     try {
-      String name = this.eventView.getEventName();
-      String startDay = this.eventView.getStartDay();
-      String startTime = this.eventView.getStartTime();
-      String endDay = this.eventView.getEndDay();
-      String endTime = this.eventView.getEndTime();
-      String location = this.eventView.getEventLocation();
-      boolean isOnline = this.eventView.getOnline();
-      List<String> invitees = this.eventView.getInvitees();
-      this.model.modifyEvent(userId, event, name, startDay, startTime, endDay, endTime, isOnline,
-              location, invitees);
+      name = this.eventView.getEventName();
+      startDay = this.eventView.getStartDay();
+      startTime = this.eventView.getStartTime();
+      endDay = this.eventView.getEndDay();
+      endTime = this.eventView.getEndTime();
+      location = this.eventView.getEventLocation();
+      isOnline = this.eventView.getOnline();
+      invitees = this.eventView.getInvitees();
     } catch (Exception e) {
       throw new IllegalStateException("Cannot modify event: " + e.getMessage());
     }
+    return () -> {
+      try {
+        this.model.modifyEvent(userId, event, name, startDay, startTime, endDay, endTime,
+                isOnline, location, invitees);
+      } catch (Exception e) {
+        throw new IllegalStateException("Cannot modify event: " + e.getMessage());
+      }
+    };
   }
 }
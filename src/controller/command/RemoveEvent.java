@@ -1,10 +1,6 @@
 package controller.command;
 
-import java.util.List;
-
 import plannersystem.PlannerSystem;
-import schedule.Event;
-import schedule.IEvent;
 import schedule.ReadOnlyEvent;
 import view.EventView;
 
@@ -34,8 +30,8 @@ public class RemoveEvent extends CreateEvent {
 
   /**
    * Executes the operation to remove an existing event. This method validates that the event
-   * fields are not empty and checks if the event is indeed an existing event within the system
-   * before proceeding with its removal.
+   * fields are not empty, and then removes the event the view was opened on, as the planner holds
+   * it, rather than an event rebuilt from the view's fields, which may have been edited since.
    *
    * <p>If the event does not exist (i.e., it is considered as a new event) or if any validation
    * fails, an exception is thrown to prevent the removal of a non-existing event.
@@ -45,32 +41,32 @@ public class RemoveEvent extends CreateEvent {
    */
   @Override
   public void execute() {
+    this.prepare().run();
+  }
+
+  /**
+   * Checks the event view's fields, and returns the removal of the event as the work left to
+   * run, so the model is only read and changed while no other command changes it.
+   *
+   * @return The removal of the event.
+   * @throws IllegalStateException if a field of the event view is empty.
+   */
+  @Override
+  public Runnable prepare() {
     try {
       this.eventView.checkFieldsNotEmpty();
     } catch (IllegalStateException e) {
       throw new IllegalStateException(e.getMessage());
     }
 
-    try {
-      String name = this.eventView.getEventName();
-      String startDay = this.eventView.getStartDay();
-      String startTime = this.eventView.getStartTime();
-      String endDay = this.eventView.getEndDay();
-      String endTime = this.eventView.getEndTime();
-      String location = this.eventView.getEventLocation();
-      boolean isOnline = this.eventView.getOnline();
-      List<String> invitees = this.eventView.getInvitees();
-
-      IEvent curEvent = new Event();
-      curEvent.setName(name);
-      curEvent.setEventTimes(startDay, startTime, endDay, endTime);
-      curEvent.setLocation(isOnline, location);
-      curEvent.setHost(invitees.get(0));
-      curEvent.setInvitees(invitees);
-      this.model.removeEvent(userId, curEvent);
-    } catch (Exception e) {
-      throw new IllegalStateException("Cannot remove event: " + e.getMessage());
-    }
+    return () -> {
+      try {
+        ReadOnlyEvent current = this.model.getEventById(this.event.getId());
+        this.model.removeEvent(userId, current == null ? this.event : current);
+      } catch (Exception e) {
+        throw new IllegalStateException("Cannot remove event: " + e.getMessage());
+      }
+    };
   }
 
 }
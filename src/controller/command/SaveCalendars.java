@@ -52,17 +52,39 @@ public class SaveCalendars implements Command {
    */
   @Override
   public void execute() {
+    Runnable work = this.prepare();
+    if (work != null) {
+      work.run();
+    }
+  }
+
+  /**
+   * Asks the view for the file to save to, and returns the writing of the user's schedule as the
+   * work left to run.
+   *
+   * @return The writing of the schedule, or null if no file was chosen.
+   * @throws IllegalStateException if no user is selected.
+   */
+  @Override
+  public Runnable prepare() {
     if (userId.equals("<none>")) {
       throw new IllegalStateException("No user selected");
     }
     String filePath = this.view.saveFile();
     if (filePath == null) {
-      return;
-    }
-    try {
-      this.model.saveUserSchedule(userId, filePath);
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Unable to save user schedule: " + e.getMessage());
+      return null;
     }
+    return () -> {
+      try {
+        this.model.saveUserSchedule(userId, filePath);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Unable to save user schedule: " + e.getMessage());
+      }
+    };
+  }
+
+  @Override
+  public boolean isReadOnly() {
+    return true;
   }
 }
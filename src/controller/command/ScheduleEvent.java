@@ -39,21 +39,44 @@ public class ScheduleEvent extends CreateEvent {
    */
   @Override
   public void execute() {
+    this.prepare().run();
+  }
+
+  /**
+   * Reads the event's details from the event view, and returns the search for a time and the
+   * scheduling of the event as the work left to run.
+   *
+   * @return The scheduling of the event.
+   * @throws IllegalStateException if a field of the event view is empty or invalid.
+   */
+  @Override
+  public Runnable prepare() {
     try {
       this.eventView.checkFieldsNotEmpty();
     } catch (IllegalStateException e) {
       throw new IllegalStateException(e.getMessage());
     }
 
+    String name;
+    String location;
+    boolean isOnline;
+    List<String> invitees;
+    int duration;
     try {
-      String name = this.eventView.getEventName();
-      String location = this.eventView.getEventLocation();
-      boolean isOnline = this.eventView.getOnline();
-      List<String> invitees = this.eventView.getInvitees();
-      int duration = this.eventView.getDuration();
-      this.model.scheduleEvent(userId, name, isOnline, location, duration, invitees);
+      name = this.eventView.getEventName();
+      location = this.eventView.getEventLocation();
+      isOnline = this.eventView.getOnline();
+      invitees = this.eventView.getInvitees();
+      duration = this.eventView.getDuration();
     } catch (Exception e) {
       throw new IllegalStateException("Cannot Schedule event: " + e.getMessage());
     }
+    return () -> {
+      try {
+        this.model.scheduleEvent(userId, name, isOnline, location, duration, invitees);
+      } catch (Exception e) {
+        throw new IllegalStateException("Cannot Schedule event: " + e.getMessage());
+      }
+    };
   }
 }
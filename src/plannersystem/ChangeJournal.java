@@ -0,0 +1,265 @@
+package plannersystem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import schedule.ReadOnlyEvent;
+
+/**
+ * The {@code ChangeJournal} class keeps a bounded, ordered log of the changes made to a planner
+ * system, together with the planner's monotonically increasing version. Every recorded change
+ * gets the next version, so the journal can answer which changes happened after any given
+ * version without comparing schedules. Besides the weekly events, the journal records the
+ * changes to recurring and dated events, rooms, groups and availability, so the version moves
+ * with every change to the planner.
+ *
+ * <p>Changes hold snapshots of the events taken when they were recorded, and the other subjects
+ * are immutable values, so later changes to the live planner do not alter the journal. Once
+ * the journal is full, the oldest changes are dropped; changes since a version older than the
+ * retained ones can then no longer be listed.</p>
+ */
+class ChangeJournal {
+
+  /**
+   * The kinds of changes recorded in the journal.
+   */
+  enum ChangeType {
+    ADD, REMOVE, MODIFY
+  }
+
+  /**
+   * A single recorded change. Added subjects have no previous state, and removed subjects have
+   * no new state.
+   */
+  static final class Change {
+    private final long version;
+    private final ChangeType type;
+    private final EventDelta.Subject subject;
+    private final String key;
+    private final Object before;
+    private final Object after;
+    private final Set<String> users;
+
+    /**
+     * Constructs a change with the given version, type, and snapshots.
+     *
+     * @param version The version of the planner after the change.
+     * @param type    The type of the change.
+     * @param subject The kind of thing changed.
+     * @param key     The name of the thing changed.
+     * @param before  A snapshot of the subject before the change, or null if it was added.
+     * @param after   A snapshot of the subject after the change, or null if it was removed.
+     * @param users   The IDs of the users whose schedules the change affected.
+     */
+    private Change(long version, ChangeType type, EventDelta.Subject subject, String key,
+                   Object before, Object after, Set<String> users) {
+      this.version = version;
+      this.type = type;
+      this.subject = subject;
+      this.key = key;
+      this.before = before;
+      this.after = after;
+      this.users = users;
+    }
+
+    /**
+     * Gets the version of the planner after this change.
+     *
+     * @return The version of the change.
+     */
+    long getVersion() {
+      return version;
+    }
+
+    /**
+     * Gets the type of this change.
+     *
+     * @return The type of the change.
+     */
+    ChangeType getType() {
+      return type;
+    }
+
+    /**
+     * Gets the kind of thing this change was made to.
+     *
+     * @return The subject of the change.
+     */
+    EventDelta.Subject getSubject() {
+      return subject;
+    }
+
+    /**
+     * Gets the name of the thing this change was made to, see {@link EventDelta#getKey()}.
+     *
+     * @return The name of the subject.
+     */
+    String getKey() {
+      return key;
+    }
+
+    /**
+     * Gets the IDs of the users whose schedules this change affected.
+     *
+     * @return An unmodifiable set of user IDs.
+     */
+    Set<String> getUsers() {
+      return users;
+    }
+
+    /**
+     * Gets a snapshot of the weekly event before this change.
+     *
+     * @return The event before the change, or null if it was added or the change is not to a
+     *         weekly event.
+     */
+    ReadOnlyEvent getBefore() {
+      return subject == EventDelta.Subject.EVENT ? (ReadOnlyEvent) before : null;
+    }
+
+    /**
+     * Gets a snapshot of the weekly event after this change.
+     *
+     * @return The event after the change, or null if it was removed or the change is not to a
+     *         weekly event.
+     */
+    ReadOnlyEvent getAfter() {
+      return subject == EventDelta.Subject.EVENT ? (ReadOnlyEvent) after : null;
+    }
+
+    /**
+     * Gets the subject before this change, of the type its {@link EventDelta.Subject} names.
+     *
+     * @return The subject before the change, or null if it was added.
+     */
+    Object getBeforeValue() {
+      return before;
+    }
+
+    /**
+     * Gets the subject after this change, of the type its {@link EventDelta.Subject} names.
+     *
+     * @return The subject after the change, or null if it was removed.
+     */
+    Object getAfterValue() {
+      return after;
+    }
+  }
+
+  private final int capacity;
+  private final Deque<Change> changes;
+  private long version;
+
+  /**
+   * Constructs an empty journal at version 0 that retains at most the given number of changes.
+   *
+   * @param capacity The maximum number of changes to retain.
+   * @throws IllegalArgumentException if the capacity is not positive.
+   */
+  ChangeJournal(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Journal capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.changes = new ArrayDeque<>();
+    this.version = 0;
+  }
+
+  /**
+   * Takes a snapshot of an event's current state, independent of later changes to the event.
+   *
+   * @param event The event to take a snapshot of.
+   * @return The snapshot of the event.
+   */
+  static ReadOnlyEvent snapshot(ReadOnlyEvent event) {
+    return new EventBackup(event).toEvent();
+  }
+
+  /**
+   * Records a change of a weekly event and advances the version, dropping the oldest change if
+   * the journal is full. The given events must already be snapshots, see
+   * {@link #snapshot(ReadOnlyEvent)}. The change affects the invitees of both snapshots.
+   *
+   * @param type   The type of the change.
+   * @param before A snapshot of the event before the change, or null if it was added.
+   * @param after  A snapshot of the event after the change, or null if it was removed.
+   * @return The new version.
+   */
+  long record(ChangeType type, ReadOnlyEvent before, ReadOnlyEvent after) {
+    Set<String> users = new LinkedHashSet<>();
+    if (before != null) {
+      users.addAll(before.getInvitees());
+    }
+    if (after != null) {
+      users.addAll(after.getInvitees());
+    }
+    return this.record(EventDelta.Subject.EVENT, type,
+            (after == null ? before : after).getName(), before, after, users);
+  }
+
+  /**
+   * Records a change of any subject and advances the version, dropping the oldest change if the
+   * journal is full. The given values must be immutable, so later changes do not alter them.
+   *
+   * @param subject The kind of thing changed.
+   * @param type    The type of the change.
+   * @param key     The name of the thing changed.
+   * @param before  The subject before the change, or null if it was added.
+   * @param after   The subject after the change, or null if it was removed.
+   * @param users   The IDs of the users whose schedules the change affected.
+   * @return The new version.
+   */
+  long record(EventDelta.Subject subject, ChangeType type, String key, Object before,
+              Object after, Collection<String> users) {
+    if (changes.size() == capacity) {
+      changes.removeFirst();
+    }
+    version++;
+    changes.addLast(new Change(version, type, subject, key, before, after,
+            Collections.unmodifiableSet(new LinkedHashSet<>(users))));
+    return version;
+  }
+
+  /**
+   * Gets the current version, the version of the latest recorded change or 0 if there is none.
+   *
+   * @return The current version.
+   */
+  long getVersion() {
+    return version;
+  }
+
+  /**
+   * Lists every change made after the given version, oldest first.
+   *
+   * @param sinceVersion The version to list the changes after.
+   * @return The changes made after the given version.
+   * @throws IllegalArgumentException if the version is negative or newer than the current one.
+   * @throws IllegalStateException    if some changes after the version are no longer retained.
+   */
+  List<Change> since(long sinceVersion) {
+    if (sinceVersion < 0 || sinceVersion > version) {
+      throw new IllegalArgumentException("Invalid version " + sinceVersion);
+    }
+    long oldestRetained = version - changes.size();
+    if (sinceVersion < oldestRetained) {
+      throw new IllegalStateException("Changes since version " + sinceVersion
+              + " are no longer available");
+    }
+    List<Change> result = new ArrayList<>((int) (version - sinceVersion));
+    // Newest changes are at the end, so walk back only as far as needed
+    Iterator<Change> newestFirst = changes.descendingIterator();
+    for (long i = sinceVersion; i < version; i++) {
+      result.add(newestFirst.next());
+    }
+    Collections.reverse(result);
+    return result;
+  }
+}
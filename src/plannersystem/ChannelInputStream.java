@@ -0,0 +1,158 @@
+package plannersystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * An {@link InputStream} view of a {@link ReadableByteChannel} that reads through a single direct
+ * {@link ByteBuffer}. For channels of a known size, such as file channels, the buffer is sized to
+ * the remaining content, up to a limit, so small files are read with one channel read and large
+ * files with few large ones. Bytes go from the channel into the direct buffer and from there
+ * straight into the parser's own array, without any intermediate heap buffer.
+ *
+ * <p>The channel must be in blocking mode. Closing the stream does not close the channel, which
+ * stays owned by whoever opened it.</p>
+ */
+class ChannelInputStream extends InputStream {
+  private static final int MIN_BUFFER_SIZE = 8 * 1024;
+  private static final int MAX_BUFFER_SIZE = 1024 * 1024;
+  private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  private static final int GZIP_MAGIC_FIRST = 0x1f;
+  private static final int GZIP_MAGIC_SECOND = 0x8b;
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer;
+  private boolean endOfStream;
+
+  /**
+   * Constructs a {@code ChannelInputStream} reading from the given channel through a direct
+   * buffer of the given capacity.
+   *
+   * @param channel  The channel to read from.
+   * @param capacity The capacity of the direct buffer, in bytes.
+   * @throws IllegalArgumentException if the channel is null or the capacity is not positive.
+   */
+  ChannelInputStream(ReadableByteChannel channel, int capacity) {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null");
+    }
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Buffer capacity must be positive");
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(capacity);
+    this.buffer.flip(); // Start out empty and ready for reading
+    this.endOfStream = false;
+  }
+
+  /**
+   * Opens a stream over the given channel, sizing the buffer to the channel's remaining content
+   * when it is known, and transparently decompressing gzip content, which is recognized by its
+   * magic number rather than by a file name.
+   *
+   * @param channel The channel to read from.
+   * @return A stream of the channel's, possibly decompressed, content.
+   * @throws IOException              if an error occurs while reading from the channel.
+   * @throws IllegalArgumentException if the channel is null.
+   */
+  static InputStream open(ReadableByteChannel channel) throws IOException {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null");
+    }
+    ChannelInputStream in = new ChannelInputStream(channel, bufferSizeFor(channel));
+    if (in.startsWith(GZIP_MAGIC_FIRST, GZIP_MAGIC_SECOND)) {
+      // The inflated content is larger than the file, so don't size by the compressed length
+      return new GZIPInputStream(in, DEFAULT_BUFFER_SIZE);
+    }
+    return in;
+  }
+
+  /**
+   * Chooses a buffer size for the given channel: its remaining size, clamped between the minimum
+   * and maximum buffer sizes, if it is known, or the default size otherwise.
+   *
+   * @param channel The channel to size the buffer for.
+   * @return The buffer size, in bytes.
+   * @throws IOException if an error occurs while querying the channel's size.
+   */
+  static int bufferSizeFor(ReadableByteChannel channel) throws IOException {
+    if (!(channel instanceof SeekableByteChannel)) {
+      return DEFAULT_BUFFER_SIZE;
+    }
+    SeekableByteChannel seekable = (SeekableByteChannel) channel;
+    long remaining = seekable.size() - seekable.position();
+    return (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, remaining));
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (!buffer.hasRemaining() && !this.fill()) {
+      return -1;
+    }
+    return buffer.get() & 0xff;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    if (offset < 0 || length < 0 || length > bytes.length - offset) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (length == 0) {
+      return 0;
+    }
+    if (!buffer.hasRemaining() && !this.fill()) {
+      return -1;
+    }
+    int count = Math.min(length, buffer.remaining());
+    buffer.get(bytes, offset, count);
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.remaining();
+  }
+
+  /**
+   * Checks whether the stream starts with the two given bytes, without consuming them.
+   *
+   * @param first  The expected first byte.
+   * @param second The expected second byte.
+   * @return true if the next two bytes of the stream are the given bytes, false otherwise.
+   * @throws IOException if an error occurs while reading from the channel.
+   */
+  private boolean startsWith(int first, int second) throws IOException {
+    while (buffer.remaining() < 2 && !endOfStream) {
+      this.fill();
+    }
+    return buffer.remaining() >= 2
+            && (buffer.get(buffer.position()) & 0xff) == first
+            && (buffer.get(buffer.position() + 1) & 0xff) == second;
+  }
+
+  /**
+   * Moves any unread bytes to the front of the buffer and reads more from the channel after them.
+   *
+   * @return true if the buffer holds unread bytes afterwards, false if the channel is exhausted.
+   * @throws IOException if an error occurs while reading from the channel.
+   */
+  private boolean fill() throws IOException {
+    if (!endOfStream) {
+      buffer.compact();
+      try {
+        int count;
+        do {
+          count = channel.read(buffer);
+        } while (count == 0 && buffer.hasRemaining());
+        endOfStream = count < 0;
+      } finally {
+        buffer.flip();
+      }
+    }
+    return buffer.hasRemaining();
+  }
+}
@@ -0,0 +1,223 @@
+package plannersystem;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+import schedule.Time;
+import schedule.TimeUtilities;
+
+/**
+ * Explains why an event cannot take its time: every user, group or room that is busy then, with
+ * the events keeping them busy and the part of the event's time each one takes, along with the
+ * nearest times before and after it at which nobody is busy. Freeing every blocker listed makes
+ * the time free, and each of them alone keeps it taken, so the blockers are the smallest set to
+ * ask to move.
+ */
+public final class ConflictReport {
+  private final ITime requested;
+  private final List<Conflict> conflicts;
+  private final ITime earlier;
+  private final ITime later;
+
+  /**
+   * A user, group or room busy at some of the requested time, and the event keeping it busy.
+   */
+  public static final class Conflict {
+    private final String blocker;
+    private final String eventName;
+    private final ReadOnlyEvent event;
+    private final ITime overlap;
+
+    /**
+     * Constructs a conflict.
+     *
+     * @param blocker   The ID of the user or group, or the name of the room.
+     * @param eventName The name of the event keeping it busy.
+     * @param event     The event keeping it busy, or null if it is a recurring event.
+     * @param overlap   The part of the requested time the event takes.
+     */
+    Conflict(String blocker, String eventName, ReadOnlyEvent event, ITime overlap) {
+      this.blocker = blocker;
+      this.eventName = eventName;
+      this.event = event;
+      this.overlap = overlap;
+    }
+
+    /**
+     * Gets who or what is busy.
+     *
+     * @return The ID of the user or group, or the name of the room.
+     */
+    public String getBlocker() {
+      return this.blocker;
+    }
+
+    /**
+     * Gets the name of the event keeping the blocker busy.
+     *
+     * @return The name of the event.
+     */
+    public String getEventName() {
+      return this.eventName;
+    }
+
+    /**
+     * Gets the event keeping the blocker busy.
+     *
+     * @return The event, or null if a recurring event keeps the blocker busy.
+     */
+    public ReadOnlyEvent getEvent() {
+      return this.event;
+    }
+
+    /**
+     * Gets the part of the requested time the blocker is busy for.
+     *
+     * @return The overlap of the two events.
+     */
+    public ITime getOverlap() {
+      return this.overlap;
+    }
+
+    @Override
+    public String toString() {
+      return this.blocker + " has " + this.eventName + " from " + format(this.overlap);
+    }
+  }
+
+  /**
+   * Constructs a report.
+   *
+   * @param requested The time requested.
+   * @param conflicts The conflicts found, in order.
+   * @param earlier   The nearest free time before the requested one, or null if there is none.
+   * @param later     The nearest free time after the requested one, or null if there is none.
+   */
+  ConflictReport(ITime requested, List<Conflict> conflicts, ITime earlier, ITime later) {
+    this.requested = requested;
+    this.conflicts = Collections.unmodifiableList(new ArrayList<>(conflicts));
+    this.earlier = earlier;
+    this.later = later;
+  }
+
+  /**
+   * Checks whether anyone is busy at the requested time.
+   *
+   * @return True if there are conflicts, otherwise false.
+   */
+  public boolean hasConflicts() {
+    return !this.conflicts.isEmpty();
+  }
+
+  /**
+   * Gets every conflict, grouped by blocker in the order of the invitees, the room last.
+   *
+   * @return The conflicts, not to be modified.
+   */
+  public List<Conflict> getConflicts() {
+    return this.conflicts;
+  }
+
+  /**
+   * Gets who or what is busy at the requested time, each once.
+   *
+   * @return The blockers, in the order of the conflicts.
+   */
+  public Set<String> getBlockers() {
+    Set<String> blockers = new LinkedHashSet<>();
+    for (Conflict conflict : this.conflicts) {
+      blockers.add(conflict.blocker);
+    }
+    return blockers;
+  }
+
+  /**
+   * Gets the time requested.
+   *
+   * @return The requested time.
+   */
+  public ITime getRequestedTime() {
+    return this.requested;
+  }
+
+  /**
+   * Gets the latest time of the same length, starting earlier in the week than the requested
+   * one, at which nobody is busy.
+   *
+   * @return The earlier time, or null if there is none.
+   */
+  public ITime getEarlierTime() {
+    return this.earlier;
+  }
+
+  /**
+   * Gets the earliest time of the same length, starting later in the week than the requested
+   * one, at which nobody is busy.
+   *
+   * @return The later time, or null if there is none.
+   */
+  public ITime getLaterTime() {
+    return this.later;
+  }
+
+  /**
+   * Describes the conflicts and the nearest free times, for showing to the user.
+   *
+   * @return The description.
+   */
+  public String getSummary() {
+    if (!this.hasConflicts()) {
+      return "There is no time conflict.";
+    }
+    StringBuilder summary = new StringBuilder("There is a time conflict: ");
+    for (int i = 0; i < this.conflicts.size(); i++) {
+      summary.append(i == 0 ? "" : "; ").append(this.conflicts.get(i));
+    }
+    summary.append('.');
+    if (this.earlier != null) {
+      summary.append(" The nearest earlier free time is ").append(format(this.earlier))
+              .append('.');
+    }
+    if (this.later != null) {
+      summary.append(" The nearest later free time is ").append(format(this.later)).append('.');
+    }
+    return summary.toString();
+  }
+
+  /**
+   * Creates the time of a half-open range of the week.
+   *
+   * @param start          The start of the range in minutes since the start of the week.
+   * @param end            The exclusive end of the range, up to twice the minutes in a week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The time.
+   */
+  static ITime timeOf(int start, int end, String firstDayOfWeek) {
+    DayOfWeek first = DayOfWeek.valueOf(firstDayOfWeek.toUpperCase());
+    int endOfWeek = end % TimeUtilities.MINUTES_IN_WEEK;
+    return new Time(
+            TimeUtilities.formatDay(first.plus(start / TimeUtilities.MINUTES_IN_DAY)),
+            TimeUtilities.formatMinuteOfDay(start % TimeUtilities.MINUTES_IN_DAY),
+            TimeUtilities.formatDay(first.plus(endOfWeek / TimeUtilities.MINUTES_IN_DAY)),
+            TimeUtilities.formatMinuteOfDay(endOfWeek % TimeUtilities.MINUTES_IN_DAY));
+  }
+
+  /**
+   * Formats a time as its start and end days and times.
+   *
+   * @param time The time.
+   * @return The formatted time, such as "Tuesday 1100 to Tuesday 1130".
+   */
+  private static String format(ITime time) {
+    return TimeUtilities.formatDay(time.getStartDay()) + " "
+            + TimeUtilities.formatTime(time.getStartTime()) + " to "
+            + TimeUtilities.formatDay(time.getEndDay()) + " "
+            + TimeUtilities.formatTime(time.getEndTime());
+  }
+}
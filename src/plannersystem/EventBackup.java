@@ -3,6 +3,8 @@ package plannersystem;
 import java.util.ArrayList;
 import java.util.List;
 
+import schedule.Event;
+import schedule.IEvent;
 import schedule.ReadOnlyEvent;
 import schedule.TimeUtilities;
 
@@ -28,6 +30,7 @@ class EventBackup {
   private final String place;
   private final boolean isOnline;
   private final List<String> invitees;
+  private final long id;
 
   /**
    * Constructs an {@code EventBackup} object capturing the current state of the specified
@@ -52,6 +55,7 @@ class EventBackup {
     this.place = event.getLocation();
     this.isOnline = event.isOnline();
     this.invitees = new ArrayList<>(event.getInvitees());
+    this.id = event.getId();
   }
 
   /**
@@ -129,4 +133,22 @@ class EventBackup {
     }
     return invitedList;
   }
+
+  /**
+   * Builds a new, independent event holding the backed up details and the original event's ID.
+   * Later changes to the original event do not affect the built event.
+   *
+   * @return A copy of the event as it was when the backup was made.
+   */
+  ReadOnlyEvent toEvent() {
+    IEvent event = new Event(this.id);
+    event.setName(this.name);
+    event.setEventTimes(this.startDay, this.startTime, this.endDay, this.endTime);
+    event.setLocation(this.isOnline, this.place);
+    event.setHost(this.host);
+    for (String invitee : this.invitees) {
+      event.addInvitee(invitee);
+    }
+    return event;
+  }
 }
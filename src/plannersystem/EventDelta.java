@@ -0,0 +1,145 @@
+package plannersystem;
+
+import java.util.Set;
+
+import schedule.ReadOnlyEvent;
+
+/**
+ * A change made to a planner, as snapshots of what changed before and after it. Changes to the
+ * weekly events are keyed by the event's ID: applying the before snapshot through
+ * {@link PlannerSystem#replaceEvent} undoes the change, and applying the after snapshot redoes
+ * it, without searching for the event.
+ *
+ * <p>The other changes, to recurring and dated events, rooms, groups and availability, are
+ * described by their {@link Subject} and the immutable values before and after them, and name
+ * the users whose schedules they affect. They cannot be replayed by ID.</p>
+ */
+public final class EventDelta {
+
+  /**
+   * The kinds of things a change can be made to.
+   */
+  public enum Subject {
+    /**
+     * A weekly event, as {@link ReadOnlyEvent} snapshots.
+     */
+    EVENT,
+    /**
+     * A recurring event, as {@link schedule.RecurringEvent} values.
+     */
+    RECURRING_EVENT,
+    /**
+     * An event on calendar dates, as {@link schedule.DatedEvent} values.
+     */
+    DATED_EVENT,
+    /**
+     * A room, as {@link schedule.Room} values.
+     */
+    ROOM,
+    /**
+     * A group, as the lists of user IDs of its members.
+     */
+    GROUP,
+    /**
+     * A user's shifts, as {@link schedule.AvailabilityProfile} values, null for the standard
+     * working hours.
+     */
+    AVAILABILITY
+  }
+
+  private final long id;
+  private final Subject subject;
+  private final String key;
+  private final Object before;
+  private final Object after;
+  private final Set<String> users;
+
+  /**
+   * Constructs a delta from a recorded change.
+   *
+   * @param change The change.
+   */
+  EventDelta(ChangeJournal.Change change) {
+    ReadOnlyEvent event = change.getBefore() == null ? change.getAfter() : change.getBefore();
+    this.id = event == null ? -1 : event.getId();
+    this.subject = change.getSubject();
+    this.key = change.getKey();
+    this.before = change.getBeforeValue();
+    this.after = change.getAfterValue();
+    this.users = change.getUsers();
+  }
+
+  /**
+   * Gets the ID of the changed event.
+   *
+   * @return The event ID, or -1 if the change is not to a weekly event.
+   */
+  public long getId() {
+    return this.id;
+  }
+
+  /**
+   * Gets the kind of thing the change was made to.
+   *
+   * @return The subject of the change.
+   */
+  public Subject getSubject() {
+    return this.subject;
+  }
+
+  /**
+   * Gets the name of what changed: the name of an event, the name of a room, the ID of a group,
+   * or the ID of the user whose availability changed.
+   *
+   * @return The name of the subject.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * Gets the IDs of the users whose schedules the change affected.
+   *
+   * @return An unmodifiable set of user IDs.
+   */
+  public Set<String> getUsers() {
+    return this.users;
+  }
+
+  /**
+   * Gets the weekly event before the change.
+   *
+   * @return A snapshot of the event, or null if the change added it or is not to a weekly event.
+   */
+  public ReadOnlyEvent getBefore() {
+    return this.subject == Subject.EVENT ? (ReadOnlyEvent) this.before : null;
+  }
+
+  /**
+   * Gets the weekly event after the change.
+   *
+   * @return A snapshot of the event, or null if the change removed it or is not to a weekly
+   *         event.
+   */
+  public ReadOnlyEvent getAfter() {
+    return this.subject == Subject.EVENT ? (ReadOnlyEvent) this.after : null;
+  }
+
+  /**
+   * Gets the value of the subject before the change, of the type its {@link Subject} names.
+   *
+   * @return The value before the change, or null if the change added it.
+   */
+  public Object getBeforeValue() {
+    return this.before;
+  }
+
+  /**
+   * Gets the value of the subject after the change, of the type its {@link Subject} names.
+   *
+   * @return The value after the change, or null if the change removed it.
+   */
+  public Object getAfterValue() {
+    return this.after;
+  }
+}
@@ -0,0 +1,171 @@
+package plannersystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+
+/**
+ * Secondary indexes of the events of a planner by host, by location and by the hours of the week
+ * they take, for answering {@link EventQuery}s without scanning every event. Hours are counted
+ * in a week starting on Monday, so the index does not depend on the planner's first day.
+ *
+ * <p>The keys each event was indexed under are remembered, so an event is removed from the index
+ * correctly even after its details have changed.</p>
+ */
+class EventIndex {
+  private static final int MINUTES_IN_HOUR = 60;
+  private static final int HOURS_IN_WEEK = TimeUtilities.MINUTES_IN_WEEK / MINUTES_IN_HOUR;
+
+  private final Map<String, Set<Long>> byHost = new HashMap<>();
+  private final Map<String, Set<Long>> byLocation = new HashMap<>();
+  private final List<Set<Long>> byHour = new ArrayList<>(HOURS_IN_WEEK);
+  private final Map<Long, Keys> keys = new HashMap<>();
+
+  /**
+   * The keys an event is indexed under.
+   */
+  private static final class Keys {
+    private final String host;
+    private final String location;
+    private final int firstHour;
+    private final int lastHour;
+
+    private Keys(String host, String location, int firstHour, int lastHour) {
+      this.host = host;
+      this.location = location;
+      this.firstHour = firstHour;
+      this.lastHour = lastHour;
+    }
+  }
+
+  /**
+   * Constructs an empty index.
+   */
+  EventIndex() {
+    for (int hour = 0; hour < HOURS_IN_WEEK; hour++) {
+      this.byHour.add(new HashSet<>());
+    }
+  }
+
+  /**
+   * Indexes an event under its current details, replacing any earlier entry for its ID.
+   *
+   * @param event The event.
+   */
+  void add(ReadOnlyEvent event) {
+    this.remove(event.getId());
+    int start = event.getTime().getStartMinute("MONDAY");
+    int end = event.getTime().getEndMinute("MONDAY");
+    Keys entry = new Keys(event.getHost(), EventQuery.locationKey(event.getLocation()),
+            start / MINUTES_IN_HOUR, (end - 1) / MINUTES_IN_HOUR);
+    long id = event.getId();
+    this.byHost.computeIfAbsent(entry.host, key -> new HashSet<>()).add(id);
+    this.byLocation.computeIfAbsent(entry.location, key -> new HashSet<>()).add(id);
+    for (int hour = entry.firstHour; hour <= entry.lastHour; hour++) {
+      this.byHour.get(hour % HOURS_IN_WEEK).add(id);
+    }
+    this.keys.put(id, entry);
+  }
+
+  /**
+   * Removes an event from the index, if present.
+   *
+   * @param id The ID of the event.
+   */
+  void remove(long id) {
+    Keys entry = this.keys.remove(id);
+    if (entry == null) {
+      return;
+    }
+    removeFrom(this.byHost, entry.host, id);
+    removeFrom(this.byLocation, entry.location, id);
+    for (int hour = entry.firstHour; hour <= entry.lastHour; hour++) {
+      this.byHour.get(hour % HOURS_IN_WEEK).remove(id);
+    }
+  }
+
+  /**
+   * Gets the events hosted by a user.
+   *
+   * @param host The user ID of the host.
+   * @return The IDs of the events, not to be modified.
+   */
+  Set<Long> hostedBy(String host) {
+    return this.byHost.getOrDefault(host, Collections.emptySet());
+  }
+
+  /**
+   * Gets the events at a location.
+   *
+   * @param locationKey The key of the location, as {@link EventQuery#locationKey} makes it.
+   * @return The IDs of the events, not to be modified.
+   */
+  Set<Long> at(String locationKey) {
+    return this.byLocation.getOrDefault(locationKey, Collections.emptySet());
+  }
+
+  /**
+   * Counts the entries of the hours a window of the week covers, an upper bound of the number of
+   * events overlapping it that costs one read per hour.
+   *
+   * @param start The start of the window in minutes since the start of a week beginning on Monday.
+   * @param end   The exclusive end of the window, up to twice the minutes in a week.
+   * @return The number of entries.
+   */
+  int countDuring(int start, int end) {
+    int count = 0;
+    for (int hour = start / MINUTES_IN_HOUR; hour <= lastHour(start, end); hour++) {
+      count += this.byHour.get(hour % HOURS_IN_WEEK).size();
+    }
+    return count;
+  }
+
+  /**
+   * Gets the events in the hours a window of the week covers. Some may end before or start after
+   * the window itself, within the same hour.
+   *
+   * @param start The start of the window in minutes since the start of a week beginning on Monday.
+   * @param end   The exclusive end of the window, up to twice the minutes in a week.
+   * @return The IDs of the events.
+   */
+  Set<Long> during(int start, int end) {
+    Set<Long> found = new LinkedHashSet<>();
+    for (int hour = start / MINUTES_IN_HOUR; hour <= lastHour(start, end); hour++) {
+      found.addAll(this.byHour.get(hour % HOURS_IN_WEEK));
+    }
+    return found;
+  }
+
+  /**
+   * Gets the last hour a window covers, covering at most a whole week.
+   *
+   * @param start The start of the window.
+   * @param end   The exclusive end of the window.
+   * @return The last hour, possibly in the next week.
+   */
+  private static int lastHour(int start, int end) {
+    return Math.min((end - 1) / MINUTES_IN_HOUR, start / MINUTES_IN_HOUR + HOURS_IN_WEEK - 1);
+  }
+
+  /**
+   * Removes an ID from the set of a key, dropping the set once it is empty.
+   *
+   * @param index The index.
+   * @param key   The key.
+   * @param id    The ID.
+   */
+  private static void removeFrom(Map<String, Set<Long>> index, String key, long id) {
+    Set<Long> ids = index.get(key);
+    if (ids != null && ids.remove(id) && ids.isEmpty()) {
+      index.remove(key);
+    }
+  }
+}
@@ -0,0 +1,290 @@
+package plannersystem;
+
+import java.time.DayOfWeek;
+import java.util.Locale;
+
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+import validationutilities.ValidationUtilities;
+
+/**
+ * A query over the events of every schedule in a planner, made of any combination of predicates
+ * on the invitees, the host, the location, whether the event is online, a time window of the
+ * planner's week and the start of the name. Queries are immutable: each predicate added returns
+ * a new query, so a query can be built once and reused, for example
+ * {@code EventQuery.all().atLocation("Churchill Hall").online(false)
+ * .during("Tuesday", "1200", "Tuesday", "1700")}.
+ *
+ * <p>The planner answers a query from the index matching its most selective predicate, and
+ * checks the other predicates only on the events that index yields.</p>
+ */
+public final class EventQuery {
+  private static final EventQuery ALL = new EventQuery(null, null, null, null, null, null, -1,
+          null, -1);
+
+  private final String user;
+  private final String host;
+  private final String locationKey;
+  private final Boolean online;
+  private final String namePrefix;
+  private final DayOfWeek fromDay;
+  private final int fromMinuteOfDay;
+  private final DayOfWeek toDay;
+  private final int toMinuteOfDay;
+
+  /**
+   * Constructs a query with the given predicates, null or negative meaning any.
+   *
+   * @param user            The invitee.
+   * @param host            The host.
+   * @param locationKey     The key of the location.
+   * @param online          Whether the events are online.
+   * @param namePrefix      The lower case start of the names.
+   * @param fromDay         The start day of the window.
+   * @param fromMinuteOfDay The start time of the window in minutes since midnight.
+   * @param toDay           The end day of the window.
+   * @param toMinuteOfDay   The end time of the window in minutes since midnight.
+   */
+  private EventQuery(String user, String host, String locationKey, Boolean online,
+                     String namePrefix, DayOfWeek fromDay, int fromMinuteOfDay, DayOfWeek toDay,
+                     int toMinuteOfDay) {
+    this.user = user;
+    this.host = host;
+    this.locationKey = locationKey;
+    this.online = online;
+    this.namePrefix = namePrefix;
+    this.fromDay = fromDay;
+    this.fromMinuteOfDay = fromMinuteOfDay;
+    this.toDay = toDay;
+    this.toMinuteOfDay = toMinuteOfDay;
+  }
+
+  /**
+   * Gets the query matching every event.
+   *
+   * @return The query without predicates.
+   */
+  public static EventQuery all() {
+    return ALL;
+  }
+
+  /**
+   * Restricts the query to the events the given user is invited to, hosts included.
+   *
+   * @param userId The ID of the user.
+   * @return The restricted query.
+   * @throws IllegalArgumentException if the user ID is null.
+   */
+  public EventQuery invitee(String userId) {
+    ValidationUtilities.validateNull(userId);
+    return new EventQuery(userId, this.host, this.locationKey, this.online, this.namePrefix,
+            this.fromDay, this.fromMinuteOfDay, this.toDay, this.toMinuteOfDay);
+  }
+
+  /**
+   * Restricts the query to the events hosted by the given user.
+   *
+   * @param userId The ID of the host.
+   * @return The restricted query.
+   * @throws IllegalArgumentException if the user ID is null.
+   */
+  public EventQuery hostedBy(String userId) {
+    ValidationUtilities.validateNull(userId);
+    return new EventQuery(this.user, userId, this.locationKey, this.online, this.namePrefix,
+            this.fromDay, this.fromMinuteOfDay, this.toDay, this.toMinuteOfDay);
+  }
+
+  /**
+   * Restricts the query to the events at the given location, ignoring case and surrounding
+   * whitespace.
+   *
+   * @param location The location.
+   * @return The restricted query.
+   * @throws IllegalArgumentException if the location is null or blank.
+   */
+  public EventQuery atLocation(String location) {
+    if (location == null || location.isBlank()) {
+      throw new IllegalArgumentException("Invalid location");
+    }
+    return new EventQuery(this.user, this.host, locationKey(location), this.online,
+            this.namePrefix, this.fromDay, this.fromMinuteOfDay, this.toDay, this.toMinuteOfDay);
+  }
+
+  /**
+   * Restricts the query to the events that are online, or to those that are in person.
+   *
+   * @param isOnline True for online events, false for in-person events.
+   * @return The restricted query.
+   */
+  public EventQuery online(boolean isOnline) {
+    return new EventQuery(this.user, this.host, this.locationKey, isOnline, this.namePrefix,
+            this.fromDay, this.fromMinuteOfDay, this.toDay, this.toMinuteOfDay);
+  }
+
+  /**
+   * Restricts the query to the events whose names start with the given prefix, ignoring case.
+   *
+   * @param prefix The start of the names.
+   * @return The restricted query.
+   * @throws IllegalArgumentException if the prefix is null.
+   */
+  public EventQuery nameStartsWith(String prefix) {
+    ValidationUtilities.validateNull(prefix);
+    return new EventQuery(this.user, this.host, this.locationKey, this.online,
+            prefix.toLowerCase(Locale.ROOT), this.fromDay, this.fromMinuteOfDay, this.toDay,
+            this.toMinuteOfDay);
+  }
+
+  /**
+   * Restricts the query to the events overlapping the given window of the week. Like an event,
+   * a window ending on an earlier day than it starts continues into the next week.
+   *
+   * @param startDay  The start day of the window.
+   * @param startTime The start time of the window, in HHmm format.
+   * @param endDay    The end day of the window.
+   * @param endTime   The end time of the window, in HHmm format.
+   * @return The restricted query.
+   * @throws IllegalArgumentException if a day or time is invalid, or the window is empty.
+   */
+  public EventQuery during(String startDay, String startTime, String endDay, String endTime) {
+    DayOfWeek from = TimeUtilities.parseDay(startDay);
+    int fromMinute = TimeUtilities.parseMinuteOfDay(startTime);
+    DayOfWeek to = TimeUtilities.parseDay(endDay);
+    int toMinute = TimeUtilities.parseMinuteOfDay(endTime);
+    if (from == to && fromMinute == toMinute) {
+      throw new IllegalArgumentException("The window cannot be empty");
+    }
+    return new EventQuery(this.user, this.host, this.locationKey, this.online, this.namePrefix,
+            from, fromMinute, to, toMinute);
+  }
+
+  /**
+   * Checks whether an event satisfies every predicate of this query.
+   *
+   * @param event          The event.
+   * @param firstDayOfWeek The first day of the planner's week.
+   * @return True if the event matches, otherwise false.
+   * @throws IllegalArgumentException if either is null.
+   */
+  public boolean matches(ReadOnlyEvent event, String firstDayOfWeek) {
+    ValidationUtilities.validateNull(event);
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    if (this.host != null && !this.host.equals(event.getHost())) {
+      return false;
+    }
+    if (this.online != null && this.online != event.isOnline()) {
+      return false;
+    }
+    if (this.locationKey != null && !this.locationKey.equals(locationKey(event.getLocation()))) {
+      return false;
+    }
+    if (this.namePrefix != null
+            && !event.getName().toLowerCase(Locale.ROOT).startsWith(this.namePrefix)) {
+      return false;
+    }
+    if (this.user != null && !event.getInvitees().contains(this.user)) {
+      return false;
+    }
+    return !this.hasWindow() || this.overlapsWindow(event, firstDayOfWeek);
+  }
+
+  /**
+   * Gets a copy of this query without its invitee, for when the candidates already are the
+   * invitee's events, including those the invitee has through a group.
+   *
+   * @return The query matching any invitee.
+   */
+  EventQuery anyInvitee() {
+    return new EventQuery(null, this.host, this.locationKey, this.online, this.namePrefix,
+            this.fromDay, this.fromMinuteOfDay, this.toDay, this.toMinuteOfDay);
+  }
+
+  /**
+   * Gets the user whose events are queried.
+   *
+   * @return The user ID, or null for any user.
+   */
+  String getUser() {
+    return this.user;
+  }
+
+  /**
+   * Gets the host whose events are queried.
+   *
+   * @return The user ID, or null for any host.
+   */
+  String getHost() {
+    return this.host;
+  }
+
+  /**
+   * Gets the key of the location queried, as the index stores it.
+   *
+   * @return The location key, or null for any location.
+   */
+  String getLocationKey() {
+    return this.locationKey;
+  }
+
+  /**
+   * Checks whether the query has a time window.
+   *
+   * @return True if the events must overlap a window, otherwise false.
+   */
+  boolean hasWindow() {
+    return this.fromDay != null;
+  }
+
+  /**
+   * Gets the start of the window in minutes since the start of a week beginning on Monday.
+   *
+   * @return The start minute of the window.
+   */
+  int getWindowStart() {
+    return TimeUtilities.minuteOfWeek(this.fromDay, this.fromMinuteOfDay, "MONDAY");
+  }
+
+  /**
+   * Gets the end of the window in minutes since the start of a week beginning on Monday. A
+   * window continuing into the next week ends after {@link TimeUtilities#MINUTES_IN_WEEK}.
+   *
+   * @return The exclusive end minute of the window.
+   */
+  int getWindowEnd() {
+    return TimeUtilities.endMinuteOfWeek(this.getWindowStart(), this.toDay, this.toMinuteOfDay,
+            "MONDAY");
+  }
+
+  /**
+   * Gets the key locations are indexed and compared by.
+   *
+   * @param location The location.
+   * @return The trimmed, lower case location.
+   */
+  static String locationKey(String location) {
+    return location.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Checks whether an event overlaps the window of this query in the planner's week.
+   *
+   * @param event          The event.
+   * @param firstDayOfWeek The first day of the planner's week.
+   * @return True if the event overlaps the window, otherwise false.
+   */
+  private boolean overlapsWindow(ReadOnlyEvent event, String firstDayOfWeek) {
+    int start = TimeUtilities.minuteOfWeek(this.fromDay, this.fromMinuteOfDay, firstDayOfWeek);
+    int end = TimeUtilities.endMinuteOfWeek(start, this.toDay, this.toMinuteOfDay,
+            firstDayOfWeek);
+    int eventStart = event.getTime().getStartMinute(firstDayOfWeek);
+    int eventEnd = event.getTime().getEndMinute(firstDayOfWeek);
+    // either may continue into the next week, so compare them a week either way too
+    for (int shift = -TimeUtilities.MINUTES_IN_WEEK; shift <= TimeUtilities.MINUTES_IN_WEEK;
+         shift += TimeUtilities.MINUTES_IN_WEEK) {
+      if (eventStart + shift < end && start < eventEnd + shift) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,163 @@
+package plannersystem;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+
+/**
+ * The {@code EventRecord} class is a lightweight, not yet validated form of an event read from an
+ * XML document. It holds only what conflict validation needs, the parsed start and end of the
+ * event and the IDs of its users, together with the raw text of its remaining fields.
+ *
+ * <p>Imports first check every record of a batch for conflicts and only then materialize full
+ * {@link Event} objects through {@link #toEvent()}, so rejected imports never pay for building
+ * and validating events that are thrown away.</p>
+ */
+class EventRecord {
+  private final DayOfWeek startDay;
+  private final int startMinuteOfDay;
+  private final DayOfWeek endDay;
+  private final int endMinuteOfDay;
+  private final List<String> users;
+  private String name;
+  private boolean isOnline;
+  private String place;
+
+  /**
+   * Constructs an {@code EventRecord} from the parsed times of an event and its user IDs.
+   *
+   * @param startDay         The start day of the event.
+   * @param startMinuteOfDay The start time of the event, in minutes since midnight.
+   * @param endDay           The end day of the event.
+   * @param endMinuteOfDay   The end time of the event, in minutes since midnight.
+   * @param users            The IDs of the event's users, the host first.
+   * @throws IllegalArgumentException If the event starts and ends at the same time or has no
+   *                                  users.
+   */
+  private EventRecord(DayOfWeek startDay, int startMinuteOfDay, DayOfWeek endDay,
+                      int endMinuteOfDay, List<String> users) {
+    if (startDay == endDay && startMinuteOfDay == endMinuteOfDay) {
+      throw new IllegalArgumentException("An event cannot start and end at the same "
+              + "time on the same day.");
+    }
+    if (users.isEmpty()) {
+      throw new IllegalArgumentException("An event must have a host");
+    }
+    this.startDay = startDay;
+    this.startMinuteOfDay = startMinuteOfDay;
+    this.endDay = endDay;
+    this.endMinuteOfDay = endMinuteOfDay;
+    this.users = users;
+  }
+
+  /**
+   * Creates a record from a streamed event whose times have already been parsed.
+   *
+   * @param name             The raw name of the event.
+   * @param startDay         The start day of the event.
+   * @param startMinuteOfDay The start time of the event, in minutes since midnight.
+   * @param endDay           The end day of the event.
+   * @param endMinuteOfDay   The end time of the event, in minutes since midnight.
+   * @param isOnline         Whether the event is online.
+   * @param place            The raw place of the event.
+   * @param users            The IDs of the event's users, the host first.
+   * @return The created record.
+   * @throws IllegalArgumentException If a time is missing or invalid, or the event has no users.
+   */
+  static EventRecord of(String name, DayOfWeek startDay, int startMinuteOfDay, DayOfWeek endDay,
+                        int endMinuteOfDay, boolean isOnline, String place, List<String> users) {
+    if (startDay == null || endDay == null || startMinuteOfDay < 0 || endMinuteOfDay < 0) {
+      throw new IllegalArgumentException("The chosen time is invalid");
+    }
+    EventRecord record = new EventRecord(startDay, startMinuteOfDay, endDay, endMinuteOfDay,
+            users);
+    record.name = name;
+    record.isOnline = isOnline;
+    record.place = place;
+    return record;
+  }
+
+  /**
+   * Gets the start of the event in minutes since the start of the week.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The start minute of the event.
+   */
+  int getStartMinute(String firstDayOfWeek) {
+    return TimeUtilities.minuteOfWeek(startDay, startMinuteOfDay, firstDayOfWeek);
+  }
+
+  /**
+   * Gets the exclusive end of the event in minutes since the start of the week, adjusted past the
+   * end of the week for events that continue into a new week.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The end minute of the event.
+   */
+  int getEndMinute(String firstDayOfWeek) {
+    return TimeUtilities.endMinuteOfWeek(this.getStartMinute(firstDayOfWeek), endDay,
+            endMinuteOfDay, firstDayOfWeek);
+  }
+
+  /**
+   * Gets the IDs of the event's users, the host first.
+   *
+   * @return A copy of the list of user IDs.
+   */
+  List<String> getUsers() {
+    return new ArrayList<>(users);
+  }
+
+  /**
+   * Gets the ID of the event's host, its first user.
+   *
+   * @return The host's user ID.
+   */
+  String getHost() {
+    return users.get(0);
+  }
+
+  /**
+   * Gets whether the event is online.
+   *
+   * @return True if the event is online, otherwise false.
+   */
+  boolean isOnline() {
+    return isOnline;
+  }
+
+  /**
+   * Gets the raw place of the event.
+   *
+   * @return The place, as it was read.
+   */
+  String getPlace() {
+    return place;
+  }
+
+  /**
+   * Builds the full event described by this record. Every field goes through the usual event
+   * validation. As with schedule files, the first user is the host of the event.
+   *
+   * @return The materialized event.
+   * @throws IllegalArgumentException If any of the event's details are invalid.
+   */
+  ReadOnlyEvent toEvent() {
+    IEvent event = new Event();
+    event.setName(name);
+    event.setEventTimes(TimeUtilities.formatDay(startDay),
+            TimeUtilities.formatMinuteOfDay(startMinuteOfDay), TimeUtilities.formatDay(endDay),
+            TimeUtilities.formatMinuteOfDay(endMinuteOfDay));
+    event.setLocation(isOnline, place);
+    event.setHost(users.get(0));
+    for (String uid : users) {
+      event.addInvitee(uid);
+    }
+    return event;
+  }
+}
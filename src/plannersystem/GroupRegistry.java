@@ -0,0 +1,303 @@
+package plannersystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import schedule.ISchedule;
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+import schedule.Schedule;
+import schedule.WeekBitmap;
+
+/**
+ * The groups of a planner, such as the students of a course, which can be invited to an event
+ * as a whole by the group's ID. A group's events are stored once, in the group's own schedule,
+ * which the schedules of its members link to instead of holding a copy each; the membership is
+ * only expanded when it is needed, such as for counting heads.
+ *
+ * <p>Conflicts with a whole group are checked against a bitmap of the minutes any member is
+ * busy, built once and kept until a member's schedule or the membership changes, so adding an
+ * event for hundreds of members costs a few word reads rather than hundreds of schedule
+ * scans.</p>
+ */
+class GroupRegistry {
+  private final Map<String, Group> groups = new HashMap<>();
+  private final Map<String, Set<String>> groupsOf = new HashMap<>();
+
+  /**
+   * A group with its members, its schedule and the cached bitmap of its members' busy minutes.
+   */
+  private static final class Group {
+    private final Set<String> members = new LinkedHashSet<>();
+    private final ISchedule schedule;
+    private long membership;
+    private WeekBitmap busy;
+    private long busyMembership = -1;
+    private long busyVersions;
+    private String busyFirstDay;
+
+    private Group(String groupId) {
+      this.schedule = new Schedule(groupId);
+    }
+  }
+
+  /**
+   * Checks whether an ID is the ID of a group.
+   *
+   * @param id The ID.
+   * @return True if it names a group, otherwise false.
+   */
+  boolean isGroup(String id) {
+    return this.groups.containsKey(id);
+  }
+
+  /**
+   * Gets the IDs of every group.
+   *
+   * @return The group IDs, in order.
+   */
+  Set<String> getGroups() {
+    return new TreeSet<>(this.groups.keySet());
+  }
+
+  /**
+   * Adds a group without members.
+   *
+   * @param groupId The ID of the group.
+   * @throws IllegalArgumentException if a group of that ID exists.
+   */
+  void add(String groupId) {
+    if (this.groups.containsKey(groupId)) {
+      throw new IllegalArgumentException("Group " + groupId + " already exists");
+    }
+    this.groups.put(groupId, new Group(groupId));
+  }
+
+  /**
+   * Removes a group without events, unlinking its schedule from its members'.
+   *
+   * @param groupId The ID of the group.
+   * @param users   The schedules of the users.
+   * @return True if the group was removed, false if there is no such group.
+   * @throws IllegalArgumentException if the group still has events.
+   */
+  boolean remove(String groupId, Map<String, ISchedule> users) {
+    Group group = this.groups.get(groupId);
+    if (group == null) {
+      return false;
+    }
+    if (!group.schedule.getEvents().isEmpty()) {
+      throw new IllegalArgumentException("Group " + groupId + " still has events");
+    }
+    for (String member : new ArrayList<>(group.members)) {
+      this.removeMember(groupId, member, users.get(member));
+    }
+    this.groups.remove(groupId);
+    return true;
+  }
+
+  /**
+   * Gets the members of a group.
+   *
+   * @param groupId The ID of the group.
+   * @return The user IDs of the members, in the order they joined.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  List<String> getMembers(String groupId) {
+    return new ArrayList<>(this.groupOf(groupId).members);
+  }
+
+  /**
+   * Gets the groups a user belongs to.
+   *
+   * @param userId The user ID.
+   * @return The IDs of the user's groups.
+   */
+  Set<String> groupsOf(String userId) {
+    return new LinkedHashSet<>(this.groupsOf.getOrDefault(userId, Collections.emptySet()));
+  }
+
+  /**
+   * Gets the schedule of a group, which holds the events the group is invited to.
+   *
+   * @param groupId The ID of the group.
+   * @return The group's schedule.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  ISchedule scheduleOf(String groupId) {
+    return this.groupOf(groupId).schedule;
+  }
+
+  /**
+   * Adds a user to a group, linking the group's schedule to the user's.
+   *
+   * @param groupId  The ID of the group.
+   * @param userId   The user ID.
+   * @param schedule The user's schedule.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  void addMember(String groupId, String userId, ISchedule schedule) {
+    Group group = this.groupOf(groupId);
+    if (group.members.add(userId)) {
+      group.membership++;
+      this.groupsOf.computeIfAbsent(userId, key -> new LinkedHashSet<>()).add(groupId);
+      schedule.addGroup(group.schedule);
+    }
+  }
+
+  /**
+   * Removes a user from a group, unlinking the group's schedule from the user's.
+   *
+   * @param groupId  The ID of the group.
+   * @param userId   The user ID.
+   * @param schedule The user's schedule.
+   * @return True if the user was a member, otherwise false.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  boolean removeMember(String groupId, String userId, ISchedule schedule) {
+    Group group = this.groupOf(groupId);
+    if (!group.members.remove(userId)) {
+      return false;
+    }
+    group.membership++;
+    Set<String> joined = this.groupsOf.get(userId);
+    joined.remove(groupId);
+    if (joined.isEmpty()) {
+      this.groupsOf.remove(userId);
+    }
+    schedule.removeGroup(group.schedule);
+    return true;
+  }
+
+  /**
+   * Checks whether any member of a group, or the group itself, is busy at some minute of a range
+   * of the week.
+   *
+   * @param groupId        The ID of the group.
+   * @param start          The start of the range in minutes since the start of the week.
+   * @param end            The exclusive end of the range, up to twice the minutes in a week.
+   * @param users          The schedules of the users.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if someone is busy, otherwise false.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  boolean isBusy(String groupId, int start, int end, Map<String, ISchedule> users,
+                 String firstDayOfWeek) {
+    return this.busy(this.groupOf(groupId), users, firstDayOfWeek).isBusy(start, end);
+  }
+
+  /**
+   * Marks the minutes any member of a group, or the group itself, is busy as busy in a bitmap.
+   *
+   * @param groupId        The ID of the group.
+   * @param bitmap         The bitmap.
+   * @param users          The schedules of the users.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  void markBusy(String groupId, WeekBitmap bitmap, Map<String, ISchedule> users,
+                String firstDayOfWeek) {
+    bitmap.setBusy(this.busy(this.groupOf(groupId), users, firstDayOfWeek));
+  }
+
+  /**
+   * Gets a schedule that is busy exactly when some member of a group, or the group itself, is,
+   * for a strategy to check the whole group at once. The schedule only answers conflict checks
+   * and holds no events.
+   *
+   * @param groupId        The ID of the group.
+   * @param users          The schedules of the users.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The schedule of the group's busy time.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  ISchedule availability(String groupId, Map<String, ISchedule> users, String firstDayOfWeek) {
+    Group group = this.groupOf(groupId);
+    return new Schedule(groupId) {
+      @Override
+      public boolean overlap(ReadOnlyEvent newEvent, String firstDay) {
+        ITime time = newEvent.getTime();
+        return this.overlap(time.getStartMinute(firstDay), time.getEndMinute(firstDay),
+                firstDay);
+      }
+
+      @Override
+      public boolean overlap(int startMinute, int endMinute, String firstDay) {
+        return busy(group, users, firstDayOfWeek).isBusy(startMinute, endMinute);
+      }
+    };
+  }
+
+  /**
+   * Expands a list of invitees into the users they stand for, each once.
+   *
+   * @param invitees The user and group IDs.
+   * @return The user IDs, the users invited directly first.
+   */
+  Set<String> expand(List<String> invitees) {
+    Set<String> expanded = new LinkedHashSet<>();
+    for (String invitee : invitees) {
+      if (!this.groups.containsKey(invitee)) {
+        expanded.add(invitee);
+      }
+    }
+    for (String invitee : invitees) {
+      Group group = this.groups.get(invitee);
+      if (group != null) {
+        expanded.addAll(group.members);
+      }
+    }
+    return expanded;
+  }
+
+  /**
+   * Gets the bitmap of the minutes any member of a group, or the group itself, is busy,
+   * rebuilding it if the membership, a member's schedule or the first day of the week changed
+   * since it was built. Schedule versions only ever increase, so an unchanged membership with
+   * an unchanged sum of versions means no schedule changed.
+   *
+   * @param group          The group.
+   * @param users          The schedules of the users.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The busy minutes of the group.
+   */
+  private WeekBitmap busy(Group group, Map<String, ISchedule> users, String firstDayOfWeek) {
+    long versions = group.schedule.getVersion();
+    for (String member : group.members) {
+      versions += users.get(member).getVersion();
+    }
+    if (group.busy == null || group.busyMembership != group.membership
+            || group.busyVersions != versions || !firstDayOfWeek.equals(group.busyFirstDay)) {
+      WeekBitmap busy = WeekBitmap.of(group.schedule, firstDayOfWeek);
+      for (String member : group.members) {
+        busy.setBusy(WeekBitmap.of(users.get(member), firstDayOfWeek));
+      }
+      group.busy = busy;
+      group.busyMembership = group.membership;
+      group.busyVersions = versions;
+      group.busyFirstDay = firstDayOfWeek;
+    }
+    return group.busy;
+  }
+
+  /**
+   * Gets a group by its ID.
+   *
+   * @param groupId The ID of the group.
+   * @return The group.
+   * @throws IllegalArgumentException if there is no such group.
+   */
+  private Group groupOf(String groupId) {
+    Group group = this.groups.get(groupId);
+    if (group == null) {
+      throw new IllegalArgumentException("Group " + groupId + " does not exist");
+    }
+    return group;
+  }
+}
@@ -2,27 +2,44 @@ package plannersystem;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
+import schedule.DatedSchedule;
+import schedule.DatedTime;
 import schedule.IEvent;
 import schedule.ISchedule;
+import schedule.ITime;
 import schedule.ReadOnlyEvent;
+import schedule.RecurringEvent;
+import schedule.Room;
+import schedule.TimeUtilities;
+import schedule.WeekBitmap;
 import schedulestrategy.ScheduleStrategy;
 import controller.Observer;
 import schedule.Event;
@@ -37,9 +54,26 @@ import validationutilities.ValidationUtilities;
  * and events from XML files.
  */
 public class NUPlannerSystem implements PlannerSystem {
+  private static final int JOURNAL_CAPACITY = 10000;
+
   private final Map<String, ISchedule> users;
   private final List<Observer> observers = new ArrayList<>();
+  private final ChangeJournal journal = new ChangeJournal(JOURNAL_CAPACITY);
+  // kept in step with the keys of users, for prefix lookups
+  private final UserIndex userIndex = new UserIndex();
+  // kept across calls so unchanged events are not formatted again
+  private final ScheduleView scheduleView = new ScheduleViewModel(this);
   private ScheduleStrategy scheduleStrategy;
+  // the users' events on calendar dates, kept alongside their weekly schedules
+  private final Map<String, DatedSchedule> datedSchedules = new HashMap<>();
+  // kept in step with the events in the schedules, for lookups by ID
+  private final Map<Long, IEvent> eventsById = new HashMap<>();
+  // answers queries over all the schedules by host, location and hour of the week
+  private final EventIndex eventIndex = new EventIndex();
+  // the rooms in-person events are held in, checked for conflicts like the invitees
+  private final RoomRegistry rooms = new RoomRegistry();
+  // the groups that can be invited as a whole, whose events their members' schedules link to
+  private final GroupRegistry groups = new GroupRegistry();
 
   private String firstDayOfWeek;
 
@@ -71,22 +105,27 @@ public class NUPlannerSystem implements PlannerSystem {
   @Override
   public void readUserSchedule(File xmlFile) {
     ValidationUtilities.validateNull(xmlFile);
-    try {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder builder = factory.newDocumentBuilder();
-      Document document = builder.parse(xmlFile);
-      document.getDocumentElement().normalize();
-      processXmlDocument(document);
-    } catch (ParserConfigurationException ex) {
-      throw new IllegalStateException("Error in creating the builder");
+    // streamed like the other overloads, so recurring and dated events are read as well
+    this.readUserSchedule(xmlFile.toPath());
+  }
+
+  @Override
+  public void readUserSchedule(Path xmlPath) {
+    ValidationUtilities.validateNull(xmlPath);
+    try (FileChannel channel = FileChannel.open(xmlPath, StandardOpenOption.READ)) {
+      this.readUserSchedule(channel);
     } catch (IOException ioEx) {
       throw new IllegalStateException("Error in opening the file");
-    } catch (SAXException saxEx) {
-      throw new IllegalStateException("Error in parsing the file");
-    } catch (IllegalArgumentException e) {
-      throw new IllegalArgumentException(e.getMessage());
     }
-    this.notifyObservers();
+  }
+
+  @Override
+  public void readUserSchedule(ReadableByteChannel channel) {
+    ValidationUtilities.validateNull(channel);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    this.addDocumentIfValid(this.readChannel(channel));
+    this.notifyObservers(version, userCount);
   }
 
   @Override
@@ -96,38 +135,142 @@ public class NUPlannerSystem implements PlannerSystem {
     }
     this.validateUserExists(userId);
     try {
-      ScheduleXMLWriter.writeScheduleToXML(this.getSchedule(userId), filePath);
+      DatedSchedule dated = this.datedSchedules.get(userId);
+      ScheduleXMLWriter.writeScheduleToXML(this.getSchedule(userId),
+              dated == null ? List.of() : dated.getEvents(), filePath);
     } catch (Exception e) {
       throw new IllegalStateException(e.getMessage());
     }
   }
 
+  @Override
+  public void readPlanner(File xmlFile) {
+    ValidationUtilities.validateNull(xmlFile);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    PlannerXMLReader planner;
+    try (FileChannel channel = FileChannel.open(xmlFile.toPath(), StandardOpenOption.READ)) {
+      planner = this.readChannel(channel);
+    } catch (IOException ioEx) {
+      throw new IllegalStateException("Error in opening the file");
+    }
+    this.addDocumentIfValid(planner);
+    for (String user : planner.getUsers()) {
+      if (this.users.putIfAbsent(user, new Schedule(user)) == null) {
+        this.userIndex.add(user);
+      }
+    }
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void savePlanner(String filePath) {
+    if (filePath == null || filePath.trim().isEmpty()) {
+      throw new IllegalArgumentException("File path cannot be null or empty");
+    }
+    try {
+      PlannerXMLWriter.writePlannerToXML(new ArrayList<>(this.users.values()),
+              this.datedSchedules.values(), filePath);
+    } catch (Exception e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+  }
+
+  @Override
+  public long getVersion() {
+    return this.journal.getVersion();
+  }
+
+  @Override
+  public void exportChanges(long sinceVersion, OutputStream out) {
+    ValidationUtilities.validateNull(out);
+    List<ChangeJournal.Change> changes = this.journal.since(sinceVersion);
+    try {
+      PlannerXMLWriter.writeChangesToXML(changes, sinceVersion, this.journal.getVersion(), out);
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException(e.getMessage());
+    }
+  }
+
+  @Override
+  public List<EventDelta> getChangesSince(long sinceVersion) {
+    List<EventDelta> deltas = new ArrayList<>();
+    for (ChangeJournal.Change change : this.journal.since(sinceVersion)) {
+      deltas.add(new EventDelta(change));
+    }
+    return deltas;
+  }
+
+  @Override
+  public ReadOnlyEvent getEventById(long id) {
+    return this.eventsById.get(id);
+  }
+
+  @Override
+  public Stream<ReadOnlyEvent> findEvents(EventQuery query) {
+    ValidationUtilities.validateNull(query);
+    String firstDay = this.getFirstDayOfWeek();
+    // start from the smallest set of candidates any index yields for the query
+    Collection<Long> candidates = this.eventsById.keySet();
+    EventQuery filter = query;
+    if (query.getUser() != null) {
+      ISchedule schedule = this.groups.isGroup(query.getUser())
+              ? this.groups.scheduleOf(query.getUser()) : this.users.get(query.getUser());
+      if (schedule == null) {
+        return Stream.empty();
+      }
+      candidates = schedule.getEvents().stream().map(ReadOnlyEvent::getId)
+              .collect(Collectors.toList());
+      // the schedule holds exactly the user's events, including those of the user's groups
+      filter = query.anyInvitee();
+    }
+    if (query.getHost() != null && this.eventIndex.hostedBy(query.getHost()).size()
+            < candidates.size()) {
+      candidates = this.eventIndex.hostedBy(query.getHost());
+    }
+    if (query.getLocationKey() != null && this.eventIndex.at(query.getLocationKey()).size()
+            < candidates.size()) {
+      candidates = this.eventIndex.at(query.getLocationKey());
+    }
+    if (query.hasWindow() && this.eventIndex.countDuring(query.getWindowStart(),
+            query.getWindowEnd()) < candidates.size()) {
+      candidates = this.eventIndex.during(query.getWindowStart(), query.getWindowEnd());
+    }
+    // the candidates are copied so the stream is not affected by later changes to the indexes
+    List<Long> ids = new ArrayList<>(candidates);
+    Collections.sort(ids);
+    EventQuery rest = filter;
+    return ids.stream()
+            .<ReadOnlyEvent>map(this.eventsById::get)
+            .filter(event -> event != null && rest.matches(event, firstDay));
+  }
+
   @Override
   public String displayUserSchedule(String userId) {
     this.validateUserExists(userId);
-    ScheduleView scheduleView = new ScheduleViewModel(this);
-    return scheduleView.render(userId);
+    return this.scheduleView.render(userId);
   }
 
   @Override
   public void createEvent(String userId, String name, String startDay, String startTime,
                           String endDay, String endTime, boolean isOnline, String location,
                           List<String> invitees) {
-    IEvent newEvent = new Event();
-    newEvent.setName(name);
-    newEvent.setEventTimes(startDay, startTime, endDay, endTime);
-    newEvent.setLocation(isOnline, location);
-    newEvent.setHost(userId);
-    newEvent.setInvitees(invitees);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    IEvent newEvent = this.buildEvent(userId, name, startDay, startTime, endDay, endTime,
+            isOnline, location, invitees);
     this.validateEventTime(newEvent);
     this.addEventToSchedules(newEvent);
-    this.notifyObservers();
+    this.recordAdded(newEvent);
+    this.notifyObservers(version, userCount);
   }
 
   @Override
   public void modifyEvent(String userId, ReadOnlyEvent event, String name, String startDay,
                           String startTime, String endDay, String endTime, boolean isOnline,
                           String location, List<String> invitees) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
     ValidationUtilities.validateNull(event);
     this.validateUserExists(userId);
     this.validateEventExists(userId, event);
@@ -153,17 +296,27 @@ public class NUPlannerSystem implements PlannerSystem {
       this.addEventToSchedules(curEvent);
       throw e;
     }
-    this.notifyObservers();
+    this.journal.record(ChangeJournal.ChangeType.MODIFY, backup.toEvent(),
+            ChangeJournal.snapshot(curEvent));
+    this.notifyObservers(version, userCount);
   }
 
   @Override
   public void removeEvent(String userId, ReadOnlyEvent event) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
     ValidationUtilities.validateNull(event);
     this.validateUserExists(userId);
     this.validateEventExists(userId, event);
     ReadOnlyEvent originalEvent = this.users.get(userId).getEvent(event);
+    if (!originalEvent.getInvitees().contains(userId)) {
+      throw new IllegalArgumentException("User " + userId + " is invited through a group, and "
+              + "must leave the group instead.");
+    }
+    ReadOnlyEvent before = ChangeJournal.snapshot(originalEvent);
     if (userId.equals(originalEvent.getHost())) {
       this.removeEventFromSchedules(originalEvent);
+      this.journal.record(ChangeJournal.ChangeType.REMOVE, before, null);
     } else {
       this.getSchedule(userId).removeEvent(originalEvent);
       List<String> invitees = originalEvent.getInvitees();
@@ -171,13 +324,17 @@ public class NUPlannerSystem implements PlannerSystem {
       invitees.remove(userId);
       ((IEvent) originalEvent).setInvitees(invitees);
       this.addEventToSchedules(originalEvent);
+      this.journal.record(ChangeJournal.ChangeType.MODIFY, before,
+              ChangeJournal.snapshot(originalEvent));
     }
-    this.notifyObservers();
+    this.notifyObservers(version, userCount);
   }
 
   @Override
   public void scheduleEvent(String userId, String name, boolean isOnline, String location,
                             int duration, List<String> invitees) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
     if (scheduleStrategy == null) {
       throw new IllegalStateException("Schedule strategy is not set");
     }
@@ -188,20 +345,326 @@ public class NUPlannerSystem implements PlannerSystem {
     newEvent.setLocation(isOnline, location);
     newEvent.setHost(userId);
     newEvent.setInvitees(invitees);
+    this.validateHost(newEvent);
 
     // Retrieve schedules for all invitees to check for availability
     List<ISchedule> scheduleList = this.getSchedules(newEvent);
+    // an event held in a room also needs the room to be free, though the room is no attendee
+    this.rooms.validateCapacity(newEvent, this.headcount(newEvent));
+    List<ISchedule> resources = new ArrayList<>();
+    if (this.rooms.scheduleOf(newEvent) != null) {
+      resources.add(this.rooms.scheduleOf(newEvent));
+    }
 
     // Attempt to schedule the event using the current scheduling strategy
-    ReadOnlyEvent scheduled = this.scheduleStrategy.scheduleEvent(newEvent, duration, scheduleList);
+    ReadOnlyEvent scheduled = this.scheduleStrategy.scheduleEvent(newEvent, duration, scheduleList,
+            resources);
 
     // If a suitable time slot is found, add the event to schedules; otherwise, throw an exception
     if (scheduled != null) {
       this.addEventToSchedules(scheduled);
+      this.recordAdded(scheduled);
     } else {
       throw new IllegalArgumentException("No available time to schedule this event");
     }
-    this.notifyObservers();
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void scheduleEventInRoom(String userId, String name, int duration,
+                                  List<String> invitees) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    if (scheduleStrategy == null) {
+      throw new IllegalStateException("Schedule strategy is not set");
+    }
+    this.scheduleStrategy.setFirstDayOfWeek(this.firstDayOfWeek);
+    IEvent newEvent = new Event();
+    newEvent.setName(name);
+    // the location is set once a room is chosen for the time found
+    newEvent.setLocation(false, "To be decided");
+    newEvent.setHost(userId);
+    newEvent.setInvitees(invitees);
+    this.validateHost(newEvent);
+    int people = this.headcount(newEvent);
+    if (this.rooms.maxCapacity() < people) {
+      throw new IllegalArgumentException("No room holds " + people + " people");
+    }
+
+    List<ISchedule> scheduleList = this.getSchedules(newEvent);
+    ReadOnlyEvent scheduled = this.scheduleStrategy.scheduleEvent(newEvent, duration, scheduleList,
+            List.of(this.rooms.availability(people, this.firstDayOfWeek)));
+    if (scheduled == null) {
+      throw new IllegalArgumentException("No available time to schedule this event");
+    }
+    ITime time = scheduled.getTime();
+    Room room = this.rooms.findFreeRoom(people, time.getStartMinute(this.firstDayOfWeek),
+            time.getEndMinute(this.firstDayOfWeek), this.firstDayOfWeek);
+    if (room == null) {
+      throw new IllegalArgumentException("No room is free at the time found for this event");
+    }
+    newEvent.setLocation(false, room.getName());
+    this.addEventToSchedules(newEvent);
+    this.recordAdded(newEvent);
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void addRoom(Room room) {
+    ValidationUtilities.validateNull(room);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    // the in-person events already held at the room's name must fit in it before it is added
+    List<ReadOnlyEvent> held = new ArrayList<>();
+    WeekBitmap booked = new WeekBitmap();
+    for (long id : this.eventIndex.at(EventQuery.locationKey(room.getName()))) {
+      ReadOnlyEvent event = this.eventsById.get(id);
+      if (event.isOnline()) {
+        continue;
+      }
+      if (this.headcount(event) > room.getCapacity()) {
+        throw new IllegalArgumentException("Room " + room.getName() + " holds only "
+                + room.getCapacity() + " people, too few for " + event.getName() + ".");
+      }
+      ITime time = event.getTime();
+      int start = time.getStartMinute(this.weekStart());
+      int end = time.getEndMinute(this.weekStart());
+      if (booked.isBusy(start, end)) {
+        throw new IllegalArgumentException("Events held at " + room.getName() + " overlap.");
+      }
+      booked.setBusy(start, end);
+      held.add(event);
+    }
+    this.rooms.add(room);
+    for (ReadOnlyEvent event : held) {
+      this.rooms.book(event);
+    }
+    this.journal.record(EventDelta.Subject.ROOM, ChangeJournal.ChangeType.ADD, room.getName(),
+            null, room, List.of());
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public boolean removeRoom(String name) {
+    ValidationUtilities.validateNull(name);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    Room room = this.rooms.getRooms().stream().filter(held -> held.getName().equals(name))
+            .findFirst().orElse(null);
+    boolean removed = this.rooms.remove(name);
+    if (removed) {
+      this.journal.record(EventDelta.Subject.ROOM, ChangeJournal.ChangeType.REMOVE, name, room,
+              null, List.of());
+      this.notifyObservers(version, userCount);
+    }
+    return removed;
+  }
+
+  @Override
+  public void addGroup(String groupId, List<String> members) {
+    if (groupId == null || groupId.isBlank()) {
+      throw new IllegalArgumentException("Invalid group ID");
+    }
+    if (members == null || members.stream().anyMatch(member -> member == null)) {
+      throw new IllegalArgumentException("Invalid list of members");
+    }
+    if (this.users.containsKey(groupId)) {
+      throw new IllegalArgumentException("A user already has this ID.");
+    }
+    if (members.stream().anyMatch(this.groups::isGroup) || members.contains(groupId)) {
+      throw new IllegalArgumentException("A group cannot be a member of a group");
+    }
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    this.groups.add(groupId);
+    this.journal.record(EventDelta.Subject.GROUP, ChangeJournal.ChangeType.ADD, groupId, null,
+            List.of(), List.of(groupId));
+    this.notifyObservers(version, userCount);
+    for (String member : members) {
+      this.addGroupMember(groupId, member);
+    }
+  }
+
+  @Override
+  public boolean removeGroup(String groupId) {
+    ValidationUtilities.validateNull(groupId);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    List<String> members = this.groups.isGroup(groupId)
+            ? List.copyOf(this.groups.getMembers(groupId)) : List.of();
+    boolean removed = this.groups.remove(groupId, this.users);
+    if (removed) {
+      List<String> affected = new ArrayList<>(members);
+      affected.add(groupId);
+      this.journal.record(EventDelta.Subject.GROUP, ChangeJournal.ChangeType.REMOVE, groupId,
+              members, null, affected);
+      this.notifyObservers(version, userCount);
+    }
+    return removed;
+  }
+
+  @Override
+  public void addGroupMember(String groupId, String userId) {
+    ValidationUtilities.validateNull(groupId);
+    ValidationUtilities.validateNull(userId);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    if (this.groups.isGroup(userId)) {
+      throw new IllegalArgumentException("A group cannot be a member of a group");
+    }
+    ISchedule group = this.groups.scheduleOf(groupId);
+    ISchedule schedule = this.users.getOrDefault(userId, new Schedule(userId));
+    if (this.groups.getMembers(groupId).contains(userId)) {
+      return;
+    }
+    for (ReadOnlyEvent event : group.getEvents()) {
+      if (!schedule.hasEvent(event) && schedule.overlap(event, this.firstDayOfWeek)) {
+        throw new IllegalArgumentException("There is a time conflict between " + userId
+                + "'s schedule and the events of " + groupId + ".");
+      }
+    }
+    for (RecurringEvent event : group.getRecurringEvents()) {
+      if (schedule.overlap(event, this.firstDayOfWeek)) {
+        throw new IllegalArgumentException("There is a time conflict between " + userId
+                + "'s schedule and the events of " + groupId + ".");
+      }
+    }
+    if (!this.users.containsKey(userId)) {
+      this.users.put(userId, schedule);
+      this.userIndex.add(userId);
+    }
+    List<String> before = List.copyOf(this.groups.getMembers(groupId));
+    this.groups.addMember(groupId, userId, schedule);
+    this.journal.record(EventDelta.Subject.GROUP, ChangeJournal.ChangeType.MODIFY, groupId,
+            before, List.copyOf(this.groups.getMembers(groupId)), List.of(groupId, userId));
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public boolean removeGroupMember(String groupId, String userId) {
+    ValidationUtilities.validateNull(groupId);
+    ValidationUtilities.validateNull(userId);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    List<String> before = List.copyOf(this.groups.getMembers(groupId));
+    boolean removed = this.groups.removeMember(groupId, userId, this.users.get(userId));
+    if (removed) {
+      this.journal.record(EventDelta.Subject.GROUP, ChangeJournal.ChangeType.MODIFY, groupId,
+              before, List.copyOf(this.groups.getMembers(groupId)), List.of(groupId, userId));
+      this.notifyObservers(version, userCount);
+    }
+    return removed;
+  }
+
+  @Override
+  public void replaceEvent(long id, ReadOnlyEvent state) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    IEvent current = this.eventsById.get(id);
+    if (current == null && state == null) {
+      throw new IllegalArgumentException("There is no event with ID " + id);
+    }
+    if (current == null) {
+      IEvent event = new Event(id);
+      this.restoreEventFromBackup(event, new EventBackup(state));
+      this.validateEventTime(event);
+      this.addEventToSchedules(event);
+      this.recordAdded(event);
+    } else if (state == null) {
+      ReadOnlyEvent before = ChangeJournal.snapshot(current);
+      this.removeEventFromSchedules(current);
+      this.journal.record(ChangeJournal.ChangeType.REMOVE, before, null);
+    } else {
+      EventBackup backup = this.backupEventDetails(current);
+      this.removeEventFromSchedules(current);
+      try {
+        this.restoreEventFromBackup(current, new EventBackup(state));
+        this.validateEventTime(current);
+        this.addEventToSchedules(current);
+      } catch (RuntimeException e) {
+        this.restoreEventFromBackup(current, backup);
+        this.addEventToSchedules(current);
+        throw e;
+      }
+      this.journal.record(ChangeJournal.ChangeType.MODIFY, backup.toEvent(),
+              ChangeJournal.snapshot(current));
+    }
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void addRecurringEvent(RecurringEvent event) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    ValidationUtilities.validateNull(event);
+    this.validateRecurringEvent(event);
+    this.putRecurringEvent(event);
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void removeRecurringEvent(String userId, RecurringEvent event) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    ValidationUtilities.validateNull(event);
+    this.validateUserExists(userId);
+    if (!this.users.get(userId).getRecurringEvents().contains(event)) {
+      throw new IllegalArgumentException("This event does not exist in " + userId + " schedule");
+    }
+    if (userId.equals(event.getHost())) {
+      for (String user : event.getInvitees()) {
+        if (users.containsKey(user)) {
+          users.get(user).removeRecurringEvent(event);
+        }
+      }
+    } else {
+      this.users.get(userId).removeRecurringEvent(event);
+    }
+    // an invitee leaving only takes the event out of their own schedule
+    this.journal.record(EventDelta.Subject.RECURRING_EVENT, ChangeJournal.ChangeType.REMOVE,
+            event.getName(), event, null,
+            userId.equals(event.getHost()) ? event.getInvitees() : List.of(userId));
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void addDatedEvent(DatedEvent event) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    ValidationUtilities.validateNull(event);
+    this.validateDatedEvent(event);
+    this.putDatedEvent(event);
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public void removeDatedEvent(String userId, DatedEvent event) {
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    ValidationUtilities.validateNull(event);
+    this.validateUserExists(userId);
+    DatedSchedule schedule = this.datedSchedules.get(userId);
+    if (schedule == null || !schedule.hasEvent(event)) {
+      throw new IllegalArgumentException("This event does not exist in " + userId + " schedule");
+    }
+    if (userId.equals(event.getHost())) {
+      for (String user : event.getInvitees()) {
+        if (this.datedSchedules.containsKey(user)) {
+          this.datedSchedules.get(user).removeEvent(event);
+        }
+      }
+    } else {
+      schedule.removeEvent(event);
+    }
+    this.journal.record(EventDelta.Subject.DATED_EVENT, ChangeJournal.ChangeType.REMOVE,
+            event.getName(), event, null,
+            userId.equals(event.getHost()) ? event.getInvitees() : List.of(userId));
+    this.notifyObservers(version, userCount);
+  }
+
+  @Override
+  public PlannerTransaction beginTransaction() {
+    return new OverlayTransaction();
   }
 
   @Override
@@ -237,6 +700,7 @@ public class NUPlannerSystem implements PlannerSystem {
 
     for (ReadOnlyEvent event: events) {
       this.addEventToSchedules(event);
+      this.recordAdded(event);
     }
   }
 
@@ -246,8 +710,21 @@ public class NUPlannerSystem implements PlannerSystem {
     if (this.users.containsKey(userId)) {
       throw new IllegalArgumentException("User already exists.");
     }
+    if (this.groups.isGroup(userId)) {
+      throw new IllegalArgumentException("A group already has this ID.");
+    }
 
     this.users.put(userId, new Schedule(userId));
+    this.userIndex.add(userId);
+  }
+
+  @Override
+  public void setAvailability(String userId, AvailabilityProfile profile) {
+    ValidationUtilities.validateNull(userId);
+    long version = this.journal.getVersion();
+    int userCount = this.users.size();
+    this.putAvailability(this.getSchedule(userId), profile);
+    this.notifyObservers(version, userCount);
   }
 
   @Override
@@ -256,11 +733,25 @@ public class NUPlannerSystem implements PlannerSystem {
     if (!this.users.containsKey(userId)) {
       return false;
     }
+    for (String group : this.groups.groupsOf(userId)) {
+      this.removeGroupMember(group, userId);
+    }
     List<ReadOnlyEvent> events = this.users.get(userId).getEvents();
     for (ReadOnlyEvent event : events) {
       this.removeEvent(userId, event);
     }
+    for (RecurringEvent event : this.users.get(userId).getRecurringEvents()) {
+      this.removeRecurringEvent(userId, event);
+    }
+    DatedSchedule dated = this.datedSchedules.get(userId);
+    if (dated != null) {
+      for (DatedEvent event : dated.getEvents()) {
+        this.removeDatedEvent(userId, event);
+      }
+      this.datedSchedules.remove(userId);
+    }
     this.users.remove(userId);
+    this.userIndex.remove(userId);
     return true;
   }
 
@@ -296,11 +787,58 @@ public class NUPlannerSystem implements PlannerSystem {
     return users.get(userId);
   }
 
+  @Override
+  public List<Room> getRooms() {
+    return this.rooms.getRooms();
+  }
+
+  @Override
+  public Set<String> getGroups() {
+    return this.groups.getGroups();
+  }
+
+  @Override
+  public List<String> getGroupMembers(String groupId) {
+    ValidationUtilities.validateNull(groupId);
+    return this.groups.getMembers(groupId);
+  }
+
   @Override
   public Set<String> getUsers() {
     return users.keySet();
   }
 
+  @Override
+  public List<String> findUsers(String prefix, int limit) {
+    ValidationUtilities.validateNull(prefix);
+    if (limit < 0) {
+      throw new IllegalArgumentException("Limit cannot be negative");
+    }
+    return this.userIndex.find(prefix, limit);
+  }
+
+  @Override
+  public List<DatedEvent> getDatedEvents(String userId, LocalDateTime from, LocalDateTime to) {
+    ValidationUtilities.validateNull(userId);
+    DatedSchedule schedule = this.datedSchedules.getOrDefault(userId, new DatedSchedule(userId));
+    return schedule.getEvents(from, to);
+  }
+
+  @Override
+  public DatedTime findDatedTime(List<String> userIds, LocalDateTime from, LocalDateTime to,
+                                 int duration) {
+    if (userIds == null || userIds.stream().anyMatch(user -> user == null)) {
+      throw new IllegalArgumentException("Invalid list of users");
+    }
+    List<DatedSchedule> schedules = new ArrayList<>();
+    for (String user : userIds) {
+      if (this.datedSchedules.containsKey(user)) {
+        schedules.add(this.datedSchedules.get(user));
+      }
+    }
+    return DatedSchedule.findFreeTime(schedules, from, to, duration);
+  }
+
   @Override
   public boolean checkEventConflict(ReadOnlyEvent event) {
     ValidationUtilities.validateNull(event);
@@ -312,6 +850,108 @@ public class NUPlannerSystem implements PlannerSystem {
     }
   }
 
+  @Override
+  public ConflictReport explainConflicts(ReadOnlyEvent event) {
+    ValidationUtilities.validateNull(event);
+    ITime time = event.getTime();
+    int start = time.getStartMinute(this.firstDayOfWeek);
+    int end = time.getEndMinute(this.firstDayOfWeek);
+    // an event being changed does not conflict with its own earlier state
+    ReadOnlyEvent original = this.eventsById.get(event.getId());
+    List<String> invitees = event.getInvitees();
+    Map<String, List<ConflictReport.Conflict>> byBlocker = new LinkedHashMap<>();
+    for (String invitee : invitees) {
+      byBlocker.putIfAbsent(invitee, new ArrayList<>());
+      if (this.groups.isGroup(invitee)) {
+        for (String member : this.groups.getMembers(invitee)) {
+          byBlocker.putIfAbsent(member, new ArrayList<>());
+        }
+      }
+    }
+    Room room = this.rooms.roomOf(event);
+    if (room != null) {
+      byBlocker.putIfAbsent(room.getName(), new ArrayList<>());
+    }
+
+    // one pass over the events indexed under the hours the event takes
+    for (long id : this.eventIndex.during(time.getStartMinute("MONDAY"),
+            time.getEndMinute("MONDAY"))) {
+      ReadOnlyEvent other = this.eventsById.get(id);
+      ITime otherTime = other.getTime();
+      int[] overlap = overlap(start, end, otherTime.getStartMinute(this.firstDayOfWeek),
+              otherTime.getEndMinute(this.firstDayOfWeek));
+      if (other == original || overlap == null) {
+        continue;
+      }
+      Set<String> blockers = new LinkedHashSet<>();
+      for (String invitee : other.getInvitees()) {
+        if (byBlocker.containsKey(invitee)) {
+          blockers.add(invitee);
+        } else if (this.groups.isGroup(invitee)) {
+          for (String member : this.groups.getMembers(invitee)) {
+            if (byBlocker.containsKey(member)) {
+              blockers.add(member);
+            }
+          }
+        }
+      }
+      if (room != null && room == this.rooms.roomOf(other)) {
+        blockers.add(room.getName());
+      }
+      for (String blocker : blockers) {
+        byBlocker.get(blocker).add(new ConflictReport.Conflict(blocker, other.getName(), other,
+                ConflictReport.timeOf(overlap[0], overlap[1], this.firstDayOfWeek)));
+      }
+    }
+    for (Map.Entry<String, List<ConflictReport.Conflict>> entry : byBlocker.entrySet()) {
+      ISchedule schedule = this.users.get(entry.getKey());
+      if (schedule == null) {
+        continue;
+      }
+      for (RecurringEvent recurring : schedule.getRecurringEvents()) {
+        for (int[] range : recurring.getRule().weeklyRanges(this.firstDayOfWeek)) {
+          int[] overlap = overlap(start, end, range[0], range[1]);
+          if (overlap != null) {
+            entry.getValue().add(new ConflictReport.Conflict(entry.getKey(), recurring.getName(),
+                    null, ConflictReport.timeOf(overlap[0], overlap[1], this.firstDayOfWeek)));
+          }
+        }
+      }
+    }
+    List<ConflictReport.Conflict> conflicts = new ArrayList<>();
+    for (List<ConflictReport.Conflict> found : byBlocker.values()) {
+      found.sort(Comparator.comparingInt(
+          conflict -> conflict.getOverlap().getStartMinute(this.firstDayOfWeek)));
+      conflicts.addAll(found);
+    }
+
+    // the nearest free times, with groups checked through their cached busy minutes
+    WeekBitmap blocked = new WeekBitmap();
+    for (String invitee : invitees) {
+      if (!this.groups.isGroup(invitee)) {
+        if (this.users.containsKey(invitee)) {
+          this.markBusy(this.users.get(invitee), original, blocked);
+        }
+      } else if (original == null) {
+        this.groups.markBusy(invitee, blocked, this.users, this.firstDayOfWeek);
+      } else {
+        // the cached minutes would include those of the event's earlier state
+        this.markBusy(this.groups.scheduleOf(invitee), original, blocked);
+        for (String member : this.groups.getMembers(invitee)) {
+          this.markBusy(this.users.get(member), original, blocked);
+        }
+      }
+    }
+    this.rooms.markBooked(event, original, blocked, this.firstDayOfWeek);
+    int earlier = blocked.findFreeBefore(start, end - start);
+    int later = blocked.findFree(start + 1, end - start);
+    return new ConflictReport(time, conflicts,
+            earlier == -1 ? null : ConflictReport.timeOf(earlier, earlier + end - start,
+                    this.firstDayOfWeek),
+            later == -1 ? null : ConflictReport.timeOf(later, later + end - start,
+                    this.firstDayOfWeek));
+  }
+
   @Override
   public String getFirstDayOfWeek() {
     ValidationUtilities.validateGetNull(this.firstDayOfWeek);
@@ -319,96 +959,291 @@ public class NUPlannerSystem implements PlannerSystem {
   }
 
   /**
-   * Notifies all the model observers when the model has been mutated.
+   * Notifies all the model observers when the model has been mutated, describing the change
+   * through the journal records made since the given version. If the change is too large for the
+   * journal to still hold all of its records, the observers are notified without a description.
+   *
+   * @param version   The journal version before the change.
+   * @param userCount The number of users before the change.
    */
-  private void notifyObservers() {
+  private void notifyObservers(long version, int userCount) {
+    PlannerChangeEvent change;
+    try {
+      change = PlannerChangeEvent.fromChanges(this.journal.since(version),
+              this.users.size() != userCount, this.groups);
+    } catch (IllegalStateException e) {
+      for (Observer observer : observers) {
+        observer.update();
+      }
+      return;
+    }
     for (Observer observer : observers) {
-      observer.update();
+      observer.update(change);
     }
   }
 
   /**
-   * Processes the XML document to extract and add events to the system.
-   * It iterates through all "event" nodes, parses each to create Event objects,
-   * and validates them before adding to the system. If any event fails validation,
-   * the process is aborted, and no events are added.
+   * Streams a schedule or planner XML document, possibly gzip-compressed, from the given channel.
+   * The channel is not closed.
    *
-   * @param document The XML Document representing the user's schedule.
-   * @throws IllegalArgumentException If event validation fails for any event.
-   */
-  private void processXmlDocument(Document document) {
-    List<ReadOnlyEvent> tempEvents = new ArrayList<>();
-    NodeList eventNodes = document.getElementsByTagName("event");
-    boolean validationFailed = false;
-
-    for (int i = 0; i < eventNodes.getLength() && !validationFailed; i++) {
-      Node node = eventNodes.item(i);
-      if (node.getNodeType() == Node.ELEMENT_NODE) {
-        Element eventElement = (Element) node;
-        ReadOnlyEvent event = parseEventFromElement(eventElement);
-
-        try {
-          this.validateEventTime(event); // Validate the event against all invitees' schedules
-          tempEvents.add(event); // Temporarily store the event if it passes validation
-        } catch (IllegalArgumentException e) {
-          validationFailed = true; // Abort adding events if any validation fails
+   * @param channel The channel to read the document from.
+   * @return The reader holding the users and event records found in the document.
+   * @throws IllegalStateException    if there's an error reading or parsing the document.
+   * @throws IllegalArgumentException if an event in the document contains invalid data.
+   */
+  private PlannerXMLReader readChannel(ReadableByteChannel channel) {
+    try (InputStream in = ChannelInputStream.open(channel)) {
+      return PlannerXMLReader.read(in);
+    } catch (IOException ioEx) {
+      throw new IllegalStateException("Error in opening the file");
+    } catch (XMLStreamException xmlEx) {
+      throw new IllegalStateException("Error in parsing the file");
+    }
+  }
+
+  /**
+   * Validates everything read from a schedule or planner document and, only if all of it passes,
+   * adds it: the events first, then the recurring and dated events, and last the availability
+   * profiles. Recurring and dated events are checked against the schedules, the events of the
+   * document and each other, so if any of them conflicts, nothing is added.
+   *
+   * @param document The document read.
+   * @throws IllegalArgumentException If validation fails for anything in the document.
+   */
+  private void addDocumentIfValid(PlannerXMLReader document) {
+    List<EventRecord> records = document.getRecords();
+    List<RecurringEvent> recurring = document.getRecurringEvents();
+    List<DatedEvent> dated = document.getDatedEvents();
+    for (int i = 0; i < recurring.size(); i++) {
+      RecurringEvent event = recurring.get(i);
+      this.validateRecurringEvent(event);
+      for (String user : event.getInvitees()) {
+        for (EventRecord record : records) {
+          if (this.groups.expand(record.getUsers()).contains(user)
+                  && event.getRule().overlaps(record.getStartMinute(firstDayOfWeek),
+                          record.getEndMinute(firstDayOfWeek), firstDayOfWeek)) {
+            throw new IllegalArgumentException("Event validation failed. No events were added.");
+          }
+        }
+        for (RecurringEvent other : recurring.subList(0, i)) {
+          if (other.getInvitees().contains(user)
+                  && event.getRule().overlaps(other.getRule(), firstDayOfWeek)) {
+            throw new IllegalArgumentException("Event validation failed. No events were added.");
+          }
+        }
+      }
+    }
+    for (int i = 0; i < dated.size(); i++) {
+      DatedEvent event = dated.get(i);
+      this.validateDatedEvent(event);
+      int[] range = event.getTime().weeklyRange(this.weekStart());
+      for (String user : event.getInvitees()) {
+        for (EventRecord record : records) {
+          if (this.groups.expand(record.getUsers()).contains(user)
+                  && overlap(range[0], range[1], record.getStartMinute(this.weekStart()),
+                          record.getEndMinute(this.weekStart())) != null) {
+            throw new IllegalArgumentException("Event validation failed. No events were added.");
+          }
+        }
+        for (RecurringEvent other : recurring) {
+          if (other.getInvitees().contains(user)
+                  && other.getRule().overlaps(range[0], range[1], this.weekStart())) {
+            throw new IllegalArgumentException("Event validation failed. No events were added.");
+          }
+        }
+      }
+      for (DatedEvent other : dated.subList(0, i)) {
+        if (event.getTime().overlaps(other.getTime()) && (this.rooms.sameRoom(event, other)
+                || !Collections.disjoint(event.getInvitees(), other.getInvitees()))) {
+          throw new IllegalArgumentException("Event validation failed. No events were added.");
         }
       }
     }
 
-    // If all events passed validation, add them to the schedules
-    if (!validationFailed) {
-      for (ReadOnlyEvent event : tempEvents) {
-        addEventToSchedules(event);
+    this.addRecordsIfValid(records);
+    for (RecurringEvent event : recurring) {
+      this.putRecurringEvent(event);
+    }
+    for (DatedEvent event : dated) {
+      this.putDatedEvent(event);
+    }
+    for (Map.Entry<String, AvailabilityProfile> entry : document.getAvailability().entrySet()) {
+      this.putAvailability(this.scheduleOrNew(entry.getKey()), entry.getValue());
+    }
+  }
+
+  /**
+   * Checks a recurring event against the schedules of its invitees.
+   *
+   * @param event The recurring event.
+   * @throws IllegalArgumentException if a group is invited, or an occurrence conflicts with an
+   *                                  invitee's schedule.
+   */
+  private void validateRecurringEvent(RecurringEvent event) {
+    this.validateNoGroups(event.getInvitees());
+    for (String user : event.getInvitees()) {
+      if (users.containsKey(user) && users.get(user).overlap(event, firstDayOfWeek)) {
+        throw new IllegalArgumentException("There is a time conflict in " + user + "'s "
+                + "schedule.");
       }
-    } else {
-      throw new IllegalArgumentException("Event validation failed. No events were added.");
     }
   }
 
   /**
-   * Parses an individual event element from the XML document and constructs an Event object.
-   * The method extracts event details such as name, time, location, and invitees,
-   * and sets the host of the event to the first invitee read from the XML.
+   * Adds a validated recurring event to the schedules of its invitees, creating the schedules of
+   * new users, and records it in the journal.
    *
-   * @param eventElement The XML Element representing an event.
-   * @return The constructed Event object populated with details from the XML element.
+   * @param event The recurring event.
    */
-  private ReadOnlyEvent parseEventFromElement(Element eventElement) {
-    IEvent event = new Event();
+  private void putRecurringEvent(RecurringEvent event) {
+    for (String user : event.getInvitees()) {
+      this.scheduleOrNew(user).addRecurringEvent(event);
+    }
+    this.journal.record(EventDelta.Subject.RECURRING_EVENT, ChangeJournal.ChangeType.ADD,
+            event.getName(), null, event, event.getInvitees());
+  }
 
-    // Parse and set the event name
-    String eventName = eventElement.getElementsByTagName("name").item(0).getTextContent();
-    event.setName(eventName);
+  /**
+   * Checks a dated event against the dated schedules of its invitees, and against their weekly
+   * and recurring events on the day of the week and at the time it falls on. An event held in a
+   * room must fit in it, and the room must be free of weekly bookings and other dated events.
+   *
+   * @param event The dated event.
+   * @throws IllegalArgumentException if a group is invited, the event conflicts with an invitee's
+   *                                  schedule, or its room is too small or already booked.
+   */
+  private void validateDatedEvent(DatedEvent event) {
+    this.validateNoGroups(event.getInvitees());
+    DatedTime time = event.getTime();
+    int[] range = time.weeklyRange(this.weekStart());
+    for (String user : event.getInvitees()) {
+      DatedSchedule schedule = this.datedSchedules.get(user);
+      if (schedule != null && schedule.overlap(time.getStartMinute(), time.getEndMinute())
+              || users.containsKey(user) && WeekBitmap.of(users.get(user), this.weekStart())
+                      .isBusy(range[0], range[1])) {
+        throw new IllegalArgumentException("There is a time conflict in " + user + "'s "
+                + "schedule.");
+      }
+    }
+    this.rooms.validateBooking(event, event.getInvitees().size(), this.weekStart());
+    if (event.isOnline()) {
+      return;
+    }
+    for (DatedSchedule schedule : this.datedSchedules.values()) {
+      for (DatedEvent other : schedule.getEvents(time.getStartMinute(), time.getEndMinute())) {
+        if (this.rooms.sameRoom(event, other)) {
+          throw new IllegalArgumentException("Room " + event.getLocation() + " is already "
+                  + "booked at that time.");
+        }
+      }
+    }
+  }
 
-    // Parse and set event times
-    Element timeElement = (Element) eventElement.getElementsByTagName("time").item(0);
-    String startDay = timeElement.getElementsByTagName("start-day").item(0).getTextContent();
-    String startTime = timeElement.getElementsByTagName("start").item(0).getTextContent();
-    String endDay = timeElement.getElementsByTagName("end-day").item(0).getTextContent();
-    String endTime = timeElement.getElementsByTagName("end").item(0).getTextContent();
-    event.setEventTimes(startDay, startTime, endDay, endTime);
+  /**
+   * Adds a validated dated event to the dated schedules of its invitees, creating the schedules
+   * of new users, and records it in the journal.
+   *
+   * @param event The dated event.
+   */
+  private void putDatedEvent(DatedEvent event) {
+    for (String user : event.getInvitees()) {
+      this.scheduleOrNew(user);
+      this.datedSchedules.computeIfAbsent(user, DatedSchedule::new).addEvent(event);
+    }
+    this.journal.record(EventDelta.Subject.DATED_EVENT, ChangeJournal.ChangeType.ADD,
+            event.getName(), null, event, event.getInvitees());
+  }
+
+  /**
+   * Sets the availability of a user and records the change in the journal.
+   *
+   * @param schedule The schedule of the user.
+   * @param profile  The availability profile, or null for the standard working hours.
+   */
+  private void putAvailability(ISchedule schedule, AvailabilityProfile profile) {
+    AvailabilityProfile before = schedule.getAvailability();
+    schedule.setAvailability(profile);
+    this.journal.record(EventDelta.Subject.AVAILABILITY, ChangeJournal.ChangeType.MODIFY,
+            schedule.getUserName(), before, profile, List.of(schedule.getUserName()));
+  }
+
+  /**
+   * Gets the schedule of a user, adding the user with an empty schedule if they are new.
+   *
+   * @param userId The ID of the user.
+   * @return The user's schedule.
+   */
+  private ISchedule scheduleOrNew(String userId) {
+    ISchedule schedule = this.users.get(userId);
+    if (schedule == null) {
+      schedule = new Schedule(userId);
+      this.users.put(userId, schedule);
+      this.userIndex.add(userId);
+    }
+    return schedule;
+  }
 
-    // Parse and set the event location
-    Element locationElement = (Element) eventElement.getElementsByTagName("location").item(0);
-    boolean online = Boolean.parseBoolean(locationElement.getElementsByTagName("online")
-            .item(0).getTextContent());
-    String place = locationElement.getElementsByTagName("place").item(0).getTextContent();
-    event.setLocation(online, place);
+  /**
+   * Gets the first day of the week to measure minutes of the week from in conflict checks. The
+   * checks do not depend on which day it is, so they can run before the first day is set.
+   *
+   * @return The first day of the week, or Sunday if it is not set.
+   */
+  private String weekStart() {
+    return this.firstDayOfWeek == null ? "SUNDAY" : this.firstDayOfWeek;
+  }
 
-    // Parse and add invitees
-    NodeList userIds = ((Element) eventElement.getElementsByTagName("users").item(0))
-            .getElementsByTagName("uid");
-    for (int j = 0; j < userIds.getLength(); j++) {
-      String uid = userIds.item(j).getTextContent();
-      // Add the first invitee as the host
-      if (j == 0) {
-        event.setHost(uid);
+  /**
+   * Validates a batch of event records, which must be hosted by users rather than groups, against
+   * all their users' schedules and the rooms they are held in, and the records held in the same
+   * room against each other. Only if every record passes are the full events built and added to
+   * the schedules. If any record fails validation, the process is aborted before any event is
+   * built, and no events are added.
+   *
+   * @param records The records of the events to be validated and added.
+   * @throws IllegalArgumentException If event validation fails for any event, or an event
+   *                                  contains invalid details.
+   */
+  private void addRecordsIfValid(List<EventRecord> records) {
+    // the minutes each room is booked by the records checked so far
+    Map<Room, WeekBitmap> booked = new HashMap<>();
+    for (EventRecord record : records) {
+      this.validateHost(record.getHost());
+      Room room = this.rooms.roomOf(record.isOnline(), record.getPlace());
+      if (room != null) {
+        int start = record.getStartMinute(this.weekStart());
+        int end = record.getEndMinute(this.weekStart());
+        this.rooms.validateBooking(record.isOnline(), record.getPlace(), start, end,
+                this.groups.expand(record.getUsers()).size(), this.weekStart());
+        WeekBitmap roomBooked = booked.computeIfAbsent(room, r -> new WeekBitmap());
+        if (roomBooked.isBusy(start, end)) {
+          throw new IllegalArgumentException("Event validation failed. No events were added.");
+        }
+        roomBooked.setBusy(start, end);
+      }
+      for (String user : record.getUsers()) {
+        boolean busy = this.groups.isGroup(user)
+                ? this.groups.isBusy(user, record.getStartMinute(firstDayOfWeek),
+                        record.getEndMinute(firstDayOfWeek), this.users, firstDayOfWeek)
+                : users.containsKey(user) && users.get(user).overlap(
+                        record.getStartMinute(firstDayOfWeek), record.getEndMinute(firstDayOfWeek),
+                        firstDayOfWeek);
+        if (busy) {
+          // Abort adding events if any validation fails
+          throw new IllegalArgumentException("Event validation failed. No events were added.");
+        }
       }
-      event.addInvitee(uid);
     }
 
-    return event;
+    // All events passed validation, build them and add them to the schedules
+    List<ReadOnlyEvent> events = new ArrayList<>();
+    for (EventRecord record : records) {
+      events.add(record.toEvent());
+    }
+    for (ReadOnlyEvent event : events) {
+      addEventToSchedules(event);
+      this.recordAdded(event);
+    }
   }
 
   /**
@@ -420,15 +1255,62 @@ public class NUPlannerSystem implements PlannerSystem {
   private void addEventToSchedules(ReadOnlyEvent event) {
     List<String> invitees = event.getInvitees();
     for (String user : invitees) {
+      if (this.groups.isGroup(user)) {
+        // stored once for the group, and seen by the members through their link to it
+        ISchedule group = this.groups.scheduleOf(user);
+        if (!group.hasEvent(event)) {
+          group.addEvent(event);
+        }
+        continue;
+      }
       ISchedule schedule = users.getOrDefault(user, new Schedule(user));
       if (!schedule.hasEvent(event)) {
         schedule.addEvent(event);
       }
       if (!users.containsKey(user)) {
         users.put(user, schedule);
+        this.userIndex.add(user);
       }
     }
+    this.eventsById.put(event.getId(), (IEvent) event);
+    this.eventIndex.add(event);
+    this.rooms.book(event);
+  }
+
+  /**
+   * Builds an event with the given details, in the order the event's setters require.
+   *
+   * @param host      The user ID of the event host.
+   * @param name      The name of the event.
+   * @param startDay  The start day of the event.
+   * @param startTime The start time of the event.
+   * @param endDay    The end day of the event.
+   * @param endTime   The end time of the event.
+   * @param isOnline  Indicates whether the event is online.
+   * @param location  The location of the event.
+   * @param invitees  A list of user IDs of the event invitees.
+   * @return The event, not yet added to any schedule.
+   * @throws IllegalArgumentException if a detail is invalid.
+   */
+  private IEvent buildEvent(String host, String name, String startDay, String startTime,
+                            String endDay, String endTime, boolean isOnline, String location,
+                            List<String> invitees) {
+    IEvent event = new Event();
+    event.setName(name);
+    event.setEventTimes(startDay, startTime, endDay, endTime);
+    event.setLocation(isOnline, location);
+    event.setHost(host);
+    event.setInvitees(invitees);
+    return event;
+  }
 
+  /**
+   * Records a newly added event in the change journal.
+   *
+   * @param event The event that was added to the schedules.
+   */
+  private void recordAdded(ReadOnlyEvent event) {
+    this.journal.record(ChangeJournal.ChangeType.ADD, null, ChangeJournal.snapshot(event));
   }
 
   /**
@@ -440,14 +1322,127 @@ public class NUPlannerSystem implements PlannerSystem {
    * @throws IllegalArgumentException If a scheduling conflict is detected.
    */
   private void validateEventTime(ReadOnlyEvent event) {
+    this.validateHost(event);
     for (String user : event.getInvitees()) {
-      if (users.containsKey(user)) {
+      if (this.groups.isGroup(user)) {
+        ITime time = event.getTime();
+        if (this.groups.isBusy(user, time.getStartMinute(firstDayOfWeek),
+                time.getEndMinute(firstDayOfWeek), this.users, firstDayOfWeek)) {
+          throw new IllegalArgumentException(this.describeConflicts(event,
+                  "There is a time conflict in the schedule of a member of " + user + "."));
+        }
+      } else if (users.containsKey(user)) {
         if (this.getSchedule(user).overlap(event, firstDayOfWeek)) {
-          throw new IllegalArgumentException("There is a time conflict in " + user + "'s "
-                  + "schedule.");
+          throw new IllegalArgumentException(this.describeConflicts(event,
+                  "There is a time conflict in " + user + "'s schedule."));
         }
       }
     }
+    this.rooms.validateBooking(event, this.headcount(event), this.firstDayOfWeek);
+  }
+
+  /**
+   * Marks the busy minutes of a schedule in a bitmap, leaving out those of an event's earlier
+   * state.
+   *
+   * @param schedule The schedule.
+   * @param original The earlier state of the event, or null if it is new.
+   * @param blocked  The bitmap.
+   */
+  private void markBusy(ISchedule schedule, ReadOnlyEvent original, WeekBitmap blocked) {
+    WeekBitmap busy = WeekBitmap.of(schedule, this.firstDayOfWeek);
+    if (original != null && schedule.hasEvent(original)) {
+      // the events of a schedule never overlap, so these minutes are the original's alone
+      ITime time = original.getTime();
+      busy.setFree(time.getStartMinute(this.firstDayOfWeek),
+              time.getEndMinute(this.firstDayOfWeek));
+    }
+    blocked.setBusy(busy);
+  }
+
+  /**
+   * Finds where two half-open ranges of the week overlap, either of which may continue into the
+   * next week.
+   *
+   * @param start      The start of the first range.
+   * @param end        The exclusive end of the first range.
+   * @param otherStart The start of the second range.
+   * @param otherEnd   The exclusive end of the second range.
+   * @return The start and exclusive end of the overlap, starting within the week, or null if the
+   *         ranges do not overlap.
+   */
+  private static int[] overlap(int start, int end, int otherStart, int otherEnd) {
+    for (int shift = -TimeUtilities.MINUTES_IN_WEEK; shift <= TimeUtilities.MINUTES_IN_WEEK;
+         shift += TimeUtilities.MINUTES_IN_WEEK) {
+      int from = Math.max(start, otherStart + shift);
+      int to = Math.min(end, otherEnd + shift);
+      if (from < to) {
+        int within = from % TimeUtilities.MINUTES_IN_WEEK;
+        return new int[] {within, within + to - from};
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Describes the conflicts of an event for the exception rejecting it, naming every blocker
+   * and the nearest free times.
+   *
+   * @param event    The event.
+   * @param fallback The description to use if no conflict is found with another event.
+   * @return The description.
+   */
+  private String describeConflicts(ReadOnlyEvent event, String fallback) {
+    ConflictReport report = this.explainConflicts(event);
+    return report.hasConflicts() ? report.getSummary() : fallback;
+  }
+
+  /**
+   * Validates that an event is hosted by a user rather than a group.
+   *
+   * @param event The event.
+   * @throws IllegalArgumentException if the host is a group.
+   */
+  private void validateHost(ReadOnlyEvent event) {
+    this.validateHost(event.getHost());
+  }
+
+  /**
+   * Validates that a host is a user rather than a group.
+   *
+   * @param host The ID of the host.
+   * @throws IllegalArgumentException if the host is a group.
+   */
+  private void validateHost(String host) {
+    if (this.groups.isGroup(host)) {
+      throw new IllegalArgumentException("A group cannot host an event");
+    }
+  }
+
+  /**
+   * Validates that none of the given invitees is a group, for the kinds of events groups cannot
+   * be invited to.
+   *
+   * @param invitees The invitees.
+   * @throws IllegalArgumentException if an invitee is a group.
+   */
+  private void validateNoGroups(List<String> invitees) {
+    for (String invitee : invitees) {
+      if (this.groups.isGroup(invitee)) {
+        throw new IllegalArgumentException("Group " + invitee + " cannot be invited to this "
+                + "event");
+      }
+    }
+  }
+
+  /**
+   * Counts the people attending an event, counting each member of an invited group.
+   *
+   * @param event The event.
+   * @return The number of people.
+   */
+  private int headcount(ReadOnlyEvent event) {
+    return this.groups.expand(event.getInvitees()).size();
   }
 
   /**
@@ -493,8 +1488,13 @@ public class NUPlannerSystem implements PlannerSystem {
     for (String user : invitees) {
       if (users.containsKey(user)) {
         users.get(user).removeEvent(event);
+      } else if (this.groups.isGroup(user)) {
+        this.groups.scheduleOf(user).removeEvent(event);
       }
     }
+    this.eventsById.remove(event.getId());
+    this.eventIndex.remove(event.getId());
+    this.rooms.release(event);
     ((IEvent) event).clearInvitees();
   }
 
@@ -507,6 +1507,11 @@ public class NUPlannerSystem implements PlannerSystem {
   private void addSchedules(List<ISchedule> schedules) {
     for (ISchedule schedule : schedules) {
       users.put(schedule.getUserName(), schedule);
+      this.userIndex.add(schedule.getUserName());
+      for (ReadOnlyEvent event : schedule.getEvents()) {
+        this.eventsById.put(event.getId(), (IEvent) event);
+        this.eventIndex.add(event);
+      }
     }
   }
 
@@ -554,8 +1559,319 @@ public class NUPlannerSystem implements PlannerSystem {
   private List<ISchedule> getSchedules(ReadOnlyEvent event) {
     List<ISchedule> result = new ArrayList<>();
     for (String user : event.getInvitees()) {
-      result.add(users.getOrDefault(user, new Schedule(user)));
+      if (this.groups.isGroup(user)) {
+        result.add(this.groups.availability(user, this.users, this.firstDayOfWeek));
+      } else {
+        result.add(users.getOrDefault(user, new Schedule(user)));
+      }
     }
     return result;
   }
+
+  /**
+   * A transaction staging changes in an overlay of the schedules of the users it touches. The
+   * overlay of a user is a copy of the user's event list in which the events changed by the
+   * transaction are replaced by staged copies holding their new details, so conflicts are checked
+   * exactly as the planner would check them after the changes staged so far.
+   *
+   * <p>On commit, every event touched is taken out of the schedules first, then the surviving
+   * ones are given their final details and added back, and the created ones added. As the final
+   * overlay has no conflicts, no intermediate state can conflict either, so the commit cannot
+   * fail halfway.</p>
+   */
+  private final class OverlayTransaction implements PlannerTransaction {
+    private final long version;
+    // the staged copy of each event touched, or null if removed, keyed by the planner's event
+    private final Map<ReadOnlyEvent, ReadOnlyEvent> staged = new IdentityHashMap<>();
+    // the planner's event each staged copy stands in for
+    private final Map<ReadOnlyEvent, ReadOnlyEvent> originals = new IdentityHashMap<>();
+    private final Set<ReadOnlyEvent> created = Collections.newSetFromMap(new IdentityHashMap<>());
+    // the events touched, in the order they were first staged, so commits journal in order
+    private final List<ReadOnlyEvent> touched = new ArrayList<>();
+    private final Map<String, List<ReadOnlyEvent>> overlay = new HashMap<>();
+    private boolean open = true;
+
+    /**
+     * Begins a transaction on the planner as it is now.
+     */
+    private OverlayTransaction() {
+      this.version = journal.getVersion();
+    }
+
+    @Override
+    public ReadOnlyEvent createEvent(String userId, String name, String startDay,
+                                     String startTime, String endDay, String endTime,
+                                     boolean isOnline, String location, List<String> invitees) {
+      this.checkOpen();
+      IEvent event = buildEvent(userId, name, startDay, startTime, endDay, endTime, isOnline,
+              location, invitees);
+      validateHost(event);
+      this.replace(event, null, event);
+      this.created.add(event);
+      return event;
+    }
+
+    @Override
+    public void modifyEvent(String userId, ReadOnlyEvent event, String name, String startDay,
+                            String startTime, String endDay, String endTime, boolean isOnline,
+                            String location, List<String> invitees) {
+      this.checkOpen();
+      ReadOnlyEvent original = this.originalOf(event);
+      ReadOnlyEvent current = this.stagedOf(original);
+      this.validateStagedEvent(userId, current);
+      IEvent modified = buildEvent(current.getHost(), name, startDay, startTime, endDay,
+              endTime, isOnline, location, invitees);
+      this.replace(original, current, modified);
+    }
+
+    @Override
+    public void removeEvent(String userId, ReadOnlyEvent event) {
+      this.checkOpen();
+      ReadOnlyEvent original = this.originalOf(event);
+      ReadOnlyEvent current = this.stagedOf(original);
+      this.validateStagedEvent(userId, current);
+      if (!current.getInvitees().contains(userId)) {
+        throw new IllegalArgumentException("User " + userId + " is invited through a group, and "
+                + "must leave the group instead.");
+      }
+      if (userId.equals(current.getHost())) {
+        this.replace(original, current, null);
+      } else {
+        IEvent remaining = new Event();
+        restoreEventFromBackup(remaining, new EventBackup(current));
+        List<String> invitees = remaining.getInvitees();
+        invitees.remove(userId);
+        remaining.setInvitees(invitees);
+        this.replace(original, current, remaining);
+      }
+    }
+
+    @Override
+    public void commit() {
+      this.checkOpen();
+      this.open = false;
+      if (journal.getVersion() != this.version) {
+        throw new IllegalStateException("The planner changed since the transaction began");
+      }
+      long version = journal.getVersion();
+      int userCount = users.size();
+      Map<ReadOnlyEvent, ReadOnlyEvent> before = new IdentityHashMap<>();
+      for (ReadOnlyEvent original : this.touched) {
+        if (!this.created.contains(original)) {
+          before.put(original, ChangeJournal.snapshot(original));
+          removeEventFromSchedules(original);
+        }
+      }
+      for (ReadOnlyEvent event : this.touched) {
+        IEvent original = (IEvent) event;
+        ReadOnlyEvent result = this.staged.get(original);
+        if (result == null) {
+          if (!this.created.contains(original)) {
+            journal.record(ChangeJournal.ChangeType.REMOVE, before.get(original), null);
+          }
+          continue;
+        }
+        if (result != original) {
+          restoreEventFromBackup(original, new EventBackup(result));
+        }
+        addEventToSchedules(original);
+        if (this.created.contains(original)) {
+          recordAdded(original);
+        } else {
+          journal.record(ChangeJournal.ChangeType.MODIFY, before.get(original),
+                  ChangeJournal.snapshot(original));
+        }
+      }
+      notifyObservers(version, userCount);
+    }
+
+    @Override
+    public void rollback() {
+      this.checkOpen();
+      this.open = false;
+    }
+
+    /**
+     * Replaces the staged version of an event in the overlays of its old and new invitees.
+     * Nothing is changed if the new version conflicts with the staged schedules.
+     *
+     * @param original The planner's event, or the created event.
+     * @param current  The currently staged version of the event, or null if it is created.
+     * @param result   The new version of the event, or null if it is removed.
+     * @throws IllegalArgumentException if the new version conflicts with the staged schedules.
+     */
+    private void replace(ReadOnlyEvent original, ReadOnlyEvent current, ReadOnlyEvent result) {
+      if (result != null) {
+        for (String user : this.affected(result)) {
+          for (ReadOnlyEvent other : this.overlayOf(user)) {
+            if (other != current && other.overlap(result, firstDayOfWeek)) {
+              throw new IllegalArgumentException("There is a time conflict in " + user + "'s "
+                      + "schedule.");
+            }
+          }
+          if (users.containsKey(user) && this.overlapsRecurring(users.get(user), result)) {
+            throw new IllegalArgumentException("There is a time conflict in " + user + "'s "
+                    + "schedule.");
+          }
+        }
+        this.validateStagedRoom(current, result);
+      }
+      if (current != null) {
+        for (String user : this.affected(current)) {
+          this.overlayOf(user).removeIf(other -> other == current);
+        }
+        this.originals.remove(current);
+      }
+      if (!this.staged.containsKey(original)) {
+        this.touched.add(original);
+      }
+      this.staged.put(original, result);
+      if (result != null) {
+        this.originals.put(result, original);
+        for (String user : this.affected(result)) {
+          this.overlayOf(user).add(result);
+        }
+      }
+    }
+
+    /**
+     * Gets the users and groups whose staged schedules hold an event: its invitees, with every
+     * member of an invited group, since the event is in the members' schedules through it.
+     *
+     * @param event The event.
+     * @return The user and group IDs.
+     */
+    private Set<String> affected(ReadOnlyEvent event) {
+      Set<String> affected = groups.expand(event.getInvitees());
+      affected.addAll(event.getInvitees());
+      return affected;
+    }
+
+    /**
+     * Validates that the room of a staged event fits its invitees and is free at its time, given
+     * the other events staged so far.
+     *
+     * @param current The currently staged version of the event, or null if it is created.
+     * @param result  The new version of the event.
+     * @throws IllegalArgumentException if the room is too small or already booked.
+     */
+    private void validateStagedRoom(ReadOnlyEvent current, ReadOnlyEvent result) {
+      Room room = rooms.roomOf(result);
+      if (room == null) {
+        return;
+      }
+      rooms.validateCapacity(result, headcount(result));
+      List<ReadOnlyEvent> booked = new ArrayList<>();
+      for (ReadOnlyEvent event : rooms.scheduleOf(result).getEvents()) {
+        if (!this.staged.containsKey(event)) {
+          booked.add(event);
+        }
+      }
+      for (ReadOnlyEvent event : this.staged.values()) {
+        if (event != null && event != current && rooms.roomOf(event) == room) {
+          booked.add(event);
+        }
+      }
+      for (ReadOnlyEvent event : booked) {
+        if (event.overlap(result, firstDayOfWeek)) {
+          throw new IllegalArgumentException("Room " + room.getName() + " is already booked "
+                  + "at that time.");
+        }
+      }
+    }
+
+    /**
+     * Checks whether an event overlaps the occurrences of the recurring events of a schedule.
+     *
+     * @param schedule The schedule of the planner.
+     * @param event    The event to check.
+     * @return True if an overlap is detected, otherwise false.
+     */
+    private boolean overlapsRecurring(ISchedule schedule, ReadOnlyEvent event) {
+      int start = event.getTime().getStartMinute(firstDayOfWeek);
+      int end = event.getTime().getEndMinute(firstDayOfWeek);
+      for (RecurringEvent recurring : schedule.getRecurringEvents()) {
+        if (recurring.getRule().overlaps(start, end, firstDayOfWeek)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Gets the staged event list of a user, copying it from the planner the first time, with
+     * the events already changed by the transaction replaced by their staged versions.
+     *
+     * @param user The user ID.
+     * @return The staged events of the user, empty for a user not yet in the planner.
+     */
+    private List<ReadOnlyEvent> overlayOf(String user) {
+      return this.overlay.computeIfAbsent(user, key -> {
+        List<ReadOnlyEvent> events = new ArrayList<>();
+        ISchedule schedule = groups.isGroup(key) ? groups.scheduleOf(key) : users.get(key);
+        if (schedule != null) {
+          for (ReadOnlyEvent event : schedule.getEvents()) {
+            ReadOnlyEvent version = this.stagedOf(event);
+            if (version != null) {
+              events.add(version);
+            }
+          }
+        }
+        return events;
+      });
+    }
+
+    /**
+     * Validates that the staged version of an event is in the given user's staged schedule.
+     *
+     * @param userId The user ID.
+     * @param event  The staged version of the event, or null if it was removed.
+     * @throws IllegalArgumentException if the user does not exist or the event is not in the
+     *                                  user's staged schedule.
+     */
+    private void validateStagedEvent(String userId, ReadOnlyEvent event) {
+      ValidationUtilities.validateNull(userId);
+      if (!users.containsKey(userId) && !this.overlay.containsKey(userId)) {
+        throw new IllegalArgumentException("User Schedule for " + userId
+                + " does not exist in system");
+      }
+      if (event == null || this.overlayOf(userId).stream().noneMatch(other -> other == event)) {
+        throw new IllegalArgumentException("Event doesn't exist in user " + userId
+                + "'s schedule.");
+      }
+    }
+
+    /**
+     * Gets the planner's event a given event stands for, which is the event itself unless it
+     * is a version staged by this transaction.
+     *
+     * @param event The event.
+     * @return The planner's event, or the created event.
+     */
+    private ReadOnlyEvent originalOf(ReadOnlyEvent event) {
+      ValidationUtilities.validateNull(event);
+      return this.originals.getOrDefault(event, event);
+    }
+
+    /**
+     * Gets the version of an event staged by this transaction.
+     *
+     * @param original The planner's event, or the created event.
+     * @return The staged version, the event itself if unchanged, or null if it was removed.
+     */
+    private ReadOnlyEvent stagedOf(ReadOnlyEvent original) {
+      return this.staged.containsKey(original) ? this.staged.get(original) : original;
+    }
+
+    /**
+     * Checks that the transaction can still be used.
+     *
+     * @throws IllegalStateException if it was committed or rolled back.
+     */
+    private void checkOpen() {
+      if (!this.open) {
+        throw new IllegalStateException("The transaction has already ended");
+      }
+    }
+  }
 }
@@ -0,0 +1,146 @@
+package plannersystem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+
+/**
+ * Describes a single change to a planner system, as passed to its observers: the users whose
+ * schedules changed, the affected weekly events as they were before and after the change, and
+ * the times those events occupy. Observers can use it to update only what the change touched
+ * instead of everything they show. Changes to anything but the weekly events, such as recurring
+ * events or group membership, name the users they affect but no times, see
+ * {@link #hasOtherChanges()}.
+ *
+ * <p>The events of a change are snapshots taken when the change was made, so they keep
+ * describing the change even after the live events are modified or removed.</p>
+ */
+public class PlannerChangeEvent {
+  private final Set<String> users;
+  private final List<ReadOnlyEvent> events;
+  private final boolean usersChanged;
+  private final boolean otherChanges;
+
+  /**
+   * Constructs a change affecting the given users and weekly events only.
+   *
+   * @param users        The IDs of the users whose schedules changed.
+   * @param events       Snapshots of the affected events, before and after the change.
+   * @param usersChanged Whether users were added to or removed from the planner.
+   * @throws IllegalArgumentException if the users or events are null.
+   */
+  public PlannerChangeEvent(Set<String> users, List<ReadOnlyEvent> events,
+                            boolean usersChanged) {
+    this(users, events, usersChanged, false);
+  }
+
+  /**
+   * Constructs a change affecting the given users and events.
+   *
+   * @param users        The IDs of the users whose schedules changed.
+   * @param events       Snapshots of the affected weekly events, before and after the change.
+   * @param usersChanged Whether users were added to or removed from the planner.
+   * @param otherChanges Whether anything but the weekly events changed too.
+   * @throws IllegalArgumentException if the users or events are null.
+   */
+  public PlannerChangeEvent(Set<String> users, List<ReadOnlyEvent> events,
+                            boolean usersChanged, boolean otherChanges) {
+    if (users == null || events == null) {
+      throw new IllegalArgumentException("Users and events cannot be null");
+    }
+    this.users = Collections.unmodifiableSet(new LinkedHashSet<>(users));
+    this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    this.usersChanged = usersChanged;
+    this.otherChanges = otherChanges;
+  }
+
+  /**
+   * Creates the change described by the given journal records. The users of a record invited
+   * through a group are the group and each of its members, whose schedules show the change too.
+   *
+   * @param changes      The journal records of the change, oldest first.
+   * @param usersChanged Whether users were added to or removed from the planner.
+   * @param groups       The groups of the planner, to expand invited groups with.
+   * @return The change event.
+   */
+  static PlannerChangeEvent fromChanges(List<ChangeJournal.Change> changes,
+                                        boolean usersChanged, GroupRegistry groups) {
+    Set<String> users = new LinkedHashSet<>();
+    List<ReadOnlyEvent> events = new ArrayList<>();
+    boolean otherChanges = false;
+    for (ChangeJournal.Change change : changes) {
+      List<String> changed = new ArrayList<>(change.getUsers());
+      users.addAll(changed);
+      users.addAll(groups.expand(changed));
+      if (change.getSubject() != EventDelta.Subject.EVENT) {
+        otherChanges = true;
+        continue;
+      }
+      if (change.getBefore() != null) {
+        events.add(change.getBefore());
+      }
+      if (change.getAfter() != null) {
+        events.add(change.getAfter());
+      }
+    }
+    return new PlannerChangeEvent(users, events, usersChanged, otherChanges);
+  }
+
+  /**
+   * Gets the IDs of the users whose schedules changed, including the members of the groups
+   * invited to the affected events.
+   *
+   * @return An unmodifiable set of user IDs.
+   */
+  public Set<String> getUsers() {
+    return users;
+  }
+
+  /**
+   * Gets snapshots of the affected events. A modified event appears twice, as it was before and
+   * as it is after the change.
+   *
+   * @return An unmodifiable list of event snapshots.
+   */
+  public List<ReadOnlyEvent> getEvents() {
+    return events;
+  }
+
+  /**
+   * Gets the times occupied by the affected events, before and after the change.
+   *
+   * @return The list of affected times.
+   */
+  public List<ITime> getTimes() {
+    List<ITime> times = new ArrayList<>(events.size());
+    for (ReadOnlyEvent event : events) {
+      times.add(event.getTime());
+    }
+    return times;
+  }
+
+  /**
+   * Checks whether users were added to or removed from the planner by this change.
+   *
+   * @return true if the set of users changed, false otherwise.
+   */
+  public boolean usersChanged() {
+    return usersChanged;
+  }
+
+  /**
+   * Checks whether this change also touched something other than the weekly events, such as
+   * recurring or dated events, rooms, groups or availability, which its events and times do not
+   * describe. Observers should then refresh everything they show of the change's users.
+   *
+   * @return true if anything but the weekly events changed, false otherwise.
+   */
+  public boolean hasOtherChanges() {
+    return otherChanges;
+  }
+}
@@ -1,10 +1,17 @@
 package plannersystem;
 
 import java.io.File;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.function.Consumer;
 
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.RecurringEvent;
+import schedule.Room;
 import schedulestrategy.ScheduleStrategy;
 import controller.Observer;
 
@@ -28,9 +35,46 @@ public interface PlannerSystem extends ReadonlyPlannerSystem {
    */
   void readUserSchedule(File xmlFile);
 
+  /**
+   * Reads a user's schedule from an XML file at the given path, as
+   * {@link #readUserSchedule(ReadableByteChannel)} does with a channel opened on the file.
+   *
+   * @param xmlPath The path of the XML file containing the user's schedule to be read.
+   * @throws IllegalStateException    if there's an error opening, reading or parsing the file.
+   * @throws IllegalArgumentException if the path is null or the file contains invalid data.
+   */
+  void readUserSchedule(Path xmlPath);
+
+  /**
+   * Reads a user's schedule from an XML document streamed from the given channel. The document is
+   * read in a single pass through a direct buffer and may be gzip-compressed, which is detected
+   * from its content. If any event conflicts with the existing schedules, no events are added.
+   * The channel must be in blocking mode and is not closed.
+   *
+   * @param channel The channel to read the XML document from.
+   * @throws IllegalStateException    if there's an error reading or parsing the document.
+   * @throws IllegalArgumentException if the channel is null or the document contains invalid
+   *                                  data.
+   */
+  void readUserSchedule(ReadableByteChannel channel);
+
+  /**
+   * Reads a planner XML file containing the schedules of many users, as written by
+   * {@link ReadonlyPlannerSystem#savePlanner(String)}, and rebuilds every schedule from it.
+   * Every listed user is added to the system and every event is added to the schedules of all its
+   * invitees. If any event conflicts with the existing schedules, no events are added.
+   *
+   * @param xmlFile The planner XML file to be read.
+   * @throws IllegalStateException    if there's an error opening or parsing the file.
+   * @throws IllegalArgumentException if the file is null, contains invalid data, or an event
+   *                                  conflicts with an existing schedule.
+   */
+  void readPlanner(File xmlFile);
+
   /**
    * Creates an event and adds it to the schedule of the specified user and all invitees.
-   * Validates event time to prevent schedule conflicts before adding the event.
+   * Validates event time to prevent schedule conflicts before adding the event. Dated events are
+   * not consulted, see {@link #addDatedEvent}.
    *
    * @param userId    The user ID of the event host.
    * @param name      The name of the event.
@@ -99,6 +143,150 @@ public interface PlannerSystem extends ReadonlyPlannerSystem {
   void scheduleEvent(String userId, String name, boolean isOnline, String location, int duration,
                      List<String> invitees);
 
+  /**
+   * Puts the event with the given ID into the given state, such as a snapshot from an
+   * {@link EventDelta}. The event is found by its ID rather than by searching the schedules for
+   * its details. If the state is null, the event is removed from every schedule. If no schedule
+   * holds the event anymore, it is added back with its ID. The new state is only checked against
+   * the schedules of its invitees, as a new event would be.
+   *
+   * @param id    The ID of the event.
+   * @param state The details to give the event, or null to remove it.
+   * @throws IllegalArgumentException if there is no event to remove, or the state conflicts with
+   *                                  an invitee's schedule, in which case nothing changes.
+   */
+  /**
+   * Automatically schedules an in-person event using the current scheduling strategy, at a time
+   * when all the invitees and a room holding them are free. Of the rooms free at the time found,
+   * the smallest one large enough is booked, and becomes the event's location.
+   *
+   * @param userId   The user ID of the event's host.
+   * @param name     The name of the event to be scheduled.
+   * @param duration The duration of the event in minutes.
+   * @param invitees A list of user IDs representing the invitees to the event.
+   * @throws IllegalArgumentException if no room holds the invitees, or no time can be found when
+   *                                  they and a room are free.
+   * @throws IllegalStateException    if the scheduling strategy is not set.
+   */
+  void scheduleEventInRoom(String userId, String name, int duration, List<String> invitees);
+
+  void replaceEvent(long id, ReadOnlyEvent state);
+
+  /**
+   * Adds a group of users that can be invited to events as a whole by the group's ID, in place
+   * of a user ID. An event the group is invited to is stored once, for the group, and is in every
+   * member's schedule through it, however many members the group has. Members who do not exist
+   * are added as users. Groups cannot host events, nor be invited to recurring or dated events.
+   *
+   * @param groupId The ID of the group, which no user may have.
+   * @param members The user IDs of the members.
+   * @throws IllegalArgumentException if the ID is null, blank or taken, or a member is null, a
+   *                                  group, or has a conflict with the group's events.
+   */
+  void addGroup(String groupId, List<String> members);
+
+  /**
+   * Removes a group, which must have no events, from the schedules of its members.
+   *
+   * @param groupId The ID of the group.
+   * @return True if the group was removed, false if there is no such group.
+   * @throws IllegalArgumentException if the ID is null or the group still has events.
+   */
+  boolean removeGroup(String groupId);
+
+  /**
+   * Adds a user to a group, adding the group's events to the user's schedule. Users who do not
+   * exist are added.
+   *
+   * @param groupId The ID of the group.
+   * @param userId  The user ID.
+   * @throws IllegalArgumentException if an ID is null, there is no such group, the user is a
+   *                                  group, or the user's schedule conflicts with the group's
+   *                                  events.
+   */
+  void addGroupMember(String groupId, String userId);
+
+  /**
+   * Removes a user from a group, removing the group's events from the user's schedule.
+   *
+   * @param groupId The ID of the group.
+   * @param userId  The user ID.
+   * @return True if the user was a member, otherwise false.
+   * @throws IllegalArgumentException if an ID is null or there is no such group.
+   */
+  boolean removeGroupMember(String groupId, String userId);
+
+  /**
+   * Adds a room in-person events can be held in. From then on, an event that is not online and
+   * whose location is the room's name is booked into the room, and conflicts with the room's
+   * other events as it would with an invitee's. The in-person events already held there are
+   * booked into it, so the room is only added if they fit in it and do not overlap each other.
+   *
+   * @param room The room to add.
+   * @throws IllegalArgumentException if the room is null, a room of the same name exists, or the
+   *                                  events already held there do not fit in it or overlap.
+   */
+  void addRoom(Room room);
+
+  /**
+   * Removes a room, which must have no events.
+   *
+   * @param name The name of the room.
+   * @return True if the room was removed, false if there is no such room.
+   * @throws IllegalArgumentException if the name is null or events are held in the room.
+   */
+  boolean removeRoom(String name);
+
+  /**
+   * Adds a recurring event to the schedules of all its invitees, creating schedules for invitees
+   * without one. The event is stored once by its rule, and is checked against the invitees'
+   * events and recurring events without expanding its occurrences. Dated events are not
+   * consulted, see {@link #addDatedEvent}.
+   *
+   * @param event The recurring event to add.
+   * @throws IllegalArgumentException if the event is null or conflicts with an invitee's
+   *                                  schedule.
+   */
+  void addRecurringEvent(RecurringEvent event);
+
+  /**
+   * Removes a recurring event from the user's schedule. If the user is the host of the event,
+   * the event is removed from all invitees' schedules as well.
+   *
+   * @param userId The user ID of the person removing the event.
+   * @param event  The recurring event to remove.
+   * @throws IllegalArgumentException if the user does not exist or the event is not in the user's
+   *                                  schedule.
+   */
+  void removeRecurringEvent(String userId, RecurringEvent event);
+
+  /**
+   * Adds an event on a calendar date to the dated schedules of all its invitees, creating users
+   * for invitees without one. Dated events are kept alongside the planner's repeating week. A
+   * dated event must not conflict with the dated events of its invitees, nor with their weekly
+   * and recurring events on the day of the week and at the time it falls on. An event held in a
+   * room must fit in it, at a time the room has no weekly booking or other dated event.
+   *
+   * <p>Only dated events are checked against the repeating week: weekly and recurring events
+   * are added without looking at the invitees' dated events.</p>
+   *
+   * @param event The dated event to add.
+   * @throws IllegalArgumentException if the event is null, conflicts with an invitee's schedule,
+   *                                  or its room is too small or already booked.
+   */
+  void addDatedEvent(DatedEvent event);
+
+  /**
+   * Removes a dated event from the user's dated schedule. If the user is the host of the event,
+   * the event is removed from all invitees' dated schedules as well.
+   *
+   * @param userId The user ID of the person removing the event.
+   * @param event  The dated event to remove.
+   * @throws IllegalArgumentException if the user does not exist or the event is not in the user's
+   *                                  dated schedule.
+   */
+  void removeDatedEvent(String userId, DatedEvent event);
+
   /**
    * Registers an observer to be notified of changes to the planner system. Observers are typically
    * components interested in being informed about updates to the system's state, such as changes
@@ -174,6 +362,16 @@ public interface PlannerSystem extends ReadonlyPlannerSystem {
    */
   boolean removeUser(String userId);
 
+  /**
+   * Sets the shifts a user is available for meetings in, which strategies respecting working
+   * hours schedule events within.
+   *
+   * @param userId  The user ID.
+   * @param profile The availability profile, or null for the standard working hours.
+   * @throws IllegalArgumentException if the user ID is null or the user does not exist.
+   */
+  void setAvailability(String userId, AvailabilityProfile profile);
+
   /**
    * Sets the first day of the week for the planner.
    *
@@ -181,4 +379,34 @@ public interface PlannerSystem extends ReadonlyPlannerSystem {
    * @throws IllegalArgumentException if the given day is null or invalid.
    */
   void setFirstDayOfWeek(String firstDayOfWeek);
+
+  /**
+   * Begins a transaction staging event changes against a private overlay of this planner, to be
+   * published together by {@link PlannerTransaction#commit()}.
+   *
+   * @return The new transaction.
+   */
+  PlannerTransaction beginTransaction();
+
+  /**
+   * Runs the given changes in a transaction, committing them together if they all succeed, and
+   * rolling them all back if any of them fails.
+   *
+   * @param changes The changes to stage in the transaction.
+   * @throws IllegalArgumentException if changes is null, or rethrown from a failed change.
+   * @throws IllegalStateException    if the planner changed while the changes were staged.
+   */
+  default void inTransaction(Consumer<PlannerTransaction> changes) {
+    if (changes == null) {
+      throw new IllegalArgumentException("Changes cannot be null");
+    }
+    PlannerTransaction transaction = this.beginTransaction();
+    try {
+      changes.accept(transaction);
+    } catch (RuntimeException e) {
+      transaction.rollback();
+      throw e;
+    }
+    transaction.commit();
+  }
 }
@@ -0,0 +1,88 @@
+package plannersystem;
+
+import java.util.List;
+
+import schedule.ReadOnlyEvent;
+
+/**
+ * A set of event changes staged against a private overlay of a planner system and published
+ * together. Each change is validated against the planner as it would be after the changes staged
+ * before it, without touching the planner itself, so a failed change leaves both the planner and
+ * the transaction as they were. Committing applies every staged change at once and notifies the
+ * planner's observers a single time; rolling back discards them.
+ *
+ * <p>A transaction can only be committed if the planner has not changed since it began.</p>
+ */
+public interface PlannerTransaction {
+
+  /**
+   * Stages the creation of an event, as {@link PlannerSystem#createEvent} would create it.
+   *
+   * @param userId    The user ID of the event host.
+   * @param name      The name of the event.
+   * @param startDay  The start day of the event.
+   * @param startTime The start time of the event.
+   * @param endDay    The end day of the event.
+   * @param endTime   The end time of the event.
+   * @param isOnline  Indicates whether the event is online.
+   * @param location  The location of the event.
+   * @param invitees  A list of user IDs of the event invitees.
+   * @return The event to be created, which later changes in this transaction can refer to, and
+   *         which is the event added to the schedules on commit.
+   * @throws IllegalArgumentException if the details are invalid or the event conflicts with the
+   *                                  staged schedules.
+   * @throws IllegalStateException    if the transaction was already committed or rolled back.
+   */
+  ReadOnlyEvent createEvent(String userId, String name, String startDay, String startTime,
+                            String endDay, String endTime, boolean isOnline, String location,
+                            List<String> invitees);
+
+  /**
+   * Stages the modification of an event, as {@link PlannerSystem#modifyEvent} would modify it.
+   *
+   * @param userId    The user ID of the event host.
+   * @param event     The event to modify, either in the planner or created in this transaction.
+   * @param name      The new name of the event.
+   * @param startDay  The new start day of the event.
+   * @param startTime The new start time of the event.
+   * @param endDay    The new end day of the event.
+   * @param endTime   The new end time of the event.
+   * @param isOnline  Indicates whether the event is online.
+   * @param location  The new location of the event.
+   * @param invitees  A new list of user IDs of the event invitees.
+   * @throws IllegalArgumentException if the event is not in the user's staged schedule, the
+   *                                  details are invalid or the event would conflict with the
+   *                                  staged schedules.
+   * @throws IllegalStateException    if the transaction was already committed or rolled back.
+   */
+  void modifyEvent(String userId, ReadOnlyEvent event, String name, String startDay,
+                   String startTime, String endDay, String endTime, boolean isOnline,
+                   String location, List<String> invitees);
+
+  /**
+   * Stages the removal of an event, as {@link PlannerSystem#removeEvent} would remove it: from
+   * every schedule if the user hosts it, otherwise only from the user's schedule.
+   *
+   * @param userId The user ID of the person removing the event.
+   * @param event  The event to remove, either in the planner or created in this transaction.
+   * @throws IllegalArgumentException if the event is not in the user's staged schedule.
+   * @throws IllegalStateException    if the transaction was already committed or rolled back.
+   */
+  void removeEvent(String userId, ReadOnlyEvent event);
+
+  /**
+   * Applies every staged change to the planner and notifies its observers once.
+   *
+   * @throws IllegalStateException if the transaction was already committed or rolled back, or
+   *                               the planner changed since the transaction began, in which case
+   *                               nothing is applied.
+   */
+  void commit();
+
+  /**
+   * Discards every staged change. The planner is left untouched.
+   *
+   * @throws IllegalStateException if the transaction was already committed or rolled back.
+   */
+  void rollback();
+}
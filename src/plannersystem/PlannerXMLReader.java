@@ -0,0 +1,467 @@
+package plannersystem;
+
+import java.io.InputStream;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
+import schedule.DatedTime;
+import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
+import schedule.TimeUtilities;
+
+/**
+ * Reads a planner XML document, as written by {@link PlannerXMLWriter}, in a single streaming
+ * pass. Every event is read exactly once together with its full invitee list, and every user
+ * listed in the document is collected so that users without events can be restored as well.
+ * Events are kept as {@link EventRecord}s and only built into full events on request. Recurring
+ * and dated events, which are immutable, are built as they are read, as are the availability
+ * profiles of the users.
+ *
+ * <p>Single user schedule files written by {@link ScheduleXMLWriter} share the same event layout,
+ * so they can be read with this class too; the schedule owner is then reported as the only
+ * listed user.</p>
+ *
+ * <p>Element text is gathered straight from the parser's character buffer into one reused
+ * buffer, and days and times are parsed from it in place, so only names, places and user IDs are
+ * ever copied into strings.</p>
+ */
+public class PlannerXMLReader {
+
+  private final Set<String> users;
+  private final List<EventRecord> events;
+  private final List<RecurringEvent> recurringEvents;
+  private final List<DatedEvent> datedEvents;
+  private final Map<String, AvailabilityProfile> availability;
+  private final StringBuilder text;
+
+  /**
+   * Constructs an empty reader result.
+   */
+  private PlannerXMLReader() {
+    this.users = new LinkedHashSet<>();
+    this.events = new ArrayList<>();
+    this.recurringEvents = new ArrayList<>();
+    this.datedEvents = new ArrayList<>();
+    this.availability = new LinkedHashMap<>();
+    this.text = new StringBuilder(64);
+  }
+
+  /**
+   * Streams a planner XML document from the given input and collects its users and events.
+   * The input stream is not closed.
+   *
+   * @param in The stream containing the planner XML document.
+   * @return The reader holding the users and events found in the document.
+   * @throws XMLStreamException       if the document is not well-formed XML.
+   * @throws IllegalArgumentException if an event in the document contains invalid data.
+   */
+  public static PlannerXMLReader read(InputStream in) throws XMLStreamException {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    XMLStreamReader reader = factory.createXMLStreamReader(in);
+    PlannerXMLReader result = new PlannerXMLReader();
+    try {
+      result.readDocument(reader);
+    } finally {
+      reader.close();
+    }
+    return result;
+  }
+
+  /**
+   * Gets the IDs of every user listed in the document, in document order.
+   *
+   * @return A copy of the list of user IDs.
+   */
+  public List<String> getUsers() {
+    return new ArrayList<>(users);
+  }
+
+  /**
+   * Builds and gets every event in the document, in document order.
+   *
+   * @return The list of events.
+   * @throws IllegalArgumentException if an event in the document contains invalid data.
+   */
+  public List<ReadOnlyEvent> getEvents() {
+    List<ReadOnlyEvent> result = new ArrayList<>();
+    for (EventRecord record : events) {
+      result.add(record.toEvent());
+    }
+    return result;
+  }
+
+  /**
+   * Gets the records of every event in the document, in document order, without building them.
+   *
+   * @return A copy of the list of event records.
+   */
+  List<EventRecord> getRecords() {
+    return new ArrayList<>(events);
+  }
+
+  /**
+   * Gets every recurring event in the document, in document order.
+   *
+   * @return A copy of the list of recurring events.
+   */
+  public List<RecurringEvent> getRecurringEvents() {
+    return new ArrayList<>(recurringEvents);
+  }
+
+  /**
+   * Gets every dated event in the document, in document order.
+   *
+   * @return A copy of the list of dated events.
+   */
+  public List<DatedEvent> getDatedEvents() {
+    return new ArrayList<>(datedEvents);
+  }
+
+  /**
+   * Gets the availability profile of every user whose shifts are listed in the document.
+   *
+   * @return A copy of the profiles by user ID, in document order, null for a user on the
+   *         standard working hours.
+   */
+  public Map<String, AvailabilityProfile> getAvailability() {
+    return new LinkedHashMap<>(availability);
+  }
+
+  /**
+   * Walks the document, collecting the top level users and handing every event element to
+   * {@link #readEvent(XMLStreamReader)}, and every recurring event, dated event and availability
+   * element to its own reader.
+   *
+   * @param reader The stream reader positioned at the start of the document.
+   * @throws XMLStreamException if the document is not well-formed XML.
+   */
+  private void readDocument(XMLStreamReader reader) throws XMLStreamException {
+    while (reader.hasNext()) {
+      if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "schedule":
+          String owner = reader.getAttributeValue(null, "id");
+          if (owner != null && !owner.isBlank()) {
+            users.add(owner.trim());
+          }
+          break;
+        case "uid":
+          users.add(this.readText(reader).toString().trim());
+          break;
+        case "event":
+          events.add(this.readEvent(reader));
+          break;
+        case "recurring-event":
+          recurringEvents.add(this.readRecurringEvent(reader));
+          break;
+        case "dated-event":
+          datedEvents.add(this.readDatedEvent(reader));
+          break;
+        case "availability":
+          String user = reader.getAttributeValue(null, "user");
+          if (user == null || user.isBlank()) {
+            throw new IllegalArgumentException("Availability needs a user");
+          }
+          availability.put(user.trim(), this.readAvailability(reader));
+          break;
+        default:
+          break;
+      }
+    }
+  }
+
+  /**
+   * Reads a single event element into an event record. As with schedule files, the first user
+   * listed for the event is its host.
+   *
+   * @param reader The stream reader positioned at the start of an event element.
+   * @return The record of the event.
+   * @throws XMLStreamException       if the document is not well-formed XML.
+   * @throws IllegalArgumentException if the event's times are invalid or it has no users.
+   */
+  private EventRecord readEvent(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    DayOfWeek startDay = null;
+    int startTime = -1;
+    DayOfWeek endDay = null;
+    int endTime = -1;
+    boolean online = false;
+    String place = null;
+    List<String> uids = new ArrayList<>();
+
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("event")) {
+        break;
+      }
+      if (type != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "name":
+          name = this.readText(reader).toString();
+          break;
+        case "start-day":
+          startDay = TimeUtilities.parseDay(this.readText(reader));
+          break;
+        case "start":
+          startTime = TimeUtilities.parseMinuteOfDay(this.readText(reader));
+          break;
+        case "end-day":
+          endDay = TimeUtilities.parseDay(this.readText(reader));
+          break;
+        case "end":
+          endTime = TimeUtilities.parseMinuteOfDay(this.readText(reader));
+          break;
+        case "online":
+          online = Boolean.parseBoolean(this.readText(reader).toString().trim());
+          break;
+        case "place":
+          place = this.readText(reader).toString();
+          break;
+        case "uid":
+          uids.add(this.readText(reader).toString());
+          break;
+        default:
+          break;
+      }
+    }
+
+    return EventRecord.of(name, startDay, startTime, endDay, endTime, online, place, uids);
+  }
+
+  /**
+   * Reads a single recurring event element. As with events, the first user listed is its host,
+   * and a rule without a count or last week repeats without that limit.
+   *
+   * @param reader The stream reader positioned at the start of a recurring event element.
+   * @return The recurring event.
+   * @throws XMLStreamException       if the document is not well-formed XML.
+   * @throws IllegalArgumentException if the rule or any other detail of the event is invalid.
+   */
+  private RecurringEvent readRecurringEvent(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+    String start = null;
+    int duration = 0;
+    int interval = 1;
+    int count = RecurrenceRule.UNBOUNDED;
+    int untilWeek = RecurrenceRule.UNBOUNDED;
+    boolean online = false;
+    String place = null;
+    List<String> uids = new ArrayList<>();
+
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT
+              && reader.getLocalName().equals("recurring-event")) {
+        break;
+      }
+      if (type != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "name":
+          name = this.readText(reader).toString();
+          break;
+        case "day":
+          days.add(TimeUtilities.parseDay(this.readText(reader)));
+          break;
+        case "start":
+          start = this.readText(reader).toString().trim();
+          break;
+        case "duration":
+          duration = Integer.parseInt(this.readText(reader).toString().trim());
+          break;
+        case "interval":
+          interval = Integer.parseInt(this.readText(reader).toString().trim());
+          break;
+        case "count":
+          count = Integer.parseInt(this.readText(reader).toString().trim());
+          break;
+        case "until-week":
+          untilWeek = Integer.parseInt(this.readText(reader).toString().trim());
+          break;
+        case "online":
+          online = Boolean.parseBoolean(this.readText(reader).toString().trim());
+          break;
+        case "place":
+          place = this.readText(reader).toString();
+          break;
+        case "uid":
+          uids.add(this.readText(reader).toString());
+          break;
+        default:
+          break;
+      }
+    }
+
+    RecurrenceRule rule = new RecurrenceRule(days, start, duration, interval, count, untilWeek);
+    return new RecurringEvent(name, uids.isEmpty() ? null : uids.get(0), uids, online, place,
+            rule);
+  }
+
+  /**
+   * Reads a single dated event element, its start and end given as ISO-8601 local date times.
+   * As with events, the first user listed is its host.
+   *
+   * @param reader The stream reader positioned at the start of a dated event element.
+   * @return The dated event.
+   * @throws XMLStreamException       if the document is not well-formed XML.
+   * @throws IllegalArgumentException if the times or any other detail of the event is invalid.
+   */
+  private DatedEvent readDatedEvent(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    LocalDateTime start = null;
+    LocalDateTime end = null;
+    boolean online = false;
+    String place = null;
+    List<String> uids = new ArrayList<>();
+
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT
+              && reader.getLocalName().equals("dated-event")) {
+        break;
+      }
+      if (type != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "name":
+          name = this.readText(reader).toString();
+          break;
+        case "start":
+          start = parseDateTime(this.readText(reader));
+          break;
+        case "end":
+          end = parseDateTime(this.readText(reader));
+          break;
+        case "online":
+          online = Boolean.parseBoolean(this.readText(reader).toString().trim());
+          break;
+        case "place":
+          place = this.readText(reader).toString();
+          break;
+        case "uid":
+          uids.add(this.readText(reader).toString());
+          break;
+        default:
+          break;
+      }
+    }
+
+    return new DatedEvent(name, uids.isEmpty() ? null : uids.get(0), uids, online, place,
+            new DatedTime(start, end));
+  }
+
+  /**
+   * Reads the shifts of an availability element into a profile.
+   *
+   * @param reader The stream reader positioned at the start of an availability element.
+   * @return The profile, or null if the user is marked as on the standard working hours.
+   * @throws XMLStreamException       if the document is not well-formed XML.
+   * @throws IllegalArgumentException if a shift is invalid.
+   */
+  private AvailabilityProfile readAvailability(XMLStreamReader reader)
+          throws XMLStreamException {
+    boolean standard = Boolean.parseBoolean(reader.getAttributeValue(null, "standard"));
+    AvailabilityProfile profile = AvailabilityProfile.none();
+    String[] shift = new String[4];
+
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT) {
+        if (reader.getLocalName().equals("availability")) {
+          break;
+        }
+        if (reader.getLocalName().equals("shift")) {
+          profile = profile.withShift(shift[0], shift[1], shift[2], shift[3]);
+          shift = new String[4];
+        }
+      }
+      if (type != XMLStreamConstants.START_ELEMENT) {
+        continue;
+      }
+      switch (reader.getLocalName()) {
+        case "start-day":
+          shift[0] = this.readText(reader).toString().trim();
+          break;
+        case "start":
+          shift[1] = this.readText(reader).toString().trim();
+          break;
+        case "end-day":
+          shift[2] = this.readText(reader).toString().trim();
+          break;
+        case "end":
+          shift[3] = this.readText(reader).toString().trim();
+          break;
+        default:
+          break;
+      }
+    }
+
+    return standard ? null : profile;
+  }
+
+  /**
+   * Parses an ISO-8601 local date time, such as 2024-09-02T09:00.
+   *
+   * @param text The text to parse.
+   * @return The date time.
+   * @throws IllegalArgumentException if the text is not a valid date time.
+   */
+  private static LocalDateTime parseDateTime(CharSequence text) {
+    try {
+      return LocalDateTime.parse(text.toString().trim());
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid date time " + text);
+    }
+  }
+
+  /**
+   * Reads the text of a text-only element into the reused text buffer, copying straight from the
+   * parser's character array instead of building a string for every element.
+   *
+   * @param reader The stream reader positioned at the start of a text-only element.
+   * @return The text buffer, holding the element's text until the next call.
+   * @throws XMLStreamException if the document is not well-formed XML or the element contains
+   *                            child elements.
+   */
+  private CharSequence readText(XMLStreamReader reader) throws XMLStreamException {
+    text.setLength(0);
+    while (reader.hasNext()) {
+      int type = reader.next();
+      if (type == XMLStreamConstants.END_ELEMENT) {
+        return text;
+      }
+      if (type == XMLStreamConstants.START_ELEMENT) {
+        throw new XMLStreamException("Expected text only element", reader.getLocation());
+      }
+      if (type != XMLStreamConstants.COMMENT && reader.hasText()) {
+        text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+      }
+    }
+    throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+  }
+}
@@ -0,0 +1,526 @@
+package plannersystem;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.time.DayOfWeek;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
+import schedule.DatedSchedule;
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
+import schedule.Room;
+import schedule.TimeUtilities;
+
+/**
+ * Provides functionality to write every schedule of a planner into a single XML document.
+ * Unlike {@link ScheduleXMLWriter}, which writes one file per user, this writer emits each event
+ * exactly once together with its full list of invitees, so events shared between users are not
+ * duplicated. Recurring and dated events are written once the same way, followed by the shifts
+ * of every user with an availability profile of their own. The document is streamed straight to
+ * the output in one sequential pass without building a DOM.
+ *
+ * <p>The produced document has the following shape:</p>
+ * <pre>
+ * &lt;planner&gt;
+ *   &lt;users&gt;&lt;uid&gt;...&lt;/uid&gt;...&lt;/users&gt;
+ *   &lt;event&gt;...same layout as a schedule event...&lt;/event&gt;
+ *   ...
+ *   &lt;recurring-event&gt;...the rule in place of the time...&lt;/recurring-event&gt;
+ *   ...
+ *   &lt;dated-event&gt;...date times in place of the time...&lt;/dated-event&gt;
+ *   ...
+ *   &lt;availability user="..."&gt;&lt;shift&gt;...&lt;/shift&gt;...&lt;/availability&gt;
+ *   ...
+ * &lt;/planner&gt;
+ * </pre>
+ */
+public class PlannerXMLWriter {
+
+  /**
+   * Writes the provided schedules to a single planner XML file at the specified file path.
+   *
+   * @param schedules The schedules of every user to be written.
+   * @param filePath  The file path where the XML file will be saved.
+   * @throws Exception if an error occurs while opening the file or writing the XML stream.
+   */
+  public static void writePlannerToXML(List<ISchedule> schedules, String filePath)
+          throws Exception {
+    writePlannerToXML(schedules, List.of(), filePath);
+  }
+
+  /**
+   * Writes the provided schedules and dated schedules to a single planner XML file at the
+   * specified file path.
+   *
+   * @param schedules      The schedules of every user to be written.
+   * @param datedSchedules The dated schedules of the users to be written.
+   * @param filePath       The file path where the XML file will be saved.
+   * @throws Exception if an error occurs while opening the file or writing the XML stream.
+   */
+  public static void writePlannerToXML(List<ISchedule> schedules,
+                                       Collection<DatedSchedule> datedSchedules, String filePath)
+          throws Exception {
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filePath))) {
+      writePlannerToXML(schedules, datedSchedules, out);
+    }
+  }
+
+  /**
+   * Streams the provided schedules as a single planner XML document to the given output stream.
+   * The stream is flushed but not closed.
+   *
+   * @param schedules The schedules of every user to be written.
+   * @param out       The stream the document is written to.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  public static void writePlannerToXML(List<ISchedule> schedules, OutputStream out)
+          throws XMLStreamException {
+    writePlannerToXML(schedules, List.of(), out);
+  }
+
+  /**
+   * Streams the provided schedules and dated schedules as a single planner XML document to the
+   * given output stream. The stream is flushed but not closed.
+   *
+   * @param schedules      The schedules of every user to be written.
+   * @param datedSchedules The dated schedules of the users to be written.
+   * @param out            The stream the document is written to.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  public static void writePlannerToXML(List<ISchedule> schedules,
+                                       Collection<DatedSchedule> datedSchedules, OutputStream out)
+          throws XMLStreamException {
+    XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+    writer.writeStartDocument("UTF-8", "1.0");
+    newLine(writer, 0);
+    writer.writeStartElement("planner");
+
+    newLine(writer, 1);
+    writer.writeStartElement("users");
+    for (ISchedule schedule : schedules) {
+      writeElement(writer, "uid", schedule.getUserName(), 2);
+    }
+    newLine(writer, 1);
+    writer.writeEndElement();
+
+    // Shared events are the same object in every invitee's schedule, so identity is enough
+    Set<Object> written = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (ISchedule schedule : schedules) {
+      for (ReadOnlyEvent event : schedule.getEvents()) {
+        if (written.add(event)) {
+          writeEvent(writer, event, 1);
+        }
+      }
+    }
+    for (ISchedule schedule : schedules) {
+      for (RecurringEvent event : schedule.getRecurringEvents()) {
+        if (written.add(event)) {
+          writeRecurringEvent(writer, event, 1);
+        }
+      }
+    }
+    for (DatedSchedule schedule : datedSchedules) {
+      for (DatedEvent event : schedule.getEvents()) {
+        if (written.add(event)) {
+          writeDatedEvent(writer, event, 1);
+        }
+      }
+    }
+    for (ISchedule schedule : schedules) {
+      if (schedule.getAvailability() != null) {
+        writeAvailability(writer, schedule.getUserName(), schedule.getAvailability(), 1);
+      }
+    }
+
+    newLine(writer, 0);
+    writer.writeEndElement();
+    writer.writeEndDocument();
+    writer.flush();
+    writer.close();
+  }
+
+  /**
+   * Streams a single user's schedule as a standalone schedule XML document, in the same layout
+   * as {@link ScheduleXMLWriter} produces, to the given output stream. The stream is flushed but
+   * not closed.
+   *
+   * @param schedule The schedule to be written.
+   * @param out      The stream the document is written to.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeScheduleToXML(ISchedule schedule, OutputStream out)
+          throws XMLStreamException {
+    XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+    writer.writeStartDocument("UTF-8", "1.0");
+    newLine(writer, 0);
+    writer.writeStartElement("schedule");
+    writer.writeAttribute("id", schedule.getUserName());
+    for (ReadOnlyEvent event : schedule.getEvents()) {
+      writeEvent(writer, event, 1);
+    }
+    newLine(writer, 0);
+    writer.writeEndElement();
+    writer.writeEndDocument();
+    writer.flush();
+    writer.close();
+  }
+
+  /**
+   * Streams the given journal changes as a changes XML document to the given output stream.
+   * Every change names its subject and holds the subject before it, after it, or both: weekly
+   * events in the same layout as planner events, the change carrying the event's ID so the
+   * snapshots can be matched to the live event, and recurring events, dated events, rooms,
+   * groups and availability in the layouts of {@link #writeValue}. The stream is flushed but not
+   * closed.
+   *
+   * @param changes     The changes to be written, oldest first.
+   * @param fromVersion The version the changes are made after.
+   * @param toVersion   The version after the last change.
+   * @param out         The stream the document is written to.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeChangesToXML(List<ChangeJournal.Change> changes, long fromVersion,
+                                long toVersion, OutputStream out) throws XMLStreamException {
+    XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+    writer.writeStartDocument("UTF-8", "1.0");
+    newLine(writer, 0);
+    writer.writeStartElement("changes");
+    writer.writeAttribute("from", String.valueOf(fromVersion));
+    writer.writeAttribute("to", String.valueOf(toVersion));
+
+    for (ChangeJournal.Change change : changes) {
+      newLine(writer, 1);
+      writer.writeStartElement("change");
+      writer.writeAttribute("version", String.valueOf(change.getVersion()));
+      writer.writeAttribute("type", change.getType().name().toLowerCase());
+      writer.writeAttribute("subject", elementName(change.getSubject()));
+      if (change.getSubject() == EventDelta.Subject.EVENT) {
+        ReadOnlyEvent event = change.getBefore() == null ? change.getAfter() : change.getBefore();
+        writer.writeAttribute("id", String.valueOf(event.getId()));
+      }
+      // availability is only ever modified, a null profile being the standard working hours
+      boolean availability = change.getSubject() == EventDelta.Subject.AVAILABILITY;
+      if (change.getBeforeValue() != null || availability) {
+        newLine(writer, 2);
+        writer.writeStartElement("before");
+        writeValue(writer, change.getSubject(), change.getKey(), change.getBeforeValue(), 3);
+        newLine(writer, 2);
+        writer.writeEndElement();
+      }
+      if (change.getAfterValue() != null || availability) {
+        newLine(writer, 2);
+        writer.writeStartElement("after");
+        writeValue(writer, change.getSubject(), change.getKey(), change.getAfterValue(), 3);
+        newLine(writer, 2);
+        writer.writeEndElement();
+      }
+      newLine(writer, 1);
+      writer.writeEndElement();
+    }
+
+    newLine(writer, 0);
+    writer.writeEndElement();
+    writer.writeEndDocument();
+    writer.flush();
+    writer.close();
+  }
+
+  /**
+   * Gets the name of the element a subject is written as, such as {@code recurring-event}.
+   *
+   * @param subject The subject.
+   * @return The element name.
+   */
+  private static String elementName(EventDelta.Subject subject) {
+    return subject.name().toLowerCase().replace('_', '-');
+  }
+
+  /**
+   * Writes the value of a journal change of the given subject at the given depth.
+   *
+   * @param writer  The stream writer to write to.
+   * @param subject The kind of value.
+   * @param key     The name of the value, the group ID or user ID of a group or availability.
+   * @param value   The value, of the type the subject names.
+   * @param depth   The indentation depth of the value's element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  @SuppressWarnings("unchecked")
+  private static void writeValue(XMLStreamWriter writer, EventDelta.Subject subject, String key,
+                                 Object value, int depth) throws XMLStreamException {
+    switch (subject) {
+      case EVENT:
+        writeEvent(writer, (ReadOnlyEvent) value, depth);
+        break;
+      case RECURRING_EVENT:
+        writeRecurringEvent(writer, (RecurringEvent) value, depth);
+        break;
+      case DATED_EVENT:
+        writeDatedEvent(writer, (DatedEvent) value, depth);
+        break;
+      case ROOM:
+        writeRoom(writer, (Room) value, depth);
+        break;
+      case GROUP:
+        writeGroup(writer, key, (List<String>) value, depth);
+        break;
+      case AVAILABILITY:
+        writeAvailability(writer, key, (AvailabilityProfile) value, depth);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown subject " + subject);
+    }
+  }
+
+  /**
+   * Writes a single event element, including its time, location and users, at the given depth.
+   * The host is always written as the first user, matching the layout read back by
+   * {@link PlannerXMLReader}.
+   *
+   * @param writer The stream writer to write to.
+   * @param event  The event to be written.
+   * @param depth  The indentation depth of the event element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeEvent(XMLStreamWriter writer, ReadOnlyEvent event, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("event");
+    writeElement(writer, "name", event.getName(), depth + 1);
+
+    newLine(writer, depth + 1);
+    writer.writeStartElement("time");
+    writeElement(writer, "start-day", TimeUtilities.formatDay(event.getStartDay()), depth + 2);
+    writeElement(writer, "start", TimeUtilities.formatTime(event.getTime().getStartTime()),
+            depth + 2);
+    writeElement(writer, "end-day", TimeUtilities.formatDay(event.getEndDay()), depth + 2);
+    writeElement(writer, "end", TimeUtilities.formatTime(event.getTime().getEndTime()),
+            depth + 2);
+    newLine(writer, depth + 1);
+    writer.writeEndElement();
+
+    writeLocationAndUsers(writer, event.isOnline(), event.getLocation(), event.getHost(),
+            event.getInvitees(), depth + 1);
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes a recurring event element at the given depth. The rule is written in place of the
+   * time of a weekly event, leaving out a count or last week the rule does not stop at.
+   *
+   * @param writer The stream writer to write to.
+   * @param event  The recurring event to be written.
+   * @param depth  The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeRecurringEvent(XMLStreamWriter writer, RecurringEvent event, int depth)
+          throws XMLStreamException {
+    RecurrenceRule rule = event.getRule();
+    newLine(writer, depth);
+    writer.writeStartElement("recurring-event");
+    writeElement(writer, "name", event.getName(), depth + 1);
+
+    newLine(writer, depth + 1);
+    writer.writeStartElement("rule");
+    for (DayOfWeek day : rule.getDays()) {
+      writeElement(writer, "day", TimeUtilities.formatDay(day), depth + 2);
+    }
+    writeElement(writer, "start", TimeUtilities.formatMinuteOfDay(rule.getStartMinuteOfDay()),
+            depth + 2);
+    writeElement(writer, "duration", String.valueOf(rule.getDuration()), depth + 2);
+    writeElement(writer, "interval", String.valueOf(rule.getInterval()), depth + 2);
+    if (rule.getCount() != RecurrenceRule.UNBOUNDED) {
+      writeElement(writer, "count", String.valueOf(rule.getCount()), depth + 2);
+    }
+    if (rule.getUntilWeek() != RecurrenceRule.UNBOUNDED) {
+      writeElement(writer, "until-week", String.valueOf(rule.getUntilWeek()), depth + 2);
+    }
+    newLine(writer, depth + 1);
+    writer.writeEndElement();
+
+    writeLocationAndUsers(writer, event.isOnline(), event.getLocation(), event.getHost(),
+            event.getInvitees(), depth + 1);
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes a dated event element at the given depth, its start and end as ISO-8601 local date
+   * times.
+   *
+   * @param writer The stream writer to write to.
+   * @param event  The dated event to be written.
+   * @param depth  The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeDatedEvent(XMLStreamWriter writer, DatedEvent event, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("dated-event");
+    writeElement(writer, "name", event.getName(), depth + 1);
+
+    newLine(writer, depth + 1);
+    writer.writeStartElement("time");
+    writeElement(writer, "start", event.getTime().getStart().toString(), depth + 2);
+    writeElement(writer, "end", event.getTime().getEnd().toString(), depth + 2);
+    newLine(writer, depth + 1);
+    writer.writeEndElement();
+
+    writeLocationAndUsers(writer, event.isOnline(), event.getLocation(), event.getHost(),
+            event.getInvitees(), depth + 1);
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes a room element with its name and capacity at the given depth.
+   *
+   * @param writer The stream writer to write to.
+   * @param room   The room to be written.
+   * @param depth  The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeRoom(XMLStreamWriter writer, Room room, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("room");
+    writeElement(writer, "name", room.getName(), depth + 1);
+    writeElement(writer, "capacity", String.valueOf(room.getCapacity()), depth + 1);
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes a group element with the user IDs of its members at the given depth.
+   *
+   * @param writer  The stream writer to write to.
+   * @param groupId The ID of the group.
+   * @param members The user IDs of the members.
+   * @param depth   The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeGroup(XMLStreamWriter writer, String groupId, List<String> members,
+                         int depth) throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("group");
+    writer.writeAttribute("id", groupId);
+    for (String member : members) {
+      writeElement(writer, "member", member, depth + 1);
+    }
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes an availability element with the shifts of a user at the given depth. A user on the
+   * standard working hours, without a profile of their own, is marked as standard instead.
+   *
+   * @param writer  The stream writer to write to.
+   * @param userId  The ID of the user.
+   * @param profile The user's availability, or null for the standard working hours.
+   * @param depth   The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeAvailability(XMLStreamWriter writer, String userId,
+                                AvailabilityProfile profile, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("availability");
+    writer.writeAttribute("user", userId);
+    if (profile == null) {
+      writer.writeAttribute("standard", "true");
+    } else {
+      for (String[] shift : profile.getShifts()) {
+        newLine(writer, depth + 1);
+        writer.writeStartElement("shift");
+        writeElement(writer, "start-day", shift[0], depth + 2);
+        writeElement(writer, "start", shift[1], depth + 2);
+        writeElement(writer, "end-day", shift[2], depth + 2);
+        writeElement(writer, "end", shift[3], depth + 2);
+        newLine(writer, depth + 1);
+        writer.writeEndElement();
+      }
+      newLine(writer, depth);
+    }
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes the location and users elements shared by every kind of event, the host first.
+   *
+   * @param writer   The stream writer to write to.
+   * @param online   Whether the event is online.
+   * @param place    The location of the event.
+   * @param host     The user ID of the host.
+   * @param invitees The user IDs of the invitees, including the host.
+   * @param depth    The indentation depth of the elements.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  private static void writeLocationAndUsers(XMLStreamWriter writer, boolean online, String place,
+                                            String host, List<String> invitees, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement("location");
+    writeElement(writer, "online", String.valueOf(online), depth + 1);
+    writeElement(writer, "place", place, depth + 1);
+    newLine(writer, depth);
+    writer.writeEndElement();
+
+    newLine(writer, depth);
+    writer.writeStartElement("users");
+    writeElement(writer, "uid", host, depth + 1);
+    for (String invitee : invitees) {
+      if (!invitee.equals(host)) { // Avoid duplication
+        writeElement(writer, "uid", invitee, depth + 1);
+      }
+    }
+    newLine(writer, depth);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Writes a simple text-only element on its own line.
+   *
+   * @param writer The stream writer to write to.
+   * @param name   The name of the element.
+   * @param text   The text content of the element.
+   * @param depth  The indentation depth of the element.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void writeElement(XMLStreamWriter writer, String name, String text, int depth)
+          throws XMLStreamException {
+    newLine(writer, depth);
+    writer.writeStartElement(name);
+    writer.writeCharacters(text);
+    writer.writeEndElement();
+  }
+
+  /**
+   * Starts a new line indented with one tab per depth level, so streamed documents stay as
+   * readable as the ones produced through the DOM transformer.
+   *
+   * @param writer The stream writer to write to.
+   * @param depth  The number of tabs to indent the new line with.
+   * @throws XMLStreamException if an error occurs while writing the XML stream.
+   */
+  static void newLine(XMLStreamWriter writer, int depth) throws XMLStreamException {
+    writer.writeCharacters("\n");
+    for (int i = 0; i < depth; i++) {
+      writer.writeCharacters("\t");
+    }
+  }
+}
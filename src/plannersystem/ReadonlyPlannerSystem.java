@@ -1,9 +1,16 @@
 package plannersystem;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import schedule.DatedEvent;
+import schedule.DatedTime;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.Room;
 
 /**
  * The ReadonlyPlannerSystem interface defines a read-only view of the PlannerSystem.
@@ -23,6 +30,78 @@ public interface ReadonlyPlannerSystem {
    */
   void saveUserSchedule(String userId, String filePath);
 
+  /**
+   * Saves the schedules of every user in the system to a single planner XML file. Each event is
+   * written only once, together with its full list of invitees, so shared events are not
+   * duplicated per user.
+   *
+   * @param filePath The path of the file to save the planner to.
+   * @throws IllegalArgumentException if the file path is null or empty.
+   * @throws IllegalStateException    if any error occurs during the saving process, encapsulating
+   *                                  the original exception message.
+   */
+  void savePlanner(String filePath);
+
+  /**
+   * Gets the current version of the planner. The version starts at 0 and increases by one with
+   * every event that is added, removed, or modified, and with every change to a recurring or
+   * dated event, a room, a group or its members, or a user's availability.
+   *
+   * @return The current version.
+   */
+  long getVersion();
+
+  /**
+   * Streams every change made after the given version to the given output, as an XML document
+   * of added, removed, and modified events, recurring and dated events, rooms, groups and
+   * availability, each marked with its subject, in the order they happened. Changes to weekly
+   * events carry the ID of the event, as {@link #getEventById} takes it. Consumers can
+   * remember the version the document ends at and ask only for the changes after it next time.
+   * Only a bounded number of recent changes is kept. The stream is flushed but not closed.
+   *
+   * @param sinceVersion The version to export the changes after.
+   * @param out          The stream the changes are written to.
+   * @throws IllegalArgumentException if the stream is null, or the version is negative or newer
+   *                                  than the current version.
+   * @throws IllegalStateException    if the changes since the version are no longer kept, or an
+   *                                  error occurs while writing.
+   */
+  void exportChanges(long sinceVersion, OutputStream out);
+
+  /**
+   * Gets every change made after the given version, in the order they happened. Only a bounded
+   * number of recent changes is kept. Changes to anything but the weekly events are included too,
+   * named by their {@link EventDelta.Subject}.
+   *
+   * @param sinceVersion The version to get the changes after.
+   * @return The changes, each with snapshots of its subject before and after it.
+   * @throws IllegalArgumentException if the version is negative or newer than the current
+   *                                  version.
+   * @throws IllegalStateException    if the changes since the version are no longer kept.
+   */
+  List<EventDelta> getChangesSince(long sinceVersion);
+
+  /**
+   * Gets the event in the planner with the given ID.
+   *
+   * @param id The event ID, see {@link ReadOnlyEvent#getId()}.
+   * @return The event, or null if no schedule holds an event with that ID.
+   */
+  ReadOnlyEvent getEventById(long id);
+
+  /**
+   * Finds the events of every schedule matching a query. The query is answered from whichever of
+   * the user's schedule, the host index, the location index or the index of the hours of the week
+   * yields the fewest candidates, and only those candidates are checked against the rest of the
+   * query, lazily as the stream is consumed.
+   *
+   * @param query The query.
+   * @return The matching events, each once, in the order they were created.
+   * @throws IllegalArgumentException if the query is null.
+   * @throws IllegalStateException    if the first day of the week has not been set.
+   */
+  Stream<ReadOnlyEvent> findEvents(EventQuery query);
+
   /**
    * Generates and returns a string representation of a user's schedule, formatted for display.
    * This method allows viewing the details of a user's schedule without modifying it.
@@ -70,6 +149,67 @@ public interface ReadonlyPlannerSystem {
    */
   Set<String> getUsers();
 
+  /**
+   * Finds the users whose IDs start with the given prefix, ignoring case, for example to suggest
+   * invitees as their names are typed. The lookup does not scan all users, and is safe to run
+   * off the thread modifying the planner.
+   *
+   * @param prefix The start of the user IDs; an empty prefix matches every user.
+   * @param limit  The most users to return.
+   * @return The matching user IDs in case-insensitive order, at most limit of them.
+   * @throws IllegalArgumentException if the prefix is null or the limit is negative.
+   */
+  List<String> findUsers(String prefix, int limit);
+
+  /**
+   * Gets the IDs of the groups that can be invited to events as a whole.
+   *
+   * @return The group IDs, in order.
+   */
+  Set<String> getGroups();
+
+  /**
+   * Gets the members of a group.
+   *
+   * @param groupId The ID of the group.
+   * @return The user IDs of the members, in the order they joined.
+   * @throws IllegalArgumentException if the ID is null or there is no such group.
+   */
+  List<String> getGroupMembers(String groupId);
+
+  /**
+   * Gets the rooms in-person events can be held in.
+   *
+   * @return The rooms, from the smallest to the largest.
+   */
+  List<Room> getRooms();
+
+  /**
+   * Gets the dated events of a user overlapping a range of dates and times. Only the calendar
+   * weeks the range covers are looked at, however many weeks the user's schedule holds.
+   *
+   * @param userId The user ID.
+   * @param from   The start of the range.
+   * @param to     The exclusive end of the range.
+   * @return The overlapping events ordered by start, empty for a user without dated events.
+   * @throws IllegalArgumentException if an argument is null or the range is reversed.
+   */
+  List<DatedEvent> getDatedEvents(String userId, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Finds the earliest time within a range of dates and times at which none of the given users
+   * has a dated event. Unlike the scheduling strategies, the range is not limited to one week.
+   *
+   * @param userIds  The user IDs of the people who must all be free.
+   * @param from     The earliest start.
+   * @param to       The latest end.
+   * @param duration The duration in minutes.
+   * @return The earliest free time, or null if there is none in the range.
+   * @throws IllegalArgumentException if an argument is null or the duration is not positive.
+   */
+  DatedTime findDatedTime(List<String> userIds, LocalDateTime from, LocalDateTime to,
+                          int duration);
+
   /**
    * Checks if the given event conflicts with existing schedules for all invited users.
    * This method attempts to validate the timing of the event against the schedules of all users
@@ -83,6 +223,19 @@ public interface ReadonlyPlannerSystem {
    */
   boolean checkEventConflict(ReadOnlyEvent event);
 
+  /**
+   * Explains why the given event conflicts with existing schedules: every invited user or group,
+   * and the event's room, that is busy at some of its time, with the events keeping them busy and
+   * how much of the time each takes, along with the nearest times before and after it at which
+   * nobody is busy. An event already in the planner does not conflict with its own earlier
+   * state.
+   *
+   * @param event The event to explain the conflicts of.
+   * @return The report of the conflicts, without conflicts if the event can take its time.
+   * @throws IllegalArgumentException if event is null.
+   */
+  ConflictReport explainConflicts(ReadOnlyEvent event);
+
   /**
    * Gets the first day of the week for the planner.
    *
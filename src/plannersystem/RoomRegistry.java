@@ -0,0 +1,386 @@
+package plannersystem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import schedule.DatedEvent;
+import schedule.ISchedule;
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+import schedule.Room;
+import schedule.Schedule;
+import schedule.WeekBitmap;
+
+/**
+ * The rooms of a planner and the in-person events booked into them. Each room keeps its events
+ * in a schedule of its own, so it can be checked for conflicts like any user, together with a
+ * bitmap of its busy minutes that is rebuilt only after the room's events change. Testing whether
+ * a room is free at a time then costs a few word reads, so finding a free room of a suitable
+ * size among hundreds of them stays cheap even when it is done for every time a strategy tries.
+ */
+class RoomRegistry {
+  private final Map<String, Entry> rooms = new HashMap<>();
+  // ordered by capacity, so the smallest room that is large enough is found first
+  private final List<Entry> byCapacity = new ArrayList<>();
+  private final Map<Long, Entry> bookings = new HashMap<>();
+
+  /**
+   * A room with its events and the cached bitmap of its busy minutes.
+   */
+  private static final class Entry {
+    private final Room room;
+    private final ISchedule schedule;
+    private WeekBitmap busy;
+    private long busyVersion;
+    private String busyFirstDay;
+
+    private Entry(Room room) {
+      this.room = room;
+      this.schedule = new Schedule(room.getName());
+    }
+
+    /**
+     * Gets the bitmap of the busy minutes of the room, rebuilding it if the room's events or the
+     * first day of the week changed since it was built.
+     *
+     * @param firstDayOfWeek The first day of the week.
+     * @return The busy minutes of the room.
+     */
+    private WeekBitmap busy(String firstDayOfWeek) {
+      if (this.busy == null || this.busyVersion != this.schedule.getVersion()
+              || !firstDayOfWeek.equals(this.busyFirstDay)) {
+        this.busy = WeekBitmap.of(this.schedule, firstDayOfWeek);
+        this.busyVersion = this.schedule.getVersion();
+        this.busyFirstDay = firstDayOfWeek;
+      }
+      return this.busy;
+    }
+  }
+
+  /**
+   * Adds a room.
+   *
+   * @param room The room.
+   * @throws IllegalArgumentException if a room of the same name exists.
+   */
+  void add(Room room) {
+    String key = EventQuery.locationKey(room.getName());
+    if (this.rooms.containsKey(key)) {
+      throw new IllegalArgumentException("Room " + room.getName() + " already exists");
+    }
+    Entry entry = new Entry(room);
+    this.rooms.put(key, entry);
+    int index = 0;
+    while (index < this.byCapacity.size()
+            && this.byCapacity.get(index).room.getCapacity() <= room.getCapacity()) {
+      index++;
+    }
+    this.byCapacity.add(index, entry);
+  }
+
+  /**
+   * Removes a room without events.
+   *
+   * @param name The name of the room.
+   * @return True if the room was removed, false if there is no such room.
+   * @throws IllegalArgumentException if events are booked into the room.
+   */
+  boolean remove(String name) {
+    Entry entry = this.rooms.get(EventQuery.locationKey(name));
+    if (entry == null) {
+      return false;
+    }
+    if (!entry.schedule.getEvents().isEmpty()) {
+      throw new IllegalArgumentException("Room " + entry.room.getName() + " still has events");
+    }
+    this.rooms.remove(EventQuery.locationKey(name));
+    this.byCapacity.remove(entry);
+    return true;
+  }
+
+  /**
+   * Gets every room.
+   *
+   * @return The rooms, from the smallest to the largest.
+   */
+  List<Room> getRooms() {
+    List<Room> found = new ArrayList<>();
+    for (Entry entry : this.byCapacity) {
+      found.add(entry.room);
+    }
+    return found;
+  }
+
+  /**
+   * Gets the room an event is held in.
+   *
+   * @param event The event.
+   * @return The room, or null if the event is online or its location is not a room.
+   */
+  Room roomOf(ReadOnlyEvent event) {
+    return this.roomOf(event.isOnline(), event.getLocation());
+  }
+
+  /**
+   * Gets the room at a location.
+   *
+   * @param isOnline Whether the event at the location is online.
+   * @param location The location.
+   * @return The room, or null if the event is online or the location is not a room.
+   */
+  Room roomOf(boolean isOnline, String location) {
+    Entry entry = this.entryOf(isOnline, location);
+    return entry == null ? null : entry.room;
+  }
+
+  /**
+   * Gets the schedule of the room an event is held in, for checking the event against it.
+   *
+   * @param event The event.
+   * @return The room's schedule, or null if the event is not in a room.
+   */
+  ISchedule scheduleOf(ReadOnlyEvent event) {
+    Entry entry = this.entryOf(event);
+    return entry == null ? null : entry.schedule;
+  }
+
+  /**
+   * Books an event into its room, if it is held in one.
+   *
+   * @param event The event.
+   */
+  void book(ReadOnlyEvent event) {
+    Entry entry = this.entryOf(event);
+    if (entry != null && !entry.schedule.hasEvent(event)) {
+      entry.schedule.addEvent(event);
+      this.bookings.put(event.getId(), entry);
+    }
+  }
+
+  /**
+   * Releases the room of an event, if it was booked into one.
+   *
+   * @param event The event.
+   */
+  void release(ReadOnlyEvent event) {
+    Entry entry = this.bookings.remove(event.getId());
+    if (entry != null) {
+      entry.schedule.removeEvent(event);
+    }
+  }
+
+  /**
+   * Validates that an event not yet booked fits in its room and that the room is free at the
+   * event's time.
+   *
+   * @param event          The event.
+   * @param people         The number of people attending the event.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if the room is too small or already booked.
+   */
+  void validateBooking(ReadOnlyEvent event, int people, String firstDayOfWeek) {
+    if (this.entryOf(event) == null) {
+      return;
+    }
+    ITime time = event.getTime();
+    this.validateBooking(event.isOnline(), event.getLocation(),
+            time.getStartMinute(firstDayOfWeek), time.getEndMinute(firstDayOfWeek), people,
+            firstDayOfWeek);
+  }
+
+  /**
+   * Validates that an event at a location, over a range of the week, fits in the room at the
+   * location and that the room is free over the range.
+   *
+   * @param isOnline       Whether the event is online.
+   * @param location       The location of the event.
+   * @param start          The start of the range in minutes since the start of the week.
+   * @param end            The exclusive end of the range, up to twice the minutes in a week.
+   * @param people         The number of people attending the event.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if the room is too small or already booked.
+   */
+  void validateBooking(boolean isOnline, String location, int start, int end, int people,
+                       String firstDayOfWeek) {
+    Entry entry = this.entryOf(isOnline, location);
+    if (entry == null) {
+      return;
+    }
+    if (entry.room.getCapacity() < people) {
+      throw new IllegalArgumentException("Room " + entry.room.getName() + " holds only "
+              + entry.room.getCapacity() + " people.");
+    }
+    if (entry.busy(firstDayOfWeek).isBusy(start, end)) {
+      throw new IllegalArgumentException("Room " + entry.room.getName() + " is already booked "
+              + "at that time.");
+    }
+  }
+
+  /**
+   * Validates that an event on calendar dates fits in its room and that the room has no weekly
+   * booking on the day of the week and at the time the event falls on.
+   *
+   * @param event          The dated event.
+   * @param people         The number of people attending the event.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if the room is too small or booked every week at that time.
+   */
+  void validateBooking(DatedEvent event, int people, String firstDayOfWeek) {
+    int[] range = event.getTime().weeklyRange(firstDayOfWeek);
+    this.validateBooking(event.isOnline(), event.getLocation(), range[0], range[1], people,
+            firstDayOfWeek);
+  }
+
+  /**
+   * Checks whether two dated events are held in the same room.
+   *
+   * @param event The first event.
+   * @param other The second event.
+   * @return True if both are held in person in the same room, otherwise false.
+   */
+  boolean sameRoom(DatedEvent event, DatedEvent other) {
+    Entry entry = this.entryOf(event.isOnline(), event.getLocation());
+    return entry != null && entry == this.entryOf(other.isOnline(), other.getLocation());
+  }
+
+  /**
+   * Validates that an event fits in its room, if it is held in one.
+   *
+   * @param event  The event.
+   * @param people The number of people attending the event.
+   * @throws IllegalArgumentException if the room is too small for the invitees.
+   */
+  void validateCapacity(ReadOnlyEvent event, int people) {
+    Entry entry = this.entryOf(event);
+    if (entry != null && entry.room.getCapacity() < people) {
+      throw new IllegalArgumentException("Room " + entry.room.getName() + " holds only "
+              + entry.room.getCapacity() + " people.");
+    }
+  }
+
+  /**
+   * Marks the minutes the room of an event is booked as busy in a bitmap, leaving out the
+   * booking of the event's own earlier state.
+   *
+   * @param event          The event.
+   * @param original       The earlier state of the event, or null if it is new.
+   * @param bitmap         The bitmap.
+   * @param firstDayOfWeek The first day of the week.
+   */
+  void markBooked(ReadOnlyEvent event, ReadOnlyEvent original, WeekBitmap bitmap,
+                  String firstDayOfWeek) {
+    Entry entry = this.entryOf(event);
+    if (entry == null) {
+      return;
+    }
+    WeekBitmap booked = new WeekBitmap();
+    booked.setBusy(entry.busy(firstDayOfWeek));
+    if (original != null && this.bookings.get(original.getId()) == entry) {
+      // the events of a room never overlap, so these minutes are the original's alone
+      ITime time = original.getTime();
+      booked.setFree(time.getStartMinute(firstDayOfWeek), time.getEndMinute(firstDayOfWeek));
+    }
+    bitmap.setBusy(booked);
+  }
+
+  /**
+   * Finds the smallest room holding the given number of people that is free over a range of the
+   * week.
+   *
+   * @param people         The number of people.
+   * @param start          The start of the range in minutes since the start of the week.
+   * @param end            The exclusive end of the range, up to twice the minutes in a week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The room, or null if every room large enough is busy.
+   */
+  Room findFreeRoom(int people, int start, int end, String firstDayOfWeek) {
+    for (int i = this.firstHolding(people); i < this.byCapacity.size(); i++) {
+      Entry entry = this.byCapacity.get(i);
+      if (!entry.busy(firstDayOfWeek).isBusy(start, end)) {
+        return entry.room;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets a schedule that is busy exactly when every room holding the given number of people is,
+   * so a strategy given it as a resource finds a time at which some room is free too. The
+   * schedule only answers conflict checks and holds no events.
+   *
+   * @param people         The number of people.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The schedule of the free rooms.
+   */
+  ISchedule availability(int people, String firstDayOfWeek) {
+    return new Schedule("rooms") {
+      @Override
+      public boolean overlap(ReadOnlyEvent newEvent, String firstDay) {
+        ITime time = newEvent.getTime();
+        return this.overlap(time.getStartMinute(firstDay), time.getEndMinute(firstDay),
+                firstDay);
+      }
+
+      @Override
+      public boolean overlap(int startMinute, int endMinute, String firstDay) {
+        return findFreeRoom(people, startMinute, endMinute, firstDayOfWeek) == null;
+      }
+    };
+  }
+
+  /**
+   * Gets the largest capacity of any room.
+   *
+   * @return The capacity, or 0 if there are no rooms.
+   */
+  int maxCapacity() {
+    return this.byCapacity.isEmpty() ? 0
+            : this.byCapacity.get(this.byCapacity.size() - 1).room.getCapacity();
+  }
+
+  /**
+   * Gets the entry of the room an event is held in.
+   *
+   * @param event The event.
+   * @return The entry, or null if the event is online or its location is not a room.
+   */
+  private Entry entryOf(ReadOnlyEvent event) {
+    return this.entryOf(event.isOnline(), event.getLocation());
+  }
+
+  /**
+   * Gets the entry of the room at a location.
+   *
+   * @param isOnline Whether the event at the location is online.
+   * @param location The location.
+   * @return The entry, or null if the event is online or the location is not a room.
+   */
+  private Entry entryOf(boolean isOnline, String location) {
+    if (this.rooms.isEmpty() || isOnline) {
+      return null;
+    }
+    return this.rooms.get(EventQuery.locationKey(location));
+  }
+
+  /**
+   * Finds the first room, in order of capacity, holding the given number of people.
+   *
+   * @param people The number of people.
+   * @return The index of the room in the capacity order.
+   */
+  private int firstHolding(int people) {
+    int low = 0;
+    int high = this.byCapacity.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (this.byCapacity.get(mid).room.getCapacity() < people) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -11,19 +11,26 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 
 import java.io.File;
+import java.time.DayOfWeek;
+import java.util.List;
 
 import javax.xml.transform.OutputKeys;
 
+import schedule.DatedEvent;
 import schedule.ILocation;
 import schedule.ISchedule;
 import schedule.ITime;
 import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
 import schedule.TimeUtilities;
 
 /**
  * Provides functionality to write schedule information into an XML file.
  * This class enables the serialization of a {@link ISchedule} object to XML, preserving
- * event details, including names, times, locations, hosts, and invitees.
+ * event details, including names, times, locations, hosts, and invitees. The user's recurring
+ * events, dated events and availability are written after the events, in the layouts of
+ * {@link PlannerXMLWriter}.
  */
 public class ScheduleXMLWriter {
 
@@ -43,6 +50,21 @@ public class ScheduleXMLWriter {
    *                   and others related to IO operations.
    */
   public static void writeScheduleToXML(ISchedule schedule, String filePath) throws Exception {
+    writeScheduleToXML(schedule, List.of(), filePath);
+  }
+
+  /**
+   * Writes the provided {@link ISchedule} object and the user's dated events to an XML file at
+   * the specified file path.
+   *
+   * @param schedule    The {@link ISchedule} object to be serialized to XML.
+   * @param datedEvents The dated events of the schedule's user.
+   * @param filePath    The file path where the XML file will be saved.
+   * @throws Exception if an error occurs during document building, XML serialization,
+   *                   or file writing.
+   */
+  public static void writeScheduleToXML(ISchedule schedule, List<DatedEvent> datedEvents,
+                                        String filePath) throws Exception {
     DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
     DocumentBuilder documentBuilder = documentFactory.newDocumentBuilder();
     Document document = documentBuilder.newDocument();
@@ -82,6 +104,56 @@ public class ScheduleXMLWriter {
       eventElement.appendChild(usersElement);
     }
 
+    for (RecurringEvent event : schedule.getRecurringEvents()) {
+      Element eventElement = document.createElement("recurring-event");
+      root.appendChild(eventElement);
+      appendText(document, eventElement, "name", event.getName());
+      RecurrenceRule rule = event.getRule();
+      Element ruleElement = document.createElement("rule");
+      for (DayOfWeek day : rule.getDays()) {
+        appendText(document, ruleElement, "day", TimeUtilities.formatDay(day));
+      }
+      appendText(document, ruleElement, "start",
+              TimeUtilities.formatMinuteOfDay(rule.getStartMinuteOfDay()));
+      appendText(document, ruleElement, "duration", String.valueOf(rule.getDuration()));
+      appendText(document, ruleElement, "interval", String.valueOf(rule.getInterval()));
+      if (rule.getCount() != RecurrenceRule.UNBOUNDED) {
+        appendText(document, ruleElement, "count", String.valueOf(rule.getCount()));
+      }
+      if (rule.getUntilWeek() != RecurrenceRule.UNBOUNDED) {
+        appendText(document, ruleElement, "until-week", String.valueOf(rule.getUntilWeek()));
+      }
+      eventElement.appendChild(ruleElement);
+      appendLocationAndUsers(document, eventElement, event.isOnline(), event.getLocation(),
+              event.getHost(), event.getInvitees());
+    }
+
+    for (DatedEvent event : datedEvents) {
+      Element eventElement = document.createElement("dated-event");
+      root.appendChild(eventElement);
+      appendText(document, eventElement, "name", event.getName());
+      Element timeElement = document.createElement("time");
+      appendText(document, timeElement, "start", event.getTime().getStart().toString());
+      appendText(document, timeElement, "end", event.getTime().getEnd().toString());
+      eventElement.appendChild(timeElement);
+      appendLocationAndUsers(document, eventElement, event.isOnline(), event.getLocation(),
+              event.getHost(), event.getInvitees());
+    }
+
+    if (schedule.getAvailability() != null) {
+      Element availabilityElement = document.createElement("availability");
+      availabilityElement.setAttribute("user", schedule.getUserName());
+      for (String[] shift : schedule.getAvailability().getShifts()) {
+        Element shiftElement = document.createElement("shift");
+        appendText(document, shiftElement, "start-day", shift[0]);
+        appendText(document, shiftElement, "start", shift[1]);
+        appendText(document, shiftElement, "end-day", shift[2]);
+        appendText(document, shiftElement, "end", shift[3]);
+        availabilityElement.appendChild(shiftElement);
+      }
+      root.appendChild(availabilityElement);
+    }
+
     TransformerFactory transformerFactory = TransformerFactory.newInstance();
     Transformer transformer = transformerFactory.newTransformer();
     transformer.setOutputProperty(OutputKeys.INDENT, "yes");
@@ -91,6 +163,48 @@ public class ScheduleXMLWriter {
   }
 
 
+  /**
+   * Appends a text-only element to the given parent element.
+   *
+   * @param doc    The XML {@link Document} being constructed.
+   * @param parent The element to append to.
+   * @param name   The name of the new element.
+   * @param text   The text of the new element.
+   */
+  private static void appendText(Document doc, Element parent, String name, String text) {
+    Element element = doc.createElement(name);
+    element.setTextContent(text);
+    parent.appendChild(element);
+  }
+
+  /**
+   * Appends the location and users of a recurring or dated event to its element, the host
+   * first, as events have them.
+   *
+   * @param doc          The XML {@link Document} being constructed.
+   * @param eventElement The element of the event.
+   * @param online       Whether the event is online.
+   * @param place        The location of the event.
+   * @param host         The user ID of the host.
+   * @param invitees     The user IDs of the invitees, including the host.
+   */
+  private static void appendLocationAndUsers(Document doc, Element eventElement, boolean online,
+                                             String place, String host, List<String> invitees) {
+    Element locationElement = doc.createElement("location");
+    appendText(doc, locationElement, "online", String.valueOf(online));
+    appendText(doc, locationElement, "place", place);
+    eventElement.appendChild(locationElement);
+
+    Element usersElement = doc.createElement("users");
+    appendText(doc, usersElement, "uid", host);
+    for (String invitee : invitees) {
+      if (!invitee.equals(host)) { // Avoid duplication
+        appendText(doc, usersElement, "uid", invitee);
+      }
+    }
+    eventElement.appendChild(usersElement);
+  }
+
   /**
    * Appends time details of an event to the provided time XML element.
    * This helper method constructs and appends XML elements representing the start and end times
@@ -0,0 +1,521 @@
+package plannersystem;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.xml.stream.XMLStreamException;
+
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+import schedule.Schedule;
+import validationutilities.ValidationUtilities;
+
+/**
+ * A directory based storage engine for user schedules. Users are spread over a fixed number of
+ * segments by the hash of their ID, and every segment is kept in two files of its own:
+ * <ul>
+ *   <li>{@code segment-NNNN-G.xml}, the schedules of the segment's users, each stored as a
+ *   standalone schedule XML document in the layout of {@link ScheduleXMLWriter}, one after the
+ *   other, where G is the generation of the segment, increased on every write;</li>
+ *   <li>{@code segment-NNNN.idx}, the segment's index, giving the current generation and, for
+ *   every stored user, the offset and length of their schedule document in the segment file.</li>
+ * </ul>
+ *
+ * <p>Loading a user reads the index of their segment and then only the bytes of their schedule.
+ * Saving a user rewrites only their segment, copying the other users' documents from the old
+ * segment file byte for byte. Loading or saving every user works on all segments in parallel.
+ * A write produces a new generation of the segment file, and only the atomic replacement of the
+ * index makes it current, so an interrupted save leaves the previous generation intact.</p>
+ *
+ * <p>Every event is stored in the schedule of each of its users. When several users are loaded
+ * together, events that are equal across their schedules are loaded as a single shared event,
+ * as the planner system expects.</p>
+ */
+public class ShardedScheduleStore {
+  private static final int INDEX_MAGIC = 0x504C4958;
+  private static final String SEGMENT_FORMAT = "segment-%04d-%d.xml";
+  private static final String INDEX_FORMAT = "segment-%04d.idx";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  private final Path directory;
+  private final int segmentCount;
+  private final ReentrantLock[] locks;
+
+  /**
+   * The index of a segment: the current generation of its file and where each user's schedule
+   * document is in it.
+   */
+  private static final class SegmentIndex {
+    private final long generation;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Constructs an index of the given generation with the given entries.
+     *
+     * @param generation The generation of the segment file.
+     * @param entries    The entries of the segment's users, in storage order.
+     */
+    private SegmentIndex(long generation, Map<String, Entry> entries) {
+      this.generation = generation;
+      this.entries = entries;
+    }
+  }
+
+  /**
+   * The location of a user's schedule document within a segment file.
+   */
+  private static final class Entry {
+    private final long offset;
+    private final int length;
+
+    /**
+     * Constructs an entry for a document at the given offset with the given length.
+     *
+     * @param offset The offset of the document in the segment file, in bytes.
+     * @param length The length of the document, in bytes.
+     */
+    private Entry(long offset, int length) {
+      this.offset = offset;
+      this.length = length;
+    }
+  }
+
+  /**
+   * Constructs a store over the given directory with the given number of segments, creating the
+   * directory if it does not exist. A store must always be opened with the same number of
+   * segments it was written with.
+   *
+   * @param directory    The directory holding the segment files.
+   * @param segmentCount The number of segments users are spread over.
+   * @throws IllegalArgumentException if the directory is null or the segment count is not
+   *                                  positive.
+   * @throws IllegalStateException    if the directory cannot be created.
+   */
+  public ShardedScheduleStore(Path directory, int segmentCount) {
+    ValidationUtilities.validateNull(directory);
+    if (segmentCount <= 0) {
+      throw new IllegalArgumentException("Segment count must be positive");
+    }
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new IllegalStateException("Error in creating the store directory");
+    }
+    this.directory = directory;
+    this.segmentCount = segmentCount;
+    this.locks = new ReentrantLock[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      this.locks[i] = new ReentrantLock();
+    }
+  }
+
+  /**
+   * Gets the segment the given user is stored in.
+   *
+   * @param userId The ID of the user.
+   * @return The index of the user's segment.
+   * @throws IllegalArgumentException if the user ID is null.
+   */
+  public int segmentOf(String userId) {
+    ValidationUtilities.validateNull(userId);
+    return Math.floorMod(userId.hashCode(), segmentCount);
+  }
+
+  /**
+   * Saves the given schedules as the whole content of the store, replacing everything stored
+   * before. Every segment is written in parallel.
+   *
+   * @param schedules The schedules of every user to be stored.
+   * @throws IllegalArgumentException if the list of schedules is null or contains null.
+   * @throws IllegalStateException    if an error occurs while writing a segment.
+   */
+  public void saveAll(List<ISchedule> schedules) {
+    if (schedules == null || schedules.contains(null)) {
+      throw new IllegalArgumentException("Invalid list of schedules");
+    }
+    List<List<ISchedule>> segments = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      segments.add(new ArrayList<>());
+    }
+    for (ISchedule schedule : schedules) {
+      segments.get(this.segmentOf(schedule.getUserName())).add(schedule);
+    }
+
+    List<Callable<Void>> tasks = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      int segment = i;
+      tasks.add(() -> {
+        this.writeSegment(segment, segments.get(segment));
+        return null;
+      });
+    }
+    this.runInParallel(tasks);
+  }
+
+  /**
+   * Saves a single user's schedule, replacing the one stored for them if there is one. Only the
+   * user's segment is read and rewritten.
+   *
+   * @param schedule The schedule to be stored.
+   * @throws IllegalArgumentException if the schedule is null.
+   * @throws IllegalStateException    if an error occurs while reading or writing the segment.
+   */
+  public void saveUser(ISchedule schedule) {
+    ValidationUtilities.validateNull(schedule);
+    int segment = this.segmentOf(schedule.getUserName());
+    locks[segment].lock();
+    try {
+      SegmentIndex oldIndex = this.readIndex(segment);
+      Map<String, Entry> entries = new LinkedHashMap<>();
+      long generation = oldIndex.generation + 1;
+      try (FileChannel out = this.openForWriting(segment, generation)) {
+        if (!oldIndex.entries.isEmpty()) {
+          try (FileChannel in = FileChannel.open(this.segmentPath(segment, oldIndex.generation),
+                  StandardOpenOption.READ)) {
+            for (Map.Entry<String, Entry> stored : oldIndex.entries.entrySet()) {
+              if (!stored.getKey().equals(schedule.getUserName())) {
+                entries.put(stored.getKey(), copyDocument(in, stored.getValue(), out));
+              }
+            }
+          }
+        }
+        entries.put(schedule.getUserName(), appendDocument(out, schedule));
+      }
+      this.commitSegment(segment, oldIndex.generation, new SegmentIndex(generation, entries));
+    } catch (IOException | XMLStreamException e) {
+      throw new IllegalStateException("Error in saving segment " + segment);
+    } finally {
+      locks[segment].unlock();
+    }
+  }
+
+  /**
+   * Loads a single user's schedule. Only the index of the user's segment and the user's own
+   * schedule document are read.
+   *
+   * @param userId The ID of the user to be loaded.
+   * @return The user's schedule.
+   * @throws IllegalArgumentException if the user ID is null or the user is not stored.
+   * @throws IllegalStateException    if an error occurs while reading or parsing the segment.
+   */
+  public ISchedule loadUser(String userId) {
+    int segment = this.segmentOf(userId);
+    locks[segment].lock();
+    try {
+      SegmentIndex index = this.readIndex(segment);
+      Entry entry = index.entries.get(userId);
+      if (entry == null) {
+        throw new IllegalArgumentException("User " + userId + " is not stored");
+      }
+      try (FileChannel in = FileChannel.open(this.segmentPath(segment, index.generation),
+              StandardOpenOption.READ)) {
+        return readDocument(in, userId, entry);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Error in opening segment " + segment);
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException("Error in parsing segment " + segment);
+    } finally {
+      locks[segment].unlock();
+    }
+  }
+
+  /**
+   * Loads the schedules of every stored user, reading all segments in parallel. Events that are
+   * equal across schedules are loaded as a single shared event.
+   *
+   * @return The schedules of every stored user.
+   * @throws IllegalStateException if an error occurs while reading or parsing a segment.
+   */
+  public List<ISchedule> loadAll() {
+    List<Callable<List<ISchedule>>> tasks = new ArrayList<>(segmentCount);
+    for (int i = 0; i < segmentCount; i++) {
+      int segment = i;
+      tasks.add(() -> this.readSegment(segment));
+    }
+
+    List<ISchedule> result = new ArrayList<>();
+    Map<ReadOnlyEvent, ReadOnlyEvent> shared = new HashMap<>();
+    for (List<ISchedule> segment : this.runInParallel(tasks)) {
+      for (ISchedule loaded : segment) {
+        ISchedule schedule = new Schedule(loaded.getUserName());
+        for (ReadOnlyEvent event : loaded.getEvents()) {
+          ReadOnlyEvent existing = shared.putIfAbsent(event, event);
+          schedule.addEvent(existing == null ? event : existing);
+        }
+        result.add(schedule);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Writes the given schedules as the whole content of a segment.
+   *
+   * @param segment   The index of the segment.
+   * @param schedules The schedules of the segment's users.
+   * @throws IOException        if an error occurs while writing the segment files.
+   * @throws XMLStreamException if an error occurs while writing a schedule document.
+   */
+  private void writeSegment(int segment, List<ISchedule> schedules)
+          throws IOException, XMLStreamException {
+    locks[segment].lock();
+    try {
+      long oldGeneration = this.readIndex(segment).generation;
+      Map<String, Entry> entries = new LinkedHashMap<>();
+      try (FileChannel out = this.openForWriting(segment, oldGeneration + 1)) {
+        for (ISchedule schedule : schedules) {
+          entries.put(schedule.getUserName(), appendDocument(out, schedule));
+        }
+      }
+      this.commitSegment(segment, oldGeneration, new SegmentIndex(oldGeneration + 1, entries));
+    } finally {
+      locks[segment].unlock();
+    }
+  }
+
+  /**
+   * Reads the schedules of every user stored in a segment, in a single sequential pass over the
+   * segment file.
+   *
+   * @param segment The index of the segment.
+   * @return The schedules stored in the segment.
+   * @throws IOException        if an error occurs while reading the segment files.
+   * @throws XMLStreamException if a schedule document is not well-formed XML.
+   */
+  private List<ISchedule> readSegment(int segment) throws IOException, XMLStreamException {
+    locks[segment].lock();
+    try {
+      SegmentIndex index = this.readIndex(segment);
+      List<ISchedule> schedules = new ArrayList<>(index.entries.size());
+      if (index.entries.isEmpty()) {
+        return schedules;
+      }
+      try (FileChannel in = FileChannel.open(this.segmentPath(segment, index.generation),
+              StandardOpenOption.READ)) {
+        for (Map.Entry<String, Entry> stored : index.entries.entrySet()) {
+          schedules.add(readDocument(in, stored.getKey(), stored.getValue()));
+        }
+      }
+      return schedules;
+    } finally {
+      locks[segment].unlock();
+    }
+  }
+
+  /**
+   * Serializes a schedule and appends it to the end of a segment file.
+   *
+   * @param out      The channel of the segment file being written.
+   * @param schedule The schedule to be appended.
+   * @return The index entry of the appended document.
+   * @throws IOException        if an error occurs while writing to the file.
+   * @throws XMLStreamException if an error occurs while serializing the schedule.
+   */
+  private static Entry appendDocument(FileChannel out, ISchedule schedule)
+          throws IOException, XMLStreamException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    PlannerXMLWriter.writeScheduleToXML(schedule, bytes);
+    long offset = out.position();
+    ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+    return new Entry(offset, bytes.size());
+  }
+
+  /**
+   * Copies a stored document from an old segment file to the end of a new one without parsing
+   * it, letting the file system transfer the bytes directly where it can.
+   *
+   * @param in    The channel of the old segment file.
+   * @param entry The index entry of the document in the old file.
+   * @param out   The channel of the new segment file.
+   * @return The index entry of the document in the new file.
+   * @throws IOException if an error occurs while copying.
+   */
+  private static Entry copyDocument(FileChannel in, Entry entry, FileChannel out)
+          throws IOException {
+    long offset = out.position();
+    long copied = 0;
+    while (copied < entry.length) {
+      long count = in.transferTo(entry.offset + copied, entry.length - copied, out);
+      if (count <= 0) {
+        throw new IOException("Segment file is shorter than its index");
+      }
+      copied += count;
+    }
+    return new Entry(offset, entry.length);
+  }
+
+  /**
+   * Reads and parses a single stored schedule document.
+   *
+   * @param in     The channel of the segment file.
+   * @param userId The ID of the user the document belongs to.
+   * @param entry  The index entry of the document.
+   * @return The schedule held by the document.
+   * @throws IOException        if an error occurs while reading the file.
+   * @throws XMLStreamException if the document is not well-formed XML.
+   */
+  private static ISchedule readDocument(FileChannel in, String userId, Entry entry)
+          throws IOException, XMLStreamException {
+    ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+    while (buffer.hasRemaining()) {
+      if (in.read(buffer, entry.offset + buffer.position()) < 0) {
+        throw new IOException("Segment file is shorter than its index");
+      }
+    }
+    PlannerXMLReader document = PlannerXMLReader.read(new ByteArrayInputStream(buffer.array()));
+    ISchedule schedule = new Schedule(userId);
+    for (EventRecord record : document.getRecords()) {
+      schedule.addEvent(record.toEvent());
+    }
+    return schedule;
+  }
+
+  /**
+   * Reads the index of a segment.
+   *
+   * @param segment The index of the segment.
+   * @return The index of the segment, or an empty index of generation 0 if the segment has never
+   *         been written.
+   * @throws IOException if an error occurs while reading the index, or it is not a segment
+   *                     index.
+   */
+  private SegmentIndex readIndex(int segment) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Files.newInputStream(this.indexPath(segment))))) {
+      if (in.readInt() != INDEX_MAGIC) {
+        throw new IOException("Not a segment index");
+      }
+      long generation = in.readLong();
+      int count = in.readInt();
+      Map<String, Entry> entries = new LinkedHashMap<>();
+      for (int i = 0; i < count; i++) {
+        String userId = in.readUTF();
+        long offset = in.readLong();
+        int length = in.readInt();
+        entries.put(userId, new Entry(offset, length));
+      }
+      return new SegmentIndex(generation, entries);
+    } catch (NoSuchFileException e) {
+      return new SegmentIndex(0, new LinkedHashMap<>());
+    }
+  }
+
+  /**
+   * Makes a completely written segment file current by atomically replacing the segment's index,
+   * and then deletes the file of the previous generation.
+   *
+   * @param segment       The index of the segment.
+   * @param oldGeneration The generation of the segment file being replaced.
+   * @param index         The index of the new segment file.
+   * @throws IOException if an error occurs while writing the index.
+   */
+  private void commitSegment(int segment, long oldGeneration, SegmentIndex index)
+          throws IOException {
+    Path indexPath = this.indexPath(segment);
+    Path temp = indexPath.resolveSibling(indexPath.getFileName() + TEMP_SUFFIX);
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(temp)))) {
+      out.writeInt(INDEX_MAGIC);
+      out.writeLong(index.generation);
+      out.writeInt(index.entries.size());
+      for (Map.Entry<String, Entry> stored : index.entries.entrySet()) {
+        out.writeUTF(stored.getKey());
+        out.writeLong(stored.getValue().offset);
+        out.writeInt(stored.getValue().length);
+      }
+    }
+    Files.move(temp, indexPath, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    Files.deleteIfExists(this.segmentPath(segment, oldGeneration));
+  }
+
+  /**
+   * Creates the segment file of the given generation for writing, replacing any leftover of an
+   * interrupted write.
+   *
+   * @param segment    The index of the segment.
+   * @param generation The generation of the new segment file.
+   * @return The channel to write the new segment file through.
+   * @throws IOException if the file cannot be created.
+   */
+  private FileChannel openForWriting(int segment, long generation) throws IOException {
+    return FileChannel.open(this.segmentPath(segment, generation), StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+  }
+
+  /**
+   * Runs the given per segment tasks on a thread pool and waits for all of them.
+   *
+   * @param tasks The tasks to run.
+   * @param <T>   The result type of the tasks.
+   * @return The results of the tasks, in the order of the tasks.
+   * @throws IllegalStateException if any task fails or the wait is interrupted.
+   */
+  private <T> List<T> runInParallel(List<Callable<T>> tasks) {
+    int threads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+    try {
+      List<T> results = new ArrayList<>(tasks.size());
+      for (Future<T> future : executor.invokeAll(tasks)) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Error in accessing the store: "
+              + e.getCause().getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while accessing the store");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Gets the path of a segment's data file of the given generation.
+   *
+   * @param segment    The index of the segment.
+   * @param generation The generation of the segment file.
+   * @return The path of the segment file.
+   */
+  private Path segmentPath(int segment, long generation) {
+    return directory.resolve(String.format(SEGMENT_FORMAT, segment, generation));
+  }
+
+  /**
+   * Gets the path of a segment's index file.
+   *
+   * @param segment The index of the segment.
+   * @return The path of the index file.
+   */
+  private Path indexPath(int segment) {
+    return directory.resolve(String.format(INDEX_FORMAT, segment));
+  }
+}
@@ -0,0 +1,68 @@
+package plannersystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A sorted index of user IDs for looking users up by a case-insensitive prefix. The users are
+ * kept in a skip list ordered by their lower case ID, so the users with a given prefix are one
+ * contiguous range found in logarithmic time, and only as many of them as are asked for are read.
+ *
+ * <p>Lookups do not lock and may run on any thread while users are added or removed.</p>
+ */
+class UserIndex {
+  // separates the lower case key from the ID, so IDs differing only in case are kept apart
+  private static final char SEPARATOR = '\0';
+
+  private final NavigableMap<String, String> users = new ConcurrentSkipListMap<>();
+
+  /**
+   * Adds a user to the index.
+   *
+   * @param userId The ID of the user.
+   */
+  void add(String userId) {
+    this.users.put(key(userId), userId);
+  }
+
+  /**
+   * Removes a user from the index.
+   *
+   * @param userId The ID of the user.
+   */
+  void remove(String userId) {
+    this.users.remove(key(userId));
+  }
+
+  /**
+   * Finds the users whose IDs start with the given prefix, ignoring case.
+   *
+   * @param prefix The start of the IDs.
+   * @param limit  The most users to return.
+   * @return The matching user IDs, in case-insensitive order.
+   */
+  List<String> find(String prefix, int limit) {
+    String from = prefix.toLowerCase(Locale.ROOT);
+    List<String> found = new ArrayList<>(Math.min(limit, 64));
+    for (String userId : this.users.subMap(from, from + Character.MAX_VALUE).values()) {
+      if (found.size() >= limit) {
+        break;
+      }
+      found.add(userId);
+    }
+    return found;
+  }
+
+  /**
+   * Gets the key a user is sorted by.
+   *
+   * @param userId The ID of the user.
+   * @return The lower case ID followed by the ID itself.
+   */
+  private static String key(String userId) {
+    return userId.toLowerCase(Locale.ROOT) + SEPARATOR + userId;
+  }
+}
@@ -0,0 +1,159 @@
+package schedule;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The weekly shifts a user is available for meetings in, such as 09:00 to 17:00 from Monday to
+ * Friday, or night shifts across the weekend. Profiles are immutable: each shift added returns a
+ * new profile, so a profile can be shared by every user on the same pattern.
+ *
+ * <p>The minutes outside of the shifts are kept as a {@link WeekBitmap} for each first day of the
+ * week, built the first time it is asked for, so a strategy merges a user's availability into
+ * its search a word at a time instead of checking the shifts minute by minute.</p>
+ */
+public final class AvailabilityProfile {
+  // declared first, as the standard working hours are built from it
+  private static final AvailabilityProfile NONE = new AvailabilityProfile(List.of());
+
+  /**
+   * The standard working hours, from 09:00 to 17:00, Monday to Friday.
+   */
+  public static final AvailabilityProfile WORK_HOURS = weekdays("0900", "1700");
+
+  // each shift is its start day, start minute, end day and end minute, as DayOfWeek values
+  private final List<int[]> shifts;
+  private final WeekBitmap[] unavailable = new WeekBitmap[DayOfWeek.values().length];
+
+  /**
+   * Constructs a profile of the given shifts.
+   *
+   * @param shifts The shifts.
+   */
+  private AvailabilityProfile(List<int[]> shifts) {
+    this.shifts = Collections.unmodifiableList(shifts);
+  }
+
+  /**
+   * Gets the profile of a user who is never available, to add shifts to.
+   *
+   * @return The profile without shifts.
+   */
+  public static AvailabilityProfile none() {
+    return NONE;
+  }
+
+  /**
+   * Creates the profile of a user available between the same times from Monday to Friday.
+   *
+   * @param startTime The start of the working day, in HHmm format.
+   * @param endTime   The end of the working day, in HHmm format.
+   * @return The profile.
+   * @throws IllegalArgumentException if a time is invalid or the working day does not end after
+   *                                  it starts.
+   */
+  public static AvailabilityProfile weekdays(String startTime, String endTime) {
+    if (TimeUtilities.parseMinuteOfDay(endTime) <= TimeUtilities.parseMinuteOfDay(startTime)) {
+      throw new IllegalArgumentException("The working day must end after it starts");
+    }
+    AvailabilityProfile profile = NONE;
+    for (DayOfWeek day = DayOfWeek.MONDAY; day != DayOfWeek.SATURDAY; day = day.plus(1)) {
+      String name = TimeUtilities.formatDay(day);
+      profile = profile.withShift(name, startTime, name, endTime);
+    }
+    return profile;
+  }
+
+  /**
+   * Adds a shift to the profile. Like an event, a shift ending on an earlier day than it starts
+   * continues into the next week.
+   *
+   * @param startDay  The start day of the shift.
+   * @param startTime The start time of the shift, in HHmm format.
+   * @param endDay    The end day of the shift.
+   * @param endTime   The end time of the shift, in HHmm format.
+   * @return The profile with the shift added.
+   * @throws IllegalArgumentException if a day or time is invalid, or the shift is empty.
+   */
+  public AvailabilityProfile withShift(String startDay, String startTime, String endDay,
+                                       String endTime) {
+    int[] shift = {TimeUtilities.parseDay(startDay).getValue(),
+        TimeUtilities.parseMinuteOfDay(startTime), TimeUtilities.parseDay(endDay).getValue(),
+        TimeUtilities.parseMinuteOfDay(endTime)};
+    if (shift[0] == shift[2] && shift[1] == shift[3]) {
+      throw new IllegalArgumentException("The shift cannot be empty");
+    }
+    List<int[]> added = new ArrayList<>(this.shifts);
+    added.add(shift);
+    return new AvailabilityProfile(added);
+  }
+
+  /**
+   * Gets the shifts of this profile, each as its start day, start time, end day and end time in
+   * the formats {@link #withShift} takes, so the profile can be built again from them.
+   *
+   * @return The shifts, in the order they were added.
+   */
+  public List<String[]> getShifts() {
+    List<String[]> result = new ArrayList<>(this.shifts.size());
+    for (int[] shift : this.shifts) {
+      result.add(new String[] {
+          TimeUtilities.formatDay(DayOfWeek.of(shift[0])),
+          TimeUtilities.formatMinuteOfDay(shift[1]),
+          TimeUtilities.formatDay(DayOfWeek.of(shift[2])),
+          TimeUtilities.formatMinuteOfDay(shift[3])});
+    }
+    return result;
+  }
+
+  /**
+   * Marks the minutes outside of the shifts of this profile as busy in a bitmap.
+   *
+   * @param bitmap         The bitmap, counted from the first day of the week.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if the bitmap or first day of the week is null.
+   */
+  public void markUnavailable(WeekBitmap bitmap, String firstDayOfWeek) {
+    if (bitmap == null || firstDayOfWeek == null) {
+      throw new IllegalArgumentException("Arguments cannot be null");
+    }
+    bitmap.setBusy(this.unavailable(DayOfWeek.valueOf(firstDayOfWeek.toUpperCase())));
+  }
+
+  /**
+   * Checks whether the user is available over a half-open range of the week.
+   *
+   * @param start          The start of the range in minutes since the start of the week.
+   * @param end            The exclusive end of the range, up to twice the minutes in a week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if every minute of the range is within a shift, otherwise false.
+   * @throws IllegalArgumentException if the range is outside of the week or reversed.
+   */
+  public boolean isAvailable(int start, int end, String firstDayOfWeek) {
+    return !this.unavailable(DayOfWeek.valueOf(firstDayOfWeek.toUpperCase())).isBusy(start, end);
+  }
+
+  /**
+   * Gets the bitmap of the minutes outside of the shifts, building it for a first day of the
+   * week the first time it is asked for.
+   *
+   * @param firstDay The first day of the week.
+   * @return The minutes outside of the shifts, not to be modified.
+   */
+  private WeekBitmap unavailable(DayOfWeek firstDay) {
+    int index = firstDay.ordinal();
+    if (this.unavailable[index] == null) {
+      String first = firstDay.name();
+      WeekBitmap available = new WeekBitmap();
+      for (int[] shift : this.shifts) {
+        int start = TimeUtilities.minuteOfWeek(DayOfWeek.of(shift[0]), shift[1], first);
+        available.setBusy(start,
+                TimeUtilities.endMinuteOfWeek(start, DayOfWeek.of(shift[2]), shift[3], first));
+      }
+      this.unavailable[index] = available.complement();
+    }
+    return this.unavailable[index];
+  }
+}
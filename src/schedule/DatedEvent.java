@@ -0,0 +1,117 @@
+package schedule;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import validationutilities.ValidationUtilities;
+
+/**
+ * An event on a calendar date, held in the {@link DatedSchedule}s of all its invitees alongside
+ * the planner's repeating week.
+ */
+public final class DatedEvent {
+  private final String name;
+  private final String host;
+  private final List<String> invitees;
+  private final boolean isOnline;
+  private final String location;
+  private final DatedTime time;
+
+  /**
+   * Constructs a dated event.
+   *
+   * @param name     The name of the event.
+   * @param host     The user ID of the event host.
+   * @param invitees The user IDs of the invitees, including the host.
+   * @param isOnline Indicates whether the event is online.
+   * @param location The location of the event.
+   * @param time     The date and time of the event.
+   * @throws IllegalArgumentException if a detail is null or blank, or the invitees do not include
+   *                                  the host.
+   */
+  public DatedEvent(String name, String host, List<String> invitees, boolean isOnline,
+                        String location, DatedTime time) {
+    ValidationUtilities.validateNull(time);
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Invalid event name");
+    }
+    if (host == null || host.isBlank()) {
+      throw new IllegalArgumentException("Invalid host");
+    }
+    if (location == null || location.isBlank()) {
+      throw new IllegalArgumentException("Invalid location");
+    }
+    if (invitees == null || invitees.stream().anyMatch(invitee -> invitee == null)) {
+      throw new IllegalArgumentException("Invitees list cannot be null and cannot "
+              + "contain null elements");
+    }
+    if (!invitees.contains(host)) {
+      throw new IllegalArgumentException("The list of invitees must contain the host of the event");
+    }
+    Set<String> users = new LinkedHashSet<>();
+    users.add(host);
+    users.addAll(invitees);
+    this.name = name.trim();
+    this.host = host;
+    this.invitees = List.copyOf(users);
+    this.isOnline = isOnline;
+    this.location = location.trim();
+    this.time = time;
+  }
+
+  /**
+   * Gets the name of the event.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the host of the event.
+   *
+   * @return The user ID of the host.
+   */
+  public String getHost() {
+    return this.host;
+  }
+
+  /**
+   * Gets the invitees of the event, the host first.
+   *
+   * @return A copy of the user IDs of the invitees.
+   */
+  public List<String> getInvitees() {
+    return new ArrayList<>(this.invitees);
+  }
+
+  /**
+   * Indicates whether the event is online.
+   *
+   * @return True if the event is online, otherwise false.
+   */
+  public boolean isOnline() {
+    return this.isOnline;
+  }
+
+  /**
+   * Gets the location of the event.
+   *
+   * @return The location.
+   */
+  public String getLocation() {
+    return this.location;
+  }
+
+  /**
+   * Gets the date and time of the event.
+   *
+   * @return The time.
+   */
+  public DatedTime getTime() {
+    return this.time;
+  }
+}
@@ -0,0 +1,272 @@
+package schedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import validationutilities.ValidationUtilities;
+
+/**
+ * The events of a user on calendar dates, such as a whole semester of them. Events are indexed by
+ * the weeks of epoch minutes they touch, so a query only looks at the weeks it covers, however
+ * much history the schedule holds. An event crossing into another week is indexed in both.
+ */
+public class DatedSchedule {
+  private static final int PARTITION_MINUTES = TimeUtilities.MINUTES_IN_WEEK;
+
+  private final String userId;
+  private final NavigableMap<Long, List<DatedEvent>> partitions = new TreeMap<>();
+  private int size;
+  private long version;
+
+  /**
+   * Constructs an empty dated schedule for a user.
+   *
+   * @param userId The user owning the schedule.
+   * @throws IllegalArgumentException if the user ID is null or blank.
+   */
+  public DatedSchedule(String userId) {
+    if (userId == null || userId.isBlank()) {
+      throw new IllegalArgumentException("User ID cannot be null ot empty");
+    }
+    this.userId = userId.trim();
+  }
+
+  /**
+   * Gets the user owning this schedule.
+   *
+   * @return The user ID.
+   */
+  public String getUserName() {
+    return this.userId;
+  }
+
+  /**
+   * Gets the number of events in this schedule.
+   *
+   * @return The number of events.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Gets the version of this schedule, which increases every time an event is added or removed.
+   *
+   * @return The current version.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  /**
+   * Adds an event to this schedule. Conflicts are checked by the planner, not here.
+   *
+   * @param event The event to add.
+   * @throws IllegalArgumentException if the event is null.
+   */
+  public void addEvent(DatedEvent event) {
+    ValidationUtilities.validateNull(event);
+    DatedTime time = event.getTime();
+    for (long p = partition(time.getStartMinute()); p <= partition(time.getEndMinute() - 1); p++) {
+      this.partitions.computeIfAbsent(p, key -> new ArrayList<>()).add(event);
+    }
+    this.size++;
+    this.version++;
+  }
+
+  /**
+   * Removes an event from this schedule, if present.
+   *
+   * @param event The event to remove.
+   * @return True if the event was removed, otherwise false.
+   * @throws IllegalArgumentException if the event is null.
+   */
+  public boolean removeEvent(DatedEvent event) {
+    ValidationUtilities.validateNull(event);
+    DatedTime time = event.getTime();
+    boolean removed = false;
+    for (long p = partition(time.getStartMinute()); p <= partition(time.getEndMinute() - 1); p++) {
+      List<DatedEvent> events = this.partitions.get(p);
+      if (events != null && events.remove(event)) {
+        removed = true;
+        if (events.isEmpty()) {
+          this.partitions.remove(p);
+        }
+      }
+    }
+    if (removed) {
+      this.size--;
+      this.version++;
+    }
+    return removed;
+  }
+
+  /**
+   * Determines whether an event is in this schedule.
+   *
+   * @param event The event.
+   * @return True if the event is in the schedule, otherwise false.
+   */
+  public boolean hasEvent(DatedEvent event) {
+    if (event == null) {
+      return false;
+    }
+    List<DatedEvent> events = this.partitions.get(partition(event.getTime().getStartMinute()));
+    return events != null && events.contains(event);
+  }
+
+  /**
+   * Gets every event in this schedule.
+   *
+   * @return The events, ordered by start.
+   */
+  public List<DatedEvent> getEvents() {
+    List<DatedEvent> found = new ArrayList<>();
+    for (Map.Entry<Long, List<DatedEvent>> entry : this.partitions.entrySet()) {
+      for (DatedEvent event : entry.getValue()) {
+        if (partition(event.getTime().getStartMinute()) == entry.getKey()) {
+          found.add(event);
+        }
+      }
+    }
+    found.sort(Comparator.comparingLong(event -> event.getTime().getStartMinute()));
+    return found;
+  }
+
+  /**
+   * Gets the events overlapping the given range of epoch minutes, looking only at the weeks the
+   * range covers.
+   *
+   * @param fromMinute The start of the range.
+   * @param toMinute   The exclusive end of the range.
+   * @return The overlapping events, ordered by start.
+   * @throws IllegalArgumentException if the range is reversed.
+   */
+  public List<DatedEvent> getEvents(long fromMinute, long toMinute) {
+    if (toMinute < fromMinute) {
+      throw new IllegalArgumentException("The range cannot end before it starts");
+    }
+    List<DatedEvent> found = new ArrayList<>();
+    if (toMinute == fromMinute) {
+      return found;
+    }
+    long first = partition(fromMinute);
+    for (Map.Entry<Long, List<DatedEvent>> entry
+            : this.partitions.subMap(first, true, partition(toMinute - 1), true).entrySet()) {
+      for (DatedEvent event : entry.getValue()) {
+        DatedTime time = event.getTime();
+        // an event indexed in several weeks is taken from the first of them in the range
+        long home = Math.max(first, partition(time.getStartMinute()));
+        if (home == entry.getKey() && time.overlaps(fromMinute, toMinute)) {
+          found.add(event);
+        }
+      }
+    }
+    found.sort(Comparator.comparingLong(event -> event.getTime().getStartMinute()));
+    return found;
+  }
+
+  /**
+   * Gets the events overlapping the given range of dates and times.
+   *
+   * @param from The start of the range.
+   * @param to   The exclusive end of the range.
+   * @return The overlapping events, ordered by start.
+   * @throws IllegalArgumentException if either is null or the range is reversed.
+   */
+  public List<DatedEvent> getEvents(LocalDateTime from, LocalDateTime to) {
+    return this.getEvents(DatedTime.toEpochMinute(from), DatedTime.toEpochMinute(to));
+  }
+
+  /**
+   * Gets the events of the calendar week containing the given date.
+   *
+   * @param date           A date in the week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The events overlapping the week, ordered by start.
+   * @throws IllegalArgumentException if either is null.
+   */
+  public List<DatedEvent> getWeek(LocalDate date, DayOfWeek firstDayOfWeek) {
+    ValidationUtilities.validateNull(date);
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    LocalDateTime start = date.with(TemporalAdjusters.previousOrSame(firstDayOfWeek))
+            .atStartOfDay();
+    return this.getEvents(start, start.plusWeeks(1));
+  }
+
+  /**
+   * Checks whether any event overlaps the given range of epoch minutes.
+   *
+   * @param fromMinute The start of the range.
+   * @param toMinute   The exclusive end of the range.
+   * @return True if an overlap is detected, otherwise false.
+   */
+  public boolean overlap(long fromMinute, long toMinute) {
+    if (toMinute <= fromMinute) {
+      return false;
+    }
+    for (List<DatedEvent> events : this.partitions
+            .subMap(partition(fromMinute), true, partition(toMinute - 1), true).values()) {
+      for (DatedEvent event : events) {
+        if (event.getTime().overlaps(fromMinute, toMinute)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the earliest time within the given range at which none of the schedules has an event,
+   * jumping past each conflict found rather than trying every minute, so the range can span
+   * months.
+   *
+   * @param schedules The schedules that must all be free.
+   * @param from      The earliest start.
+   * @param to        The latest end.
+   * @param duration  The duration in minutes.
+   * @return The earliest free time, or null if there is none in the range.
+   * @throws IllegalArgumentException if an argument is null or the duration is not positive.
+   */
+  public static DatedTime findFreeTime(List<DatedSchedule> schedules, LocalDateTime from,
+                                       LocalDateTime to, int duration) {
+    ValidationUtilities.validateNull(schedules);
+    if (duration <= 0) {
+      throw new IllegalArgumentException("Duration must be positive");
+    }
+    long end = DatedTime.toEpochMinute(to);
+    long start = DatedTime.toEpochMinute(from);
+    while (start + duration <= end) {
+      long next = start;
+      for (DatedSchedule schedule : schedules) {
+        for (DatedEvent event : schedule.getEvents(start, start + duration)) {
+          next = Math.max(next, event.getTime().getEndMinute());
+        }
+      }
+      if (next == start) {
+        return new DatedTime(DatedTime.fromEpochMinute(start),
+                DatedTime.fromEpochMinute(start + duration));
+      }
+      start = next;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the partition holding the given minute.
+   *
+   * @param minute The epoch minute.
+   * @return The index of its week of epoch minutes.
+   */
+  private static long partition(long minute) {
+    return Math.floorDiv(minute, PARTITION_MINUTES);
+  }
+}
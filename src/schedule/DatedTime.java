@@ -0,0 +1,157 @@
+package schedule;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import validationutilities.ValidationUtilities;
+
+/**
+ * The time of an event on a calendar date rather than in the planner's repeating week, stored as
+ * a half-open range of epoch minutes: minutes since midnight at the start of 1970-01-01. Like the
+ * weekly {@link Time}, it is a wall-clock time without a time zone.
+ */
+public final class DatedTime {
+  private final long startMinute;
+  private final long endMinute;
+
+  /**
+   * Constructs a time from its start and end.
+   *
+   * @param start The start of the event.
+   * @param end   The end of the event, after its start.
+   * @throws IllegalArgumentException if either is null or the end is not after the start.
+   */
+  public DatedTime(LocalDateTime start, LocalDateTime end) {
+    ValidationUtilities.validateNull(start);
+    ValidationUtilities.validateNull(end);
+    this.startMinute = toEpochMinute(start);
+    this.endMinute = toEpochMinute(end);
+    if (this.endMinute <= this.startMinute) {
+      throw new IllegalArgumentException("The event must end after it starts");
+    }
+  }
+
+  /**
+   * Converts a date and time to epoch minutes, dropping any seconds.
+   *
+   * @param dateTime The date and time.
+   * @return The number of minutes since the start of 1970-01-01.
+   * @throws IllegalArgumentException if the date and time is null.
+   */
+  public static long toEpochMinute(LocalDateTime dateTime) {
+    ValidationUtilities.validateNull(dateTime);
+    return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  /**
+   * Converts epoch minutes to a date and time.
+   *
+   * @param epochMinute The number of minutes since the start of 1970-01-01.
+   * @return The date and time.
+   */
+  public static LocalDateTime fromEpochMinute(long epochMinute) {
+    return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+  }
+
+  /**
+   * Gets the start of the event.
+   *
+   * @return The start date and time.
+   */
+  public LocalDateTime getStart() {
+    return fromEpochMinute(this.startMinute);
+  }
+
+  /**
+   * Gets the end of the event.
+   *
+   * @return The end date and time.
+   */
+  public LocalDateTime getEnd() {
+    return fromEpochMinute(this.endMinute);
+  }
+
+  /**
+   * Gets the start of the event in epoch minutes.
+   *
+   * @return The first minute of the event.
+   */
+  public long getStartMinute() {
+    return this.startMinute;
+  }
+
+  /**
+   * Gets the end of the event in epoch minutes.
+   *
+   * @return The minute after the last minute of the event.
+   */
+  public long getEndMinute() {
+    return this.endMinute;
+  }
+
+  /**
+   * Gets the range of the planner's repeating week this time falls on, by the day of the week
+   * and time of day it starts at. A time lasting a week or more takes the whole week.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The start and exclusive end of the range in minutes since the start of the week. The
+   *         end may be after the end of the week, as the end minutes of {@link ITime} are.
+   * @throws IllegalArgumentException if the first day is null.
+   */
+  public int[] weeklyRange(String firstDayOfWeek) {
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    long duration = this.endMinute - this.startMinute;
+    if (duration >= TimeUtilities.MINUTES_IN_WEEK) {
+      return new int[]{0, TimeUtilities.MINUTES_IN_WEEK};
+    }
+    LocalDateTime start = this.getStart();
+    int startMinute = TimeUtilities.minuteOfWeek(start.getDayOfWeek(),
+            start.getHour() * 60 + start.getMinute(), firstDayOfWeek);
+    return new int[]{startMinute, startMinute + (int) duration};
+  }
+
+  /**
+   * Checks whether this time overlaps the given half-open range of epoch minutes.
+   *
+   * @param fromMinute The start of the range.
+   * @param toMinute   The exclusive end of the range.
+   * @return True if the two overlap, otherwise false.
+   */
+  public boolean overlaps(long fromMinute, long toMinute) {
+    return this.startMinute < toMinute && fromMinute < this.endMinute;
+  }
+
+  /**
+   * Checks whether this time overlaps another.
+   *
+   * @param other The other time.
+   * @return True if the two overlap, otherwise false.
+   * @throws IllegalArgumentException if the other time is null.
+   */
+  public boolean overlaps(DatedTime other) {
+    ValidationUtilities.validateNull(other);
+    return this.overlaps(other.startMinute, other.endMinute);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof DatedTime)) {
+      return false;
+    }
+    DatedTime other = (DatedTime) object;
+    return this.startMinute == other.startMinute && this.endMinute == other.endMinute;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.startMinute) * 31 + Long.hashCode(this.endMinute);
+  }
+
+  @Override
+  public String toString() {
+    return this.getStart() + " - " + this.getEnd();
+  }
+}
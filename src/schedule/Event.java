@@ -7,6 +7,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import validationutilities.ValidationUtilities;
 
@@ -16,17 +17,37 @@ import validationutilities.ValidationUtilities;
  * these details efficiently, including the ability to check for time overlaps with other events.
  */
 public class Event implements IEvent {
+  private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+  private final long id;
   private String name;
   private final ITime time;
   private final ILocation location;
   private String host;
   private final Set<String> invitees;
+  private long version;
 
   /**
    * Constructs a new Event instance with default settings for time and location,
    * initializing with an empty set of invitees.
    */
   public Event() {
+    this(NEXT_ID.getAndIncrement());
+  }
+
+  /**
+   * Constructs a new Event instance with the given ID, such as to restore an event from a
+   * snapshot of it. Events constructed afterward are given larger IDs.
+   *
+   * @param id The ID of the event.
+   * @throws IllegalArgumentException if the ID is not positive.
+   */
+  public Event(long id) {
+    if (id <= 0) {
+      throw new IllegalArgumentException("Event ID must be positive");
+    }
+    this.id = id;
+    NEXT_ID.accumulateAndGet(id + 1, Math::max);
     this.time = new Time();
     this.location = new Location();
     this.invitees = new LinkedHashSet<>();
@@ -44,6 +65,7 @@ public class Event implements IEvent {
       throw new IllegalArgumentException("Event name cannot be null or empty");
     }
     this.name = name.trim();
+    this.version++;
   }
 
   @Override
@@ -58,12 +80,14 @@ public class Event implements IEvent {
     this.time.setStartTime(startTime);
     this.time.setEndDay(endDay);
     this.time.setEndTime(endTime);
+    this.version++;
   }
 
   @Override
   public void setLocation(boolean isOnline, String location) {
     this.location.setOnline(isOnline);
     this.location.setLocation(location);
+    this.version++;
   }
 
   @Override
@@ -91,6 +115,7 @@ public class Event implements IEvent {
     this.clearInvitees();
     this.invitees.add(this.host);
     this.invitees.addAll(invitees);
+    this.version++;
   }
 
   @Override
@@ -104,24 +129,27 @@ public class Event implements IEvent {
     this.validateUser(host);
 
     this.host = host.trim();
+    this.version++;
   }
 
   @Override
   public void addInvitee(String invitee) {
     this.validateUser(invitee);
     this.invitees.add(invitee);
-
+    this.version++;
   }
 
   @Override
   public void removeInvitee(String invitee) {
     this.validateUser(invitee);
     this.invitees.remove(invitee);
+    this.version++;
   }
 
   @Override
   public void clearInvitees() {
     this.invitees.clear();
+    this.version++;
   }
 
   @Override
@@ -169,6 +197,16 @@ public class Event implements IEvent {
     return this.location.isOnline();
   }
 
+  @Override
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public long getId() {
+    return this.id;
+  }
+
   /**
    * Compares this event with another object for equality. Two events are considered equal
    * if their names, times, locations, lists of invitees, and hosts are all equal.
@@ -40,7 +40,41 @@ public interface ISchedule {
   void removeEvent(ReadOnlyEvent event);
 
   /**
-   * Checks for time overlaps between the new event and any event already in the schedule.
+   * Adds a recurring event to this schedule. The event is stored once, by its rule.
+   *
+   * @param event The recurring event to add.
+   * @throws IllegalArgumentException If the event is null.
+   */
+  void addRecurringEvent(RecurringEvent event);
+
+  /**
+   * Removes a recurring event from this schedule, if present.
+   *
+   * @param event The recurring event to remove.
+   * @throws IllegalArgumentException If the event is null.
+   */
+  void removeRecurringEvent(RecurringEvent event);
+
+  /**
+   * Retrieves a copy of the list of recurring events in this schedule.
+   *
+   * @return A new list containing all the recurring events.
+   */
+  List<RecurringEvent> getRecurringEvents();
+
+  /**
+   * Checks for time overlaps between a recurring event and any event or recurring event already
+   * in the schedule, without expanding the occurrences of either.
+   *
+   * @param newEvent       The recurring event being checked for overlap.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if an overlap is detected, otherwise false.
+   */
+  boolean overlap(RecurringEvent newEvent, String firstDayOfWeek);
+
+  /**
+   * Checks for time overlaps between the new event and any event already in the schedule,
+   * including the occurrences of its recurring events.
    *
    * @param newEvent The new event being checked for overlap.
    * @param firstDayOfWeek The first day of the week.
@@ -48,6 +82,18 @@ public interface ISchedule {
    */
   boolean overlap(ReadOnlyEvent newEvent, String firstDayOfWeek);
 
+  /**
+   * Checks for time overlaps between a range of minutes and any event already in the schedule,
+   * including the occurrences of its recurring events. This allows checking a time for conflicts
+   * before an event has been built for it.
+   *
+   * @param startMinute    The start of the range in minutes since the start of the week.
+   * @param endMinute      The exclusive end of the range in minutes since the start of the week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if an overlap is detected, otherwise false.
+   */
+  boolean overlap(int startMinute, int endMinute, String firstDayOfWeek);
+
   /**
    * Determines whether a specific event is present in this schedule.
    *
@@ -56,6 +102,56 @@ public interface ISchedule {
    */
   boolean hasEvent(ReadOnlyEvent event);
 
+  /**
+   * Links the schedule of a group the owner belongs to. The group's events are then the owner's
+   * events too: they are listed, found and checked for conflicts as this schedule's own, while
+   * being stored once in the group's schedule rather than copied into every member's.
+   *
+   * @param group The schedule of the group.
+   * @throws IllegalArgumentException if the group's schedule is null.
+   */
+  void addGroup(ISchedule group);
+
+  /**
+   * Unlinks the schedule of a group the owner no longer belongs to, if linked.
+   *
+   * @param group The schedule of the group.
+   * @throws IllegalArgumentException if the group's schedule is null.
+   */
+  void removeGroup(ISchedule group);
+
+  /**
+   * Gets the schedules of the groups the owner belongs to.
+   *
+   * @return A copy of the linked group schedules.
+   */
+  List<ISchedule> getGroups();
+
+  /**
+   * Sets the shifts the owner is available for meetings in, which strategies respecting working
+   * hours schedule events within.
+   *
+   * @param profile The availability profile, or null for the standard working hours.
+   */
+  void setAvailability(AvailabilityProfile profile);
+
+  /**
+   * Gets the shifts the owner is available for meetings in.
+   *
+   * @return The availability profile, or null if the owner keeps the standard working hours.
+   */
+  AvailabilityProfile getAvailability();
+
+  /**
+   * Gets the version of this schedule. The version starts at 0 and increases every time an event
+   * or recurring event is added to or removed from the schedule or a linked group's schedule, and
+   * every time a group is linked or unlinked, so views can tell whether the schedule changed since
+   * they last drew it without comparing its events.
+   *
+   * @return The current version of the schedule.
+   */
+  long getVersion();
+
   /**
    * Sorts the schedule's events first by day of the week and then by start time.
    */
@@ -99,4 +99,22 @@ public interface ITime {
    * @return true if an event time continues into a new week otherwise return false.
    */
   boolean wrapsAround(String firstDayOfWeek);
+
+  /**
+   * Gets the start of this time in minutes since the start of the week.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The number of minutes between the start of the week and the start of this time.
+   */
+  int getStartMinute(String firstDayOfWeek);
+
+  /**
+   * Gets the end of this time in minutes since the start of the week. If the time continues into a
+   * new week, the returned value is greater than the number of minutes in a week, so the time
+   * always covers the half-open range from its start minute to its end minute.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The number of minutes between the start of the week and the end of this time.
+   */
+  int getEndMinute(String firstDayOfWeek);
 }
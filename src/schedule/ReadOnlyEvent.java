@@ -118,4 +118,23 @@ public interface ReadOnlyEvent {
    * @return true if the event is online, false otherwise.
    */
   boolean isOnline();
+
+  /**
+   * Gets the number of changes made to the event's details so far. The version changes whenever
+   * a detail of the event changes, so readers can tell whether an event changed since they last
+   * looked at it without comparing its details.
+   *
+   * @return the version of the event.
+   */
+  long getVersion();
+
+  /**
+   * Gets the ID of the event. The ID is given when the event is constructed and never changes,
+   * whatever details of the event change, and snapshots of the event keep it, so an event can be
+   * found again from a snapshot of any of its past states. IDs are not compared by
+   * {@code equals}.
+   *
+   * @return the ID of the event.
+   */
+  long getId();
 }
@@ -0,0 +1,322 @@
+package schedule;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import validationutilities.ValidationUtilities;
+
+/**
+ * A compact rule for an event that repeats: on the same days of the week at the same time, every
+ * given number of weeks, for a limited number of occurrences and/or until a given week. Weeks are
+ * counted from 0, the week the planner shows, and occurrences are counted in the order of the
+ * planner's week, so the rule describes possibly thousands of occurrences in a few fields.
+ *
+ * <p>Occurrences are only ever expanded inside a queried window. Conflicts with the events of a
+ * planner week are tested directly against the days the rule repeats on, without expanding any
+ * occurrence at all.</p>
+ */
+public final class RecurrenceRule {
+  /**
+   * The count or last week of a rule that repeats without that limit.
+   */
+  public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+  private final Set<DayOfWeek> days;
+  private final int startMinuteOfDay;
+  private final int duration;
+  private final int interval;
+  private final int count;
+  private final int untilWeek;
+
+  /**
+   * Constructs a rule repeating on the given days of the week.
+   *
+   * @param days      The days of the week the event occurs on.
+   * @param startTime The start time of every occurrence, in HHmm format.
+   * @param duration  The duration of every occurrence in minutes, at most a day.
+   * @param interval  The number of weeks between the weeks the event occurs in, at least 1.
+   * @param count     The total number of occurrences, at least 1, or {@link #UNBOUNDED}.
+   * @param untilWeek The last week the event can occur in, at least 0, or {@link #UNBOUNDED}.
+   * @throws IllegalArgumentException if the days are null or empty, or any other detail is
+   *                                  invalid.
+   */
+  public RecurrenceRule(Set<DayOfWeek> days, String startTime, int duration, int interval,
+                        int count, int untilWeek) {
+    ValidationUtilities.validateNull(days);
+    if (days.isEmpty()) {
+      throw new IllegalArgumentException("A recurring event needs at least one day");
+    }
+    for (DayOfWeek day : days) {
+      ValidationUtilities.validateNull(day);
+    }
+    if (duration <= 0 || duration > TimeUtilities.MINUTES_IN_DAY) {
+      throw new IllegalArgumentException("Duration must be between 1 minute and a day");
+    }
+    if (interval < 1) {
+      throw new IllegalArgumentException("Interval must be at least one week");
+    }
+    if (count < 1 || untilWeek < 0) {
+      throw new IllegalArgumentException("A recurring event must occur at least once");
+    }
+    this.days = EnumSet.copyOf(days);
+    this.startMinuteOfDay = TimeUtilities.parseMinuteOfDay(startTime);
+    this.duration = duration;
+    this.interval = interval;
+    this.count = count;
+    this.untilWeek = untilWeek;
+  }
+
+  /**
+   * Gets the days of the week the event occurs on.
+   *
+   * @return A copy of the days.
+   */
+  public Set<DayOfWeek> getDays() {
+    return EnumSet.copyOf(this.days);
+  }
+
+  /**
+   * Gets the start time of every occurrence.
+   *
+   * @return The start time in minutes since midnight.
+   */
+  public int getStartMinuteOfDay() {
+    return this.startMinuteOfDay;
+  }
+
+  /**
+   * Gets the duration of every occurrence.
+   *
+   * @return The duration in minutes.
+   */
+  public int getDuration() {
+    return this.duration;
+  }
+
+  /**
+   * Gets the number of weeks between the weeks the event occurs in.
+   *
+   * @return The interval in weeks.
+   */
+  public int getInterval() {
+    return this.interval;
+  }
+
+  /**
+   * Gets the total number of occurrences.
+   *
+   * @return The count, or {@link #UNBOUNDED}.
+   */
+  public int getCount() {
+    return this.count;
+  }
+
+  /**
+   * Gets the last week the event can occur in.
+   *
+   * @return The last week, or {@link #UNBOUNDED}.
+   */
+  public int getUntilWeek() {
+    return this.untilWeek;
+  }
+
+  /**
+   * Expands the occurrences starting or continuing inside the given window, and only those.
+   * Minutes are counted from the start of week 0, so minute {@code w * MINUTES_IN_WEEK} is the
+   * start of week {@code w}.
+   *
+   * @param fromMinute     The start of the window.
+   * @param toMinute       The exclusive end of the window.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The start minutes of the occurrences in the window, in order. Each occurrence lasts
+   *         {@link #getDuration()} minutes.
+   * @throws IllegalArgumentException if the window is reversed or the first day is null.
+   */
+  public List<Long> occurrences(long fromMinute, long toMinute, String firstDayOfWeek) {
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    if (toMinute < fromMinute) {
+      throw new IllegalArgumentException("The window cannot end before it starts");
+    }
+    int[] starts = this.weeklyStarts(firstDayOfWeek);
+    long period = (long) this.interval * TimeUtilities.MINUTES_IN_WEEK;
+    // an occurrence ends at most a day after the end of its week
+    long first = Math.max(0, Math.floorDiv(
+            fromMinute - TimeUtilities.MINUTES_IN_WEEK - TimeUtilities.MINUTES_IN_DAY, period));
+    List<Long> found = new ArrayList<>();
+    for (long repeat = first; repeat * period < toMinute; repeat++) {
+      if (repeat * this.interval > this.untilWeek) {
+        break;
+      }
+      for (int slot = 0; slot < starts.length; slot++) {
+        if (repeat * starts.length + slot >= this.count) {
+          return found;
+        }
+        long start = repeat * period + starts[slot];
+        if (start < toMinute && start + this.duration > fromMinute) {
+          found.add(start);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Gets the ranges of the planner week taken by the occurrences of any week. Only the days the
+   * event occurs on at least once are included, so that a rule with fewer occurrences than days
+   * does not block the days it never reaches.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The half-open ranges in minutes since the start of the week, in order. Ranges ending
+   *         after the end of the week continue from its start, as the end minutes of
+   *         {@link ITime} do.
+   * @throws IllegalArgumentException if the first day is null.
+   */
+  public int[][] weeklyRanges(String firstDayOfWeek) {
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    int[] starts = this.weeklyStarts(firstDayOfWeek);
+    int[][] ranges = new int[Math.min(starts.length, this.count)][];
+    for (int i = 0; i < ranges.length; i++) {
+      ranges[i] = new int[]{starts[i], starts[i] + this.duration};
+    }
+    return ranges;
+  }
+
+  /**
+   * Checks whether an occurrence overlaps the given range of the planner week in some week. The
+   * range is tested against the days the rule repeats on, without expanding any occurrence.
+   *
+   * @param startMinute    The start of the range in minutes since the start of the week.
+   * @param endMinute      The exclusive end of the range, up to twice the minutes in a week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if an occurrence overlaps the range, otherwise false.
+   * @throws IllegalArgumentException if the first day is null.
+   */
+  public boolean overlaps(int startMinute, int endMinute, String firstDayOfWeek) {
+    for (int[] range : this.weeklyRanges(firstDayOfWeek)) {
+      // either range may continue into the next week, so compare it a week either way too
+      for (int shift = -TimeUtilities.MINUTES_IN_WEEK; shift <= TimeUtilities.MINUTES_IN_WEEK;
+           shift += TimeUtilities.MINUTES_IN_WEEK) {
+        if (range[0] + shift < endMinute && startMinute < range[1] + shift) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether an occurrence of this rule overlaps an occurrence of another rule. Both rules
+   * repeat the same way every least common multiple of their intervals, so only that many weeks
+   * are expanded, along with the weeks around the last occurrence of each rule, where fewer days
+   * may be left.
+   *
+   * @param other          The other rule.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if the rules overlap, otherwise false.
+   * @throws IllegalArgumentException if the other rule or the first day is null.
+   */
+  public boolean overlaps(RecurrenceRule other, String firstDayOfWeek) {
+    ValidationUtilities.validateNull(other);
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    long lastWeek = Math.min(this.lastWeek(), other.lastWeek());
+    long cycle = lcm(this.interval, other.interval);
+    if (lastWeek <= cycle + 1) {
+      return this.overlapsIn(other, 0, lastWeek + 2, firstDayOfWeek);
+    }
+    return this.overlapsIn(other, 0, cycle + 2, firstDayOfWeek)
+            || this.overlapsAround(other, this.lastWeek(), firstDayOfWeek)
+            || this.overlapsAround(other, other.lastWeek(), firstDayOfWeek);
+  }
+
+  /**
+   * Checks whether occurrences of the two rules overlap in the weeks around the given week.
+   *
+   * @param other          The other rule.
+   * @param week           The week, or {@link #UNBOUNDED} to check nothing.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if two occurrences overlap, otherwise false.
+   */
+  private boolean overlapsAround(RecurrenceRule other, long week, String firstDayOfWeek) {
+    return week != UNBOUNDED && this.overlapsIn(other, week - 1, week + 2, firstDayOfWeek);
+  }
+
+  /**
+   * Gets the last week the event occurs in.
+   *
+   * @return The last week, or {@link #UNBOUNDED} if there is none.
+   */
+  private long lastWeek() {
+    long byUntil = this.untilWeek == UNBOUNDED ? UNBOUNDED
+            : this.untilWeek / this.interval * (long) this.interval;
+    long byCount = this.count == UNBOUNDED ? UNBOUNDED
+            : (this.count - 1L) / this.days.size() * this.interval;
+    return Math.min(byUntil, byCount);
+  }
+
+  /**
+   * Checks whether occurrences of the two rules overlap within the given weeks.
+   *
+   * @param other          The other rule.
+   * @param fromWeek       The first week to expand.
+   * @param toWeek         The week after the last week to expand.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if two occurrences overlap, otherwise false.
+   */
+  private boolean overlapsIn(RecurrenceRule other, long fromWeek, long toWeek,
+                             String firstDayOfWeek) {
+    long from = Math.max(0, fromWeek) * TimeUtilities.MINUTES_IN_WEEK;
+    long to = toWeek * TimeUtilities.MINUTES_IN_WEEK;
+    List<Long> mine = this.occurrences(from, to, firstDayOfWeek);
+    List<Long> theirs = other.occurrences(from, to, firstDayOfWeek);
+    int i = 0;
+    int j = 0;
+    while (i < mine.size() && j < theirs.size()) {
+      long start = mine.get(i);
+      long otherStart = theirs.get(j);
+      if (start < otherStart + other.duration && otherStart < start + this.duration) {
+        return true;
+      }
+      if (start + this.duration <= otherStart + other.duration) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Gets the start of the occurrence on each of the rule's days within a week.
+   *
+   * @param firstDayOfWeek The first day of the week.
+   * @return The start minutes since the start of the week, in order.
+   */
+  private int[] weeklyStarts(String firstDayOfWeek) {
+    return this.days.stream()
+            .mapToInt(day -> TimeUtilities.minuteOfWeek(day, this.startMinuteOfDay,
+                    firstDayOfWeek))
+            .sorted()
+            .toArray();
+  }
+
+  /**
+   * Calculates the least common multiple of two positive numbers.
+   *
+   * @param a The first number.
+   * @param b The second number.
+   * @return The least common multiple.
+   */
+  private static long lcm(long a, long b) {
+    long x = a;
+    long y = b;
+    while (y != 0) {
+      long r = x % y;
+      x = y;
+      y = r;
+    }
+    return a / x * b;
+  }
+}
@@ -0,0 +1,52 @@
+package schedule;
+
+/**
+ * A room in-person events can be held in. An event is in a room when it is not online and its
+ * location is the room's name, ignoring case and surrounding whitespace.
+ */
+public final class Room {
+  private final String name;
+  private final int capacity;
+
+  /**
+   * Constructs a room.
+   *
+   * @param name     The name of the room, as events give it as their location.
+   * @param capacity The most people the room holds.
+   * @throws IllegalArgumentException if the name is null or blank, or the capacity is not
+   *                                  positive.
+   */
+  public Room(String name, int capacity) {
+    if (name == null || name.isBlank()) {
+      throw new IllegalArgumentException("Invalid room name");
+    }
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("A room must hold at least one person");
+    }
+    this.name = name.trim();
+    this.capacity = capacity;
+  }
+
+  /**
+   * Gets the name of the room.
+   *
+   * @return The name.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Gets the most people the room holds.
+   *
+   * @return The capacity.
+   */
+  public int getCapacity() {
+    return this.capacity;
+  }
+
+  @Override
+  public String toString() {
+    return this.name + " (" + this.capacity + ")";
+  }
+}
@@ -1,7 +1,10 @@
 package schedule;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import validationutilities.ValidationUtilities;
 
@@ -13,6 +16,10 @@ import validationutilities.ValidationUtilities;
 public class Schedule implements ISchedule {
   private final String userId; // The ID of the user owning this schedule
   private final List<ReadOnlyEvent> events; // A list of events in this schedule
+  private final List<RecurringEvent> recurringEvents; // Stored by rule, not by occurrence
+  private final List<ISchedule> groups; // The schedules of the groups the user belongs to
+  private long version; // Increased on every change to the list of events
+  private AvailabilityProfile availability; // The owner's shifts, null for the standard hours
 
   /**
    * Constructs a Schedule instance for a specified user, initializing with an empty list of events.
@@ -26,6 +33,8 @@ public class Schedule implements ISchedule {
     }
     this.userId = userId.trim();
     this.events = new ArrayList<>();
+    this.recurringEvents = new ArrayList<>();
+    this.groups = new ArrayList<>();
   }
 
   @Override
@@ -39,6 +48,19 @@ public class Schedule implements ISchedule {
     for (ReadOnlyEvent event : events) {
       newEvents.add(event);
     }
+    if (this.groups.isEmpty()) {
+      return newEvents;
+    }
+    // an event the user is invited to directly and through a group is listed once
+    Set<ReadOnlyEvent> listed = Collections.newSetFromMap(new IdentityHashMap<>());
+    listed.addAll(newEvents);
+    for (ISchedule group : this.groups) {
+      for (ReadOnlyEvent event : group.getEvents()) {
+        if (listed.add(event)) {
+          newEvents.add(event);
+        }
+      }
+    }
     return newEvents;
   }
 
@@ -46,12 +68,92 @@ public class Schedule implements ISchedule {
   public void addEvent(ReadOnlyEvent event) {
     ValidationUtilities.validateNull(event);
     this.events.add(event);
+    this.version++;
   }
 
   @Override
   public void removeEvent(ReadOnlyEvent event) {
     ValidationUtilities.validateNull(event);
-    this.events.remove(event);
+    if (this.events.remove(event)) {
+      this.version++;
+    }
+  }
+
+  @Override
+  public void addRecurringEvent(RecurringEvent event) {
+    ValidationUtilities.validateNull(event);
+    this.recurringEvents.add(event);
+    this.version++;
+  }
+
+  @Override
+  public void removeRecurringEvent(RecurringEvent event) {
+    ValidationUtilities.validateNull(event);
+    if (this.recurringEvents.remove(event)) {
+      this.version++;
+    }
+  }
+
+  @Override
+  public List<RecurringEvent> getRecurringEvents() {
+    return new ArrayList<>(this.recurringEvents);
+  }
+
+  @Override
+  public void addGroup(ISchedule group) {
+    ValidationUtilities.validateNull(group);
+    if (!this.groups.contains(group)) {
+      this.groups.add(group);
+      this.version++;
+    }
+  }
+
+  @Override
+  public void removeGroup(ISchedule group) {
+    ValidationUtilities.validateNull(group);
+    if (this.groups.remove(group)) {
+      // the group's version no longer counts towards this one, which must still increase
+      this.version += group.getVersion() + 1;
+    }
+  }
+
+  @Override
+  public List<ISchedule> getGroups() {
+    return new ArrayList<>(this.groups);
+  }
+
+  @Override
+  public void setAvailability(AvailabilityProfile profile) {
+    this.availability = profile;
+  }
+
+  @Override
+  public AvailabilityProfile getAvailability() {
+    return this.availability;
+  }
+
+  @Override
+  public boolean overlap(RecurringEvent newEvent, String firstDayOfWeek) {
+    ValidationUtilities.validateNull(newEvent);
+    RecurrenceRule rule = newEvent.getRule();
+    for (ReadOnlyEvent event : events) {
+      ITime time = event.getTime();
+      if (rule.overlaps(time.getStartMinute(firstDayOfWeek), time.getEndMinute(firstDayOfWeek),
+              firstDayOfWeek)) {
+        return true;
+      }
+    }
+    for (RecurringEvent event : recurringEvents) {
+      if (rule.overlaps(event.getRule(), firstDayOfWeek)) {
+        return true;
+      }
+    }
+    for (ISchedule group : this.groups) {
+      if (group.overlap(newEvent, firstDayOfWeek)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
@@ -61,12 +163,56 @@ public class Schedule implements ISchedule {
         return true;
       }
     }
-    return false;
+    for (ISchedule group : this.groups) {
+      if (group.overlap(newEvent, firstDayOfWeek)) {
+        return true;
+      }
+    }
+    if (this.recurringEvents.isEmpty()) {
+      return false;
+    }
+    ITime time = newEvent.getTime();
+    return this.overlapRecurring(time.getStartMinute(firstDayOfWeek),
+            time.getEndMinute(firstDayOfWeek), firstDayOfWeek);
+  }
+
+  @Override
+  public boolean overlap(int startMinute, int endMinute, String firstDayOfWeek) {
+    for (ReadOnlyEvent event : events) {
+      ITime time = event.getTime();
+      if (time.getStartMinute(firstDayOfWeek) < endMinute
+              && startMinute < time.getEndMinute(firstDayOfWeek)) {
+        return true;
+      }
+    }
+    for (ISchedule group : this.groups) {
+      if (group.overlap(startMinute, endMinute, firstDayOfWeek)) {
+        return true;
+      }
+    }
+    return this.overlapRecurring(startMinute, endMinute, firstDayOfWeek);
   }
 
   @Override
   public boolean hasEvent(ReadOnlyEvent event) {
-    return events.contains(event);
+    if (events.contains(event)) {
+      return true;
+    }
+    for (ISchedule group : this.groups) {
+      if (group.hasEvent(event)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public long getVersion() {
+    long total = this.version;
+    for (ISchedule group : this.groups) {
+      total += group.getVersion();
+    }
+    return total;
   }
 
   @Override
@@ -97,6 +243,12 @@ public class Schedule implements ISchedule {
         return event;
       }
     }
+    for (ISchedule group : this.groups) {
+      ReadOnlyEvent event = group.findEvent(day, time, firstDayOfWeek);
+      if (event != null) {
+        return event;
+      }
+    }
     return null;
   }
 
@@ -109,9 +261,32 @@ public class Schedule implements ISchedule {
         return event;
       }
     }
+    for (ISchedule group : this.groups) {
+      if (group.hasEvent(event)) {
+        return group.getEvent(event);
+      }
+    }
     return null;
   }
 
+  /**
+   * Checks for time overlaps between a range of minutes and the occurrences of the recurring
+   * events, by their rules.
+   *
+   * @param startMinute    The start of the range in minutes since the start of the week.
+   * @param endMinute      The exclusive end of the range in minutes since the start of the week.
+   * @param firstDayOfWeek The first day of the week.
+   * @return True if an overlap is detected, otherwise false.
+   */
+  private boolean overlapRecurring(int startMinute, int endMinute, String firstDayOfWeek) {
+    for (RecurringEvent event : recurringEvents) {
+      if (event.getRule().overlaps(startMinute, endMinute, firstDayOfWeek)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Validates that an event exists within the schedule.
    *
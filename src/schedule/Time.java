@@ -106,27 +106,28 @@ public class Time implements ITime {
     if (this.equals(other)) {
       return true;
     }
-    int daysInWeek = 7;
-    int minutesInDay = 1440;
-
-    // Convert start and end times to minutes since the start of the week, considering Sunday as 0
-    long thisStartMinutes = this.getMinutes(this.startDay, this.startTime, firstDayOfWeek);
-    long thisEndMinutes = this.getMinutes(this.endDay, this.endTime, firstDayOfWeek);
-    if (thisEndMinutes < thisStartMinutes) {
-      thisEndMinutes += daysInWeek * minutesInDay; // Adjust for wrap-around
-    }
-
-    long otherStartMinutes = this.getMinutes(other.getStartDay(), other.getStartTime(),
-            firstDayOfWeek);
-    long otherEndMinutes = this.getMinutes(other.getEndDay(), other.getEndTime(), firstDayOfWeek);
-    if (otherEndMinutes < otherStartMinutes) {
-      otherEndMinutes += daysInWeek * minutesInDay; // Adjust for wrap-around
-    }
+    // Convert start and end times to minutes since the start of the week, adjusting wrap-around
+    int thisStartMinutes = this.getStartMinute(firstDayOfWeek);
+    int thisEndMinutes = this.getEndMinute(firstDayOfWeek);
+    int otherStartMinutes = other.getStartMinute(firstDayOfWeek);
+    int otherEndMinutes = other.getEndMinute(firstDayOfWeek);
 
     // Check for overlap considering wrap-around
     return !(otherEndMinutes <= thisStartMinutes || otherStartMinutes >= thisEndMinutes);
   }
 
+  @Override
+  public int getStartMinute(String firstDayOfWeek) {
+    return (int) this.getMinutes(this.getStartDay(), this.getStartTime(), firstDayOfWeek);
+  }
+
+  @Override
+  public int getEndMinute(String firstDayOfWeek) {
+    LocalTime end = this.getEndTime();
+    return TimeUtilities.endMinuteOfWeek(this.getStartMinute(firstDayOfWeek), this.getEndDay(),
+            end.getHour() * 60 + end.getMinute(), firstDayOfWeek);
+  }
+
   @Override
   public boolean occurs(String day, String time, String firstDayOfWeek) {
     DayOfWeek givenDay = DayOfWeek.valueOf(day.toUpperCase());
@@ -229,9 +230,8 @@ public class Time implements ITime {
    * @return The total number of minutes from the start of the week to the specified day and time.
    */
   private long getMinutes(DayOfWeek day, LocalTime time, String firstDayOfWeek) {
-    int difference = this.difference(firstDayOfWeek);
-    return ((day.getValue() + difference) % 7) * 1440
-            + time.getHour() * 60 + time.getMinute();
+    return TimeUtilities.minuteOfWeek(day, time.getHour() * 60 + time.getMinute(),
+            firstDayOfWeek);
   }
 
   /**
@@ -11,6 +11,16 @@ import java.time.format.DateTimeFormatter;
  */
 public class TimeUtilities {
 
+  /**
+   * The number of minutes in a day.
+   */
+  public static final int MINUTES_IN_DAY = 1440;
+
+  /**
+   * The number of minutes in a week.
+   */
+  public static final int MINUTES_IN_WEEK = 7 * MINUTES_IN_DAY;
+
   /**
    * Formats a {@link LocalTime} object into a string without colons, in HHmm format.
    * For example, 09:30 will be formatted as "0930".
@@ -38,4 +48,141 @@ public class TimeUtilities {
     String dayString = day.toString();
     return dayString.charAt(0) + dayString.substring(1).toLowerCase();
   }
+
+  /**
+   * Parses a time in HHmm format into the number of minutes since midnight, without going through
+   * a {@link DateTimeFormatter} and without copying the characters into a new string. Surrounding
+   * whitespace is ignored. For example, "0930" will be parsed as 570.
+   *
+   * @param time The time to parse, in HHmm format.
+   * @return The number of minutes since midnight.
+   * @throws IllegalArgumentException If the time is null or not a valid time in HHmm format.
+   */
+  public static int parseMinuteOfDay(CharSequence time) {
+    if (time == null) {
+      throw new IllegalArgumentException("The chosen time is invalid");
+    }
+    int start = firstNonBlank(time);
+    int end = lastNonBlank(time);
+    if (end - start != 4) {
+      throw new IllegalArgumentException("The chosen time is invalid");
+    }
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = time.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("The chosen time is invalid");
+      }
+      value = value * 10 + (c - '0');
+    }
+    int hours = value / 100;
+    int minutes = value % 100;
+    if (hours > 23 || minutes > 59) {
+      throw new IllegalArgumentException("The chosen time is invalid");
+    }
+    return hours * 60 + minutes;
+  }
+
+  /**
+   * Parses a day of the week, ignoring case and surrounding whitespace, without copying the
+   * characters into a new string.
+   *
+   * @param day The day to parse, such as "Monday".
+   * @return The parsed {@link DayOfWeek}.
+   * @throws IllegalArgumentException If the day is null or not a valid day of the week.
+   */
+  public static DayOfWeek parseDay(CharSequence day) {
+    if (day == null) {
+      throw new IllegalArgumentException("The chosen day is invalid");
+    }
+    int start = firstNonBlank(day);
+    int end = lastNonBlank(day);
+    for (DayOfWeek candidate : DayOfWeek.values()) {
+      String name = candidate.name();
+      if (name.length() == end - start) {
+        int i = 0;
+        while (i < name.length()
+                && Character.toUpperCase(day.charAt(start + i)) == name.charAt(i)) {
+          i++;
+        }
+        if (i == name.length()) {
+          return candidate;
+        }
+      }
+    }
+    throw new IllegalArgumentException("The chosen day is invalid");
+  }
+
+  /**
+   * Formats a number of minutes since midnight in HHmm format.
+   * For example, 570 will be formatted as "0930".
+   *
+   * @param minuteOfDay The number of minutes since midnight.
+   * @return A string representation of the time in HHmm format.
+   */
+  public static String formatMinuteOfDay(int minuteOfDay) {
+    return String.format("%02d%02d", minuteOfDay / 60, minuteOfDay % 60);
+  }
+
+  /**
+   * Calculates the number of minutes between the start of the week and the given day and minute
+   * of the day, where the week starts on the given first day of the week.
+   *
+   * @param day            The day of the week.
+   * @param minuteOfDay    The number of minutes since midnight on that day.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The number of minutes since the start of the week.
+   */
+  public static int minuteOfWeek(DayOfWeek day, int minuteOfDay, String firstDayOfWeek) {
+    int difference = 7 - DayOfWeek.valueOf(firstDayOfWeek.toUpperCase()).getValue();
+    return ((day.getValue() + difference) % 7) * MINUTES_IN_DAY + minuteOfDay;
+  }
+
+  /**
+   * Calculates the end of an event in minutes since the start of the week. Events that continue
+   * into a new week end after {@link #MINUTES_IN_WEEK}, so that the event always spans the
+   * half-open range from its start minute to its end minute.
+   *
+   * @param startMinute    The start of the event in minutes since the start of the week.
+   * @param endDay         The end day of the event.
+   * @param endMinuteOfDay The end time of the event in minutes since midnight.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The end of the event in minutes since the start of the week.
+   */
+  public static int endMinuteOfWeek(int startMinute, DayOfWeek endDay, int endMinuteOfDay,
+                                    String firstDayOfWeek) {
+    int endMinute = minuteOfWeek(endDay, endMinuteOfDay, firstDayOfWeek);
+    if (endMinute < startMinute) {
+      endMinute += MINUTES_IN_WEEK; // Adjust for wrap-around
+    }
+    return endMinute;
+  }
+
+  /**
+   * Finds the index of the first character of the sequence that is not whitespace.
+   *
+   * @param text The sequence to search.
+   * @return The index of the first non-whitespace character, or the length of the sequence.
+   */
+  private static int firstNonBlank(CharSequence text) {
+    int start = 0;
+    while (start < text.length() && Character.isWhitespace(text.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  /**
+   * Finds the index just past the last character of the sequence that is not whitespace.
+   *
+   * @param text The sequence to search.
+   * @return The index after the last non-whitespace character, or 0 if there is none.
+   */
+  private static int lastNonBlank(CharSequence text) {
+    int end = text.length();
+    while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
 }
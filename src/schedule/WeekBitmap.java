@@ -0,0 +1,347 @@
+package schedule;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import validationutilities.ValidationUtilities;
+
+/**
+ * A bitmap of the busy minutes of a week, one bit per minute since the start of the week. A
+ * whole week fits in 158 longs, so testing or counting busy minutes over a range works a word of
+ * 64 minutes at a time instead of minute by minute.
+ */
+public class WeekBitmap {
+  private static final int WORDS = (TimeUtilities.MINUTES_IN_WEEK + 63) / 64;
+
+  private final long[] words;
+
+  /**
+   * Constructs a bitmap of a week with no busy minutes.
+   */
+  public WeekBitmap() {
+    this.words = new long[WORDS];
+  }
+
+  /**
+   * Creates the bitmap of the minutes taken by the events of a schedule, including the days its
+   * recurring events repeat on.
+   *
+   * @param schedule       The schedule to take the events from.
+   * @param firstDayOfWeek The first day of the week.
+   * @return The bitmap of the busy minutes of the schedule.
+   * @throws IllegalArgumentException if the schedule or first day of the week is null.
+   */
+  public static WeekBitmap of(ISchedule schedule, String firstDayOfWeek) {
+    ValidationUtilities.validateNull(schedule);
+    ValidationUtilities.validateNull(firstDayOfWeek);
+    WeekBitmap bitmap = new WeekBitmap();
+    for (ReadOnlyEvent event : schedule.getEvents()) {
+      ITime time = event.getTime();
+      bitmap.setBusy(time.getStartMinute(firstDayOfWeek), time.getEndMinute(firstDayOfWeek));
+    }
+    for (RecurringEvent event : schedule.getRecurringEvents()) {
+      for (int[] range : event.getRule().weeklyRanges(firstDayOfWeek)) {
+        bitmap.setBusy(range[0], range[1]);
+      }
+    }
+    return bitmap;
+  }
+
+  /**
+   * Marks the half-open range of minutes as busy. Ranges ending after the end of the week
+   * continue from the start of the week, as the end minutes of {@link ITime} do.
+   *
+   * @param start The first busy minute since the start of the week.
+   * @param end   The minute after the last busy one, up to twice the minutes in a week.
+   * @throws IllegalArgumentException if the range is outside of the week or reversed.
+   */
+  public void setBusy(int start, int end) {
+    this.validateRange(start, end);
+    if (end > TimeUtilities.MINUTES_IN_WEEK) {
+      this.setWords(start, TimeUtilities.MINUTES_IN_WEEK);
+      this.setWords(0, end - TimeUtilities.MINUTES_IN_WEEK);
+    } else {
+      this.setWords(start, end);
+    }
+  }
+
+  /**
+   * Marks the half-open range of minutes as free. Ranges ending after the end of the week
+   * continue from the start of the week.
+   *
+   * @param start The first free minute since the start of the week.
+   * @param end   The minute after the last free one, up to twice the minutes in a week.
+   * @throws IllegalArgumentException if the range is outside of the week or reversed.
+   */
+  public void setFree(int start, int end) {
+    this.validateRange(start, end);
+    if (end > TimeUtilities.MINUTES_IN_WEEK) {
+      this.clearWords(start, TimeUtilities.MINUTES_IN_WEEK);
+      this.clearWords(0, end - TimeUtilities.MINUTES_IN_WEEK);
+    } else {
+      this.clearWords(start, end);
+    }
+  }
+
+  /**
+   * Marks every minute busy in another bitmap as busy in this one too, a word at a time.
+   *
+   * @param other The other bitmap.
+   * @throws IllegalArgumentException if the other bitmap is null.
+   */
+  public void setBusy(WeekBitmap other) {
+    ValidationUtilities.validateNull(other);
+    for (int i = 0; i < WORDS; i++) {
+      this.words[i] |= other.words[i];
+    }
+  }
+
+  /**
+   * Checks whether the given minute is busy.
+   *
+   * @param minute The minute since the start of the week.
+   * @return true if the minute is busy, false otherwise.
+   * @throws IllegalArgumentException if the minute is outside of the week.
+   */
+  public boolean isBusy(int minute) {
+    if (minute < 0 || minute >= TimeUtilities.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid minute " + minute);
+    }
+    return (words[minute >>> 6] & (1L << minute)) != 0;
+  }
+
+  /**
+   * Checks whether any minute of the half-open range is busy. Ranges ending after the end of the
+   * week continue from the start of the week.
+   *
+   * @param start The first minute of the range since the start of the week.
+   * @param end   The minute after the last one of the range.
+   * @return true if a minute of the range is busy, false if the whole range is free.
+   * @throws IllegalArgumentException if the range is outside of the week or reversed.
+   */
+  public boolean isBusy(int start, int end) {
+    this.validateRange(start, end);
+    if (end > TimeUtilities.MINUTES_IN_WEEK) {
+      return this.anyWords(start, TimeUtilities.MINUTES_IN_WEEK)
+              || this.anyWords(0, end - TimeUtilities.MINUTES_IN_WEEK);
+    }
+    return this.anyWords(start, end);
+  }
+
+  /**
+   * Creates the bitmap of the minutes of the week that are free in this one.
+   *
+   * @return The complement of this bitmap within the week.
+   */
+  public WeekBitmap complement() {
+    WeekBitmap complement = new WeekBitmap();
+    for (int i = 0; i < WORDS; i++) {
+      complement.words[i] = ~this.words[i];
+    }
+    // the bits after the end of the week are never busy
+    complement.words[WORDS - 1] &= mask((WORDS - 1) << 6, TimeUtilities.MINUTES_IN_WEEK);
+    return complement;
+  }
+
+  /**
+   * Finds the earliest start, at or after the given minute, of a free range of the given length.
+   * Ranges may continue from the end of the week into its start. Busy runs are skipped a word at
+   * a time, so the search does not depend on the length of the range.
+   *
+   * @param from   The earliest start to consider, in minutes since the start of the week.
+   * @param length The length of the range in minutes.
+   * @return The start of the free range, or -1 if there is none.
+   * @throws IllegalArgumentException if the earliest start is outside of the week or the length
+   *                                  is not positive or longer than a week.
+   */
+  public int findFree(int from, int length) {
+    if (from < 0 || from > TimeUtilities.MINUTES_IN_WEEK || length <= 0
+            || length > TimeUtilities.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid range " + from + " of " + length);
+    }
+    int start = this.nextClear(from);
+    while (start != -1) {
+      int end = start + length;
+      int busy = this.nextSet(start, Math.min(end, TimeUtilities.MINUTES_IN_WEEK));
+      if (busy == -1) {
+        // a later start would take even more of the start of the week
+        return end <= TimeUtilities.MINUTES_IN_WEEK
+                || !this.anyWords(0, end - TimeUtilities.MINUTES_IN_WEEK) ? start : -1;
+      }
+      start = this.nextClear(busy);
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the latest start, before the given minute, of a free range of the given length. Ranges
+   * may continue from the end of the week into its start. Busy runs are skipped a word at a time.
+   *
+   * @param to     The minute the start must come before, in minutes since the start of the week.
+   * @param length The length of the range in minutes.
+   * @return The start of the free range, or -1 if there is none.
+   * @throws IllegalArgumentException if the minute is outside of the week or the length is not
+   *                                  positive or longer than a week.
+   */
+  public int findFreeBefore(int to, int length) {
+    if (to < 0 || to > TimeUtilities.MINUTES_IN_WEEK || length <= 0
+            || length > TimeUtilities.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid range " + to + " of " + length);
+    }
+    int start = to - 1;
+    while (start >= 0) {
+      int end = start + length;
+      int busy = this.nextSet(start, Math.min(end, TimeUtilities.MINUTES_IN_WEEK));
+      if (busy == -1 && end > TimeUtilities.MINUTES_IN_WEEK) {
+        int wrapped = this.nextSet(0, end - TimeUtilities.MINUTES_IN_WEEK);
+        busy = wrapped == -1 ? -1 : wrapped + TimeUtilities.MINUTES_IN_WEEK;
+      }
+      if (busy == -1) {
+        return start;
+      }
+      // the range must end by the first busy minute, so the whole busy run is skipped
+      start = busy - length;
+    }
+    return -1;
+  }
+
+  /**
+   * Counts, for each slot of the week, how many of the given bitmaps are busy at some minute of
+   * the slot. Slots are counted in parallel, and each bitmap is tested a word at a time, so the
+   * count stays cheap for hundreds of bitmaps.
+   *
+   * @param bitmaps     The bitmaps to count.
+   * @param slotMinutes The length of a slot in minutes, which must divide a day.
+   * @return The number of busy bitmaps in each slot, indexed from the start of the week.
+   * @throws IllegalArgumentException if the bitmaps are null or the slot length is invalid.
+   */
+  public static int[] countBusy(List<WeekBitmap> bitmaps, int slotMinutes) {
+    ValidationUtilities.validateNull(bitmaps);
+    if (slotMinutes <= 0 || TimeUtilities.MINUTES_IN_DAY % slotMinutes != 0) {
+      throw new IllegalArgumentException("Invalid slot length " + slotMinutes);
+    }
+    WeekBitmap[] array = bitmaps.toArray(new WeekBitmap[0]);
+    int[] counts = new int[TimeUtilities.MINUTES_IN_WEEK / slotMinutes];
+    // each slot is written by a single task, so no synchronization is needed
+    IntStream.range(0, counts.length).parallel().forEach(slot -> {
+      int start = slot * slotMinutes;
+      int count = 0;
+      for (WeekBitmap bitmap : array) {
+        if (bitmap.anyWords(start, start + slotMinutes)) {
+          count++;
+        }
+      }
+      counts[slot] = count;
+    });
+    return counts;
+  }
+
+  /**
+   * Sets the bits of a half-open range within the week.
+   *
+   * @param start The first bit to set.
+   * @param end   The bit after the last one to set.
+   */
+  private void setWords(int start, int end) {
+    for (int word = start >>> 6; start < end; word++) {
+      int wordEnd = Math.min(end, (word + 1) << 6);
+      words[word] |= mask(start, wordEnd);
+      start = wordEnd;
+    }
+  }
+
+  /**
+   * Clears the bits of a half-open range within the week.
+   *
+   * @param start The first bit to clear.
+   * @param end   The bit after the last one to clear.
+   */
+  private void clearWords(int start, int end) {
+    for (int word = start >>> 6; start < end; word++) {
+      int wordEnd = Math.min(end, (word + 1) << 6);
+      words[word] &= ~mask(start, wordEnd);
+      start = wordEnd;
+    }
+  }
+
+  /**
+   * Checks whether any bit of a half-open range within the week is set.
+   *
+   * @param start The first bit to test.
+   * @param end   The bit after the last one to test.
+   * @return true if a bit of the range is set, false otherwise.
+   */
+  private boolean anyWords(int start, int end) {
+    for (int word = start >>> 6; start < end; word++) {
+      int wordEnd = Math.min(end, (word + 1) << 6);
+      if ((words[word] & mask(start, wordEnd)) != 0) {
+        return true;
+      }
+      start = wordEnd;
+    }
+    return false;
+  }
+
+  /**
+   * Finds the first clear bit of the week at or after the given one.
+   *
+   * @param from The first bit to consider.
+   * @return The first clear bit, or -1 if every bit from there to the end of the week is set.
+   */
+  private int nextClear(int from) {
+    for (int word = from >>> 6; from < TimeUtilities.MINUTES_IN_WEEK; word++) {
+      long clear = ~words[word] & (-1L << from);
+      if (clear != 0) {
+        int bit = (word << 6) + Long.numberOfTrailingZeros(clear);
+        return bit < TimeUtilities.MINUTES_IN_WEEK ? bit : -1;
+      }
+      from = (word + 1) << 6;
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the first set bit of a half-open range within the week.
+   *
+   * @param from The first bit to consider.
+   * @param to   The bit after the last one to consider.
+   * @return The first set bit, or -1 if none of the range is set.
+   */
+  private int nextSet(int from, int to) {
+    for (int word = from >>> 6; from < to; word++) {
+      int wordEnd = Math.min(to, (word + 1) << 6);
+      long set = words[word] & mask(from, wordEnd);
+      if (set != 0) {
+        return (word << 6) + Long.numberOfTrailingZeros(set);
+      }
+      from = wordEnd;
+    }
+    return -1;
+  }
+
+  /**
+   * Creates the mask of the bits of a range within a single word.
+   *
+   * @param start The first bit of the range.
+   * @param end   The bit after the last one of the range, in the same word or at its end.
+   * @return The mask of the range within its word.
+   */
+  private static long mask(int start, int end) {
+    long upTo = (end & 63) == 0 ? -1L : (1L << end) - 1;
+    return upTo & (-1L << start);
+  }
+
+  /**
+   * Validates a half-open range of minutes since the start of the week.
+   *
+   * @param start The first minute of the range.
+   * @param end   The minute after the last one of the range.
+   * @throws IllegalArgumentException if the range is outside of the week or reversed.
+   */
+  private void validateRange(int start, int end) {
+    if (start < 0 || start > TimeUtilities.MINUTES_IN_WEEK || end < start
+            || end - start > TimeUtilities.MINUTES_IN_WEEK) {
+      throw new IllegalArgumentException("Invalid range " + start + " to " + end);
+    }
+  }
+}
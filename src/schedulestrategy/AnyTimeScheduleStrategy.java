@@ -6,6 +6,7 @@ import java.util.List;
 import schedule.IEvent;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
 import validationutilities.ValidationUtilities;
 
 /**
@@ -29,16 +30,19 @@ public class AnyTimeScheduleStrategy implements ScheduleStrategy {
    *                     the length of a week.
    * @param scheduleList A list of existing schedules against which the event will be checked for
    *                     overlaps.
+   * @param resources    The schedules of the resources that must be free.
    * @return The scheduled event with updated start and end times if a suitable slot is found;
    *         otherwise, null.
    * @throws IllegalArgumentException If the event is null, duration is non-positive,
    *                                  or duration exceeds the maximum allowed length.
    */
   @Override
-  public ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList) {
+  public ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList,
+                                     List<ISchedule> resources) {
     ValidationUtilities.validateNull(event);
     this.validateDuration(duration);
     this.validateSchedules(scheduleList);
+    this.validateResources(resources);
     int startMinute = 0;
     int endMinuteOfWeek = (6 * 1440) + (23 * 60) + 59;
     boolean foundTime = false;
@@ -54,7 +58,7 @@ public class AnyTimeScheduleStrategy implements ScheduleStrategy {
       String endDay = durationToDay(endDuration);
       String endTime = durationToHours(endDuration) + durationToMinutes(endDuration);
       event.setEventTimes(startDay, startTime, endDay, endTime);
-      foundTime = this.validateTime(event, scheduleList);
+      foundTime = this.isFree(event, resources) && this.validateTime(event, scheduleList);
       startMinute += 1;
     }
 
@@ -88,6 +92,39 @@ public class AnyTimeScheduleStrategy implements ScheduleStrategy {
     return true;
   }
 
+  /**
+   * Checks whether every resource is free at the proposed times of an event.
+   *
+   * @param event     The event with proposed times to check.
+   * @param resources The schedules of the resources.
+   * @return true if no resource is booked at the times; false otherwise.
+   */
+  protected boolean isFree(IEvent event, List<ISchedule> resources) {
+    for (ISchedule resource : resources) {
+      if (resource.overlap(event, firstDayOfWeek)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Sets the times of an event starting at a minute of the week.
+   *
+   * @param event    The event.
+   * @param start    The start of the event in minutes since the start of the week.
+   * @param duration The duration of the event in minutes.
+   */
+  protected void setEventTimes(IEvent event, int start, int duration) {
+    DayOfWeek first = DayOfWeek.valueOf(this.firstDayOfWeek);
+    int end = (start + duration) % TimeUtilities.MINUTES_IN_WEEK;
+    event.setEventTimes(
+            TimeUtilities.formatDay(first.plus(start / TimeUtilities.MINUTES_IN_DAY)),
+            TimeUtilities.formatMinuteOfDay(start % TimeUtilities.MINUTES_IN_DAY),
+            TimeUtilities.formatDay(first.plus(end / TimeUtilities.MINUTES_IN_DAY)),
+            TimeUtilities.formatMinuteOfDay(end % TimeUtilities.MINUTES_IN_DAY));
+  }
+
   /**
    * Validates the duration of an event to ensure it's positive and does not exceed a week.
    *
@@ -142,4 +179,16 @@ public class AnyTimeScheduleStrategy implements ScheduleStrategy {
       throw new IllegalArgumentException("Invalid list of schedule.");
     }
   }
+
+  /**
+   * Validates the list of resources, which may be empty.
+   *
+   * @param resources The schedules of the resources.
+   * @throws IllegalArgumentException If the list or any of its schedules is null.
+   */
+  protected void validateResources(List<ISchedule> resources) {
+    if (resources == null || resources.stream().anyMatch(resource -> resource == null)) {
+      throw new IllegalArgumentException("Invalid list of resources.");
+    }
+  }
 }
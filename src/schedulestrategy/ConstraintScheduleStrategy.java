@@ -0,0 +1,430 @@
+package schedulestrategy;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+import schedule.WeekBitmap;
+import validationutilities.ValidationUtilities;
+
+/**
+ * Schedules an event at the best time of the week by weighing several constraints at once,
+ * rather than taking the first time passing a fixed filter. Every schedule given is a required
+ * attendee, who must be free for the whole event, unless its user is marked optional; the host
+ * is always required. Among the times every required attendee is free, the strategy picks the
+ * one with the highest score, the earliest of them on a tie, where:
+ * <ul>
+ *   <li>each optional attendee who is free adds {@value #OPTIONAL_ATTENDEE} points,</li>
+ *   <li>each attendee whose working hours do not hold the whole event takes away
+ *       {@value #OUTSIDE_WORKING_HOURS} points,</li>
+ *   <li>each preferred window holding the whole event adds {@value #PREFERRED_WINDOW} points,
+ *       and each avoided window it overlaps takes away {@value #AVOIDED_WINDOW} points,</li>
+ *   <li>each attendee without the buffer free before and after the event takes away
+ *       {@value #MISSING_BUFFER} points.</li>
+ * </ul>
+ * An attendee's working hours are those set on this strategy, or else the shifts of the
+ * availability profile of their schedule, if it has one. Optional attendees who are busy at the
+ * time chosen are dropped from the invitees.
+ *
+ * <p>Every start minute of the week is scored in one pass over arrays of the running count of
+ * each attendee's busy minutes, so whether an attendee is free for an event starting at a minute
+ * costs two array reads however long the event is. Schedules that only answer conflict checks,
+ * such as those of groups or of the free rooms, have no busy minutes to count, so the time
+ * chosen is confirmed against every schedule and resource before it is taken.</p>
+ */
+public class ConstraintScheduleStrategy extends AnyTimeScheduleStrategy {
+
+  /**
+   * The points an optional attendee who is free adds to a time.
+   */
+  public static final int OPTIONAL_ATTENDEE = 100;
+
+  /**
+   * The points an attendee outside of their working hours takes away from a time.
+   */
+  public static final int OUTSIDE_WORKING_HOURS = 50;
+
+  /**
+   * The points a preferred window holding the whole event adds to a time.
+   */
+  public static final int PREFERRED_WINDOW = 20;
+
+  /**
+   * The points an avoided window overlapping the event takes away from a time.
+   */
+  public static final int AVOIDED_WINDOW = 20;
+
+  /**
+   * The points an attendee without the buffer free around the event takes away from a time.
+   */
+  public static final int MISSING_BUFFER = 10;
+
+  private static final int WEEK = TimeUtilities.MINUTES_IN_WEEK;
+
+  private final Map<String, WorkingHours> workingHours = new HashMap<>();
+  private final Set<String> optional = new HashSet<>();
+  private final List<Window> windows = new ArrayList<>();
+  private int buffer;
+
+  /**
+   * The working hours of a user, from Monday to Friday in the user's own time zone.
+   */
+  private static final class WorkingHours {
+    private final int start;
+    private final int end;
+    private final int offset;
+
+    private WorkingHours(int start, int end, int offset) {
+      this.start = start;
+      this.end = end;
+      this.offset = offset;
+    }
+  }
+
+  /**
+   * A preferred or avoided window of the week, in the planner's time.
+   */
+  private static final class Window {
+    private final DayOfWeek startDay;
+    private final int startMinute;
+    private final DayOfWeek endDay;
+    private final int endMinute;
+    private final boolean preferred;
+
+    private Window(DayOfWeek startDay, int startMinute, DayOfWeek endDay, int endMinute,
+                   boolean preferred) {
+      this.startDay = startDay;
+      this.startMinute = startMinute;
+      this.endDay = endDay;
+      this.endMinute = endMinute;
+      this.preferred = preferred;
+    }
+  }
+
+  /**
+   * Sets the working hours of a user, which hold from Monday to Friday in the user's time zone.
+   *
+   * @param userId        The user ID.
+   * @param startTime     The start of the working day in the user's time, in HHmm format.
+   * @param endTime       The end of the working day in the user's time, in HHmm format.
+   * @param offsetMinutes How many minutes the user's clock is ahead of the planner's, negative if
+   *                      it is behind.
+   * @throws IllegalArgumentException if the user ID is null, a time is invalid, the working day
+   *                                  does not end after it starts or the offset is more than a
+   *                                  day.
+   */
+  public void setWorkingHours(String userId, String startTime, String endTime,
+                              int offsetMinutes) {
+    ValidationUtilities.validateNull(userId);
+    int start = TimeUtilities.parseMinuteOfDay(startTime);
+    int end = TimeUtilities.parseMinuteOfDay(endTime);
+    if (end <= start) {
+      throw new IllegalArgumentException("The working day must end after it starts");
+    }
+    if (Math.abs(offsetMinutes) > TimeUtilities.MINUTES_IN_DAY) {
+      throw new IllegalArgumentException("Invalid time zone offset " + offsetMinutes);
+    }
+    this.workingHours.put(userId, new WorkingHours(start, end, offsetMinutes));
+  }
+
+  /**
+   * Marks a user as an optional attendee, who is invited only if free at the time chosen.
+   *
+   * @param userId The user ID.
+   * @throws IllegalArgumentException if the user ID is null.
+   */
+  public void addOptionalAttendee(String userId) {
+    ValidationUtilities.validateNull(userId);
+    this.optional.add(userId);
+  }
+
+  /**
+   * Adds a window of the week, in the planner's time, that events should be held within.
+   *
+   * @param startDay  The start day of the window.
+   * @param startTime The start time of the window, in HHmm format.
+   * @param endDay    The end day of the window.
+   * @param endTime   The end time of the window, in HHmm format.
+   * @throws IllegalArgumentException if a day or time is invalid, or the window is empty.
+   */
+  public void preferWindow(String startDay, String startTime, String endDay, String endTime) {
+    this.windows.add(window(startDay, startTime, endDay, endTime, true));
+  }
+
+  /**
+   * Adds a window of the week, in the planner's time, that events should not overlap.
+   *
+   * @param startDay  The start day of the window.
+   * @param startTime The start time of the window, in HHmm format.
+   * @param endDay    The end day of the window.
+   * @param endTime   The end time of the window, in HHmm format.
+   * @throws IllegalArgumentException if a day or time is invalid, or the window is empty.
+   */
+  public void avoidWindow(String startDay, String startTime, String endDay, String endTime) {
+    this.windows.add(window(startDay, startTime, endDay, endTime, false));
+  }
+
+  /**
+   * Sets the minutes attendees should have free before and after an event.
+   *
+   * @param minutes The length of the buffer, 0 for none.
+   * @throws IllegalArgumentException if the length is negative or more than a day.
+   */
+  public void setBuffer(int minutes) {
+    if (minutes < 0 || minutes > TimeUtilities.MINUTES_IN_DAY) {
+      throw new IllegalArgumentException("Invalid buffer " + minutes);
+    }
+    this.buffer = minutes;
+  }
+
+  /**
+   * Schedules an event at the time of the week with the highest score at which every required
+   * attendee is free, dropping the optional attendees who are busy then.
+   *
+   * @param event        The event to be scheduled. Must not be null.
+   * @param duration     The duration of the event in minutes. Must be positive and cannot exceed
+   *                     the length of a week.
+   * @param scheduleList The schedules of the attendees.
+   * @param resources    The schedules of the resources that must be free.
+   * @return The scheduled event if some time suits every required attendee, otherwise null.
+   * @throws IllegalArgumentException If the event is null, duration is non-positive,
+   *                                  or duration exceeds the maximum allowed length.
+   */
+  @Override
+  public ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList,
+                                     List<ISchedule> resources) {
+    ValidationUtilities.validateNull(event);
+    this.validateDuration(duration);
+    this.validateSchedules(scheduleList);
+    this.validateResources(resources);
+    if (duration >= WEEK) {
+      throw new IllegalArgumentException("The duration of an event cannot be more than 6 days "
+              + "23 hours and 59 minutes");
+    }
+    // the buffers cannot make the event and its buffers longer than a week
+    int pad = Math.min(this.buffer, (WEEK - duration) / 2);
+    int[] score = new int[WEEK];
+    boolean[] blocked = new boolean[WEEK];
+    for (ISchedule schedule : scheduleList) {
+      this.scoreAttendee(schedule, this.isRequired(schedule, event), duration, pad, score,
+              blocked);
+    }
+    for (ISchedule resource : resources) {
+      this.blockResource(resource, duration, blocked);
+    }
+    for (Window window : this.windows) {
+      this.scoreWindow(window, duration, score);
+    }
+
+    List<Integer> candidates = new ArrayList<>();
+    for (int start = 0; start < WEEK; start++) {
+      if (!blocked[start]) {
+        candidates.add(start);
+      }
+    }
+    candidates.sort((a, b) -> score[a] != score[b] ? Integer.compare(score[b], score[a])
+            : Integer.compare(a, b));
+    List<String> invitees = event.getInvitees();
+    for (int start : candidates) {
+      this.setEventTimes(event, start, duration);
+      if (!this.isFree(event, resources)) {
+        continue;
+      }
+      Set<String> busy = new HashSet<>();
+      boolean fits = true;
+      for (ISchedule schedule : scheduleList) {
+        if (schedule.overlap(event, this.firstDayOfWeek)) {
+          busy.add(schedule.getUserName());
+          fits = fits && !this.isRequired(schedule, event);
+        }
+      }
+      if (fits) {
+        List<String> attending = new ArrayList<>();
+        for (String invitee : invitees) {
+          if (!busy.contains(invitee)) {
+            attending.add(invitee);
+          }
+        }
+        event.setInvitees(attending);
+        return event;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the points of one attendee to the score of every start minute of the week, blocking
+   * the minutes a required attendee is busy for.
+   *
+   * @param schedule The schedule of the attendee.
+   * @param required Whether the attendee is required.
+   * @param duration The duration of the event in minutes.
+   * @param pad      The buffer around the event in minutes.
+   * @param score    The scores of the start minutes.
+   * @param blocked  Whether each start minute is blocked.
+   */
+  private void scoreAttendee(ISchedule schedule, boolean required, int duration, int pad,
+                             int[] score, boolean[] blocked) {
+    int[] busy = runningCount(minutes(WeekBitmap.of(schedule, this.firstDayOfWeek)));
+    int[] outside = null;
+    WorkingHours hours = this.workingHours.get(schedule.getUserName());
+    if (hours != null) {
+      outside = runningCount(this.outsideWorkingHours(hours));
+    } else if (schedule.getAvailability() != null) {
+      WeekBitmap offShift = new WeekBitmap();
+      schedule.getAvailability().markUnavailable(offShift, this.firstDayOfWeek);
+      outside = runningCount(minutes(offShift));
+    }
+    for (int start = 0; start < WEEK; start++) {
+      // counted from the middle week, so the buffer before a start at minute 0 is in range
+      int from = start + WEEK;
+      int to = from + duration;
+      if (busy[to] != busy[from]) {
+        blocked[start] |= required;
+        continue;
+      }
+      int points = required ? 0 : OPTIONAL_ATTENDEE;
+      if (outside != null && outside[to] != outside[from]) {
+        points -= OUTSIDE_WORKING_HOURS;
+      }
+      if (busy[to + pad] != busy[from - pad]) {
+        points -= MISSING_BUFFER;
+      }
+      score[start] += points;
+    }
+  }
+
+  /**
+   * Blocks the start minutes of the week at which a resource is booked for some of the event.
+   *
+   * @param resource The schedule of the resource.
+   * @param duration The duration of the event in minutes.
+   * @param blocked  Whether each start minute is blocked.
+   */
+  private void blockResource(ISchedule resource, int duration, boolean[] blocked) {
+    int[] busy = runningCount(minutes(WeekBitmap.of(resource, this.firstDayOfWeek)));
+    for (int start = 0; start < WEEK; start++) {
+      blocked[start] |= busy[start + WEEK + duration] != busy[start + WEEK];
+    }
+  }
+
+  /**
+   * Adds the points of a preferred or avoided window to the score of every start minute of the
+   * week.
+   *
+   * @param window   The window.
+   * @param duration The duration of the event in minutes.
+   * @param score    The scores of the start minutes.
+   */
+  private void scoreWindow(Window window, int duration, int[] score) {
+    int start = TimeUtilities.minuteOfWeek(window.startDay, window.startMinute,
+            this.firstDayOfWeek);
+    int end = TimeUtilities.endMinuteOfWeek(start, window.endDay, window.endMinute,
+            this.firstDayOfWeek);
+    boolean[] inside = new boolean[WEEK];
+    for (int minute = start; minute < end; minute++) {
+      inside[minute % WEEK] = true;
+    }
+    int[] count = runningCount(inside);
+    for (int from = 0; from < WEEK; from++) {
+      int minutesInside = count[from + WEEK + duration] - count[from + WEEK];
+      if (window.preferred && minutesInside == duration) {
+        score[from] += PREFERRED_WINDOW;
+      } else if (!window.preferred && minutesInside > 0) {
+        score[from] -= AVOIDED_WINDOW;
+      }
+    }
+  }
+
+  /**
+   * Marks the minutes of the planner's week outside of a user's working hours.
+   *
+   * @param hours The working hours of the user.
+   * @return Whether each minute of the week is outside of the working hours.
+   */
+  private boolean[] outsideWorkingHours(WorkingHours hours) {
+    boolean[] outside = new boolean[WEEK];
+    Arrays.fill(outside, true);
+    for (DayOfWeek day = DayOfWeek.MONDAY; day != DayOfWeek.SATURDAY; day = day.plus(1)) {
+      int dayStart = TimeUtilities.minuteOfWeek(day, 0, this.firstDayOfWeek);
+      for (int minute = hours.start; minute < hours.end; minute++) {
+        outside[Math.floorMod(dayStart + minute - hours.offset, WEEK)] = false;
+      }
+    }
+    return outside;
+  }
+
+  /**
+   * Marks the busy minutes of a bitmap.
+   *
+   * @param bitmap The bitmap.
+   * @return Whether each minute of the week is busy.
+   */
+  private static boolean[] minutes(WeekBitmap bitmap) {
+    boolean[] busy = new boolean[WEEK];
+    for (int minute = 0; minute < WEEK; minute++) {
+      busy[minute] = bitmap.isBusy(minute);
+    }
+    return busy;
+  }
+
+  /**
+   * Counts the marked minutes before each minute of three weeks in a row, so the number of marked
+   * minutes of any range of up to a week either side of the middle week is a difference of two
+   * counts.
+   *
+   * @param marked Whether each minute of a week is marked.
+   * @return The number of marked minutes before each minute of the three weeks.
+   */
+  private static int[] runningCount(boolean[] marked) {
+    int[] count = new int[3 * WEEK + 1];
+    for (int minute = 0; minute < 3 * WEEK; minute++) {
+      count[minute + 1] = count[minute] + (marked[minute % WEEK] ? 1 : 0);
+    }
+    return count;
+  }
+
+  /**
+   * Checks whether the user of a schedule must attend an event.
+   *
+   * @param schedule The schedule.
+   * @param event    The event.
+   * @return True unless the user is optional and not the host.
+   */
+  private boolean isRequired(ISchedule schedule, IEvent event) {
+    String user = schedule.getUserName();
+    return !this.optional.contains(user) || user.equals(event.getHost());
+  }
+
+  /**
+   * Creates a window from its days and times.
+   *
+   * @param startDay  The start day of the window.
+   * @param startTime The start time of the window, in HHmm format.
+   * @param endDay    The end day of the window.
+   * @param endTime   The end time of the window, in HHmm format.
+   * @param preferred Whether events should be held within the window rather than avoid it.
+   * @return The window.
+   * @throws IllegalArgumentException if a day or time is invalid, or the window is empty.
+   */
+  private static Window window(String startDay, String startTime, String endDay, String endTime,
+                               boolean preferred) {
+    DayOfWeek from = TimeUtilities.parseDay(startDay);
+    int fromMinute = TimeUtilities.parseMinuteOfDay(startTime);
+    DayOfWeek to = TimeUtilities.parseDay(endDay);
+    int toMinute = TimeUtilities.parseMinuteOfDay(endTime);
+    if (from == to && fromMinute == toMinute) {
+      throw new IllegalArgumentException("The window cannot be empty");
+    }
+    return new Window(from, fromMinute, to, toMinute, preferred);
+  }
+}
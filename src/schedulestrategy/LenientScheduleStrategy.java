@@ -5,6 +5,8 @@ import java.util.List;
 
 import schedule.IEvent;
 import schedule.ISchedule;
+import schedule.ITime;
+import schedule.WeekBitmap;
 
 /**
  * Extends WorkHourSchedule to implement a lenient scheduling strategy.
@@ -13,21 +15,51 @@ import schedule.ISchedule;
  */
 public class LenientScheduleStrategy extends WorkHourScheduleStrategy {
 
+  /**
+   * Gets the minutes the host cannot attend at, since only the host must be available for the
+   * whole of the event.
+   *
+   * @param event        The event to be scheduled.
+   * @param scheduleList The schedules to check against.
+   * @param unavailable  The minutes each user cannot attend at, in the order of the schedules.
+   * @return A new bitmap of the minutes the event cannot take, every minute if the host has no
+   *         schedule.
+   */
+  @Override
+  protected WeekBitmap blocked(IEvent event, List<ISchedule> scheduleList,
+                               List<WeekBitmap> unavailable) {
+    for (int i = 0; i < scheduleList.size(); i++) {
+      if (scheduleList.get(i).getUserName().equals(event.getHost())) {
+        WeekBitmap blocked = new WeekBitmap();
+        blocked.setBusy(unavailable.get(i));
+        return blocked;
+      }
+    }
+    return new WeekBitmap().complement();
+  }
+
   /**
    * Validates event timing with a lenient approach. Checks if the event does not overlap
-   * with the schedules of the host and at least one other user.
+   * with the schedules of the host and at least one other user, and is within their working
+   * hours.
    *
    * @param event        The event to be scheduled.
    * @param scheduleList A list of schedules against which to check the event.
+   * @param unavailable  The minutes each user cannot attend at, in the order of the schedules.
    * @return true if the event can be scheduled with the host and at least one other user available,
    *         false otherwise.
    */
   @Override
-  protected boolean validateTime(IEvent event, List<ISchedule> scheduleList) {
+  protected boolean validateTime(IEvent event, List<ISchedule> scheduleList,
+                                 List<WeekBitmap> unavailable) {
+    ITime time = event.getTime();
+    int start = time.getStartMinute(firstDayOfWeek);
+    int end = time.getEndMinute(firstDayOfWeek);
     List<String> availableUsers = new ArrayList<>();
-    for (ISchedule schedule : scheduleList) {
-      // Check if the event does not overlap with this schedule
-      if (!schedule.overlap(event, firstDayOfWeek)) {
+    for (int i = 0; i < scheduleList.size(); i++) {
+      ISchedule schedule = scheduleList.get(i);
+      // Check if the user is on shift and the event does not overlap with this schedule
+      if (!unavailable.get(i).isBusy(start, end) && !schedule.overlap(event, firstDayOfWeek)) {
         availableUsers.add(schedule.getUserName());
       }
     }
@@ -23,7 +23,25 @@ public interface ScheduleStrategy {
    * @return The scheduled event with updated start and end times, or null if
    *         scheduling was unsuccessful.
    */
-  ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList);
+  default ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList) {
+    return this.scheduleEvent(event, duration, scheduleList, List.of());
+  }
+
+  /**
+   * Schedules an event based on its duration and a list of existing schedules, at a time at
+   * which every one of the given resources, such as the rooms it could be held in, is free too.
+   * Resources are not attendees: they never become invitees, and do not count towards how many
+   * attendees a strategy needs to be free.
+   *
+   * @param event        The event to be scheduled.
+   * @param duration     The duration of the event in minutes.
+   * @param scheduleList A list of existing schedules to check for conflicts.
+   * @param resources    The schedules of the resources that must be free.
+   * @return The scheduled event with updated start and end times, or null if
+   *         scheduling was unsuccessful.
+   */
+  ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList,
+                              List<ISchedule> resources);
 
   /**
    * Sets the first day of the week for the schedule strategy.
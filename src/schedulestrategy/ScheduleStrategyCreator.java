@@ -3,8 +3,8 @@ package schedulestrategy;
 /**
  * A factory class for creating scheduling strategy instances based on specified strategy types.
  * Supports the creation of different scheduling strategies, including 'Anytime', 'WorkHours',
- * and 'Lenient' scheduling. Each strategy has its own implementation of the AutoSchedule interface
- * to handle event scheduling based on different criteria and constraints.
+ * 'Lenient' and 'Constraint' scheduling. Each strategy has its own implementation of the
+ * AutoSchedule interface to handle event scheduling based on different criteria and constraints.
  */
 public class ScheduleStrategyCreator {
 
@@ -14,7 +14,8 @@ public class ScheduleStrategyCreator {
   public enum ScheduleStrategyType {
     ANYTIME, // Represents a scheduling strategy that finds the first possible time slot.
     WORKHOURS, // Represents a scheduling strategy that finds a time slot within work hours.
-    LENIENT // Represents a scheduling strategy that is more flexible with scheduling constraints.
+    LENIENT, // Represents a scheduling strategy that is more flexible with scheduling constraints.
+    CONSTRAINT // Represents a scheduling strategy that picks the best time by weighing constraints.
   }
 
   /**
@@ -37,6 +38,9 @@ public class ScheduleStrategyCreator {
       case LENIENT:
         return new LenientScheduleStrategy();
 
+      case CONSTRAINT:
+        return new ConstraintScheduleStrategy();
+
       default:
         throw new IllegalArgumentException("Unknown Schedule Strategy: " + strategy);
     }
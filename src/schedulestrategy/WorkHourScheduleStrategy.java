@@ -1,81 +1,115 @@
 package schedulestrategy;
 
-import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.List;
 
+import schedule.AvailabilityProfile;
 import schedule.IEvent;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.WeekBitmap;
 import validationutilities.ValidationUtilities;
 
 /**
- * Extends AnyTimeSchedule to specifically schedule events within standard work hours
- * (09:00 to 17:00) from Monday to Friday.
+ * Extends AnyTimeSchedule to specifically schedule events within working hours. Each user works
+ * the shifts of the availability profile of their schedule, or the standard work hours (09:00 to
+ * 17:00, Monday to Friday) if it has none.
+ *
+ * <p>The minutes each user is busy or off shift are merged into one bitmap a word at a time, and
+ * the earliest free range in it is found by skipping whole busy runs, so the cost of a search
+ * does not grow with the number of minutes of the week or the variety of shifts.</p>
  */
 public class WorkHourScheduleStrategy extends AnyTimeScheduleStrategy {
 
-  private static final List<String> weekends = new ArrayList<>(List.of("Saturday", "Sunday"));
-
   /**
-   * Schedules an event within standard work hours (09:00 to 17:00) from Monday to Friday,
-   * ensuring no overlap with existing events.
+   * Schedules an event within the working hours of every invitee, ensuring no overlap with
+   * existing events.
    *
    * @param event        The event to be scheduled. Must not be null.
    * @param duration     The duration of the event in minutes. Must be positive and fit within work
    *                     hours.
    * @param scheduleList A list of existing schedules against which the event will be checked
    *                     for overlaps.
+   * @param resources    The schedules of the resources that must be free.
    * @return The scheduled event with updated start and end times if a suitable slot is found;
    *         otherwise, null.
    * @throws IllegalArgumentException If the event is null, duration is non-positive, or scheduling
    *                                  is not possible within specified work hours.
    */
   @Override
-  public ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList) {
+  public ReadOnlyEvent scheduleEvent(IEvent event, int duration, List<ISchedule> scheduleList,
+                                     List<ISchedule> resources) {
     ValidationUtilities.validateNull(event);
     this.validateDuration(duration);
     this.validateSchedules(scheduleList);
-    int minutesInDay = 1440;
+    this.validateResources(resources);
     int maxDuration = 8 * 60;
-    final int workStart = 9 * 60;
-    final int workEnd = 17 * 60;
-    boolean foundTime = false;
     if (duration > maxDuration) {
       throw new IllegalArgumentException("The duration cannot be more than 8 working hours");
     }
-    int day = 0;
-    int startMinute = workStart;
-    while (day < 7 && !foundTime) {
-      String curDay = daysOfWeek[(day + firstDayOfWeekIndex()) % 7];
-      if (weekends.contains(curDay)) {
-        day++;
-        startMinute = (day * minutesInDay) + workStart;
-        continue;
-      }
-      String startTime = durationToHours(startMinute) + durationToMinutes(startMinute);
-      int endMinuteOfDuration = startMinute + duration;
-      String endTime = durationToHours(endMinuteOfDuration)
-              + durationToMinutes(endMinuteOfDuration);
-      int endOfDay = (day * minutesInDay) + workEnd;
-      if (startMinute > (endOfDay - duration)) {
-        day++;
-        startMinute = (day * minutesInDay) + workStart;
-      } else {
-        event.setEventTimes(curDay, startTime, curDay, endTime);
-        foundTime = this.validateTime(event, scheduleList);
-        startMinute++;
+    List<WeekBitmap> unavailable = new ArrayList<>();
+    for (ISchedule schedule : scheduleList) {
+      unavailable.add(this.unavailable(schedule));
+    }
+    WeekBitmap blocked = this.blocked(event, scheduleList, unavailable);
+    for (ISchedule resource : resources) {
+      blocked.setBusy(WeekBitmap.of(resource, this.firstDayOfWeek));
+    }
+    for (int start = blocked.findFree(0, duration); start != -1;
+         start = blocked.findFree(start + 1, duration)) {
+      this.setEventTimes(event, start, duration);
+      // the resources are checked first, as validating the time may change the invitees
+      if (this.isFree(event, resources) && this.validateTime(event, scheduleList, unavailable)) {
+        return event;
       }
     }
+    return null;
+  }
+
+  /**
+   * Gets the bitmap of the minutes the owner of a schedule is busy or off shift.
+   *
+   * @param schedule The schedule.
+   * @return The minutes the owner cannot attend an event.
+   */
+  protected WeekBitmap unavailable(ISchedule schedule) {
+    WeekBitmap bitmap = WeekBitmap.of(schedule, this.firstDayOfWeek);
+    AvailabilityProfile profile = schedule.getAvailability();
+    (profile == null ? AvailabilityProfile.WORK_HOURS : profile)
+            .markUnavailable(bitmap, this.firstDayOfWeek);
+    return bitmap;
+  }
 
-    if (foundTime) {
-      return event;
-    } else {
-      return null;
+  /**
+   * Gets the bitmap of the minutes an event cannot take, which are those any of the users cannot
+   * attend at.
+   *
+   * @param event        The event to be scheduled.
+   * @param scheduleList The schedules to check against.
+   * @param unavailable  The minutes each user cannot attend at, in the order of the schedules.
+   * @return A new bitmap of the minutes the event cannot take.
+   */
+  protected WeekBitmap blocked(IEvent event, List<ISchedule> scheduleList,
+                               List<WeekBitmap> unavailable) {
+    WeekBitmap blocked = new WeekBitmap();
+    for (WeekBitmap bitmap : unavailable) {
+      blocked.setBusy(bitmap);
     }
+    return blocked;
   }
 
-  private int firstDayOfWeekIndex() {
-    return DayOfWeek.valueOf(firstDayOfWeek).getValue() % 7;
+  /**
+   * Validates an event at a time its blocked minutes leave free, confirming it against the
+   * schedules themselves, since some schedules, such as that of a group, only answer conflict
+   * checks and have no busy minutes in their bitmaps.
+   *
+   * @param event        The event with proposed times to check.
+   * @param scheduleList The schedules to check against.
+   * @param unavailable  The minutes each user cannot attend at, in the order of the schedules.
+   * @return true if the event can take its times, false otherwise.
+   */
+  protected boolean validateTime(IEvent event, List<ISchedule> scheduleList,
+                                 List<WeekBitmap> unavailable) {
+    return this.validateTime(event, scheduleList);
   }
 }
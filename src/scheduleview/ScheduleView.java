@@ -1,5 +1,7 @@
 package scheduleview;
 
+import java.io.IOException;
+
 /**
  * The ScheduleView interface defines a method for rendering a schedule into a string
  * representation.
@@ -24,4 +26,16 @@ public interface ScheduleView {
    * @throws IllegalArgumentException if the user argument is null.
    */
   String render(String user);
+
+  /**
+   * Renders the schedule of a specified user, as {@link #render(String)} does, streaming the text
+   * to the given output instead of building a string.
+   *
+   * @param user the identifier of the user whose schedule is to be rendered;
+   *             must not be null.
+   * @param out  the output the text is appended to; must not be null.
+   * @throws IllegalArgumentException if the user or output argument is null.
+   * @throws IOException              if an error occurs while appending to the output.
+   */
+  void render(String user, Appendable out) throws IOException;
 }
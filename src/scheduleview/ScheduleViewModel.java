@@ -1,13 +1,23 @@
 package scheduleview;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import plannersystem.PlannerSystem;
 import plannersystem.ReadonlyPlannerSystem;
 import schedule.Event;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
 import schedule.Schedule;
 import schedule.TimeUtilities;
 
@@ -29,6 +39,11 @@ import schedule.TimeUtilities;
  * under the day of the week on which they start. Time is displayed in a
  * human-readable format, leveraging the TimeUtilities class for formatting.</p>
  *
+ * <p>Events are bucketed by start day in a single pass, without sorting the schedule itself.
+ * The rendered text of each event is cached per user with the event's version, so rendering a
+ * schedule again only formats the events that were added or changed since. Recurring events are
+ * listed after the events of every day they repeat on, with how often they repeat.</p>
+ *
  * @see PlannerSystem
  * @see Schedule
  * @see Event
@@ -36,7 +51,30 @@ import schedule.TimeUtilities;
  */
 public class ScheduleViewModel implements ScheduleView {
 
+  private static final Comparator<ReadOnlyEvent> BY_START_TIME =
+      Comparator.comparingInt(ReadOnlyEvent::getStartTime);
+
+  /**
+   * The rendered text of an event, with the version of the event it was rendered from.
+   */
+  private static final class Fragment {
+    private final long version;
+    private final String text;
+
+    /**
+     * Constructs a fragment of the given text.
+     *
+     * @param version the version of the rendered event.
+     * @param text    the rendered text.
+     */
+    private Fragment(long version, String text) {
+      this.version = version;
+      this.text = text;
+    }
+  }
+
   private final ReadonlyPlannerSystem system;
+  private final Map<String, Map<ReadOnlyEvent, Fragment>> fragments;
 
   /**
    * Constructs a ScheduleViewModel with a specific PlannerSystem.
@@ -50,46 +88,163 @@ public class ScheduleViewModel implements ScheduleView {
       throw new IllegalArgumentException("System is null");
     }
     this.system = system;
+    this.fragments = new HashMap<>();
   }
 
   @Override
   public String render(String user) {
+    StringBuilder view = new StringBuilder();
+    try {
+      this.render(user, view);
+    } catch (IOException e) {
+      // a StringBuilder never fails to append
+      throw new UncheckedIOException(e);
+    }
+    return view.toString();
+  }
+
+  @Override
+  public synchronized void render(String user, Appendable out) throws IOException {
     if (user == null) {
       throw new IllegalArgumentException("user is null");
     }
+    if (out == null) {
+      throw new IllegalArgumentException("output is null");
+    }
 
     ISchedule schedule = this.system.getSchedule(user);
-    StringBuilder view = new StringBuilder();
-    schedule.sortSchedule();
+    List<List<ReadOnlyEvent>> days = this.bucketByStartDay(schedule.getEvents());
+    List<List<RecurringEvent>> recurringDays =
+            this.bucketByRecurringDay(schedule.getRecurringEvents());
+    Map<ReadOnlyEvent, Fragment> cached = this.fragments.getOrDefault(user, Map.of());
+    // only fragments of events still in the schedule are kept for the next render
+    Map<ReadOnlyEvent, Fragment> rendered = new IdentityHashMap<>();
 
     for (int day = 0; day < 7; day++) {
       int index = (day == 0) ? day + 7 : day;
       DayOfWeek currentDay = DayOfWeek.of(index);
-      view.append(TimeUtilities.formatDay(currentDay)).append(":");
+      out.append(TimeUtilities.formatDay(currentDay)).append(":");
       if (day < 6) {
-        view.append(System.lineSeparator());
+        out.append(System.lineSeparator());
       }
-      for (ReadOnlyEvent event : schedule.getEvents()) {
-        if (event.getStartDay() == currentDay) {
-          view.append("        name: ").append(event.getName()).append(System.lineSeparator());
-          view.append("        time: ").append(TimeUtilities.formatDay(currentDay)).append(": ")
-                  .append(event.getTime().getStartTime()).append(" -> ")
-                  .append(TimeUtilities.formatDay(event.getEndDay())).append(": ")
-                  .append(event.getTime().getEndTime()).append(System.lineSeparator());
-          view.append("        location: ").append(event.getLocation())
-                  .append(System.lineSeparator());
-          view.append("        online: ").append(event.isOnline())
-                  .append(System.lineSeparator());
-          view.append("        invitees: ");
-          List<String> invitees = event.getInvitees();
-          for (int i = 0; i < event.getInvitees().size(); i++) {
-            if (i > 0) {
-              view.append("                  ");
-            }
-            view.append(invitees.get(i)).append(System.lineSeparator());
-          }
+      for (ReadOnlyEvent event : days.get(day)) {
+        Fragment fragment = cached.get(event);
+        if (fragment == null || fragment.version != event.getVersion()) {
+          fragment = new Fragment(event.getVersion(), this.renderEvent(event));
         }
+        rendered.put(event, fragment);
+        out.append(fragment.text);
+      }
+      for (RecurringEvent event : recurringDays.get(day)) {
+        out.append(this.renderRecurringEvent(event, currentDay));
+      }
+    }
+    this.fragments.put(user, rendered);
+  }
+
+  /**
+   * Splits events into the days of the week they start on, Sunday first, each day's events
+   * ordered by start time, and events starting at the same time kept in schedule order.
+   *
+   * @param events the events of a schedule.
+   * @return the events starting on each day, indexed from Sunday.
+   */
+  private List<List<ReadOnlyEvent>> bucketByStartDay(List<ReadOnlyEvent> events) {
+    List<List<ReadOnlyEvent>> days = new ArrayList<>(7);
+    for (int day = 0; day < 7; day++) {
+      days.add(new ArrayList<>());
+    }
+    for (ReadOnlyEvent event : events) {
+      days.get(event.getStartDay().getValue() % 7).add(event);
+    }
+    for (List<ReadOnlyEvent> day : days) {
+      day.sort(BY_START_TIME);
+    }
+    return days;
+  }
+
+  /**
+   * Splits recurring events into the days of the week they repeat on, Sunday first, each day's
+   * events ordered by start time.
+   *
+   * @param events the recurring events of a schedule.
+   * @return the recurring events repeating on each day, indexed from Sunday.
+   */
+  private List<List<RecurringEvent>> bucketByRecurringDay(List<RecurringEvent> events) {
+    List<List<RecurringEvent>> days = new ArrayList<>(7);
+    for (int day = 0; day < 7; day++) {
+      days.add(new ArrayList<>());
+    }
+    for (RecurringEvent event : events) {
+      for (DayOfWeek day : event.getRule().getDays()) {
+        days.get(day.getValue() % 7).add(event);
+      }
+    }
+    for (List<RecurringEvent> day : days) {
+      day.sort(Comparator.comparingInt(event -> event.getRule().getStartMinuteOfDay()));
+    }
+    return days;
+  }
+
+  /**
+   * Renders the details of a recurring event, as listed under one of the days it repeats on.
+   *
+   * @param event the recurring event to render.
+   * @param day   the day it is listed under.
+   * @return the text of the event.
+   */
+  private String renderRecurringEvent(RecurringEvent event, DayOfWeek day) {
+    RecurrenceRule rule = event.getRule();
+    int start = rule.getStartMinuteOfDay();
+    int end = start + rule.getDuration();
+    StringBuilder view = new StringBuilder();
+    view.append("        name: ").append(event.getName()).append(System.lineSeparator());
+    view.append("        time: ").append(TimeUtilities.formatDay(day)).append(": ")
+            .append(LocalTime.ofSecondOfDay(start * 60L)).append(" -> ")
+            .append(TimeUtilities.formatDay(day.plus(end / TimeUtilities.MINUTES_IN_DAY)))
+            .append(": ").append(LocalTime.ofSecondOfDay(end % TimeUtilities.MINUTES_IN_DAY * 60L))
+            .append(System.lineSeparator());
+    view.append("        repeats: every ").append(rule.getInterval()).append(" week(s)")
+            .append(System.lineSeparator());
+    view.append("        location: ").append(event.getLocation())
+            .append(System.lineSeparator());
+    view.append("        online: ").append(event.isOnline())
+            .append(System.lineSeparator());
+    view.append("        invitees: ");
+    List<String> invitees = event.getInvitees();
+    for (int i = 0; i < invitees.size(); i++) {
+      if (i > 0) {
+        view.append("                  ");
+      }
+      view.append(invitees.get(i)).append(System.lineSeparator());
+    }
+    return view.toString();
+  }
+
+  /**
+   * Renders the details of a single event, as listed under the day it starts on.
+   *
+   * @param event the event to render.
+   * @return the text of the event.
+   */
+  private String renderEvent(ReadOnlyEvent event) {
+    StringBuilder view = new StringBuilder();
+    view.append("        name: ").append(event.getName()).append(System.lineSeparator());
+    view.append("        time: ").append(TimeUtilities.formatDay(event.getStartDay()))
+            .append(": ").append(event.getTime().getStartTime()).append(" -> ")
+            .append(TimeUtilities.formatDay(event.getEndDay())).append(": ")
+            .append(event.getTime().getEndTime()).append(System.lineSeparator());
+    view.append("        location: ").append(event.getLocation())
+            .append(System.lineSeparator());
+    view.append("        online: ").append(event.isOnline())
+            .append(System.lineSeparator());
+    view.append("        invitees: ");
+    List<String> invitees = event.getInvitees();
+    for (int i = 0; i < invitees.size(); i++) {
+      if (i > 0) {
+        view.append("                  ");
       }
+      view.append(invitees.get(i)).append(System.lineSeparator());
     }
     return view.toString();
   }
@@ -0,0 +1,113 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import schedule.ISchedule;
+import schedule.WeekBitmap;
+
+/**
+ * The combined free/busy density of several users' schedules, counted per slot of the week. The
+ * busy bitmap of each schedule is kept with the schedule version it was built from, so after a
+ * change only the bitmaps of the changed schedules are built again before the slots are
+ * recounted.
+ */
+class BusyHeatmap {
+  static final int SLOT_MINUTES = 15;
+
+  private final List<ISchedule> schedules;
+  private final Map<ISchedule, WeekBitmap> bitmaps;
+  private final Map<ISchedule, Long> versions;
+  private String firstDayOfWeek;
+  private int[] counts;
+
+  /**
+   * Constructs the heatmap of the given schedules.
+   *
+   * @param schedules The schedules to combine.
+   * @throws IllegalArgumentException if the schedules are null or empty.
+   */
+  BusyHeatmap(List<ISchedule> schedules) {
+    if (schedules == null || schedules.isEmpty()) {
+      throw new IllegalArgumentException("No schedules to combine");
+    }
+    this.schedules = new ArrayList<>(schedules);
+    this.bitmaps = new IdentityHashMap<>();
+    this.versions = new IdentityHashMap<>();
+  }
+
+  /**
+   * Gets the number of combined schedules.
+   *
+   * @return The number of schedules.
+   */
+  int getUserCount() {
+    return schedules.size();
+  }
+
+  /**
+   * Checks whether any of the given users is one of the combined schedules' users.
+   *
+   * @param users The IDs of the users.
+   * @return true if the heatmap shows one of the users, false otherwise.
+   */
+  boolean shows(Set<String> users) {
+    for (ISchedule schedule : schedules) {
+      if (users.contains(schedule.getUserName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether the last counts still describe the combined schedules.
+   *
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return true if no schedule changed since the last count, false otherwise.
+   */
+  boolean isCurrent(String firstDayOfWeek) {
+    if (counts == null || !firstDayOfWeek.equals(this.firstDayOfWeek)) {
+      return false;
+    }
+    for (ISchedule schedule : schedules) {
+      Long version = versions.get(schedule);
+      if (version == null || version != schedule.getVersion()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Counts the busy users in each slot of the week, reusing the last counts if no schedule
+   * changed since.
+   *
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return The number of busy users in each slot of {@link #SLOT_MINUTES} minutes.
+   */
+  int[] counts(String firstDayOfWeek) {
+    if (this.isCurrent(firstDayOfWeek)) {
+      return counts;
+    }
+    if (!firstDayOfWeek.equals(this.firstDayOfWeek)) {
+      this.bitmaps.clear();
+      this.versions.clear();
+      this.firstDayOfWeek = firstDayOfWeek;
+    }
+    List<WeekBitmap> busy = new ArrayList<>(schedules.size());
+    for (ISchedule schedule : schedules) {
+      Long version = versions.get(schedule);
+      if (version == null || version != schedule.getVersion()) {
+        this.bitmaps.put(schedule, WeekBitmap.of(schedule, firstDayOfWeek));
+        this.versions.put(schedule, schedule.getVersion());
+      }
+      busy.add(bitmaps.get(schedule));
+    }
+    this.counts = WeekBitmap.countBusy(busy, SLOT_MINUTES);
+    return counts;
+  }
+}
@@ -0,0 +1,401 @@
+package view;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseWheelEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+import schedule.ISchedule;
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+
+/**
+ * A zoomable calendar showing a weekly schedule over one or more repeated weeks, meant to be
+ * placed in a {@link javax.swing.JScrollPane}. Days are columns and the time of day runs down
+ * the rows, at a height set by the zoom, in pixels per hour; holding control while turning the
+ * mouse wheel zooms in and out.
+ *
+ * <p>Rendering is virtualized: only the days and hours within the area being painted are drawn,
+ * and only the events intersecting it are looked up, through a time-ordered
+ * {@link IntervalIndex} of the schedule. Once an hour is too short to tell events apart, events
+ * are no longer drawn one by one; the painted area is split into blocks of a few pixels instead,
+ * each shaded by the share of its time that is busy, so dense schedules paint at a cost that only
+ * depends on the size of the area.</p>
+ */
+public class CalendarCanvas extends JComponent implements Scrollable {
+  /**
+   * The smallest zoom, in pixels per hour.
+   */
+  public static final double MIN_ZOOM = 1;
+
+  /**
+   * The largest zoom, in pixels per hour.
+   */
+  public static final double MAX_ZOOM = 240;
+
+  /**
+   * The zoom below which events are shown as busy density blocks, in pixels per hour.
+   */
+  public static final double DETAIL_ZOOM = 24;
+
+  private static final int DAY_WIDTH = 120;
+  private static final int BLOCK_HEIGHT = 4;
+  private static final Color BUSY = Color.RED;
+
+  private ISchedule schedule;
+  private String firstDayOfWeek;
+  private int weeks;
+  private double pixelsPerHour;
+  private IntervalIndex index;
+  // held while reading the schedule, which commands may be changing on another thread
+  private Lock modelLock = new ReentrantLock();
+
+  /**
+   * Constructs an empty canvas showing one week at the detail zoom.
+   */
+  public CalendarCanvas() {
+    this.weeks = 1;
+    this.pixelsPerHour = DETAIL_ZOOM;
+    this.setBackground(Color.lightGray);
+    this.setForeground(Color.BLACK);
+    this.setOpaque(true);
+    this.addMouseWheelListener(this::zoomWithWheel);
+  }
+
+  /**
+   * Sets the schedule shown by the canvas.
+   *
+   * @param schedule       The schedule to show.
+   * @param firstDayOfWeek The first day of the week.
+   * @throws IllegalArgumentException if an argument is null.
+   */
+  public void setSchedule(ISchedule schedule, String firstDayOfWeek) {
+    if (schedule == null || firstDayOfWeek == null) {
+      throw new IllegalArgumentException("Schedule and first day of the week cannot be null");
+    }
+    this.schedule = schedule;
+    this.firstDayOfWeek = firstDayOfWeek.toUpperCase();
+    this.repaint();
+  }
+
+  /**
+   * Sets the lock the canvas holds while reading its schedule, so it is never painted while a
+   * command running on another thread modifies it.
+   *
+   * @param lock The read lock of the model.
+   * @throws IllegalArgumentException if the lock is null.
+   */
+  public void setModelLock(Lock lock) {
+    if (lock == null) {
+      throw new IllegalArgumentException("Lock cannot be null");
+    }
+    this.modelLock = lock;
+  }
+
+  /**
+   * Sets the number of weeks shown side by side. The schedule repeats every week.
+   *
+   * @param weeks The number of weeks.
+   * @throws IllegalArgumentException if the number of weeks is not positive.
+   */
+  public void setWeeks(int weeks) {
+    if (weeks <= 0) {
+      throw new IllegalArgumentException("The number of weeks must be positive");
+    }
+    this.weeks = weeks;
+    this.revalidate();
+    this.repaint();
+  }
+
+  /**
+   * Gets the zoom of the canvas.
+   *
+   * @return The height of an hour, in pixels.
+   */
+  public double getZoom() {
+    return this.pixelsPerHour;
+  }
+
+  /**
+   * Sets the zoom of the canvas, limited to the range from {@link #MIN_ZOOM} to
+   * {@link #MAX_ZOOM}.
+   *
+   * @param pixelsPerHour The height of an hour, in pixels.
+   */
+  public void setZoom(double pixelsPerHour) {
+    this.pixelsPerHour = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, pixelsPerHour));
+    this.revalidate();
+    this.repaint();
+  }
+
+  /**
+   * Checks whether events are drawn one by one at the current zoom, rather than as busy density
+   * blocks.
+   *
+   * @return true if events are drawn one by one, false otherwise.
+   */
+  public boolean isDetailed() {
+    return this.pixelsPerHour >= DETAIL_ZOOM;
+  }
+
+  /**
+   * Finds the events drawn within the given area of the canvas, looking up only the days and
+   * hours the area covers.
+   *
+   * @param area The area of the canvas.
+   * @return The events intersecting the area, each once, in the order they are first found.
+   */
+  public List<ReadOnlyEvent> eventsIn(Rectangle area) {
+    if (this.schedule == null || area.isEmpty()) {
+      return List.of();
+    }
+    List<ReadOnlyEvent> found = new ArrayList<>();
+    Set<ReadOnlyEvent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    int firstColumn = Math.max(0, area.x / DAY_WIDTH);
+    int lastColumn = Math.min(this.columnCount() - 1, (area.x + area.width - 1) / DAY_WIDTH);
+    int top = this.minuteAt(area.y);
+    int bottom = this.minuteAt(area.y + area.height - 1) + 1;
+    this.modelLock.lock();
+    try {
+      IntervalIndex events = this.index();
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int dayStart = (column % 7) * TimeUtilities.MINUTES_IN_DAY;
+        for (ReadOnlyEvent event : events.query(dayStart + top, dayStart + bottom)) {
+          if (seen.add(event)) {
+            found.add(event);
+          }
+        }
+      }
+    } finally {
+      this.modelLock.unlock();
+    }
+    return found;
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    return new Dimension(DAY_WIDTH * this.columnCount(),
+            (int) Math.ceil(this.pixelsPerHour * 24));
+  }
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    return new Dimension(DAY_WIDTH * 7, Math.min(this.getPreferredSize().height, 600));
+  }
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.HORIZONTAL
+            ? DAY_WIDTH : Math.max(1, (int) this.pixelsPerHour);
+  }
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+    return orientation == SwingConstants.HORIZONTAL
+            ? DAY_WIDTH * 7 : Math.max(1, visibleRect.height - (int) this.pixelsPerHour);
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return false;
+  }
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    return false;
+  }
+
+  /**
+   * Paints only the days and hours within the clip, with the events or busy density blocks
+   * intersecting it.
+   *
+   * @param g The Graphics object to draw on.
+   */
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2d = (Graphics2D) g;
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+    }
+    g2d.setColor(this.getBackground());
+    g2d.fillRect(clip.x, clip.y, clip.width, clip.height);
+    if (this.schedule == null) {
+      return;
+    }
+
+    int firstColumn = Math.max(0, clip.x / DAY_WIDTH);
+    int lastColumn = Math.min(this.columnCount() - 1, (clip.x + clip.width - 1) / DAY_WIDTH);
+    this.modelLock.lock();
+    try {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        if (this.isDetailed()) {
+          this.drawEvents(g2d, column, clip);
+        } else {
+          this.drawDensity(g2d, column, clip);
+        }
+      }
+    } finally {
+      this.modelLock.unlock();
+    }
+    this.drawGrid(g2d, firstColumn, lastColumn, clip);
+  }
+
+  /**
+   * Draws the events of a day column that intersect the clip.
+   *
+   * @param g      The Graphics object to draw on.
+   * @param column The index of the day column.
+   * @param clip   The area being painted.
+   */
+  private void drawEvents(Graphics2D g, int column, Rectangle clip) {
+    int dayStart = (column % 7) * TimeUtilities.MINUTES_IN_DAY;
+    int top = this.minuteAt(clip.y);
+    int bottom = this.minuteAt(clip.y + clip.height - 1) + 1;
+    g.setColor(BUSY);
+    for (ReadOnlyEvent event : this.index().query(dayStart + top, dayStart + bottom)) {
+      ITime time = event.getTime();
+      int start = time.getStartMinute(firstDayOfWeek);
+      int end = time.getEndMinute(firstDayOfWeek);
+      if (end > TimeUtilities.MINUTES_IN_WEEK && start >= dayStart + bottom) {
+        // the part continuing from the start of the week
+        start -= TimeUtilities.MINUTES_IN_WEEK;
+        end -= TimeUtilities.MINUTES_IN_WEEK;
+      }
+      int from = Math.max(start - dayStart, 0);
+      int to = Math.min(end - dayStart, TimeUtilities.MINUTES_IN_DAY);
+      int y = this.yAt(from);
+      g.fillRect(column * DAY_WIDTH + 1, y, DAY_WIDTH - 1, Math.max(1, this.yAt(to) - y));
+    }
+  }
+
+  /**
+   * Draws the blocks of a day column that intersect the clip, each shaded by the share of its
+   * time that is busy.
+   *
+   * @param g      The Graphics object to draw on.
+   * @param column The index of the day column.
+   * @param clip   The area being painted.
+   */
+  private void drawDensity(Graphics2D g, int column, Rectangle clip) {
+    int dayStart = (column % 7) * TimeUtilities.MINUTES_IN_DAY;
+    int height = this.getPreferredSize().height;
+    int firstBlock = clip.y / BLOCK_HEIGHT;
+    int lastBlock = Math.min(clip.y + clip.height, height) / BLOCK_HEIGHT;
+    for (int block = firstBlock; block <= lastBlock; block++) {
+      int from = this.minuteAt(block * BLOCK_HEIGHT);
+      int to = Math.min(this.minuteAt((block + 1) * BLOCK_HEIGHT),
+              TimeUtilities.MINUTES_IN_DAY);
+      if (to <= from) {
+        continue;
+      }
+      int busy = this.index().busyMinutes(dayStart + from, dayStart + to);
+      if (busy > 0) {
+        int alpha = 55 + 200 * busy / (to - from);
+        g.setColor(new Color(BUSY.getRed(), BUSY.getGreen(), BUSY.getBlue(), alpha));
+        g.fillRect(column * DAY_WIDTH + 1, block * BLOCK_HEIGHT, DAY_WIDTH - 1, BLOCK_HEIGHT);
+      }
+    }
+  }
+
+  /**
+   * Draws the day separators and the hour lines within the clip, skipping hour lines that would
+   * be drawn closer than a few pixels apart.
+   *
+   * @param g           The Graphics object to draw on.
+   * @param firstColumn The first day column within the clip.
+   * @param lastColumn  The last day column within the clip.
+   * @param clip        The area being painted.
+   */
+  private void drawGrid(Graphics2D g, int firstColumn, int lastColumn, Rectangle clip) {
+    g.setColor(this.getForeground());
+    for (int column = firstColumn; column <= lastColumn + 1; column++) {
+      int x = column * DAY_WIDTH;
+      g.drawLine(x, clip.y, x, clip.y + clip.height);
+    }
+    int step = this.pixelsPerHour >= BLOCK_HEIGHT * 2 ? 1 : ScheduleRenderer.HOUR_INTERVAL;
+    int firstHour = (int) (clip.y / this.pixelsPerHour);
+    int lastHour = Math.min(24, (int) ((clip.y + clip.height) / this.pixelsPerHour) + 1);
+    for (int hour = firstHour - firstHour % step; hour <= lastHour; hour += step) {
+      int y = (int) (hour * this.pixelsPerHour);
+      g.drawLine(clip.x, y, clip.x + clip.width, y);
+    }
+  }
+
+  /**
+   * Zooms in or out when the mouse wheel turns with control held, keeping the time under the
+   * cursor in place; otherwise passes the event on for scrolling.
+   *
+   * @param e The mouse wheel event.
+   */
+  private void zoomWithWheel(MouseWheelEvent e) {
+    if (!e.isControlDown()) {
+      if (this.getParent() != null) {
+        this.getParent().dispatchEvent(e);
+      }
+      return;
+    }
+    double minute = e.getY() * 60 / this.pixelsPerHour;
+    this.setZoom(this.pixelsPerHour * Math.pow(1.25, -e.getWheelRotation()));
+    Rectangle visible = this.getVisibleRect();
+    int y = (int) (minute * this.pixelsPerHour / 60) - (e.getY() - visible.y);
+    this.scrollRectToVisible(new Rectangle(visible.x, Math.max(0, y), visible.width,
+            visible.height));
+  }
+
+  /**
+   * Gets the index of the shown schedule, building it again if the schedule changed.
+   *
+   * @return The interval index of the schedule.
+   */
+  private IntervalIndex index() {
+    if (this.index == null || !this.index.isFor(this.schedule, this.firstDayOfWeek)) {
+      this.index = new IntervalIndex(this.schedule, this.firstDayOfWeek);
+    }
+    return this.index;
+  }
+
+  /**
+   * Gets the number of day columns shown.
+   *
+   * @return The number of columns.
+   */
+  private int columnCount() {
+    return 7 * this.weeks;
+  }
+
+  /**
+   * Gets the minute of the day shown at the given y coordinate.
+   *
+   * @param y The y coordinate.
+   * @return The minute of the day, between 0 and the minutes in a day.
+   */
+  private int minuteAt(int y) {
+    int minute = (int) (Math.max(0, y) * 60 / this.pixelsPerHour);
+    return Math.min(minute, TimeUtilities.MINUTES_IN_DAY);
+  }
+
+  /**
+   * Gets the y coordinate of the given minute of the day.
+   *
+   * @param minute The minute of the day.
+   * @return The y coordinate.
+   */
+  private int yAt(int minute) {
+    return (int) Math.round(minute * this.pixelsPerHour / 60);
+  }
+}
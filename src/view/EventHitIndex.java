@@ -0,0 +1,197 @@
+package view;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+
+/**
+ * A hit-test index of the rectangles a schedule's events occupy on a schedule panel. The events
+ * are laid out once, split into one vertical segment per day column, and each column's segments
+ * are kept sorted by their top edge, so finding the event under a point is a binary search
+ * instead of a walk over every event.
+ *
+ * <p>The index is tied to the schedule version, panel size and first day of the week it was
+ * built for; see {@link #isFor(ISchedule, int, int, String)}.</p>
+ */
+class EventHitIndex {
+  private static final int NUM_HOURS = ScheduleRenderer.NUM_HOURS;
+  private static final int NUM_DAYS = ScheduleRenderer.NUM_DAYS;
+
+  /**
+   * The part of an event inside a single day column.
+   */
+  private static final class Segment {
+    private final double top;
+    private final double bottom;
+    private final int order;
+    private final ReadOnlyEvent event;
+
+    /**
+     * Constructs a segment spanning the given vertical range.
+     *
+     * @param top    The top edge of the segment, inclusive.
+     * @param bottom The bottom edge of the segment, exclusive.
+     * @param order  The position of the event in the schedule.
+     * @param event  The event the segment belongs to.
+     */
+    private Segment(double top, double bottom, int order, ReadOnlyEvent event) {
+      this.top = top;
+      this.bottom = bottom;
+      this.order = order;
+      this.event = event;
+    }
+  }
+
+  private final ISchedule schedule;
+  private final long version;
+  private final int width;
+  private final int height;
+  private final String firstDayOfWeek;
+  private final int cellWidth;
+
+  private final Segment[][] columns;
+  // the furthest bottom edge among each segment and the segments sorted before it
+  private final double[][] maxBottoms;
+
+  /**
+   * Lays out the events of the given schedule as they are drawn on a panel of the given size.
+   *
+   * @param schedule       The schedule whose events are indexed.
+   * @param width          The width of the panel.
+   * @param height         The height of the panel.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   */
+  EventHitIndex(ISchedule schedule, int width, int height, String firstDayOfWeek) {
+    this.schedule = schedule;
+    this.version = schedule.getVersion();
+    this.width = width;
+    this.height = height;
+    this.firstDayOfWeek = firstDayOfWeek;
+    this.cellWidth = width / (NUM_DAYS + 1);
+    int cellHeight = height / (NUM_HOURS + 1);
+
+    List<List<Segment>> segments = new ArrayList<>(NUM_DAYS);
+    for (int i = 0; i < NUM_DAYS; i++) {
+      segments.add(new ArrayList<>());
+    }
+    int difference = 7 - DayOfWeek.valueOf(firstDayOfWeek).getValue();
+    double columnTop = cellHeight;
+    double columnBottom = cellHeight * (NUM_HOURS + 1);
+    int order = 0;
+    for (ReadOnlyEvent event : schedule.getEvents()) {
+      int startDayIndex = (event.getStartDay().getValue() + difference) % 7;
+      int endDayIndex = (event.getEndDay().getValue() + difference) % 7;
+      double startY = this.yPosition(event.getStartTime() / 100, event.getStartTime() % 100,
+              cellHeight);
+      double endY = this.yPosition(event.getEndTime() / 100, event.getEndTime() % 100,
+              cellHeight);
+      if (event.wrapsAround(firstDayOfWeek)) {
+        endDayIndex = 6;
+        endY = this.yPosition(23, 59, cellHeight);
+      }
+      for (int i = startDayIndex; i <= endDayIndex; i++) {
+        double top = i == startDayIndex ? startY : columnTop;
+        double bottom = i == endDayIndex ? endY : columnBottom;
+        segments.get(i).add(new Segment(top, bottom, order, event));
+      }
+      order++;
+    }
+
+    this.columns = new Segment[NUM_DAYS][];
+    this.maxBottoms = new double[NUM_DAYS][];
+    for (int i = 0; i < NUM_DAYS; i++) {
+      List<Segment> column = segments.get(i);
+      column.sort(Comparator.comparingDouble(segment -> segment.top));
+      this.columns[i] = column.toArray(new Segment[0]);
+      this.maxBottoms[i] = new double[column.size()];
+      double maxBottom = Double.NEGATIVE_INFINITY;
+      for (int j = 0; j < column.size(); j++) {
+        maxBottom = Math.max(maxBottom, column.get(j).bottom);
+        this.maxBottoms[i][j] = maxBottom;
+      }
+    }
+  }
+
+  /**
+   * Checks whether this index still describes the given schedule on a panel of the given size.
+   *
+   * @param schedule       The schedule shown by the panel.
+   * @param width          The width of the panel.
+   * @param height         The height of the panel.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return true if the index can be reused, false if it must be built again.
+   */
+  boolean isFor(ISchedule schedule, int width, int height, String firstDayOfWeek) {
+    return this.schedule == schedule
+            && this.version == schedule.getVersion()
+            && this.width == width
+            && this.height == height
+            && this.firstDayOfWeek.equals(firstDayOfWeek);
+  }
+
+  /**
+   * Finds the event drawn at the given point. If events overlap there, the one that comes first
+   * in the schedule is returned.
+   *
+   * @param x The x coordinate of the point.
+   * @param y The y coordinate of the point.
+   * @return The event at the point, or null if there is none.
+   */
+  ReadOnlyEvent eventAt(double x, double y) {
+    if (cellWidth <= 0 || x < cellWidth) {
+      return null;
+    }
+    int column = (int) (x / cellWidth) - 1;
+    if (column >= NUM_DAYS) {
+      return null;
+    }
+    Segment[] segments = this.columns[column];
+    double[] bottoms = this.maxBottoms[column];
+    Segment hit = null;
+    // segments above the point that still reach below it are the only candidates
+    for (int i = this.lastStartingAtOrAbove(segments, y); i >= 0 && bottoms[i] > y; i--) {
+      Segment segment = segments[i];
+      if (y < segment.bottom && (hit == null || segment.order < hit.order)) {
+        hit = segment;
+      }
+    }
+    return hit == null ? null : hit.event;
+  }
+
+  /**
+   * Finds the last segment whose top edge is at or above the given y coordinate.
+   *
+   * @param segments The segments of a column, sorted by their top edge.
+   * @param y        The y coordinate.
+   * @return The index of the segment, or -1 if every segment starts below the coordinate.
+   */
+  private int lastStartingAtOrAbove(Segment[] segments, double y) {
+    int low = 0;
+    int high = segments.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (segments[mid].top <= y) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high;
+  }
+
+  /**
+   * Calculates the y position of a time of day in the grid.
+   *
+   * @param hour       The hour of the time.
+   * @param minute     The minute of the time.
+   * @param cellHeight The height of a single cell.
+   * @return The y position of the time.
+   */
+  private double yPosition(int hour, int minute, int cellHeight) {
+    return (cellHeight * (hour + 1)) + (cellHeight * ((double) minute / 60));
+  }
+}
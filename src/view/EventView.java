@@ -1,8 +1,10 @@
 package view;
 
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import controller.PlannerSystemController;
+import plannersystem.ReadonlyPlannerSystem;
 import schedule.ReadOnlyEvent;
 
 /**
@@ -124,4 +126,14 @@ public interface EventView {
    * @return true if the event view is visible, false otherwise.
    */
   boolean isViewVisible();
+
+  /**
+   * Lets the invitees be searched for among the users of the given system as they are typed.
+   *
+   * @param system    The planner system whose users are suggested.
+   * @param modelLock The lock to hold while looking users up, as commands may be changing the
+   *                  system on another thread.
+   * @throws IllegalArgumentException if an argument is null.
+   */
+  void setInviteeSearch(ReadonlyPlannerSystem system, Lock modelLock);
 }
@@ -10,6 +10,7 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -21,6 +22,7 @@ import javax.swing.JTextArea;
 import javax.swing.JScrollPane;
 
 import controller.PlannerSystemController;
+import plannersystem.ReadonlyPlannerSystem;
 import schedule.ReadOnlyEvent;
 
 /**
@@ -40,6 +42,9 @@ public class EventViewImpl extends JFrame implements EventView, ActionListener {
 
   protected PlannerSystemController controller;
 
+  private JTextArea inviteesTextArea;
+  private int inviteesY;
+
   /**
    * Constructs an EventView object with the specified event and user ID.
    *
@@ -180,6 +185,17 @@ public class EventViewImpl extends JFrame implements EventView, ActionListener {
     return this.isVisible();
   }
 
+  @Override
+  public void setInviteeSearch(ReadonlyPlannerSystem system, Lock modelLock) {
+    if (system == null || modelLock == null) {
+      throw new IllegalArgumentException("System or lock is null");
+    }
+    // added last so the indices of the other components are unchanged
+    InviteePicker picker = new InviteePicker(system, modelLock, this.inviteesTextArea);
+    picker.setBounds(200, this.inviteesY - 40, 355, 30);
+    this.getContentPane().add(picker);
+  }
+
   /**
    * Displays the labels for various event details.
    */
@@ -306,7 +322,8 @@ public class EventViewImpl extends JFrame implements EventView, ActionListener {
   }
 
   /**
-   * Creates a scrollable JTextArea and adds it to the frame within a JScrollPane.
+   * Creates a scrollable JTextArea and adds it to the frame within a JScrollPane. This is the list
+   * of invitees, whose search field goes beside the label above it.
    * @param y starting y position
    */
   protected void createScrollableTextArea(int y) {
@@ -322,6 +339,8 @@ public class EventViewImpl extends JFrame implements EventView, ActionListener {
     scrollPane.setBounds(5, y, 550, 150); // Adjust bounds if necessary
 
     getContentPane().add(scrollPane); // Ad
+    this.inviteesTextArea = textArea;
+    this.inviteesY = y;
   }
 
   /**
@@ -0,0 +1,106 @@
+package view;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects timings and counts of the work done by the views and controller, such as how long
+ * painting the schedule takes and how many events were painted, in named histograms. Recording
+ * is safe from any thread and cheap enough to leave on, and the collected histograms can be
+ * summarized in a debug overlay or dumped to a file to find where the interface stalls.
+ */
+public class Instrumentation {
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final Map<String, LatencyHistogram> times = new ConcurrentHashMap<>();
+  private final Map<String, LatencyHistogram> counts = new ConcurrentHashMap<>();
+
+  /**
+   * Records how long something took.
+   *
+   * @param name  The name of what was timed.
+   * @param nanos The time it took, in nanoseconds.
+   */
+  public void recordTime(String name, long nanos) {
+    this.times.computeIfAbsent(name, key -> new LatencyHistogram()).record(nanos);
+  }
+
+  /**
+   * Records a count, such as the number of events painted.
+   *
+   * @param name  The name of what was counted.
+   * @param count The count.
+   */
+  public void recordCount(String name, long count) {
+    this.counts.computeIfAbsent(name, key -> new LatencyHistogram()).record(count);
+  }
+
+  /**
+   * Gets the histogram of the times recorded under the given name.
+   *
+   * @param name The name of what was timed.
+   * @return The histogram of the times in nanoseconds, or null if none were recorded.
+   */
+  public LatencyHistogram getTimes(String name) {
+    return this.times.get(name);
+  }
+
+  /**
+   * Gets the histogram of the counts recorded under the given name.
+   *
+   * @param name The name of what was counted.
+   * @return The histogram of the counts, or null if none were recorded.
+   */
+  public LatencyHistogram getCounts(String name) {
+    return this.counts.get(name);
+  }
+
+  /**
+   * Summarizes every histogram in one line each, times in milliseconds, ordered by name.
+   *
+   * @return The lines of the summary.
+   */
+  public List<String> summarize() {
+    List<String> lines = new ArrayList<>();
+    new TreeMap<>(this.times).forEach((name, histogram) -> lines.add(String.format(
+            "%s: n=%d mean=%.2fms p50<=%.2fms p99<=%.2fms max=%.2fms", name,
+            histogram.getCount(), histogram.getMean() / NANOS_PER_MILLI,
+            histogram.getPercentile(50) / NANOS_PER_MILLI,
+            histogram.getPercentile(99) / NANOS_PER_MILLI,
+            histogram.getMax() / NANOS_PER_MILLI)));
+    new TreeMap<>(this.counts).forEach((name, histogram) -> lines.add(String.format(
+            "%s: n=%d mean=%.1f p50<=%d p99<=%d max=%d", name, histogram.getCount(),
+            histogram.getMean(), histogram.getPercentile(50), histogram.getPercentile(99),
+            histogram.getMax())));
+    return lines;
+  }
+
+  /**
+   * Writes the summary of every histogram to the given file, replacing it.
+   *
+   * @param file The file to write.
+   * @throws IllegalArgumentException if the file is null.
+   * @throws UncheckedIOException     if the file cannot be written.
+   */
+  public void dump(Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("File cannot be null");
+    }
+    try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+      for (String line : this.summarize()) {
+        writer.write(line);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write " + file, e);
+    }
+  }
+}
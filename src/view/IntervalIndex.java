@@ -0,0 +1,150 @@
+package view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import schedule.ISchedule;
+import schedule.ITime;
+import schedule.ReadOnlyEvent;
+import schedule.TimeUtilities;
+import schedule.WeekBitmap;
+
+/**
+ * A time-ordered index of a schedule's events over the minutes of a week. The events are sorted
+ * by start minute, with the furthest end seen so far kept alongside, so the events intersecting
+ * a range of minutes are found by a binary search and a walk over the candidates only. The index
+ * also counts busy minutes with prefix sums, so the busy time within any range costs two array
+ * reads.
+ *
+ * <p>Events continuing into a new week are indexed as two intervals, one up to the end of the
+ * week and one from its start.</p>
+ */
+class IntervalIndex {
+  private final ISchedule schedule;
+  private final long version;
+  private final String firstDayOfWeek;
+
+  private final int[] starts;
+  private final int[] ends;
+  private final int[] maxEnds;
+  private final ReadOnlyEvent[] events;
+  private final int[] busyBefore;
+
+  /**
+   * Indexes the events of the given schedule.
+   *
+   * @param schedule       The schedule to index.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   */
+  IntervalIndex(ISchedule schedule, String firstDayOfWeek) {
+    this.schedule = schedule;
+    this.version = schedule.getVersion();
+    this.firstDayOfWeek = firstDayOfWeek;
+
+    List<int[]> intervals = new ArrayList<>();
+    List<ReadOnlyEvent> owners = new ArrayList<>();
+    for (ReadOnlyEvent event : schedule.getEvents()) {
+      ITime time = event.getTime();
+      int start = time.getStartMinute(firstDayOfWeek);
+      int end = time.getEndMinute(firstDayOfWeek);
+      if (end > TimeUtilities.MINUTES_IN_WEEK) {
+        intervals.add(new int[] {start, TimeUtilities.MINUTES_IN_WEEK, owners.size()});
+        owners.add(event);
+        intervals.add(new int[] {0, end - TimeUtilities.MINUTES_IN_WEEK, owners.size()});
+      } else {
+        intervals.add(new int[] {start, end, owners.size()});
+      }
+      owners.add(event);
+    }
+    intervals.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+    int size = intervals.size();
+    this.starts = new int[size];
+    this.ends = new int[size];
+    this.maxEnds = new int[size];
+    this.events = new ReadOnlyEvent[size];
+    int maxEnd = Integer.MIN_VALUE;
+    for (int i = 0; i < size; i++) {
+      int[] interval = intervals.get(i);
+      starts[i] = interval[0];
+      ends[i] = interval[1];
+      maxEnd = Math.max(maxEnd, interval[1]);
+      maxEnds[i] = maxEnd;
+      events[i] = owners.get(interval[2]);
+    }
+
+    WeekBitmap busy = WeekBitmap.of(schedule, firstDayOfWeek);
+    this.busyBefore = new int[TimeUtilities.MINUTES_IN_WEEK + 1];
+    for (int minute = 0; minute < TimeUtilities.MINUTES_IN_WEEK; minute++) {
+      busyBefore[minute + 1] = busyBefore[minute] + (busy.isBusy(minute) ? 1 : 0);
+    }
+  }
+
+  /**
+   * Checks whether this index still describes the given schedule.
+   *
+   * @param schedule       The schedule to be shown.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return true if the index can be reused, false if it must be built again.
+   */
+  boolean isFor(ISchedule schedule, String firstDayOfWeek) {
+    return this.schedule == schedule
+            && this.version == schedule.getVersion()
+            && this.firstDayOfWeek.equals(firstDayOfWeek);
+  }
+
+  /**
+   * Finds the events intersecting the half-open range of minutes since the start of the week.
+   *
+   * @param from The first minute of the range.
+   * @param to   The minute after the last one of the range.
+   * @return The intersecting events, each once, ordered by start minute.
+   */
+  List<ReadOnlyEvent> query(int from, int to) {
+    if (from >= to) {
+      return List.of();
+    }
+    // the last interval starting before the end of the range
+    int last = Arrays.binarySearch(starts, to);
+    last = last < 0 ? -last - 2 : this.firstAt(last) - 1;
+    List<ReadOnlyEvent> found = new ArrayList<>();
+    Set<ReadOnlyEvent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int i = last; i >= 0 && maxEnds[i] > from; i--) {
+      if (ends[i] > from && seen.add(events[i])) {
+        found.add(events[i]);
+      }
+    }
+    Collections.reverse(found);
+    return found;
+  }
+
+  /**
+   * Counts the busy minutes within the half-open range of minutes since the start of the week.
+   *
+   * @param from The first minute of the range.
+   * @param to   The minute after the last one of the range.
+   * @return The number of busy minutes in the range.
+   */
+  int busyMinutes(int from, int to) {
+    int start = Math.max(0, Math.min(from, TimeUtilities.MINUTES_IN_WEEK));
+    int end = Math.max(start, Math.min(to, TimeUtilities.MINUTES_IN_WEEK));
+    return busyBefore[end] - busyBefore[start];
+  }
+
+  /**
+   * Finds the first of the intervals starting at the same minute as the given one.
+   *
+   * @param index The index of an interval.
+   * @return The index of the first interval with the same start.
+   */
+  private int firstAt(int index) {
+    while (index > 0 && starts[index - 1] == starts[index]) {
+      index--;
+    }
+    return index;
+  }
+}
@@ -0,0 +1,202 @@
+package view;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
+
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import plannersystem.ReadonlyPlannerSystem;
+
+/**
+ * A search field suggesting users as their IDs are typed, adding the chosen user to a list of
+ * invitees. Typing restarts a short timer, and only once typing pauses is the prefix looked up,
+ * on a background thread rather than the event dispatch thread. Answers to prefixes that have
+ * since been replaced by newer typing are dropped.
+ */
+class InviteePicker extends JPanel {
+  private static final int DEBOUNCE_MILLIS = 150;
+  private static final int MAX_SUGGESTIONS = 10;
+  // one lookup at a time is enough, a newer prefix makes queued ones stale anyway
+  private static final ExecutorService SEARCHES = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "invitee-search");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final ReadonlyPlannerSystem system;
+  private final Lock modelLock;
+  private final JTextArea invitees;
+  private final JTextField field;
+  private final JList<String> suggestions;
+  private final JPopupMenu popup;
+  private final Timer debounce;
+  private int searchCount;
+
+  /**
+   * Constructs a picker looking users up in the given system and adding them to the given area,
+   * one invitee per line.
+   *
+   * @param system    The planner system whose users are suggested.
+   * @param modelLock The lock to hold while looking users up in the system.
+   * @param invitees  The text area listing the invitees.
+   */
+  InviteePicker(ReadonlyPlannerSystem system, Lock modelLock, JTextArea invitees) {
+    super(new BorderLayout());
+    this.system = system;
+    this.modelLock = modelLock;
+    this.invitees = invitees;
+    this.field = new JTextField();
+    this.field.setFont(new Font("Aptos", Font.PLAIN, 18));
+    this.field.setBackground(Color.white);
+    this.field.setToolTipText("Type to search for invitees");
+    this.suggestions = new JList<>();
+    this.suggestions.setFont(this.field.getFont());
+    this.popup = new JPopupMenu();
+    this.popup.setFocusable(false);
+    this.popup.add(new JScrollPane(this.suggestions));
+    this.debounce = new Timer(DEBOUNCE_MILLIS, e -> this.search());
+    this.debounce.setRepeats(false);
+    this.add(this.field, BorderLayout.CENTER);
+
+    this.field.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        debounce.restart();
+      }
+
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        debounce.restart();
+      }
+
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+        debounce.restart();
+      }
+    });
+    this.field.addKeyListener(new KeyAdapter() {
+      @Override
+      public void keyPressed(KeyEvent e) {
+        handleKey(e);
+      }
+    });
+    this.suggestions.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+        choose(suggestions.getSelectedValue());
+      }
+    });
+  }
+
+  /**
+   * Looks up the typed prefix off the event dispatch thread, and shows the users found once the
+   * lookup returns, unless more has been typed meanwhile.
+   */
+  private void search() {
+    String prefix = this.field.getText().strip();
+    int search = ++this.searchCount;
+    if (prefix.isEmpty()) {
+      this.popup.setVisible(false);
+      return;
+    }
+    SEARCHES.execute(() -> {
+      List<String> found;
+      this.modelLock.lock();
+      try {
+        found = this.system.findUsers(prefix, MAX_SUGGESTIONS);
+      } finally {
+        this.modelLock.unlock();
+      }
+      SwingUtilities.invokeLater(() -> {
+        if (search == this.searchCount) {
+          this.showSuggestions(found);
+        }
+      });
+    });
+  }
+
+  /**
+   * Shows the given users below the field, or hides the suggestions if there are none.
+   *
+   * @param found The users to suggest.
+   */
+  private void showSuggestions(List<String> found) {
+    if (found.isEmpty() || !this.field.isShowing()) {
+      this.popup.setVisible(false);
+      return;
+    }
+    this.suggestions.setListData(found.toArray(new String[0]));
+    this.suggestions.setSelectedIndex(0);
+    this.suggestions.setVisibleRowCount(found.size());
+    this.popup.pack();
+    this.popup.show(this.field, 0, this.field.getHeight());
+  }
+
+  /**
+   * Moves through the suggestions with the arrow keys, adds the selected one with enter and hides
+   * them with escape.
+   *
+   * @param e The key event of the field.
+   */
+  private void handleKey(KeyEvent e) {
+    if (!this.popup.isVisible()) {
+      return;
+    }
+    int selected = this.suggestions.getSelectedIndex();
+    int count = this.suggestions.getModel().getSize();
+    switch (e.getKeyCode()) {
+      case KeyEvent.VK_DOWN:
+        this.suggestions.setSelectedIndex(Math.min(selected + 1, count - 1));
+        break;
+      case KeyEvent.VK_UP:
+        this.suggestions.setSelectedIndex(Math.max(selected - 1, 0));
+        break;
+      case KeyEvent.VK_ENTER:
+        this.choose(this.suggestions.getSelectedValue());
+        break;
+      case KeyEvent.VK_ESCAPE:
+        this.popup.setVisible(false);
+        break;
+      default:
+        return;
+    }
+    e.consume();
+  }
+
+  /**
+   * Adds the given user to the invitees, unless already invited, and clears the field.
+   *
+   * @param user The chosen user, or null if none is selected.
+   */
+  private void choose(String user) {
+    this.popup.setVisible(false);
+    if (user == null) {
+      return;
+    }
+    String text = this.invitees.getText();
+    boolean invited = Arrays.stream(text.split("\n")).map(String::strip).anyMatch(user::equals);
+    if (!invited) {
+      this.invitees.setText(text.isBlank() ? user : text.stripTrailing() + "\n" + user);
+    }
+    this.field.setText("");
+  }
+}
@@ -0,0 +1,94 @@
+package view;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values, such as durations in nanoseconds or counts, recorded from
+ * any thread without locking. Values are counted in buckets of powers of two, so recording costs
+ * a few atomic increments and no allocation, and percentiles are accurate to within a factor of
+ * two, which is enough to tell a smooth frame from a janky one.
+ */
+public class LatencyHistogram {
+  private static final int BUCKETS = 64;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value. Negative values are recorded as 0.
+   *
+   * @param value The value to record.
+   */
+  public void record(long value) {
+    long clamped = Math.max(0, value);
+    // bucket i holds the values below 2^i, and at least 2^(i-1) for i > 0
+    this.counts.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(clamped));
+    this.count.increment();
+    this.sum.add(clamped);
+    this.max.accumulateAndGet(clamped, Math::max);
+  }
+
+  /**
+   * Gets the number of values recorded.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  /**
+   * Gets the mean of the values recorded.
+   *
+   * @return The mean, or 0 if nothing was recorded.
+   */
+  public double getMean() {
+    long n = this.count.sum();
+    return n == 0 ? 0 : (double) this.sum.sum() / n;
+  }
+
+  /**
+   * Gets the largest value recorded.
+   *
+   * @return The largest value, or 0 if nothing was recorded.
+   */
+  public long getMax() {
+    return this.max.get();
+  }
+
+  /**
+   * Gets an upper bound of the given percentile of the values recorded: the top of the bucket
+   * holding it, but never more than the largest value.
+   *
+   * @param percentile The percentile, from 0 to 100.
+   * @return The upper bound of the percentile, or 0 if nothing was recorded.
+   * @throws IllegalArgumentException if the percentile is outside 0 to 100.
+   */
+  public long getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Math.min((1L << i) - 1, this.getMax());
+      }
+    }
+    return this.getMax();
+  }
+}
@@ -1,8 +1,10 @@
 package view;
 
 import java.io.File;
+import java.util.concurrent.locks.Lock;
 
 import controller.PlannerSystemController;
+import plannersystem.PlannerChangeEvent;
 
 /**
  * Defines the operations that a planner system view should support. This includes
@@ -19,6 +21,16 @@ public interface PlannerSystemView {
    */
   void setActionListener(PlannerSystemController listener);
 
+  /**
+   * Sets the lock the view holds while reading the model, such as while painting a schedule, so
+   * it never reads the model while a command running on another thread modifies it. Until one is
+   * set, the view reads the model without waiting.
+   *
+   * @param lock The read lock of the model.
+   * @throws IllegalArgumentException if the lock is null.
+   */
+  void setModelLock(Lock lock);
+
   /**
    * Makes the view visible to the user.
    */
@@ -46,10 +58,26 @@ public interface PlannerSystemView {
   String saveFile();
 
   /**
-   * Refreshes the view to reflect any updates to the underlying model or state.
+   * Refreshes the view to reflect any updates to the underlying model or state. Implementations
+   * may skip repainting when nothing shown has changed since the last paint.
    */
   void refresh();
 
+  /**
+   * Refreshes only the parts of the view affected by the given change to the underlying model.
+   *
+   * @param change The description of the change.
+   */
+  void refresh(PlannerChangeEvent change);
+
+  /**
+   * Shows how many submitted commands have not finished yet, offering to cancel them while
+   * there are any. Cancelling is requested through the "Cancel command" action.
+   *
+   * @param pending The number of commands submitted but not yet finished.
+   */
+  void showProgress(int pending);
+
   /**
    * Retrieves the currently selected user.
    *
@@ -74,4 +102,11 @@ public interface PlannerSystemView {
    * Toggles the color of the schedule panel of the view.
    */
   void toggleColor();
+
+  /**
+   * Prompts the user to select several users whose combined free/busy time is shown over the
+   * schedule panel, replacing the selected user's events. Selecting no users shows the selected
+   * user's schedule again.
+   */
+  void selectOverlayUsers();
 }
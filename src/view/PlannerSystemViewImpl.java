@@ -7,8 +7,14 @@ import javax.swing.JComboBox;
 import javax.swing.JMenuBar;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
@@ -17,9 +23,21 @@ import java.awt.Font;
 import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import controller.PlannerSystemController;
+import plannersystem.PlannerChangeEvent;
 import plannersystem.ReadonlyPlannerSystem;
 import schedule.ISchedule;
 import schedule.Schedule;
@@ -33,6 +51,8 @@ import schedule.Schedule;
 public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView, ActionListener {
   private static final int FRAME_SIZE = 700;
   private JComboBox<String> userOptions;
+  private JLabel progressLabel;
+  private JButton cancelButton;
   private final SchedulePanel schedulePanel;
   private final JFileChooser fileChooser;
 
@@ -40,6 +60,13 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
 
   private PlannerSystemController controller;
 
+  private CalendarCanvas calendarCanvas;
+
+  private final Instrumentation instrumentation;
+
+  // held while reading the system, which commands may be changing on another thread
+  private Lock modelLock = new ReentrantLock();
+
   /**
    * Constructs a PlannerSystemView with the specified ReadonlyPlannerSystem.
    *
@@ -61,12 +88,16 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
     schedulePanel = new SchedulePanel();
     schedulePanel.setSchedule(new Schedule("none"));
     schedulePanel.setFirstDayOfWeek(system.getFirstDayOfWeek());
+    this.instrumentation = new Instrumentation();
+    schedulePanel.setInstrumentation(this.instrumentation);
     // Custom panel for drawing the schedule
     this.add(schedulePanel, BorderLayout.CENTER);
     this.displayButtons();
     JMenuBar menuBar = new JMenuBar();
     JMenu fileMenu = this.createFileMenu();
     menuBar.add(fileMenu);
+    menuBar.add(this.createEditMenu());
+    menuBar.add(this.createViewMenu());
     this.setJMenuBar(menuBar);
     this.fileChooser = new JFileChooser();
   }
@@ -77,6 +108,18 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
     this.schedulePanel.setActionListener(listener);
   }
 
+  @Override
+  public void setModelLock(Lock lock) {
+    if (lock == null) {
+      throw new IllegalArgumentException("Lock is null");
+    }
+    this.modelLock = lock;
+    this.schedulePanel.setModelLock(lock);
+    if (this.calendarCanvas != null) {
+      this.calendarCanvas.setModelLock(lock);
+    }
+  }
+
   @Override
   public void makeVisible() {
     this.setVisible(true);
@@ -108,7 +151,27 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
 
   @Override
   public void refresh() {
-    this.schedulePanel.repaint();
+    // Commands that changed nothing visible don't cost a repaint
+    this.schedulePanel.repaintIfNeeded();
+    if (this.calendarCanvas != null) {
+      this.calendarCanvas.repaint();
+    }
+  }
+
+  @Override
+  public void refresh(PlannerChangeEvent change) {
+    this.schedulePanel.repaintChanges(change);
+    if (this.calendarCanvas != null) {
+      this.calendarCanvas.repaint();
+    }
+  }
+
+  @Override
+  public void showProgress(int pending) {
+    this.progressLabel.setText(pending == 1 ? "1 command running"
+            : pending + " commands running");
+    this.progressLabel.setVisible(pending > 0);
+    this.cancelButton.setVisible(pending > 0);
   }
 
   @Override
@@ -120,7 +183,13 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
   public void updateSchedulePanel(String currentUser) {
     if (currentUser != null && !currentUser.equals("<none>")) {
       // Retrieve the schedule for the selected user
-      ISchedule userSchedule = system.getSchedule(currentUser);
+      ISchedule userSchedule;
+      this.modelLock.lock();
+      try {
+        userSchedule = system.getSchedule(currentUser);
+      } finally {
+        this.modelLock.unlock();
+      }
       // Update the schedule panel with the user's schedule
       schedulePanel.setSchedule(userSchedule);
     } else {
@@ -131,12 +200,35 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
 
   @Override
   public void updateUsers() {
+    long start = System.nanoTime();
+    this.updateUserOptions();
+    this.instrumentation.recordTime("update users", System.nanoTime() - start);
+  }
+
+  /**
+   * Gets where the time taken by the views is recorded, so the time taken by other work, such as
+   * commands, can be recorded alongside it.
+   *
+   * @return The instrumentation of this view.
+   */
+  public Instrumentation getInstrumentation() {
+    return this.instrumentation;
+  }
+
+  /**
+   * Lists the users of the planner system in the user selection box, keeping the selected user.
+   */
+  private void updateUserOptions() {
+    Set<String> users = this.users();
+    if (this.showsUsers(users)) {
+      return;
+    }
     String currentUser = this.getCurrentUser();
     // to avoid duplication
     userOptions.removeAllItems();
 
     userOptions.addItem("<none>");
-    for (String user : this.system.getUsers()) {
+    for (String user : users) {
       userOptions.addItem(user);
     }
 
@@ -145,11 +237,66 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
     userOptions.repaint();
   }
 
+  /**
+   * Checks whether the user selection box already lists exactly the given users, after the
+   * "&lt;none&gt;" option, so rebuilding it can be skipped.
+   *
+   * @param users The users of the planner system.
+   * @return true if the box lists the given users in order, false otherwise.
+   */
+  private boolean showsUsers(Set<String> users) {
+    if (userOptions.getItemCount() != users.size() + 1) {
+      return false;
+    }
+    int index = 1;
+    for (String user : users) {
+      if (!user.equals(userOptions.getItemAt(index++))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies the users of the planner system, so they can be listed while commands change it.
+   *
+   * @return The users, in order.
+   */
+  private Set<String> users() {
+    this.modelLock.lock();
+    try {
+      return new LinkedHashSet<>(this.system.getUsers());
+    } finally {
+      this.modelLock.unlock();
+    }
+  }
+
   @Override
   public void toggleColor() {
     this.schedulePanel.setColorEvent();
   }
 
+  @Override
+  public void selectOverlayUsers() {
+    JList<String> users = new JList<>(this.users().toArray(new String[0]));
+    users.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+    int response = JOptionPane.showConfirmDialog(null, new JScrollPane(users),
+            "Overlay users", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+    if (response != JOptionPane.OK_OPTION) {
+      return;
+    }
+    List<ISchedule> schedules = new ArrayList<>();
+    this.modelLock.lock();
+    try {
+      for (String user : users.getSelectedValuesList()) {
+        schedules.add(this.system.getSchedule(user));
+      }
+    } finally {
+      this.modelLock.unlock();
+    }
+    this.schedulePanel.setOverlay(schedules);
+  }
+
   @Override
   public void actionPerformed(ActionEvent e) {
     String command = e.getActionCommand();
@@ -167,11 +314,13 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
     JButton createEventButton = this.createButton("Create event");
     JButton scheduleEventButton = this.createButton("Schedule event");
     JButton toggleColorButton = this.createButton("Toggle color");
+    JButton overlayButton = this.createButton("Overlay users");
     userOptions = this.createComboBox(this.userOptions());
 
     createEventButton.setActionCommand("Open Event Frame");
     scheduleEventButton.setActionCommand("Open Schedule Event Frame");
     toggleColorButton.setActionCommand("Toggle Color");
+    overlayButton.setActionCommand("Overlay users");
 
     // Panel to hold the createEventButton and keep it at the center
     JPanel centerButtonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
@@ -180,11 +329,21 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
 
     // Panel to hold the scheduleEventButton and keep it at the right
     JPanel rightButtonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    rightButtonPanel.add(overlayButton);
     rightButtonPanel.add(toggleColorButton);
 
     JPanel leftButtonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
     leftButtonPanel.add(userOptions);
 
+    // shown while commands run on the workers, until they finish
+    progressLabel = new JLabel();
+    progressLabel.setVisible(false);
+    cancelButton = this.createButton("Cancel");
+    cancelButton.setActionCommand("Cancel command");
+    cancelButton.setVisible(false);
+    leftButtonPanel.add(progressLabel);
+    leftButtonPanel.add(cancelButton);
+
     // Add the button panels to the main button panel
     buttonPanel.add(centerButtonPanel, BorderLayout.CENTER);
     buttonPanel.add(rightButtonPanel, BorderLayout.EAST);
@@ -232,10 +391,11 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
    * @return An array of user options.
    */
   private String[] userOptions() {
-    String[] result = new String[system.getUsers().size() + 1];
+    Set<String> users = this.users();
+    String[] result = new String[users.size() + 1];
     result[0] = "<none>";
     int i = 1;
-    for (String user : system.getUsers()) {
+    for (String user : users) {
       result[i++] = user;
     }
 
@@ -259,4 +419,88 @@ public class PlannerSystemViewImpl extends JFrame implements PlannerSystemView,
     menu.add(saveCalendar);
     return menu;
   }
+
+  /**
+   * Creates the Edit menu for the menu bar, undoing and redoing the changes made to events.
+   *
+   * @return The created Edit menu.
+   */
+  private JMenu createEditMenu() {
+    JMenu menu = new JMenu("Edit");
+    JMenuItem undo = new JMenuItem("Undo");
+    JMenuItem redo = new JMenuItem("Redo");
+    undo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, InputEvent.CTRL_DOWN_MASK));
+    redo.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, InputEvent.CTRL_DOWN_MASK));
+    undo.addActionListener(this);
+    redo.addActionListener(this);
+    undo.setActionCommand("Undo");
+    redo.setActionCommand("Redo");
+    menu.add(undo);
+    menu.add(redo);
+    return menu;
+  }
+
+  /**
+   * Creates the view menu, opening other views of the selected user's schedule. These only
+   * change what is shown, so they are handled here rather than by the controller.
+   *
+   * @return The view menu.
+   */
+  private JMenu createViewMenu() {
+    JMenu menu = new JMenu("View");
+    JMenuItem zoomable = new JMenuItem("Zoomable calendar");
+    zoomable.addActionListener(e -> this.openCalendarCanvas());
+    menu.add(zoomable);
+    menu.addSeparator();
+    JCheckBoxMenuItem debugOverlay = new JCheckBoxMenuItem("Show timings");
+    debugOverlay.addActionListener(e -> this.schedulePanel.setDebugOverlay(
+            debugOverlay.isSelected()));
+    menu.add(debugOverlay);
+    JMenuItem dumpTimings = new JMenuItem("Save timings");
+    dumpTimings.addActionListener(e -> this.dumpTimings());
+    menu.add(dumpTimings);
+    return menu;
+  }
+
+  /**
+   * Writes the summary of the recorded timings to a file chosen by the user.
+   */
+  private void dumpTimings() {
+    String file = this.saveFile();
+    if (file == null) {
+      return;
+    }
+    try {
+      this.instrumentation.dump(Path.of(file));
+    } catch (UncheckedIOException e) {
+      this.displayErrorMessage(e.getMessage());
+    }
+  }
+
+  /**
+   * Opens a window with a zoomable, scrollable calendar of the selected user's schedule over
+   * four weeks.
+   */
+  private void openCalendarCanvas() {
+    String currentUser = this.getCurrentUser();
+    if (currentUser == null || currentUser.equals("<none>")) {
+      this.displayErrorMessage("No user is selected.");
+      return;
+    }
+    CalendarCanvas canvas = new CalendarCanvas();
+    canvas.setModelLock(this.modelLock);
+    this.modelLock.lock();
+    try {
+      canvas.setSchedule(this.system.getSchedule(currentUser), this.system.getFirstDayOfWeek());
+    } finally {
+      this.modelLock.unlock();
+    }
+    canvas.setWeeks(4);
+    this.calendarCanvas = canvas;
+
+    JFrame frame = new JFrame(currentUser + " - Calendar");
+    frame.add(new JScrollPane(canvas));
+    frame.pack();
+    frame.setVisible(true);
+  }
 }
@@ -0,0 +1,145 @@
+package view;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.imageio.ImageIO;
+
+import plannersystem.ReadonlyPlannerSystem;
+import schedule.ISchedule;
+
+/**
+ * Renders the weekly schedules of a planner system to PNG images without a window, drawing them
+ * the same way a {@link SchedulePanel} does. Exporting the schedules of all users renders them in
+ * parallel, one renderer per thread, with the fonts, strokes and static grid layer shared by all
+ * of them, so the grid is drawn once for the whole batch.
+ *
+ * <p>Exports read the live schedules of the system, so the system should not be modified while
+ * an export runs.</p>
+ */
+public class ScheduleExporter {
+  private final ReadonlyPlannerSystem system;
+  private final int width;
+  private final int height;
+  private final ColorEvent colors;
+  private final ThreadLocal<ScheduleRenderer> renderers;
+
+  /**
+   * Constructs an exporter of the schedules of the given system, as images of the given size.
+   *
+   * @param system The planner system whose schedules are exported.
+   * @param width  The width of the images.
+   * @param height The height of the images.
+   * @throws IllegalArgumentException if the system is null or the size is not positive.
+   */
+  public ScheduleExporter(ReadonlyPlannerSystem system, int width, int height) {
+    if (system == null) {
+      throw new IllegalArgumentException("System cannot be null");
+    }
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("The size of the images must be positive");
+    }
+    this.system = system;
+    this.width = width;
+    this.height = height;
+    this.colors = new RedDecorator();
+    this.renderers = ThreadLocal.withInitial(() ->
+        new ScheduleRenderer(Color.lightGray, Color.BLACK));
+  }
+
+  /**
+   * Renders the schedule of the given user into a new image.
+   *
+   * @param user The user whose schedule is rendered.
+   * @return The image of the user's week.
+   * @throws IllegalArgumentException if the user does not exist.
+   */
+  public BufferedImage render(String user) {
+    ISchedule schedule = system.getSchedule(user);
+    return new ScheduleRenderer(Color.lightGray, Color.BLACK).render(schedule, width, height,
+            system.getFirstDayOfWeek(), colors);
+  }
+
+  /**
+   * Writes the schedule of the given user as a PNG image.
+   *
+   * @param user The user whose schedule is exported.
+   * @param file The file to write.
+   * @throws IllegalArgumentException if the user does not exist or the file is null.
+   * @throws UncheckedIOException     if the image cannot be written.
+   */
+  public void export(String user, Path file) {
+    if (file == null) {
+      throw new IllegalArgumentException("File cannot be null");
+    }
+    ISchedule schedule = system.getSchedule(user);
+    // each thread reuses its renderer's frame, which is written out before the next render
+    BufferedImage frame = this.renderers.get().render(schedule, width, height,
+            system.getFirstDayOfWeek(), colors);
+    try {
+      ImageIO.write(frame, "png", file.toFile());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write " + file, e);
+    }
+  }
+
+  /**
+   * Writes the schedule of every user as a PNG image named after the user in the given directory,
+   * rendering the schedules in parallel across the available processors. Characters that cannot
+   * be used in file names are replaced by underscores. Users whose names would then share a file,
+   * ignoring case, get a numbered suffix in the order of their IDs, so every user gets a file of
+   * their own.
+   *
+   * @param directory The directory to write the images to, created if it does not exist.
+   * @return The file written for each user.
+   * @throws IllegalArgumentException if the directory is null.
+   * @throws UncheckedIOException     if the directory or an image cannot be written.
+   */
+  public Map<String, Path> exportAll(Path directory) {
+    if (directory == null) {
+      throw new IllegalArgumentException("Directory cannot be null");
+    }
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not create " + directory, e);
+    }
+    // the files are chosen up front, so no two exports running in parallel write the same one
+    Map<String, Path> files = fileNames(system.getUsers(), directory);
+    List.copyOf(files.keySet()).parallelStream()
+            .forEach(user -> this.export(user, files.get(user)));
+    return files;
+  }
+
+  /**
+   * Chooses a distinct PNG file in a directory for each user.
+   *
+   * @param users     The IDs of the users.
+   * @param directory The directory of the files.
+   * @return The file of each user.
+   */
+  private static Map<String, Path> fileNames(Collection<String> users, Path directory) {
+    Map<String, Path> names = new HashMap<>();
+    Set<String> taken = new HashSet<>();
+    for (String user : new TreeSet<>(users)) {
+      String base = user.replaceAll("[^A-Za-z0-9._-]", "_");
+      String name = base;
+      for (int suffix = 2; !taken.add(name.toLowerCase()); suffix++) {
+        name = base + "-" + suffix;
+      }
+      names.put(user, directory.resolve(name + ".png"));
+    }
+    return names;
+  }
+}
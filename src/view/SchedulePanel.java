@@ -1,18 +1,20 @@
 package view;
 
 import java.awt.Graphics;
-import java.awt.Graphics2D;
-import java.awt.Font;
-import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.FontMetrics;
+import java.awt.image.BufferedImage;
 import java.time.DayOfWeek;
 import java.util.List;
-
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.swing.JPanel;
 
 import controller.PlannerSystemController;
+import plannersystem.PlannerChangeEvent;
 import schedule.ISchedule;
+import schedule.ITime;
 import schedule.ReadOnlyEvent;
 
 /**
@@ -20,11 +22,9 @@ import schedule.ReadOnlyEvent;
  * It extends JPanel and provides methods to draw a schedule grid and events on the panel.
  */
 public class SchedulePanel extends JPanel {
-  private static final int NUM_HOURS = 24;
-  private static final int HOUR_INTERVAL = 4;
-  private static final int NUM_DAYS = 7;
-  private static final String[] daysOfWeek = {"Sunday", "Monday", "Tuesday", "Wednesday",
-      "Thursday", "Friday", "Saturday"};
+  private static final int NUM_HOURS = ScheduleRenderer.NUM_HOURS;
+  private static final int NUM_DAYS = ScheduleRenderer.NUM_DAYS;
+  private static final Color DEBUG_BACKGROUND = new Color(0, 0, 0, 170);
 
   private ISchedule schedule;
 
@@ -36,14 +36,34 @@ public class SchedulePanel extends JPanel {
 
   private String firstDayOfWeek;
 
+  private final ScheduleRenderer renderer;
+
+  private EventHitIndex hitIndex;
+
+  private BusyHeatmap overlay;
+
+  // the version of the schedule after the last change the panel heard of, which the columns
+  // marked for the next change are relative to
+  private long seenVersion;
+
+  private Instrumentation instrumentation;
+
+  private boolean debugOverlay;
+
+  // held while reading the schedule, which commands may be changing on another thread
+  private Lock modelLock = new ReentrantLock();
+
   /**
    * Constructs a SchedulePanel with the specified schedule.
    */
   public SchedulePanel() {
-    this.addMouseListener(new EventClickListener(this));
+    EventClickListener listener = new EventClickListener(this);
+    this.addMouseListener(listener);
+    this.addMouseMotionListener(listener);
     this.setBackground(Color.lightGray);
     this.colorEvent = new RedDecorator();
     this.colorToggled = false;
+    this.renderer = new ScheduleRenderer(this.getBackground(), this.getForeground());
   }
 
   /**
@@ -123,188 +143,282 @@ public class SchedulePanel extends JPanel {
   }
 
   /**
-   * Overrides the paintComponent method to draw the schedule grid and events.
+   * Finds the event drawn at the given point of the panel. The events are laid out into a hit
+   * index once per schedule version, size and first day of the week, and the index is reused
+   * for every click and hover until one of them changes.
    *
-   * @param g The Graphics object to draw on.
+   * @param x The x coordinate of the point.
+   * @param y The y coordinate of the point.
+   * @return The event at the point, or null if there is none or the overlay is shown.
    */
-  @Override
-  protected void paintComponent(Graphics g) {
-    super.paintComponent(g);
-
-    int width = this.getWidth();
-    int height = this.getHeight();
-    int cellHeight = height / (NUM_HOURS + 1); // +1 for the days of the week
-    int cellWidth = width / (NUM_DAYS + 1); // +1 for the time column
-    int columnWidth = (width - cellWidth) / NUM_DAYS;
-
-
-    this.drawTimes(g, cellHeight);
-
-    // Draw the days of the week
-    this.drawDaysOfWeek(g, cellWidth, columnWidth, cellHeight);
-
-    this.drawGrid(g, width, height, cellWidth, cellHeight);
-
-    this.drawEvents(g, cellWidth, columnWidth, cellHeight);
-
+  public ReadOnlyEvent eventAt(int x, int y) {
+    if (this.schedule == null || this.firstDayOfWeek == null || this.overlay != null) {
+      return null;
+    }
+    this.modelLock.lock();
+    try {
+      if (this.hitIndex == null || !this.hitIndex.isFor(this.schedule, this.getWidth(),
+              this.getHeight(), this.firstDayOfWeek)) {
+        this.hitIndex = new EventHitIndex(this.schedule, this.getWidth(), this.getHeight(),
+                this.firstDayOfWeek);
+      }
+      return this.hitIndex.eventAt(x, y);
+    } finally {
+      this.modelLock.unlock();
+    }
   }
 
   /**
-   * Sets the schedule to be displayed on this panel.
+   * Checks whether the panel shows something other than its current schedule, colors, size or
+   * first day of the week, and so needs to be repainted.
    *
-   * @param schedule The schedule to be displayed.
-   * @throws IllegalArgumentException if schedule is null.
+   * @return true if the panel is out of date, false if repainting would not change it.
    */
-  public void setSchedule(ISchedule schedule) {
-    if (schedule == null) {
-      throw new IllegalArgumentException("Schedule is null.");
+  public boolean needsRepaint() {
+    if (this.schedule == null || this.firstDayOfWeek == null) {
+      return true;
+    }
+    this.modelLock.lock();
+    try {
+      if (this.overlay != null) {
+        return !this.overlay.isCurrent(this.firstDayOfWeek)
+                || !this.renderer.isHeatmapCurrent(this.overlay.counts(this.firstDayOfWeek),
+                this.getWidth(), this.getHeight(), this.firstDayOfWeek);
+      }
+      return !this.renderer.isCurrent(this.schedule, this.getWidth(), this.getHeight(),
+              this.firstDayOfWeek, this.colorEvent);
+    } finally {
+      this.modelLock.unlock();
     }
-    this.schedule = schedule;
   }
 
   /**
-   * Draws the times on the leftmost column of the schedule panel.
+   * Repaints only the day columns touched by the given change. Changes that do not affect the
+   * shown user only cost a repaint if the panel is otherwise out of date, and changes to more
+   * than the weekly events of the shown user repaint the whole panel.
    *
-   * @param g          The Graphics object to draw on.
-   * @param cellHeight The height of a single cell.
+   * @param change The description of the change.
    */
-  private void drawTimes(Graphics g, int cellHeight) {
-    // Draw the times on the leftmost column
-    g.setFont(new Font("Aptos", Font.BOLD, cellHeight / 2));
-    for (int i = 1; i <= NUM_HOURS; i++) {
-      String time = String.format("%02d:00", i - 1);
-      g.drawString(time, 5, cellHeight * i + g.getFontMetrics().getAscent() / 2 - 2);
+  public void repaintChanges(PlannerChangeEvent change) {
+    if (this.overlay != null) {
+      if (this.overlay.shows(change.getUsers())) {
+        this.seeVersion();
+        this.repaint();
+      } else {
+        // the users of a change may not name everyone it affects, so check the counts too
+        this.repaintIfNeeded();
+      }
+      return;
+    }
+    if (this.schedule == null || this.firstDayOfWeek == null
+            || !change.getUsers().contains(this.schedule.getUserName())) {
+      this.repaintIfNeeded();
+      return;
+    }
+    if (change.hasOtherChanges()) {
+      // recurring events, groups and the like have no times to mark columns by
+      this.seeVersion();
+      this.repaint();
+      return;
+    }
+    DayOfWeek firstDay = DayOfWeek.valueOf(this.firstDayOfWeek);
+    this.modelLock.lock();
+    try {
+      long base = this.seenVersion;
+      this.seenVersion = this.schedule.getVersion();
+      for (ReadOnlyEvent event : change.getEvents()) {
+        ITime time = event.getTime();
+        int startColumn = this.columnOf(time.getStartDay(), firstDay);
+        int endColumn = time.wrapsAround(this.firstDayOfWeek)
+                ? NUM_DAYS - 1 : this.columnOf(time.getEndDay(), firstDay);
+        for (int column = startColumn; column <= endColumn; column++) {
+          this.renderer.markDirty(column, base, this.seenVersion);
+          this.repaint(ScheduleRenderer.columnBounds(column, this.getWidth(), this.getHeight()));
+        }
+      }
+    } finally {
+      this.modelLock.unlock();
     }
   }
 
   /**
-   * Draws the days of the week at the top of each column.
-   *
-   * @param g           the Graphics object to draw on.
-   * @param cellWidth   the width of the initial time column.
-   * @param columnWidth the width of each subsequent day column.
-   * @param cellHeight  the height of the top row.
+   * Repaints the whole panel if it is out of date, after a change whose details are unknown or
+   * do not name the shown user.
    */
-  private void drawDaysOfWeek(Graphics g, int cellWidth, int columnWidth, int cellHeight) {
-    // Draw the days of the week
-    g.setFont(new Font("Aptos", Font.BOLD, cellWidth / 9));
-    int difference = DayOfWeek.valueOf(firstDayOfWeek).getValue() % 7;
-    for (int i = 0; i < NUM_DAYS; i++) {
-      int index = (i + difference) % 7;
-      g.drawString(daysOfWeek[index], cellWidth * (i + 1)
-                      + (columnWidth - g.getFontMetrics().stringWidth(daysOfWeek[i])) / 2,
-              cellHeight - 10);
+  public void repaintIfNeeded() {
+    this.seeVersion();
+    if (this.needsRepaint()) {
+      this.repaint();
     }
   }
 
   /**
-   * Draws the grid lines for the schedule panel, including horizontal hour lines and vertical day
-   * lines.
-   *
-   * @param g          the Graphics object to draw on.
-   * @param width      the full width of the panel.
-   * @param height     the full height of the panel.
-   * @param cellWidth  the width of a single vertical grid cell.
-   * @param cellHeight the height of a single horizontal grid cell.
+   * Notes the current version of the schedule as seen, so the columns marked for the next
+   * change are taken to be relative to it.
    */
-  private void drawGrid(Graphics g, int width, int height, int cellWidth, int cellHeight) {
-    for (int i = 1; i <= NUM_HOURS + 1; i++) {
-      // Every 4 hours, draw a thick line
-      if ((i - 1) % HOUR_INTERVAL == 0) {
-        ((Graphics2D) g).setStroke(new BasicStroke(2));
-      } else {
-        ((Graphics2D) g).setStroke(new BasicStroke(1));
-      }
-      g.drawLine(0, cellHeight * i, width, cellHeight * i);
+  private void seeVersion() {
+    if (this.schedule == null) {
+      return;
     }
-
-    // Reset to default stroke
-    ((Graphics2D) g).setStroke(new BasicStroke(1));
-
-    // Draw vertical lines
-    for (int i = 0; i <= NUM_DAYS + 1; i++) {
-      g.drawLine(cellWidth * i, 0, cellWidth * i, height);
+    this.modelLock.lock();
+    try {
+      this.seenVersion = this.schedule.getVersion();
+    } finally {
+      this.modelLock.unlock();
     }
   }
 
   /**
-   * Draws the events on the schedule panel.
+   * Gets the index of the column showing the given day.
    *
-   * @param g           The Graphics object to draw on.
-   * @param cellWidth   The width of a single cell.
-   * @param columnWidth The width of a column.
-   * @param cellHeight  The height of a single cell.
+   * @param day      The day of the week.
+   * @param firstDay The first day of the week.
+   * @return The index of the day's column, 0 for the first day of the week.
    */
-  private void drawEvents(Graphics g, int cellWidth, int columnWidth, int cellHeight) {
-    List<ReadOnlyEvent> events = schedule.getEvents();
-    Color defaultColor = g.getColor(); // Store the default color
-
-    for (ReadOnlyEvent event : events) {
-      int startHour = event.getStartTime() / 100;
-      int startMinute = event.getStartTime() % 100;
-      int startDayIndex = (event.getStartDay().getValue() + this.difference()) % 7;
-      int endHour = event.getEndTime() / 100;
-      int endMinute = event.getEndTime() % 100;
-      int endDayIndex = (event.getEndDay().getValue() + this.difference()) % 7;
-
-      if (event.wrapsAround(this.firstDayOfWeek)) {
-        endHour = 23;
-        endMinute = 59;
-        endDayIndex = 6;
-      }
-
-      // Calculate start and end positions in the grid
-      int startX = cellWidth * (startDayIndex + 1); // +1 to account for time column
-      int endX = cellWidth * (endDayIndex + 2); // +2 to go to the end of the day slot
-      int startY = cellHeight * (startHour + 1) + (int) ((double) startMinute / 60 * cellHeight);
-      int endY = cellHeight * (endHour + 1) + (int) ((double) endMinute / 60 * cellHeight);
+  private int columnOf(DayOfWeek day, DayOfWeek firstDay) {
+    return (day.getValue() - firstDay.getValue() + NUM_DAYS) % NUM_DAYS;
+  }
 
-      Color color;
-      if (this.schedule.getUserName().equals(event.getHost())) {
-        color = colorEvent.getHostColor();
+  /**
+   * Overrides the paintComponent method to draw the schedule grid and events. The grid and the
+   * events are drawn through cached layers, so only what changed since the last paint is drawn
+   * again.
+   *
+   * @param g The Graphics object to draw on.
+   */
+  @Override
+  protected void paintComponent(Graphics g) {
+    long start = System.nanoTime();
+    super.paintComponent(g);
+    BufferedImage image;
+    int eventCount;
+    this.modelLock.lock();
+    try {
+      if (this.overlay != null) {
+        image = this.renderer.renderHeatmap(this.overlay.counts(this.firstDayOfWeek),
+                this.overlay.getUserCount(), this.getWidth(), this.getHeight(),
+                this.firstDayOfWeek);
       } else {
-        color = colorEvent.getStandardColor();
+        image = this.renderer.render(this.schedule, this.getWidth(), this.getHeight(),
+                this.firstDayOfWeek, this.colorEvent);
+      }
+      eventCount = this.overlay == null && this.schedule != null
+              ? this.schedule.getEvents().size() : -1;
+    } finally {
+      this.modelLock.unlock();
+    }
+    if (image != null) {
+      g.drawImage(image, 0, 0, null);
+    }
+    if (this.instrumentation != null) {
+      this.instrumentation.recordTime("paint", System.nanoTime() - start);
+      if (eventCount >= 0) {
+        this.instrumentation.recordCount("events painted", eventCount);
       }
-      // Set the event color
-      g.setColor(color); // Using the first color for all events in this example
-
-      // Fill cells with the event color
-      for (int x = startX; x < endX; x += cellWidth) {
-        int topY = x == startX ? startY : cellHeight;
-        int bottomY = (x + cellWidth) >= endX ? endY : (cellHeight * (NUM_HOURS + 1));
-        g.fillRect(x, topY, columnWidth, bottomY - topY);
+      if (this.debugOverlay) {
+        this.drawDebugOverlay(g);
       }
     }
+  }
 
-    // Redraw grid lines over the filled cells
-    g.setColor(defaultColor);
-    drawGridLines(g, cellWidth, cellHeight);
+  /**
+   * Draws the summary of the recorded timings over the top left of the panel.
+   *
+   * @param g The Graphics object to draw on.
+   */
+  private void drawDebugOverlay(Graphics g) {
+    List<String> lines = this.instrumentation.summarize();
+    g.setFont(ScheduleRenderer.font(11));
+    FontMetrics metrics = g.getFontMetrics();
+    int width = 0;
+    for (String line : lines) {
+      width = Math.max(width, metrics.stringWidth(line));
+    }
+    g.setColor(DEBUG_BACKGROUND);
+    g.fillRect(0, 0, width + 8, lines.size() * metrics.getHeight() + 6);
+    g.setColor(Color.white);
+    for (int i = 0; i < lines.size(); i++) {
+      g.drawString(lines.get(i), 4, 3 + i * metrics.getHeight() + metrics.getAscent());
+    }
   }
 
   /**
-   * Draws the grid lines on the schedule panel.
+   * Sets the lock the panel holds while reading its schedule, so it is never painted while a
+   * command running on another thread modifies it.
    *
-   * @param g          The Graphics object to draw on.
-   * @param cellWidth  The width of a single cell.
-   * @param cellHeight The height of a single cell.
+   * @param lock The read lock of the model.
+   * @throws IllegalArgumentException if the lock is null.
    */
-  private void drawGridLines(Graphics g, int cellWidth, int cellHeight) {
-    for (int i = 0; i <= NUM_DAYS; i++) { // 7 days + 1 time column
-      int x = i * cellWidth;
-      g.drawLine(x, 0, x, this.getHeight());
+  public void setModelLock(Lock lock) {
+    if (lock == null) {
+      throw new IllegalArgumentException("Lock is null.");
     }
-    for (int i = 0; i <= NUM_HOURS; i++) { // 24 hours
-      int y = i * cellHeight;
-      g.drawLine(0, y, this.getWidth(), y);
+    this.modelLock = lock;
+  }
+
+  /**
+   * Sets where the time taken to paint the panel and to handle its clicks is recorded.
+   *
+   * @param instrumentation The instrumentation, or null to stop recording.
+   */
+  public void setInstrumentation(Instrumentation instrumentation) {
+    this.instrumentation = instrumentation;
+  }
+
+  /**
+   * Gets where the time taken to paint the panel and to handle its clicks is recorded.
+   *
+   * @return The instrumentation, or null if nothing is recorded.
+   */
+  public Instrumentation getInstrumentation() {
+    return this.instrumentation;
+  }
+
+  /**
+   * Shows or hides the summary of the recorded timings over the panel. It is only shown while
+   * timings are recorded.
+   *
+   * @param shown Whether the summary is shown.
+   */
+  public void setDebugOverlay(boolean shown) {
+    this.debugOverlay = shown;
+    this.repaint();
+  }
+
+  /**
+   * Shows the combined free/busy density of the given schedules as a heatmap over the grid,
+   * instead of the events of the panel's schedule, or goes back to showing the panel's schedule.
+   *
+   * @param schedules The schedules to combine, or null or an empty list to hide the heatmap.
+   */
+  public void setOverlay(List<ISchedule> schedules) {
+    if (schedules == null || schedules.isEmpty()) {
+      this.overlay = null;
+    } else {
+      this.overlay = new BusyHeatmap(schedules);
     }
   }
 
   /**
-   * This method gets the difference between the start day index and 7.
+   * Checks whether the panel shows the free/busy heatmap of several schedules.
+   *
+   * @return true if the heatmap is shown, false if the panel's schedule is shown.
+   */
+  public boolean isOverlayShown() {
+    return this.overlay != null;
+  }
+
+  /**
+   * Sets the schedule to be displayed on this panel.
    *
-   * @return the difference between 7 and start day index.
+   * @param schedule The schedule to be displayed.
+   * @throws IllegalArgumentException if schedule is null.
    */
-  private int difference() {
-    return 7 - DayOfWeek.valueOf(firstDayOfWeek).getValue();
+  public void setSchedule(ISchedule schedule) {
+    if (schedule == null) {
+      throw new IllegalArgumentException("Schedule is null.");
+    }
+    this.schedule = schedule;
+    this.seeVersion();
   }
 }
@@ -0,0 +1,558 @@
+package view;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.time.DayOfWeek;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
+import schedule.TimeUtilities;
+
+/**
+ * Renders a weekly schedule grid and its events in two cached layers. The static layer, holding
+ * the hour labels, the day headers and the grid, is drawn once into an image and only redrawn
+ * when the size or the first day of the week changes. The event layer is drawn over a copy of the
+ * static layer and only redrawn when the schedule, its version or the event colors change.
+ * Painting an unchanged schedule is a single image copy. When the day columns a change affects
+ * are marked as dirty beforehand, only those columns of the event layer are redrawn. Instead of
+ * the events of one schedule, the event layer can show the free/busy heatmap of several.
+ *
+ * <p>Fonts and strokes are shared by all renderers instead of being created on every paint. So
+ * are the static layers of the last few sizes drawn: once drawn, a static layer is only ever
+ * copied from, so renderers on different threads can share it, and rendering many schedules of
+ * the same size draws the grid once.</p>
+ */
+class ScheduleRenderer {
+  static final int NUM_HOURS = 24;
+  static final int HOUR_INTERVAL = 4;
+  static final int NUM_DAYS = 7;
+  private static final String[] daysOfWeek = {"Sunday", "Monday", "Tuesday", "Wednesday",
+      "Thursday", "Friday", "Saturday"};
+  private static final BasicStroke THIN_STROKE = new BasicStroke(1);
+  private static final BasicStroke THICK_STROKE = new BasicStroke(2);
+  private static final Map<Integer, Font> FONTS = new ConcurrentHashMap<>();
+  private static final Color HEAT = Color.RED;
+  private static final int HEAT_MIN_ALPHA = 40;
+  private static final int SHARED_GRID_LAYERS = 8;
+  private static final Map<String, BufferedImage> GRID_LAYERS =
+      new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+          return this.size() > SHARED_GRID_LAYERS;
+        }
+      };
+
+  private final Color background;
+  private final Color foreground;
+
+  private BufferedImage gridLayer;
+  private String gridFirstDay;
+
+  private BufferedImage frame;
+  private ISchedule frameSchedule;
+  private long frameVersion;
+  private ColorEvent frameColors;
+  private int[] frameCounts;
+
+  private final BitSet dirtyColumns = new BitSet(NUM_DAYS);
+  // the versions of the schedule the marked changes were made from and lead to, or a base of -1
+  // if a change between them went unmarked
+  private long dirtyBase;
+  private long dirtyVersion;
+
+  /**
+   * Constructs a renderer drawing with the given colors.
+   *
+   * @param background The color behind the grid.
+   * @param foreground The color of the labels and grid lines.
+   */
+  ScheduleRenderer(Color background, Color foreground) {
+    this.background = background;
+    this.foreground = foreground;
+  }
+
+  /**
+   * Gets the shared bold label font of the given size.
+   *
+   * @param size The point size of the font.
+   * @return The font.
+   */
+  static Font font(int size) {
+    return FONTS.computeIfAbsent(size, key -> new Font("Aptos", Font.BOLD, key));
+  }
+
+  /**
+   * Gets the bounds of a day column, including the grid lines around it and the pixels event
+   * fills may spill into the next column.
+   *
+   * @param column The index of the day column, 0 for the first day of the week.
+   * @param width  The width of the image.
+   * @param height The height of the image.
+   * @return The bounds of the column.
+   */
+  static Rectangle columnBounds(int column, int width, int height) {
+    int cellWidth = width / (NUM_DAYS + 1);
+    int columnWidth = (width - cellWidth) / NUM_DAYS;
+    return new Rectangle(cellWidth * (column + 1) - 2, 0,
+            Math.max(cellWidth, columnWidth) + 4, height);
+  }
+
+  /**
+   * Checks whether the last rendered image still shows the given schedule as it is now, or will
+   * once the day columns already marked as dirty are redrawn.
+   *
+   * @param schedule       The schedule to be shown.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @param colors         The colors of the events.
+   * @return true if no more than the dirty columns need to be drawn again, false otherwise.
+   */
+  boolean isCurrent(ISchedule schedule, int width, int height, String firstDayOfWeek,
+                    ColorEvent colors) {
+    return this.isFrameReusable(schedule, width, height, firstDayOfWeek, colors)
+            && (frameVersion == schedule.getVersion() || this.hasDirtyColumnsFor(schedule));
+  }
+
+  /**
+   * Marks a day column as changed by a change from one version of the schedule to another, so
+   * the next render only redraws the marked columns, provided the image shows the version the
+   * first marked change was made from and every later change was marked too.
+   *
+   * @param column  The index of the day column, 0 for the first day of the week.
+   * @param base    The version of the schedule the change was made from.
+   * @param version The version of the schedule that includes the change.
+   */
+  void markDirty(int column, long base, long version) {
+    if (this.dirtyColumns.isEmpty()) {
+      this.dirtyBase = base;
+    } else if (version != this.dirtyVersion && base != this.dirtyVersion) {
+      this.dirtyBase = -1;
+    }
+    this.dirtyColumns.set(column);
+    this.dirtyVersion = version;
+  }
+
+  /**
+   * Renders the given schedule, redrawing only the layers whose inputs changed since the last
+   * call.
+   *
+   * @param schedule       The schedule to be shown.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @param colors         The colors of the events.
+   * @return The rendered image, or null if the size is empty.
+   */
+  BufferedImage render(ISchedule schedule, int width, int height, String firstDayOfWeek,
+                       ColorEvent colors) {
+    if (width <= 0 || height <= 0) {
+      return null;
+    }
+    boolean reusable = this.isFrameReusable(schedule, width, height, firstDayOfWeek, colors);
+    if (reusable && frameVersion == schedule.getVersion()) {
+      this.dirtyColumns.clear();
+      return frame;
+    }
+    boolean partial = reusable && this.hasDirtyColumnsFor(schedule);
+    if (!this.isGridCurrent(width, height, firstDayOfWeek)) {
+      this.gridLayer = this.sharedGridLayer(width, height, firstDayOfWeek);
+      this.gridFirstDay = firstDayOfWeek;
+      this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    Graphics2D g = frame.createGraphics();
+    try {
+      if (partial) {
+        for (int column = dirtyColumns.nextSetBit(0); column >= 0;
+             column = dirtyColumns.nextSetBit(column + 1)) {
+          g.setClip(columnBounds(column, width, height));
+          this.drawLayers(g, schedule, firstDayOfWeek, colors, width, height);
+        }
+      } else {
+        this.drawLayers(g, schedule, firstDayOfWeek, colors, width, height);
+      }
+    } finally {
+      g.dispose();
+    }
+    this.dirtyColumns.clear();
+    this.frameCounts = null;
+    this.frameSchedule = schedule;
+    this.frameVersion = schedule.getVersion();
+    this.frameColors = colors;
+    return frame;
+  }
+
+  /**
+   * Checks whether the last rendered image is the heatmap of the given counts.
+   *
+   * @param counts         The number of busy users in each slot of the week.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return true if rendering the heatmap again would produce the same image, false otherwise.
+   */
+  boolean isHeatmapCurrent(int[] counts, int width, int height, String firstDayOfWeek) {
+    return this.isGridCurrent(width, height, firstDayOfWeek)
+            && frame != null
+            && frameCounts == counts;
+  }
+
+  /**
+   * Renders the combined free/busy density of several users over the grid. Each slot of the week
+   * is shaded in proportion to the share of the users busy in it, so slots left in the
+   * background color are free for everyone.
+   *
+   * @param counts         The number of busy users in each slot of the week, as counted by
+   *                       {@link schedule.WeekBitmap#countBusy}, starting on the first day.
+   * @param userCount      The number of users counted.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return The rendered image, or null if the size is empty.
+   */
+  BufferedImage renderHeatmap(int[] counts, int userCount, int width, int height,
+                              String firstDayOfWeek) {
+    if (width <= 0 || height <= 0) {
+      return null;
+    }
+    if (this.isHeatmapCurrent(counts, width, height, firstDayOfWeek)) {
+      return frame;
+    }
+    if (!this.isGridCurrent(width, height, firstDayOfWeek)) {
+      this.gridLayer = this.sharedGridLayer(width, height, firstDayOfWeek);
+      this.gridFirstDay = firstDayOfWeek;
+      this.frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    int cellWidth = width / (NUM_DAYS + 1);
+    int cellHeight = height / (NUM_HOURS + 1);
+    int columnWidth = (width - cellWidth) / NUM_DAYS;
+    int slotsPerDay = counts.length / NUM_DAYS;
+    double slotHeight = (double) cellHeight * NUM_HOURS / slotsPerDay;
+    Graphics2D g = frame.createGraphics();
+    try {
+      g.drawImage(gridLayer, 0, 0, null);
+      for (int slot = 0; slot < counts.length; slot++) {
+        if (counts[slot] == 0) {
+          continue;
+        }
+        int alpha = HEAT_MIN_ALPHA
+                + (255 - HEAT_MIN_ALPHA) * Math.min(counts[slot], userCount) / userCount;
+        g.setColor(new Color(HEAT.getRed(), HEAT.getGreen(), HEAT.getBlue(), alpha));
+        int x = cellWidth * (slot / slotsPerDay + 1);
+        int top = cellHeight + (int) (slotHeight * (slot % slotsPerDay));
+        int bottom = cellHeight + (int) (slotHeight * (slot % slotsPerDay + 1));
+        g.fillRect(x, top, columnWidth, bottom - top);
+      }
+      this.drawGridLines(g, cellWidth, cellHeight, width, height);
+    } finally {
+      g.dispose();
+    }
+    this.dirtyColumns.clear();
+    this.frameSchedule = null;
+    this.frameColors = null;
+    this.frameCounts = counts;
+    return frame;
+  }
+
+  /**
+   * Copies the static layer and draws the events over it, within the current clip.
+   *
+   * @param g              The Graphics object of the frame.
+   * @param schedule       The schedule whose events are drawn.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @param colors         The colors of the events.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   */
+  private void drawLayers(Graphics2D g, ISchedule schedule, String firstDayOfWeek,
+                          ColorEvent colors, int width, int height) {
+    g.drawImage(gridLayer, 0, 0, null);
+    int cellWidth = width / (NUM_DAYS + 1);
+    int cellHeight = height / (NUM_HOURS + 1);
+    int columnWidth = (width - cellWidth) / NUM_DAYS;
+    this.drawEvents(g, schedule, firstDayOfWeek, colors, cellWidth, columnWidth, cellHeight,
+            width, height);
+  }
+
+  /**
+   * Checks whether the last rendered image shows the given schedule in the given size, first day
+   * and colors, whatever version of the schedule it shows.
+   *
+   * @param schedule       The schedule to be shown.
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @param colors         The colors of the events.
+   * @return true if the image can be updated in place, false otherwise.
+   */
+  private boolean isFrameReusable(ISchedule schedule, int width, int height,
+                                  String firstDayOfWeek, ColorEvent colors) {
+    return this.isGridCurrent(width, height, firstDayOfWeek)
+            && frame != null
+            && frameSchedule == schedule
+            && frameColors == colors;
+  }
+
+  /**
+   * Checks whether the marked dirty columns cover every change to the schedule since the last
+   * render, that is, whether they were marked against the version the image shows and lead to
+   * the schedule's current version without a gap.
+   *
+   * @param schedule The schedule to be shown.
+   * @return true if redrawing the dirty columns brings the image up to date, false otherwise.
+   */
+  private boolean hasDirtyColumnsFor(ISchedule schedule) {
+    return !dirtyColumns.isEmpty() && dirtyBase == frameVersion
+            && dirtyVersion == schedule.getVersion();
+  }
+
+  /**
+   * Checks whether the cached static layer matches the given size and first day.
+   *
+   * @param width          The width of the image.
+   * @param height         The height of the image.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return true if the static layer can be reused, false otherwise.
+   */
+  private boolean isGridCurrent(int width, int height, String firstDayOfWeek) {
+    return gridLayer != null
+            && gridLayer.getWidth() == width
+            && gridLayer.getHeight() == height
+            && firstDayOfWeek.equals(gridFirstDay);
+  }
+
+  /**
+   * Gets the static layer of the given size and first day in this renderer's colors, drawing it
+   * only if no renderer has drawn it recently.
+   *
+   * @param width          The width of the layer.
+   * @param height         The height of the layer.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return The shared layer, which must not be drawn on.
+   */
+  private BufferedImage sharedGridLayer(int width, int height, String firstDayOfWeek) {
+    String key = width + "x" + height + " " + firstDayOfWeek + " "
+            + background.getRGB() + " " + foreground.getRGB();
+    synchronized (GRID_LAYERS) {
+      BufferedImage layer = GRID_LAYERS.get(key);
+      if (layer != null) {
+        return layer;
+      }
+    }
+    // drawn outside the lock; two threads racing for a new size both draw the same pixels
+    BufferedImage layer = this.drawGridLayer(width, height, firstDayOfWeek);
+    synchronized (GRID_LAYERS) {
+      BufferedImage drawn = GRID_LAYERS.putIfAbsent(key, layer);
+      return drawn == null ? layer : drawn;
+    }
+  }
+
+  /**
+   * Draws the static layer: the background, the times, the days of the week and the grid.
+   *
+   * @param width          The width of the layer.
+   * @param height         The height of the layer.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @return The drawn layer.
+   */
+  private BufferedImage drawGridLayer(int width, int height, String firstDayOfWeek) {
+    BufferedImage layer = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = layer.createGraphics();
+    try {
+      g.setColor(background);
+      g.fillRect(0, 0, width, height);
+      g.setColor(foreground);
+      int cellHeight = height / (NUM_HOURS + 1); // +1 for the days of the week
+      int cellWidth = width / (NUM_DAYS + 1); // +1 for the time column
+      int columnWidth = (width - cellWidth) / NUM_DAYS;
+      this.drawTimes(g, cellHeight);
+      this.drawDaysOfWeek(g, firstDayOfWeek, cellWidth, columnWidth, cellHeight);
+      this.drawGrid(g, width, height, cellWidth, cellHeight);
+    } finally {
+      g.dispose();
+    }
+    return layer;
+  }
+
+  /**
+   * Draws the times on the leftmost column.
+   *
+   * @param g          The Graphics object to draw on.
+   * @param cellHeight The height of a single cell.
+   */
+  private void drawTimes(Graphics2D g, int cellHeight) {
+    g.setFont(font(cellHeight / 2));
+    int ascent = g.getFontMetrics().getAscent();
+    for (int i = 1; i <= NUM_HOURS; i++) {
+      String time = String.format("%02d:00", i - 1);
+      g.drawString(time, 5, cellHeight * i + ascent / 2 - 2);
+    }
+  }
+
+  /**
+   * Draws the days of the week at the top of each column.
+   *
+   * @param g              the Graphics object to draw on.
+   * @param firstDayOfWeek the first day of the week, in upper case.
+   * @param cellWidth      the width of the initial time column.
+   * @param columnWidth    the width of each subsequent day column.
+   * @param cellHeight     the height of the top row.
+   */
+  private void drawDaysOfWeek(Graphics2D g, String firstDayOfWeek, int cellWidth,
+                              int columnWidth, int cellHeight) {
+    g.setFont(font(cellWidth / 9));
+    int difference = DayOfWeek.valueOf(firstDayOfWeek).getValue() % 7;
+    for (int i = 0; i < NUM_DAYS; i++) {
+      int index = (i + difference) % 7;
+      g.drawString(daysOfWeek[index], cellWidth * (i + 1)
+                      + (columnWidth - g.getFontMetrics().stringWidth(daysOfWeek[i])) / 2,
+              cellHeight - 10);
+    }
+  }
+
+  /**
+   * Draws the grid lines, including horizontal hour lines and vertical day lines.
+   *
+   * @param g          the Graphics object to draw on.
+   * @param width      the full width of the layer.
+   * @param height     the full height of the layer.
+   * @param cellWidth  the width of a single vertical grid cell.
+   * @param cellHeight the height of a single horizontal grid cell.
+   */
+  private void drawGrid(Graphics2D g, int width, int height, int cellWidth, int cellHeight) {
+    for (int i = 1; i <= NUM_HOURS + 1; i++) {
+      // Every 4 hours, draw a thick line
+      g.setStroke((i - 1) % HOUR_INTERVAL == 0 ? THICK_STROKE : THIN_STROKE);
+      g.drawLine(0, cellHeight * i, width, cellHeight * i);
+    }
+
+    // Reset to default stroke
+    g.setStroke(THIN_STROKE);
+
+    // Draw vertical lines
+    for (int i = 0; i <= NUM_DAYS + 1; i++) {
+      g.drawLine(cellWidth * i, 0, cellWidth * i, height);
+    }
+  }
+
+  /**
+   * Draws the events of the schedule, the occurrences of its recurring events in the week the
+   * planner shows, and then the grid lines over them.
+   *
+   * @param g              The Graphics object to draw on.
+   * @param schedule       The schedule whose events are drawn.
+   * @param firstDayOfWeek The first day of the week, in upper case.
+   * @param colors         The colors of the events.
+   * @param cellWidth      The width of a single cell.
+   * @param columnWidth    The width of a column.
+   * @param cellHeight     The height of a single cell.
+   * @param width          The full width of the image.
+   * @param height         The full height of the image.
+   */
+  private void drawEvents(Graphics2D g, ISchedule schedule, String firstDayOfWeek,
+                          ColorEvent colors, int cellWidth, int columnWidth, int cellHeight,
+                          int width, int height) {
+    int difference = 7 - DayOfWeek.valueOf(firstDayOfWeek).getValue();
+    for (ReadOnlyEvent event : schedule.getEvents()) {
+      int startHour = event.getStartTime() / 100;
+      int startMinute = event.getStartTime() % 100;
+      int startDayIndex = (event.getStartDay().getValue() + difference) % 7;
+      int endHour = event.getEndTime() / 100;
+      int endMinute = event.getEndTime() % 100;
+      int endDayIndex = (event.getEndDay().getValue() + difference) % 7;
+
+      if (event.wrapsAround(firstDayOfWeek)) {
+        endHour = 23;
+        endMinute = 59;
+        endDayIndex = 6;
+      }
+
+      // Calculate start and end positions in the grid
+      int startX = cellWidth * (startDayIndex + 1); // +1 to account for time column
+      int endX = cellWidth * (endDayIndex + 2); // +2 to go to the end of the day slot
+      int startY = cellHeight * (startHour + 1) + (int) ((double) startMinute / 60 * cellHeight);
+      int endY = cellHeight * (endHour + 1) + (int) ((double) endMinute / 60 * cellHeight);
+
+      if (schedule.getUserName().equals(event.getHost())) {
+        g.setColor(colors.getHostColor());
+      } else {
+        g.setColor(colors.getStandardColor());
+      }
+
+      // Fill cells with the event color
+      for (int x = startX; x < endX; x += cellWidth) {
+        int topY = x == startX ? startY : cellHeight;
+        int bottomY = (x + cellWidth) >= endX ? endY : (cellHeight * (NUM_HOURS + 1));
+        g.fillRect(x, topY, columnWidth, bottomY - topY);
+      }
+    }
+
+    for (RecurringEvent event : schedule.getRecurringEvents()) {
+      g.setColor(schedule.getUserName().equals(event.getHost())
+              ? colors.getHostColor() : colors.getStandardColor());
+      RecurrenceRule rule = event.getRule();
+      // week 0 is the week the planner shows, and its occurrences are cut off at its end
+      for (long start : rule.occurrences(0, TimeUtilities.MINUTES_IN_WEEK, firstDayOfWeek)) {
+        long end = Math.min(start + rule.getDuration(), TimeUtilities.MINUTES_IN_WEEK);
+        for (int day = (int) (start / TimeUtilities.MINUTES_IN_DAY);
+             (long) day * TimeUtilities.MINUTES_IN_DAY < end; day++) {
+          long dayStart = (long) day * TimeUtilities.MINUTES_IN_DAY;
+          int topY = rowOf((int) Math.max(start - dayStart, 0), cellHeight);
+          int bottomY = rowOf((int) Math.min(end - dayStart, TimeUtilities.MINUTES_IN_DAY),
+                  cellHeight);
+          g.fillRect(cellWidth * (day + 1), topY, columnWidth, bottomY - topY);
+        }
+      }
+    }
+
+    this.drawGridLines(g, cellWidth, cellHeight, width, height);
+  }
+
+  /**
+   * Gets the y coordinate of a minute of the day, below the row of day headers.
+   *
+   * @param minuteOfDay The minute of the day, up to the minutes in a day.
+   * @param cellHeight  The height of a single cell.
+   * @return The y coordinate.
+   */
+  private static int rowOf(int minuteOfDay, int cellHeight) {
+    return cellHeight * (minuteOfDay / 60 + 1)
+            + (int) ((double) (minuteOfDay % 60) / 60 * cellHeight);
+  }
+
+  /**
+   * Draws the thin grid lines over the cells filled by events or heat.
+   *
+   * @param g          The Graphics object to draw on.
+   * @param cellWidth  The width of a single cell.
+   * @param cellHeight The height of a single cell.
+   * @param width      The full width of the image.
+   * @param height     The full height of the image.
+   */
+  private void drawGridLines(Graphics2D g, int cellWidth, int cellHeight, int width,
+                             int height) {
+    // Redraw grid lines over the filled cells
+    g.setColor(foreground);
+    g.setStroke(THIN_STROKE);
+    for (int i = 0; i <= NUM_DAYS; i++) { // 7 days + 1 time column
+      int x = i * cellWidth;
+      g.drawLine(x, 0, x, height);
+    }
+    for (int i = 0; i <= NUM_HOURS; i++) { // 24 hours
+      int y = i * cellHeight;
+      g.drawLine(0, y, width, y);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.Schedule;
+import view.CalendarCanvas;
+
+/**
+ * A test class for {@link CalendarCanvas}. Tests the zoom and size of the canvas, that only the
+ * events within an area are looked up, and that events are drawn one by one when zoomed in and
+ * as busy density blocks when zoomed out.
+ */
+public class CalendarCanvasTest {
+
+  private CalendarCanvas canvas;
+  private ISchedule schedule;
+  private IEvent monday;
+  private IEvent weekend;
+
+  /**
+   * Creates a canvas showing a schedule with a Monday event and an event continuing into the
+   * next week, at 60 pixels per hour.
+   */
+  @Before
+  public void init() {
+    schedule = new Schedule("john");
+    monday = this.event("monday", "Monday", "1000", "Monday", "1200");
+    weekend = this.event("weekend", "Saturday", "2200", "Sunday", "0100");
+    schedule.addEvent(monday);
+    schedule.addEvent(weekend);
+
+    canvas = new CalendarCanvas();
+    canvas.setSchedule(schedule, "Sunday");
+    canvas.setZoom(60);
+    canvas.setSize(canvas.getPreferredSize());
+  }
+
+  /**
+   * Tests that the zoom is kept within its limits and sets the height of the canvas.
+   */
+  @Test
+  public void testZoomAndSize() {
+    Assert.assertEquals(24 * 60, canvas.getPreferredSize().height);
+    canvas.setZoom(1000);
+    Assert.assertEquals(CalendarCanvas.MAX_ZOOM, canvas.getZoom(), 0);
+    canvas.setZoom(0);
+    Assert.assertEquals(CalendarCanvas.MIN_ZOOM, canvas.getZoom(), 0);
+    Assert.assertFalse(canvas.isDetailed());
+
+    int oneWeek = canvas.getPreferredSize().width;
+    canvas.setWeeks(4);
+    Assert.assertEquals(oneWeek * 4, canvas.getPreferredSize().width);
+    Assert.assertThrows(IllegalArgumentException.class, () -> canvas.setWeeks(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> canvas.setSchedule(null, "Sunday"));
+  }
+
+  /**
+   * Tests that only the events intersecting an area are found, including the part of an event
+   * continuing from the previous week, and in every repeated week.
+   */
+  @Test
+  public void testEventsIn() {
+    int day = canvas.getPreferredSize().width / 7;
+    Assert.assertEquals(List.of(monday), canvas.eventsIn(new Rectangle(day, 600, day, 60)));
+    Assert.assertEquals(List.of(), canvas.eventsIn(new Rectangle(day, 0, day, 600)));
+    Assert.assertEquals(List.of(), canvas.eventsIn(new Rectangle(0, 60, day, 60)));
+    Assert.assertEquals(List.of(weekend), canvas.eventsIn(new Rectangle(0, 0, day, 60)));
+    Assert.assertEquals(List.of(weekend), canvas.eventsIn(new Rectangle(day * 6, 1380, day, 60)));
+    Assert.assertEquals(2, canvas.eventsIn(new Rectangle(0, 0, day * 7, 24 * 60)).size());
+
+    canvas.setWeeks(2);
+    Assert.assertEquals(List.of(monday), canvas.eventsIn(new Rectangle(day * 8, 660, 10, 10)));
+  }
+
+  /**
+   * Tests that events are drawn where they occur when zoomed in, and that zoomed out, busy time
+   * is drawn as shaded blocks that are lighter when only part of their time is busy.
+   */
+  @Test
+  public void testPaint() {
+    int day = canvas.getPreferredSize().width / 7;
+    BufferedImage detailed = this.paint();
+    Assert.assertEquals(Color.RED.getRGB(), detailed.getRGB(day + day / 2, 11 * 60 - 30));
+    Assert.assertEquals(Color.lightGray.getRGB(), detailed.getRGB(day + day / 2, 13 * 60 - 30));
+    Assert.assertEquals(Color.RED.getRGB(), detailed.getRGB(day / 2, 30));
+
+    canvas.setZoom(2);
+    canvas.setSize(canvas.getPreferredSize());
+    Assert.assertFalse(canvas.isDetailed());
+    BufferedImage dense = this.paint();
+    // 4 pixel blocks of 2 hours, 10:00 to 12:00 is fully busy
+    Assert.assertEquals(Color.RED.getRGB(), dense.getRGB(day + day / 2, 21));
+    Assert.assertEquals(Color.lightGray.getRGB(), dense.getRGB(day + day / 2, 30));
+    // 00:00 to 02:00 on Sunday is half busy
+    Color half = new Color(dense.getRGB(day / 2, 1));
+    Assert.assertNotEquals(Color.lightGray, half);
+    Assert.assertNotEquals(Color.RED, half);
+  }
+
+  /**
+   * Paints the canvas into a new image of its size.
+   *
+   * @return The painted image.
+   */
+  private BufferedImage paint() {
+    BufferedImage image = new BufferedImage(canvas.getWidth(), canvas.getHeight(),
+            BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    canvas.paint(g);
+    g.dispose();
+    return image;
+  }
+
+  /**
+   * Creates an event of the given user.
+   *
+   * @param name      The name of the event.
+   * @param startDay  The start day of the event.
+   * @param startTime The start time of the event.
+   * @param endDay    The end day of the event.
+   * @param endTime   The end time of the event.
+   * @return The event.
+   */
+  private IEvent event(String name, String startDay, String startTime, String endDay,
+                       String endTime) {
+    IEvent event = new Event();
+    event.setName(name);
+    event.setEventTimes(startDay, startTime, endDay, endTime);
+    event.setHost("john");
+    event.setInvitees(new ArrayList<>(List.of("john")));
+    event.setLocation(true, "somewhere");
+    return event;
+  }
+}
@@ -0,0 +1,197 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import controller.CommandExecutor;
+import controller.command.Command;
+
+/**
+ * A test class for {@link CommandExecutor}. Tests synchronous execution, running the model work
+ * of commands on workers with the callbacks passed back, the serialization of commands that
+ * modify the model, and cancelling a command before it starts.
+ */
+public class CommandExecutorTest {
+
+  /**
+   * A command whose model work is the given action, and whose preparation is logged.
+   */
+  private static class WorkCommand implements Command {
+    private final List<String> log;
+    private final Runnable work;
+    private final boolean readOnly;
+
+    /**
+     * Constructs a command with the given model work.
+     *
+     * @param log      The log of the preparation.
+     * @param work     The model work of the command.
+     * @param readOnly Whether the work only reads the model.
+     */
+    WorkCommand(List<String> log, Runnable work, boolean readOnly) {
+      this.log = log;
+      this.work = work;
+      this.readOnly = readOnly;
+    }
+
+    @Override
+    public void execute() {
+      this.prepare().run();
+    }
+
+    @Override
+    public Runnable prepare() {
+      log.add("prepare");
+      return work;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+      return readOnly;
+    }
+  }
+
+  /**
+   * Tests that the default executor runs commands and callbacks in order on the calling thread.
+   */
+  @Test
+  public void testSynchronous() {
+    CommandExecutor executor = new CommandExecutor();
+    List<String> log = new ArrayList<>();
+    executor.submit(new WorkCommand(log, () -> log.add("work"), false),
+        e -> log.add("error"), () -> log.add("done"));
+    executor.submit(new WorkCommand(log, () -> {
+      throw new IllegalStateException("failed");
+    }, false), e -> log.add(e.getMessage()), () -> log.add("done"));
+    executor.submit(() -> log.add("execute"), e -> log.add("error"), () -> log.add("done"));
+    Assert.assertEquals(List.of("prepare", "work", "done", "prepare", "failed", "done",
+            "execute", "done"), log);
+    Assert.assertEquals(0, executor.getPendingCount());
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> executor.submit(null, e -> { }, () -> { }));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new CommandExecutor(0, Runnable::run));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new CommandExecutor(1, null));
+  }
+
+  /**
+   * Tests that the work of commands runs on workers, one modifying command at a time, with the
+   * callbacks passed back to the callback executor, and that a queued command can be cancelled.
+   */
+  @Test
+  public void testAsynchronous() throws Exception {
+    ExecutorService callbackThread = Executors.newSingleThreadExecutor();
+    CommandExecutor executor = new CommandExecutor(4, callbackThread);
+    List<String> log = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(5);
+    Thread caller = Thread.currentThread();
+    List<Thread> callbackThreads = new ArrayList<>();
+
+    Runnable work = () -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      running.decrementAndGet();
+    };
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      futures.add(executor.submit(new WorkCommand(log, work, false), e -> { }, () -> {
+        callbackThreads.add(Thread.currentThread());
+        finished.countDown();
+      }));
+    }
+    // prepared on the calling thread before submit returns
+    Assert.assertEquals(5, log.size());
+    Assert.assertTrue(executor.getPendingCount() > 0);
+    Assert.assertTrue(futures.get(4).cancel(true));
+
+    release.countDown();
+    Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(1, maxRunning.get());
+    Assert.assertTrue(futures.get(4).isCancelled());
+    callbackThread.submit(() -> { }).get();
+    Assert.assertFalse(callbackThreads.contains(caller));
+    Assert.assertEquals(0, executor.getPendingCount());
+
+    executor.shutdown();
+    callbackThread.shutdown();
+  }
+
+  /**
+   * Tests that the read lock of the model cannot be taken while a command modifying the model
+   * runs on a worker, so the view never reads the model halfway through a change.
+   */
+  @Test
+  public void testReadLock() throws Exception {
+    ExecutorService callbackThread = Executors.newSingleThreadExecutor();
+    CommandExecutor executor = new CommandExecutor(2, callbackThread);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(1);
+    Runnable work = () -> {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    executor.submit(new WorkCommand(new ArrayList<>(), work, false), e -> { },
+        finished::countDown);
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    Assert.assertFalse(executor.getReadLock().tryLock());
+
+    release.countDown();
+    Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+    Assert.assertTrue(executor.getReadLock().tryLock());
+    executor.getReadLock().unlock();
+
+    executor.shutdown();
+    callbackThread.shutdown();
+  }
+
+  /**
+   * Tests that the latency listener is told of every command once it finished, failed or was
+   * completed while being prepared.
+   */
+  @Test
+  public void testLatencyListener() {
+    CommandExecutor executor = new CommandExecutor();
+    List<Command> finished = new ArrayList<>();
+    List<Long> latencies = new ArrayList<>();
+    executor.setLatencyListener((command, nanos) -> {
+      finished.add(command);
+      latencies.add(nanos);
+    });
+    List<String> log = new ArrayList<>();
+    Command work = new WorkCommand(log, () -> log.add("work"), false);
+    Command failing = new WorkCommand(log, () -> {
+      throw new IllegalStateException("failed");
+    }, false);
+    Command immediate = () -> log.add("execute");
+    executor.submit(work, e -> { }, () -> { });
+    executor.submit(failing, e -> { }, () -> { });
+    executor.submit(immediate, e -> { }, () -> { });
+    Assert.assertEquals(List.of(work, failing, immediate), finished);
+    Assert.assertTrue(latencies.stream().allMatch(nanos -> nanos >= 0));
+
+    executor.setLatencyListener(null);
+    executor.submit(immediate, e -> { }, () -> { });
+    Assert.assertEquals(3, finished.size());
+  }
+}
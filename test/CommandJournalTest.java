@@ -0,0 +1,143 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import controller.CommandJournal;
+import controller.command.Command;
+import plannersystem.NUPlannerSystem;
+import plannersystem.PlannerSystem;
+import schedule.ReadOnlyEvent;
+
+/**
+ * A test class for {@link CommandJournal}. Tests undoing and redoing tracked commands by the
+ * changes they made, commands whose model work is left to run later, forgetting the oldest
+ * commands, and refusing to undo once the planner changed outside of the journal or through
+ * changes other than to events.
+ */
+public class CommandJournalTest {
+  private PlannerSystem model;
+  private CommandJournal journal;
+
+  /**
+   * Sets up a planner with two users and an empty journal.
+   */
+  @Before
+  public void setUp() {
+    this.model = new NUPlannerSystem();
+    this.model.setFirstDayOfWeek("Sunday");
+    this.model.addUser("ann");
+    this.model.addUser("bob");
+    this.journal = new CommandJournal(this.model, 2);
+  }
+
+  /**
+   * Creates a standup event for ann and bob on the given day.
+   *
+   * @param day The day of the event.
+   */
+  private void createStandup(String day) {
+    this.model.createEvent("ann", "standup", day, "0900", day, "1000", true, "zoom",
+            new ArrayList<>(List.of("ann", "bob")));
+  }
+
+  /**
+   * Tests undoing and redoing the creation, modification and removal of an event, which keeps
+   * its ID throughout.
+   */
+  @Test
+  public void testUndoRedo() {
+    Assert.assertFalse(this.journal.canUndo());
+    this.journal.track(() -> this.createStandup("Monday")).execute();
+    ReadOnlyEvent standup = this.model.getSchedule("bob").getEvents().get(0);
+    long id = standup.getId();
+
+    Command move = this.journal.track(() -> this.model.modifyEvent("ann", standup, "standup",
+            "Tuesday", "0900", "Tuesday", "1000", true, "zoom",
+            new ArrayList<>(List.of("ann", "bob"))));
+    move.execute();
+    Assert.assertEquals("TUESDAY", standup.getStartDay().name());
+
+    this.journal.undo();
+    Assert.assertEquals("MONDAY", standup.getStartDay().name());
+    Assert.assertTrue(this.journal.canRedo());
+    this.journal.undo();
+    Assert.assertEquals(List.of(), this.model.getSchedule("bob").getEvents());
+    Assert.assertNull(this.model.getEventById(id));
+    Assert.assertThrows(IllegalStateException.class, () -> this.journal.undo());
+
+    this.journal.redo();
+    ReadOnlyEvent restored = this.model.getEventById(id);
+    Assert.assertEquals("MONDAY", restored.getStartDay().name());
+    Assert.assertEquals(List.of(restored), this.model.getSchedule("bob").getEvents());
+    this.journal.redo();
+    Assert.assertEquals("TUESDAY", restored.getStartDay().name());
+    Assert.assertFalse(this.journal.canRedo());
+
+    this.journal.track(() -> this.model.removeEvent("bob", restored)).execute();
+    Assert.assertEquals(List.of(), this.model.getSchedule("bob").getEvents());
+    this.journal.undo();
+    Assert.assertEquals(List.of(restored), this.model.getSchedule("bob").getEvents());
+    Assert.assertEquals(List.of("ann", "bob"), restored.getInvitees());
+  }
+
+  /**
+   * Tests that a command whose model work is returned by its preparation is recorded once the
+   * work runs, that commands changing nothing are not recorded, and that a new command forgets
+   * the commands undone.
+   */
+  @Test
+  public void testPreparedWork() {
+    Command command = this.journal.track(new Command() {
+      @Override
+      public void execute() {
+        this.prepare().run();
+      }
+
+      @Override
+      public Runnable prepare() {
+        return () -> createStandup("Monday");
+      }
+    });
+    Runnable work = command.prepare();
+    Assert.assertFalse(this.journal.canUndo());
+    work.run();
+    Assert.assertTrue(this.journal.canUndo());
+
+    this.journal.track(() -> this.model.getUsers()).execute();
+    this.journal.undo();
+    Assert.assertFalse(this.journal.canUndo());
+    this.journal.track(() -> this.createStandup("Friday")).execute();
+    Assert.assertFalse(this.journal.canRedo());
+  }
+
+  /**
+   * Tests that only the most recent commands are kept, and that the history is cleared once the
+   * planner changed outside of the journal.
+   */
+  @Test
+  public void testLimits() {
+    this.journal.track(() -> this.createStandup("Monday")).execute();
+    this.journal.track(() -> this.createStandup("Tuesday")).execute();
+    this.journal.track(() -> this.createStandup("Wednesday")).execute();
+    this.journal.undo();
+    this.journal.undo();
+    Assert.assertFalse(this.journal.canUndo());
+    Assert.assertEquals(1, this.model.getSchedule("ann").getEvents().size());
+
+    this.journal.redo();
+    this.createStandup("Thursday");
+    Assert.assertThrows(IllegalStateException.class, () -> this.journal.undo());
+    Assert.assertFalse(this.journal.canUndo());
+    Assert.assertFalse(this.journal.canRedo());
+    Assert.assertThrows(IllegalArgumentException.class, () -> new CommandJournal(model, 0));
+
+    // a group cannot be put back by event ID, so a command changing one ends the history
+    this.journal.track(() -> this.createStandup("Friday")).execute();
+    this.journal.track(() -> this.model.addGroup("team", new ArrayList<>(List.of("ann"))))
+            .execute();
+    Assert.assertFalse(this.journal.canUndo());
+  }
+}
@@ -214,19 +214,11 @@ public class CommandTest {
    */
   @Test
   public void testRemoveEvent() {
-    // RemoveEvent command extends create event, so we don't have to test it.
+    // the event is found by its ID rather than rebuilt from the view's fields
     command = new RemoveEvent(userId, model, eventView, filled);
     String result = "This method checks if all the event view fields have been filled."
-            + System.lineSeparator() + "This method gets the name of the event from the event view."
-            + System.lineSeparator() + "This method gets the start day of the event from the event "
-            + "view." + System.lineSeparator() + "This method gets the start time of the event "
-            + "from the event view." + System.lineSeparator() + "This method gets the end day of "
-            + "the event from the event view." + System.lineSeparator() + "This method gets the "
-            + "end time of the event from the event view." + System.lineSeparator()
-            + "This method gets the location (place) of the event from the event view."
-            + System.lineSeparator() + "This method gets the location (online?) of the event from "
-            + "the event view." + System.lineSeparator() + "This method gets the invitees of the "
-            + "event from the event view." + System.lineSeparator() + "This method removes the "
+            + System.lineSeparator() + "This method gets the event with the given ID."
+            + System.lineSeparator() + "This method removes the "
             + "event from all the invitees' schedules, if userId is the host of the event, "
             + "otherwise it removes the event from only the user's schedule."
             + System.lineSeparator();
@@ -235,6 +227,27 @@ public class CommandTest {
     Assert.assertTrue(passed);
   }
 
+  /**
+   * Tests that the commands changing events only read the event view while being prepared, and
+   * leave every call to the model to the work they return, which the executor runs while no other
+   * command uses the model.
+   */
+  @Test
+  public void testPreparedModelWork() {
+    for (Command prepared : List.of(new CreateEvent(userId, model, eventView, filled),
+            new ModifyEvent(userId, model, eventView, filled),
+            new RemoveEvent(userId, model, eventView, filled))) {
+      log.setLength(0);
+      Runnable work = prepared.prepare();
+      for (String line : log.toString().split(System.lineSeparator())) {
+        Assert.assertTrue(line, line.contains("event view"));
+      }
+      int prepareLength = log.length();
+      work.run();
+      Assert.assertTrue(log.length() > prepareLength);
+    }
+  }
+
   /**
    * Executes a given command and compares the actual outcomes against the expected results.
    * This method serves as a utility for running command tests, simplifying the process
@@ -0,0 +1,115 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import schedule.DatedEvent;
+import schedule.DatedSchedule;
+import schedule.DatedTime;
+
+/**
+ * A test class for {@link DatedTime} and {@link DatedSchedule}. Tests epoch-minute times, range
+ * and week queries over many weeks of events, events crossing weeks, and finding free times over
+ * a range longer than a week.
+ */
+public class DatedScheduleTest {
+  private static final LocalDate TERM_START = LocalDate.of(2024, 9, 2); // a Monday
+
+  /**
+   * Creates a dated event for a single user.
+   *
+   * @param user  The host and only invitee.
+   * @param start The start of the event.
+   * @param end   The end of the event.
+   * @return The event.
+   */
+  private static DatedEvent event(String user, LocalDateTime start, LocalDateTime end) {
+    return new DatedEvent("lecture", user, List.of(user), false, "Ryder Hall",
+            new DatedTime(start, end));
+  }
+
+  /**
+   * Tests converting dates and times to epoch minutes and back, and overlaps of times.
+   */
+  @Test
+  public void testDatedTime() {
+    LocalDateTime start = LocalDateTime.of(1970, 1, 2, 0, 30);
+    Assert.assertEquals(1440 + 30, DatedTime.toEpochMinute(start));
+    Assert.assertEquals(start, DatedTime.fromEpochMinute(1470));
+    DatedTime time = new DatedTime(start, start.plusHours(1));
+    Assert.assertEquals(start.plusHours(1), time.getEnd());
+    Assert.assertTrue(time.overlaps(new DatedTime(start.plusMinutes(59), start.plusHours(2))));
+    Assert.assertFalse(time.overlaps(new DatedTime(start.plusHours(1), start.plusHours(2))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new DatedTime(start, start));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new DatedTime(null, start));
+  }
+
+  /**
+   * Tests that a semester of events is queried by range and by week, with events crossing from
+   * one week into the next returned once.
+   */
+  @Test
+  public void testQueries() {
+    DatedSchedule schedule = new DatedSchedule("prof");
+    List<DatedEvent> lectures = new ArrayList<>();
+    for (int week = 0; week < 15; week++) {
+      LocalDateTime monday = TERM_START.plusWeeks(week).atTime(9, 50);
+      DatedEvent lecture = event("prof", monday, monday.plusMinutes(95));
+      lectures.add(lecture);
+      schedule.addEvent(lecture);
+    }
+    // Saturday night into Monday morning
+    DatedEvent trip = event("prof", TERM_START.plusDays(5).atTime(22, 0),
+            TERM_START.plusDays(7).atTime(8, 0));
+    schedule.addEvent(trip);
+    Assert.assertEquals(16, schedule.size());
+
+    Assert.assertEquals(List.of(lectures.get(3)), schedule.getEvents(
+            TERM_START.plusWeeks(3).atStartOfDay(), TERM_START.plusWeeks(3).atTime(10, 0)));
+    Assert.assertEquals(List.of(lectures.get(0), trip, lectures.get(1)), schedule.getEvents(
+            TERM_START.atStartOfDay(), TERM_START.plusWeeks(2).atStartOfDay()));
+    Assert.assertEquals(List.of(trip), schedule.getEvents(TERM_START.plusDays(7).atTime(7, 0),
+            TERM_START.plusDays(7).atTime(9, 0)));
+    Assert.assertEquals(List.of(trip, lectures.get(1)),
+            schedule.getWeek(TERM_START.plusDays(8), DayOfWeek.MONDAY));
+    Assert.assertEquals(List.of(lectures.get(0), trip),
+            schedule.getWeek(TERM_START.plusDays(2), DayOfWeek.SUNDAY));
+    Assert.assertEquals(List.of(), schedule.getEvents(LocalDateTime.of(2030, 1, 1, 0, 0),
+            LocalDateTime.of(2031, 1, 1, 0, 0)));
+    Assert.assertTrue(schedule.overlap(DatedTime.toEpochMinute(TERM_START.atTime(11, 0)),
+            DatedTime.toEpochMinute(TERM_START.atTime(12, 0))));
+
+    Assert.assertTrue(schedule.removeEvent(trip));
+    Assert.assertFalse(schedule.removeEvent(trip));
+    Assert.assertFalse(schedule.hasEvent(trip));
+    Assert.assertEquals(lectures, schedule.getEvents());
+  }
+
+  /**
+   * Tests finding the earliest time free in every schedule, over a range of several weeks.
+   */
+  @Test
+  public void testFindFreeTime() {
+    DatedSchedule prof = new DatedSchedule("prof");
+    DatedSchedule student = new DatedSchedule("student");
+    LocalDateTime start = TERM_START.atStartOfDay();
+    // busy for the first three weeks between them, with a half hour gap on the Wednesday
+    prof.addEvent(event("prof", start, start.plusDays(9).plusHours(10)));
+    student.addEvent(event("student", start.plusDays(9).plusHours(10).plusMinutes(30),
+            start.plusWeeks(3)));
+
+    Assert.assertEquals(new DatedTime(start.plusDays(9).plusHours(10),
+                    start.plusDays(9).plusHours(10).plusMinutes(30)),
+            DatedSchedule.findFreeTime(List.of(prof, student), start, start.plusWeeks(4), 30));
+    Assert.assertEquals(new DatedTime(start.plusWeeks(3), start.plusWeeks(3).plusHours(1)),
+            DatedSchedule.findFreeTime(List.of(prof, student), start, start.plusWeeks(4), 60));
+    Assert.assertNull(DatedSchedule.findFreeTime(List.of(prof, student), start,
+            start.plusWeeks(3), 60));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> DatedSchedule.findFreeTime(List.of(prof), start, start.plusDays(1), 0));
+  }
+}
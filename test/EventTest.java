@@ -31,6 +31,31 @@ public class EventTest {
     event = new Event();
   }
 
+  /**
+   * Tests that the version of an event changes with every change to its details.
+   */
+  @Test
+  public void testVersion() {
+    List<Runnable> changes = List.of(
+        () -> event.setName("Reading week"),
+        () -> event.setEventTimes("Monday", "0900", "Monday", "1000"),
+        () -> event.setLocation(true, "Home"),
+        () -> event.setHost("Tobe"),
+        () -> event.setInvitees(new ArrayList<>(List.of("Tobe"))),
+        () -> event.addInvitee("Karina"),
+        () -> event.removeInvitee("Karina"),
+        () -> event.clearInvitees());
+    for (Runnable change : changes) {
+      long version = event.getVersion();
+      change.run();
+      Assert.assertTrue(event.getVersion() > version);
+    }
+    long version = event.getVersion();
+    event.getName();
+    event.getInvitees();
+    Assert.assertEquals(version, event.getVersion());
+  }
+
   /**
    * Tests the getter and setter methods of the {@link schedule.IEvent} class.
    * It verifies that the methods throw IllegalArgumentException for invalid inputs,
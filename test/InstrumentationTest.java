@@ -0,0 +1,94 @@
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.Schedule;
+import view.Instrumentation;
+import view.LatencyHistogram;
+import view.SchedulePanel;
+
+/**
+ * A test class for {@link Instrumentation} and {@link LatencyHistogram}. Tests the statistics of
+ * the histograms, recording the painting of a schedule panel, and dumping the summary to a file.
+ */
+public class InstrumentationTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * Tests the count, mean, maximum and percentile bounds of a histogram.
+   */
+  @Test
+  public void testHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getPercentile(50));
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    histogram.record(-5);
+    Assert.assertEquals(101, histogram.getCount());
+    Assert.assertEquals(5050 / 101.0, histogram.getMean(), 1e-9);
+    Assert.assertEquals(100, histogram.getMax());
+    // within a factor of two of the exact percentile
+    Assert.assertEquals(63, histogram.getPercentile(50));
+    Assert.assertEquals(100, histogram.getPercentile(99));
+    Assert.assertEquals(0, histogram.getPercentile(0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+  }
+
+  /**
+   * Tests that painting a schedule panel records the time taken and the events painted, and that
+   * the summary is written to a file.
+   */
+  @Test
+  public void testPanelAndDump() throws IOException {
+    IEvent event = new Event();
+    event.setName("something");
+    event.setEventTimes("Monday", "1000", "Monday", "1200");
+    event.setHost("john");
+    event.setInvitees(new ArrayList<>(List.of("john")));
+    event.setLocation(true, "somewhere");
+    ISchedule schedule = new Schedule("john");
+    schedule.addEvent(event);
+
+    Instrumentation instrumentation = new Instrumentation();
+    SchedulePanel panel = new SchedulePanel();
+    panel.setSchedule(schedule);
+    panel.setFirstDayOfWeek("Sunday");
+    panel.setSize(800, 500);
+    panel.setInstrumentation(instrumentation);
+    panel.setDebugOverlay(true);
+
+    BufferedImage image = new BufferedImage(800, 500, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    panel.paint(g);
+    panel.paint(g);
+    g.dispose();
+    Assert.assertEquals(2, instrumentation.getTimes("paint").getCount());
+    Assert.assertEquals(1, instrumentation.getCounts("events painted").getMax());
+    Assert.assertNull(instrumentation.getTimes("click"));
+
+    instrumentation.recordTime("command CreateEvent", 3_000_000);
+    Path file = folder.getRoot().toPath().resolve("timings.txt");
+    instrumentation.dump(file);
+    List<String> lines = Files.readAllLines(file);
+    Assert.assertEquals(instrumentation.summarize(), lines);
+    Assert.assertEquals(3, lines.size());
+    Assert.assertTrue(lines.get(0).startsWith("command CreateEvent: n=1 mean=3.00ms"));
+    Assert.assertTrue(lines.get(1).startsWith("paint: n=2"));
+    Assert.assertTrue(lines.get(2).startsWith("events painted: n=2 mean=1.0"));
+  }
+}
@@ -1,7 +1,9 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
 import controller.PlannerSystemController;
+import plannersystem.ReadonlyPlannerSystem;
 import schedule.Event;
 import view.EventView;
 
@@ -136,4 +138,10 @@ public class MockEventView implements EventView {
             .append(System.lineSeparator());
     return false;
   }
+
+  @Override
+  public void setInviteeSearch(ReadonlyPlannerSystem system, Lock modelLock) {
+    this.log.append("This method lets the invitees be searched for among the users.")
+            .append(System.lineSeparator());
+  }
 }
@@ -1,12 +1,26 @@
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
+import schedule.DatedTime;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.RecurringEvent;
+import schedule.Room;
 import schedulestrategy.ScheduleStrategy;
 import controller.Observer;
+import plannersystem.ConflictReport;
+import plannersystem.EventDelta;
+import plannersystem.EventQuery;
 import plannersystem.PlannerSystem;
+import plannersystem.PlannerTransaction;
 import schedule.Schedule;
 
 /**
@@ -53,6 +67,46 @@ public class MockPlannerSystem implements PlannerSystem {
 
   }
 
+  @Override
+  public void readUserSchedule(Path xmlPath) {
+    this.log.append("This method reads a user's schedule into the system from the xml file at ")
+            .append("the path argument if the file or schedule is valid, otherwise throws an ")
+            .append("Exception.").append(System.lineSeparator());
+  }
+
+  @Override
+  public void readUserSchedule(ReadableByteChannel channel) {
+    this.log.append("This method reads a user's schedule into the system from the channel ")
+            .append("argument if the document or schedule is valid, otherwise throws an ")
+            .append("Exception.").append(System.lineSeparator());
+  }
+
+  @Override
+  public void readPlanner(File xmlFile) {
+    this.log.append("This method reads the schedules of every user into the system from the ")
+            .append("planner xml file argument if the file and schedules are valid, otherwise ")
+            .append("throws an Exception.").append(System.lineSeparator());
+  }
+
+  @Override
+  public void savePlanner(String filePath) {
+    this.log.append("This method saves the schedules of every user to a single planner xml file ")
+            .append("with the given file path, if no Exception is thrown.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public long getVersion() {
+    return 0;
+  }
+
+  @Override
+  public void exportChanges(long sinceVersion, OutputStream out) {
+    this.log.append("This method exports every event change made after the given version to ")
+            .append("the given stream, if no Exception is thrown.")
+            .append(System.lineSeparator());
+  }
+
   @Override
   public void createEvent(String userId, String name, String startDay, String startTime,
                           String endDay, String endTime, boolean isOnline, String location,
@@ -85,6 +139,36 @@ public class MockPlannerSystem implements PlannerSystem {
             .append(System.lineSeparator());
   }
 
+  @Override
+  public void addRecurringEvent(RecurringEvent event) {
+    this.log.append("This method adds a recurring event to the schedules of its invitees.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public void removeRecurringEvent(String userId, RecurringEvent event) {
+    this.log.append("This method removes a recurring event from the user's schedule.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public void replaceEvent(long id, ReadOnlyEvent state) {
+    this.log.append("This method puts the event with the given ID into the given state.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public void addDatedEvent(DatedEvent event) {
+    this.log.append("This method adds a dated event to the dated schedules of its invitees.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public void removeDatedEvent(String userId, DatedEvent event) {
+    this.log.append("This method removes a dated event from the user's dated schedule.")
+            .append(System.lineSeparator());
+  }
+
   @Override
   public void addObserver(Observer observer) {
     this.log.append("This method adds an observer to the system, to monitor system modifications.")
@@ -123,6 +207,12 @@ public class MockPlannerSystem implements PlannerSystem {
     return false;
   }
 
+  @Override
+  public void setAvailability(String userId, AvailabilityProfile profile) {
+    this.log.append("This method sets the shifts a user is available for meetings in.")
+            .append(System.lineSeparator());
+  }
+
   @Override
   public void setFirstDayOfWeek(String firstDayOfWeek) {
     this.log.append("This method sets the first day of the week for the planner.")
@@ -157,6 +247,108 @@ public class MockPlannerSystem implements PlannerSystem {
     return null;
   }
 
+  @Override
+  public List<String> findUsers(String prefix, int limit) {
+    this.log.append("This method finds the users whose IDs start with the given prefix.")
+            .append(System.lineSeparator());
+    return List.of();
+  }
+
+  @Override
+  public List<EventDelta> getChangesSince(long sinceVersion) {
+    this.log.append("This method gets the event changes made after the given version.")
+            .append(System.lineSeparator());
+    return List.of();
+  }
+
+  @Override
+  public ReadOnlyEvent getEventById(long id) {
+    this.log.append("This method gets the event with the given ID.")
+            .append(System.lineSeparator());
+    return null;
+  }
+
+  @Override
+  public void scheduleEventInRoom(String userId, String name, int duration,
+                                  List<String> invitees) {
+    this.log.append("This method schedules an event in a free room.")
+            .append(System.lineSeparator());
+  }
+
+  @Override
+  public void addGroup(String groupId, List<String> members) {
+    this.log.append("This method adds a group.").append(System.lineSeparator());
+  }
+
+  @Override
+  public boolean removeGroup(String groupId) {
+    this.log.append("This method removes a group.").append(System.lineSeparator());
+    return false;
+  }
+
+  @Override
+  public void addGroupMember(String groupId, String userId) {
+    this.log.append("This method adds a member to a group.").append(System.lineSeparator());
+  }
+
+  @Override
+  public boolean removeGroupMember(String groupId, String userId) {
+    this.log.append("This method removes a member from a group.")
+            .append(System.lineSeparator());
+    return false;
+  }
+
+  @Override
+  public Set<String> getGroups() {
+    this.log.append("This method gets the groups.").append(System.lineSeparator());
+    return Set.of();
+  }
+
+  @Override
+  public List<String> getGroupMembers(String groupId) {
+    this.log.append("This method gets the members of a group.").append(System.lineSeparator());
+    return List.of();
+  }
+
+  @Override
+  public void addRoom(Room room) {
+    this.log.append("This method adds a room.").append(System.lineSeparator());
+  }
+
+  @Override
+  public boolean removeRoom(String name) {
+    this.log.append("This method removes a room.").append(System.lineSeparator());
+    return false;
+  }
+
+  @Override
+  public List<Room> getRooms() {
+    this.log.append("This method gets the rooms.").append(System.lineSeparator());
+    return List.of();
+  }
+
+  @Override
+  public Stream<ReadOnlyEvent> findEvents(EventQuery query) {
+    this.log.append("This method finds the events matching a query.")
+            .append(System.lineSeparator());
+    return Stream.empty();
+  }
+
+  @Override
+  public List<DatedEvent> getDatedEvents(String userId, LocalDateTime from, LocalDateTime to) {
+    this.log.append("This method gets the dated events of a user within a range of dates.")
+            .append(System.lineSeparator());
+    return List.of();
+  }
+
+  @Override
+  public DatedTime findDatedTime(List<String> userIds, LocalDateTime from, LocalDateTime to,
+                                 int duration) {
+    this.log.append("This method finds the earliest dated time at which the users are free.")
+            .append(System.lineSeparator());
+    return null;
+  }
+
   @Override
   public boolean checkEventConflict(ReadOnlyEvent event) {
     this.log.append("This method checks if the given event conflicts with the schedule of ")
@@ -164,10 +356,24 @@ public class MockPlannerSystem implements PlannerSystem {
     return false;
   }
 
+  @Override
+  public ConflictReport explainConflicts(ReadOnlyEvent event) {
+    this.log.append("This method explains the conflicts of an event with existing schedules.")
+            .append(System.lineSeparator());
+    return null;
+  }
+
   @Override
   public String getFirstDayOfWeek() {
     this.log.append("This method gets the first day of the week of the planner.")
             .append(System.lineSeparator());
     return "SUNDAY";
   }
+
+  @Override
+  public PlannerTransaction beginTransaction() {
+    this.log.append("This method begins a transaction on the planner.")
+            .append(System.lineSeparator());
+    return null;
+  }
 }
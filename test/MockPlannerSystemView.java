@@ -1,6 +1,8 @@
 import java.io.File;
+import java.util.concurrent.locks.Lock;
 
 import controller.PlannerSystemController;
+import plannersystem.PlannerChangeEvent;
 import view.PlannerSystemView;
 
 /**
@@ -36,6 +38,12 @@ public class MockPlannerSystemView implements PlannerSystemView {
             .append("view.").append(System.lineSeparator());
   }
 
+  @Override
+  public void setModelLock(Lock lock) {
+    this.log.append("This method sets the lock the view holds while reading the model.")
+            .append(System.lineSeparator());
+  }
+
   @Override
   public void makeVisible() {
     this.log.append("This method makes the view visible.").append(System.lineSeparator());
@@ -65,6 +73,18 @@ public class MockPlannerSystemView implements PlannerSystemView {
     this.log.append("This method refreshes the view.").append(System.lineSeparator());
   }
 
+  @Override
+  public void refresh(PlannerChangeEvent change) {
+    this.log.append("This method refreshes the view for a change to ")
+            .append(change.getUsers()).append(".").append(System.lineSeparator());
+  }
+
+  @Override
+  public void showProgress(int pending) {
+    this.log.append("This method shows that ").append(pending)
+            .append(" commands are running.").append(System.lineSeparator());
+  }
+
   @Override
   public String getCurrentUser() {
     this.log.append("This method gets the current selected user of the view.")
@@ -84,6 +104,12 @@ public class MockPlannerSystemView implements PlannerSystemView {
             .append(System.lineSeparator());
   }
 
+  @Override
+  public void selectOverlayUsers() {
+    this.log.append("This method selects the users shown in the overlay.")
+            .append(System.lineSeparator());
+  }
+
   @Override
   public void toggleColor() {
     this.log.append("This tells the schedule panel to toggle its color.")
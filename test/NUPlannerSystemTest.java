@@ -3,20 +3,45 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
+import schedule.AvailabilityProfile;
+import schedule.DatedEvent;
+import schedule.DatedTime;
 import schedule.IEvent;
 import schedule.ISchedule;
 import schedule.ReadOnlyEvent;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
+import schedule.Room;
 import schedulestrategy.AnyTimeScheduleStrategy;
 import schedulestrategy.ScheduleStrategy;
 import schedulestrategy.LenientScheduleStrategy;
 import schedulestrategy.WorkHourScheduleStrategy;
+import controller.Observer;
+import plannersystem.ConflictReport;
+import plannersystem.EventDelta;
+import plannersystem.EventQuery;
 import plannersystem.NUPlannerSystem;
+import plannersystem.PlannerChangeEvent;
+import scheduleview.ScheduleViewModel;
 import plannersystem.PlannerSystem;
+import plannersystem.PlannerTransaction;
 import schedule.Event;
 import schedule.Schedule;
 import schedule.Time;
@@ -166,6 +191,273 @@ public class NUPlannerSystemTest {
     Assert.assertTrue(anonSchedule.hasEvent(event));
   }
 
+  /**
+   * Ensures the system can save the schedules of every user to a single planner XML file and
+   * rebuild all of them from it. Shared events must be written once and still end up in the
+   * schedule of each invitee, and users without events must be restored as well.
+   */
+  @Test
+  public void testSaveAndReadPlanner() throws IOException {
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.savePlanner(" "));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.readPlanner(null));
+    system.readUserSchedule(new File("prof.xml"));
+    system.addUser("Idle");
+
+    File file = File.createTempFile("planner", ".xml");
+    file.deleteOnExit();
+    system.savePlanner(file.getPath());
+
+    String content = Files.readString(file.toPath());
+    Assert.assertEquals(1, content.split("<name>CS3500 Morning Lecture</name>", -1).length - 1);
+
+    PlannerSystem other = new NUPlannerSystem();
+    other.setFirstDayOfWeek("Sunday");
+    other.readPlanner(file);
+    Assert.assertEquals(system.getUsers(), other.getUsers());
+    for (String user : system.getUsers()) {
+      Assert.assertEquals(system.getSchedule(user).getEvents().size(),
+              other.getSchedule(user).getEvents().size());
+      for (ReadOnlyEvent event : system.getSchedule(user).getEvents()) {
+        Assert.assertTrue(other.getSchedule(user).hasEvent(event));
+      }
+    }
+
+    // reading the same planner again conflicts with every event, so nothing is added
+    Assert.assertThrows(IllegalArgumentException.class, () -> other.readPlanner(file));
+    Assert.assertEquals(3, other.getSchedule("Prof. Lucia").getEvents().size());
+  }
+
+  /**
+   * Ensures recurring events, dated events and shifts are written by both the planner and the
+   * user schedule files, and are restored when the files are read into a new system.
+   */
+  @Test
+  public void testSaveAndReadOtherEvents() throws IOException {
+    system.setFirstDayOfWeek("Sunday");
+    RecurringEvent standup = new RecurringEvent("standup", "ann", List.of("ann", "bob"), true,
+            "zoom", new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), "0900", 30, 2,
+            RecurrenceRule.UNBOUNDED, 4));
+    system.addRecurringEvent(standup);
+    LocalDateTime monday = LocalDateTime.of(2024, 9, 2, 12, 0);
+    system.addDatedEvent(new DatedEvent("kickoff", "ann", List.of("ann", "bob"), false, "hall",
+            new DatedTime(monday, monday.plusHours(1))));
+    system.setAvailability("ann", AvailabilityProfile.weekdays("0800", "1600"));
+
+    File planner = File.createTempFile("planner", ".xml");
+    planner.deleteOnExit();
+    system.savePlanner(planner.getPath());
+    File user = File.createTempFile("ann", ".xml");
+    user.deleteOnExit();
+    system.saveUserSchedule("ann", user.getPath());
+
+    for (File file : List.of(planner, user)) {
+      PlannerSystem other = new NUPlannerSystem();
+      other.setFirstDayOfWeek("Sunday");
+      if (file == planner) {
+        other.readPlanner(file);
+      } else {
+        other.readUserSchedule(file);
+      }
+      for (String id : List.of("ann", "bob")) {
+        List<RecurringEvent> recurring = other.getSchedule(id).getRecurringEvents();
+        Assert.assertEquals(1, recurring.size());
+        RecurrenceRule rule = recurring.get(0).getRule();
+        Assert.assertEquals("standup", recurring.get(0).getName());
+        Assert.assertEquals(List.of("ann", "bob"), recurring.get(0).getInvitees());
+        Assert.assertEquals(Set.of(DayOfWeek.MONDAY, DayOfWeek.FRIDAY), rule.getDays());
+        Assert.assertEquals(540, rule.getStartMinuteOfDay());
+        Assert.assertEquals(2, rule.getInterval());
+        Assert.assertEquals(RecurrenceRule.UNBOUNDED, rule.getCount());
+        Assert.assertEquals(4, rule.getUntilWeek());
+
+        List<DatedEvent> dated = other.getDatedEvents(id, monday, monday.plusDays(1));
+        Assert.assertEquals(1, dated.size());
+        Assert.assertEquals("hall", dated.get(0).getLocation());
+        Assert.assertFalse(dated.get(0).isOnline());
+        Assert.assertEquals(new DatedTime(monday, monday.plusHours(1)), dated.get(0).getTime());
+      }
+      Assert.assertTrue(other.getSchedule("ann").getAvailability().isAvailable(
+              60 * 24 + 60 * 9, 60 * 24 + 60 * 10, "SUNDAY"));
+      Assert.assertFalse(other.getSchedule("ann").getAvailability().isAvailable(
+              60 * 24 + 60 * 17, 60 * 24 + 60 * 18, "SUNDAY"));
+      Assert.assertNull(other.getSchedule("bob").getAvailability());
+    }
+    Assert.assertTrue(system.displayUserSchedule("ann").contains("        name: standup"
+            + System.lineSeparator() + "        time: Monday: 09:00 -> Monday: 09:30"
+            + System.lineSeparator() + "        repeats: every 2 week(s)"));
+  }
+
+  /**
+   * Tests reading schedules through the channel based path, from a plain file by path, from a
+   * gzip-compressed copy of it, and from a non-seekable channel, and checks that each produces
+   * the same schedule as the DOM based reader.
+   */
+  @Test
+  public void testReadUserScheduleFromChannel() throws IOException {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.readUserSchedule((Path) null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.readUserSchedule((ReadableByteChannel) null));
+    Assert.assertThrows(IllegalStateException.class,
+        () -> system.readUserSchedule(Path.of("missing-schedule.xml")));
+
+    PlannerSystem expected = new NUPlannerSystem();
+    expected.setFirstDayOfWeek("Sunday");
+    expected.readUserSchedule(new File("prof.xml"));
+
+    system.readUserSchedule(Path.of("prof.xml"));
+    Assert.assertEquals(expected.getUsers(), system.getUsers());
+    Assert.assertEquals(expected.displayUserSchedule("Prof. Lucia"),
+            system.displayUserSchedule("Prof. Lucia"));
+
+    Path compressed = Files.createTempFile("prof", ".xml.gz");
+    compressed.toFile().deleteOnExit();
+    try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+      Files.copy(Path.of("prof.xml"), out);
+    }
+    PlannerSystem fromGzip = new NUPlannerSystem();
+    fromGzip.setFirstDayOfWeek("Sunday");
+    fromGzip.readUserSchedule(compressed);
+    Assert.assertEquals(expected.displayUserSchedule("Prof. Lucia"),
+            fromGzip.displayUserSchedule("Prof. Lucia"));
+
+    // reading the same schedule again conflicts with every event, so nothing is added
+    try (ReadableByteChannel channel = Channels.newChannel(Files.newInputStream(compressed))) {
+      Assert.assertThrows(IllegalArgumentException.class,
+          () -> fromGzip.readUserSchedule(channel));
+    }
+    Assert.assertEquals(expected.displayUserSchedule("Prof. Lucia"),
+            fromGzip.displayUserSchedule("Prof. Lucia"));
+  }
+
+  /**
+   * Tests the model version and the export of the changes made after a given version, including
+   * the rejection of versions whose changes are no longer kept.
+   */
+  @Test
+  public void testExportChanges() {
+    Assert.assertEquals(0, system.getVersion());
+    system.readUserSchedule(new File("prof.xml"));
+    Assert.assertEquals(3, system.getVersion());
+
+    system.createEvent("Student Anon", "OH", "Sunday", "0950",
+            "Sunday", "1030", false, "ChurchHill Hall 101",
+            new ArrayList<>(Arrays.asList("Student Anon", "Prof. Lucia")));
+    ReadOnlyEvent event = system.getSchedule("Student Anon").findEvent("Sunday", "1000",
+            "SUNDAY");
+    system.modifyEvent("Student Anon", event, "Office Hours", "Sunday", "0950", "Sunday",
+            "1030", true, "Zoom", new ArrayList<>(Arrays.asList("Student Anon", "Prof. Lucia")));
+    long id = event.getId();
+    system.removeEvent("Student Anon", event);
+    Assert.assertEquals(6, system.getVersion());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    system.exportChanges(3, out);
+    String changes = out.toString();
+    Assert.assertTrue(changes.contains("<changes from=\"3\" to=\"6\">"));
+    Assert.assertTrue(changes.contains(
+            "<change version=\"4\" type=\"add\" subject=\"event\" id=\"" + id + "\">"));
+    Assert.assertTrue(changes.contains(
+            "<change version=\"5\" type=\"modify\" subject=\"event\" id=\"" + id + "\">"));
+    Assert.assertTrue(changes.contains(
+            "<change version=\"6\" type=\"remove\" subject=\"event\" id=\"" + id + "\">"));
+    Assert.assertFalse(changes.contains("version=\"3\""));
+    // the removed event keeps its details even though the live event was cleared
+    Assert.assertTrue(changes.contains("<name>Office Hours</name>"));
+    Assert.assertEquals(4, changes.split("<uid>Prof. Lucia</uid>", -1).length - 1);
+
+    ByteArrayOutputStream empty = new ByteArrayOutputStream();
+    system.exportChanges(6, empty);
+    Assert.assertFalse(empty.toString().contains("<change "));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.exportChanges(7, out));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.exportChanges(-1, out));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.exportChanges(0, null));
+
+    for (int i = 0; i < 5000; i++) {
+      system.createEvent("Student Anon", "OH", "Sunday", "0950", "Sunday", "1030", true, "Zoom",
+              new ArrayList<>(List.of("Student Anon")));
+      system.removeEvent("Student Anon",
+              system.getSchedule("Student Anon").findEvent("Sunday", "1000", "SUNDAY"));
+    }
+    Assert.assertThrows(IllegalStateException.class,
+        () -> system.exportChanges(0, new ByteArrayOutputStream()));
+    system.exportChanges(system.getVersion() - 10000, new ByteArrayOutputStream());
+  }
+
+  /**
+   * Tests that changes to recurring and dated events, rooms, groups and availability are
+   * journaled like event changes, so they move the version, are listed and exported, are
+   * described to observers, and make open transactions stale.
+   */
+  @Test
+  public void testJournalOtherChanges() {
+    system.addUser("ann");
+    List<PlannerChangeEvent> changes = new ArrayList<>();
+    system.addObserver(new Observer() {
+      @Override
+      public void update() {
+        Assert.fail("Every change should be described");
+      }
+
+      @Override
+      public void update(PlannerChangeEvent change) {
+        changes.add(change);
+      }
+    });
+    long version = system.getVersion();
+    PlannerTransaction transaction = system.beginTransaction();
+
+    RecurringEvent standup = new RecurringEvent("standup", "ann", List.of("ann", "bob"), true,
+            "zoom", new RecurrenceRule(Set.of(DayOfWeek.MONDAY), "0900", 30, 1,
+            RecurrenceRule.UNBOUNDED, 4));
+    system.addRecurringEvent(standup);
+    LocalDateTime monday = LocalDateTime.of(2024, 9, 2, 12, 0);
+    system.addDatedEvent(new DatedEvent("kickoff", "ann", List.of("ann"), true, "zoom",
+            new DatedTime(monday, monday.plusHours(1))));
+    system.addRoom(new Room("Seminar", 5));
+    system.addGroup("team", new ArrayList<>(List.of("ann")));
+    system.setAvailability("ann", AvailabilityProfile.weekdays("0800", "1600"));
+    system.removeRecurringEvent("bob", standup);
+    Assert.assertEquals(version + 7, system.getVersion());
+
+    List<EventDelta> deltas = system.getChangesSince(version);
+    Assert.assertEquals(List.of(EventDelta.Subject.RECURRING_EVENT,
+            EventDelta.Subject.DATED_EVENT, EventDelta.Subject.ROOM, EventDelta.Subject.GROUP,
+            EventDelta.Subject.GROUP, EventDelta.Subject.AVAILABILITY,
+            EventDelta.Subject.RECURRING_EVENT), deltas.stream().map(EventDelta::getSubject)
+            .collect(Collectors.toList()));
+    Assert.assertSame(standup, deltas.get(0).getAfterValue());
+    Assert.assertNull(deltas.get(0).getAfter());
+    Assert.assertEquals(-1, deltas.get(0).getId());
+    Assert.assertEquals(List.of("ann"), deltas.get(4).getAfterValue());
+    Assert.assertEquals("team", deltas.get(4).getKey());
+    Assert.assertNull(deltas.get(5).getBeforeValue());
+    // only bob left the standup
+    Assert.assertEquals(Set.of("bob"), deltas.get(6).getUsers());
+
+    Assert.assertEquals(7, changes.size());
+    Assert.assertTrue(changes.stream().allMatch(PlannerChangeEvent::hasOtherChanges));
+    Assert.assertEquals(Set.of("ann", "bob"), changes.get(0).getUsers());
+    Assert.assertEquals(List.of(), changes.get(0).getEvents());
+    Assert.assertEquals(Set.of("team", "ann"), changes.get(4).getUsers());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    system.exportChanges(version, out);
+    String exported = out.toString();
+    Assert.assertTrue(exported.contains("type=\"add\" subject=\"recurring-event\">"));
+    Assert.assertTrue(exported.contains("<until-week>4</until-week>"));
+    Assert.assertTrue(exported.contains("<start>2024-09-02T12:00</start>"));
+    Assert.assertTrue(exported.contains("<capacity>5</capacity>"));
+    Assert.assertTrue(exported.contains("<member>ann</member>"));
+    Assert.assertTrue(exported.contains("<availability user=\"ann\" standard=\"true\">"));
+    Assert.assertTrue(exported.contains("<start-day>Friday</start-day>"));
+
+    transaction.createEvent("ann", "sync", "Tuesday", "0900", "Tuesday", "1000", true, "zoom",
+            new ArrayList<>(List.of("ann")));
+    Assert.assertThrows(IllegalStateException.class, transaction::commit);
+  }
+
   /**
    * Confirms the display functionality accurately represents a user's schedule, including
    * event details and ordering. This test checks the system's ability to format the schedule
@@ -206,6 +498,34 @@ public class NUPlannerSystemTest {
             + "Saturday:", system.displayUserSchedule("Prof. Lucia"));
   }
 
+  /**
+   * Tests that displaying a schedule leaves the order of its events alone, that the display
+   * follows changes to the events, and that streaming the display gives the same text.
+   */
+  @Test
+  public void testDisplayFollowsChanges() throws IOException {
+    system.readUserSchedule(new File("prof.xml"));
+    List<ReadOnlyEvent> before = system.getSchedule("Prof. Lucia").getEvents();
+    String display = system.displayUserSchedule("Prof. Lucia");
+    Assert.assertEquals(before, system.getSchedule("Prof. Lucia").getEvents());
+
+    StringBuilder streamed = new StringBuilder();
+    new ScheduleViewModel(system).render("Prof. Lucia", streamed);
+    Assert.assertEquals(display, streamed.toString());
+
+    ReadOnlyEvent sleep = system.getSchedule("Prof. Lucia").findEvent("Saturday", "1000",
+            "SUNDAY");
+    system.modifyEvent("Prof. Lucia", sleep, "Nap", "Friday", "1800", "Sunday", "1200",
+            true, "Home", new ArrayList<>(List.of("Prof. Lucia")));
+    String modified = system.displayUserSchedule("Prof. Lucia");
+    Assert.assertTrue(modified.contains("        name: Nap"));
+    Assert.assertFalse(modified.contains("        name: Sleep"));
+    Assert.assertEquals(display.replace("name: Sleep", "name: Nap"), modified);
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ScheduleViewModel(system).render("Prof. Lucia", null));
+  }
+
   /**
    * Validates the system's capability to create new events and add them to the appropriate
    * user schedules. This includes testing for correct event creation, handling of scheduling
@@ -538,6 +858,66 @@ public class NUPlannerSystemTest {
     Assert.assertTrue(system.checkEventConflict(event));
   }
 
+  /**
+   * Tests explaining the conflicts of an event: every blocking user with each conflicting event
+   * and the part of the time it takes, a booked room, the nearest free times either side, and the
+   * message of the exception rejecting a conflicting event.
+   */
+  @Test
+  public void testExplainConflicts() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.explainConflicts(null));
+    system.readUserSchedule(new File("prof.xml"));
+    IEvent event = new Event();
+    event.setName("Review");
+    event.setEventTimes("Tuesday", "1100", "Tuesday", "1400");
+    event.setLocation(true, "Zoom");
+    event.setHost("Prof. Lucia");
+    event.setInvitees(new ArrayList<>(List.of("Prof. Lucia", "Student Anon", "Chat")));
+
+    ConflictReport report = system.explainConflicts(event);
+    Assert.assertTrue(report.hasConflicts());
+    Assert.assertEquals(List.of("Prof. Lucia", "Student Anon", "Chat"),
+            new ArrayList<>(report.getBlockers()));
+    List<String> conflicts = report.getConflicts().stream().map(Object::toString)
+            .collect(Collectors.toList());
+    Assert.assertEquals(List.of(
+            "Prof. Lucia has CS3500 Morning Lecture from Tuesday 1100 to Tuesday 1130",
+            "Prof. Lucia has CS3500 Afternoon Lecture from Tuesday 1335 to Tuesday 1400",
+            "Student Anon has CS3500 Morning Lecture from Tuesday 1100 to Tuesday 1130",
+            "Chat has CS3500 Morning Lecture from Tuesday 1100 to Tuesday 1130",
+            "Chat has CS3500 Afternoon Lecture from Tuesday 1335 to Tuesday 1400"), conflicts);
+    Assert.assertEquals(new Time("Tuesday", "0650", "Tuesday", "0950"), report.getEarlierTime());
+    Assert.assertEquals(new Time("Tuesday", "1515", "Tuesday", "1815"), report.getLaterTime());
+
+    // only the users blocked are listed, and the rejection names them all
+    event.setInvitees(new ArrayList<>(List.of("Prof. Lucia", "Student Anon")));
+    Assert.assertEquals(Set.of("Prof. Lucia", "Student Anon"),
+            system.explainConflicts(event).getBlockers());
+    IllegalArgumentException e = Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.createEvent("Prof. Lucia", "Review", "Tuesday", "1100", "Tuesday", "1400",
+                true, "Zoom", new ArrayList<>(List.of("Prof. Lucia", "Student Anon"))));
+    Assert.assertTrue(e.getMessage().contains(
+            "Student Anon has CS3500 Morning Lecture from Tuesday 1100 to Tuesday 1130"));
+    Assert.assertTrue(e.getMessage().contains(
+            "The nearest later free time is Tuesday 1515 to Tuesday 1815"));
+
+    // a booked room blocks an in-person event of someone free
+    system.addRoom(new Room("Churchill Hall 101", 100));
+    system.addUser("TA");
+    event.setHost("TA");
+    event.setInvitees(new ArrayList<>(List.of("TA")));
+    event.setLocation(false, "Churchill Hall 101");
+    event.setEventTimes("Tuesday", "1000", "Tuesday", "1100");
+    report = system.explainConflicts(event);
+    Assert.assertEquals(Set.of("Churchill Hall 101"), report.getBlockers());
+    Assert.assertEquals(new Time("Tuesday", "1130", "Tuesday", "1230"), report.getLaterTime());
+
+    event.setEventTimes("Monday", "1000", "Monday", "1100");
+    report = system.explainConflicts(event);
+    Assert.assertFalse(report.hasConflicts());
+    Assert.assertEquals("There is no time conflict.", report.getSummary());
+  }
+
   /**
    * Ensures the system's observer management mechanisms function correctly. Specifically, the test
    * checks that attempts to add or remove a null observer result in the appropriate exception,
@@ -550,6 +930,668 @@ public class NUPlannerSystemTest {
     Assert.assertThrows(IllegalArgumentException.class, () -> system.removeObserver(null));
   }
 
+  /**
+   * Tests that observers are told which users and events each change affected, and whether the
+   * set of users changed.
+   */
+  @Test
+  public void testObserverChanges() {
+    List<PlannerChangeEvent> changes = new ArrayList<>();
+    system.addObserver(new Observer() {
+      @Override
+      public void update() {
+        Assert.fail("Expected a change event");
+      }
+
+      @Override
+      public void update(PlannerChangeEvent change) {
+        changes.add(change);
+      }
+    });
+
+    system.readUserSchedule(new File("prof.xml"));
+    Assert.assertEquals(1, changes.size());
+    Assert.assertTrue(changes.get(0).usersChanged());
+    Assert.assertEquals(3, changes.get(0).getEvents().size());
+
+    system.createEvent("Student Anon", "OH", "Sunday", "0950",
+            "Sunday", "1030", false, "ChurchHill Hall 101",
+            new ArrayList<>(Arrays.asList("Student Anon", "Prof. Lucia")));
+    PlannerChangeEvent created = changes.get(1);
+    Assert.assertFalse(created.usersChanged());
+    Assert.assertEquals(Set.of("Student Anon", "Prof. Lucia"), created.getUsers());
+    Assert.assertEquals(1, created.getEvents().size());
+    Assert.assertEquals("OH", created.getEvents().get(0).getName());
+
+    ReadOnlyEvent event = system.getSchedule("Student Anon").findEvent("Sunday", "1000",
+            "SUNDAY");
+    system.modifyEvent("Student Anon", event, "OH", "Monday", "0950", "Monday",
+            "1030", false, "ChurchHill Hall 101",
+            new ArrayList<>(Arrays.asList("Student Anon", "Prof. Lucia")));
+    PlannerChangeEvent modified = changes.get(2);
+    Assert.assertEquals(2, modified.getTimes().size());
+    Assert.assertEquals(DayOfWeek.SUNDAY, modified.getTimes().get(0).getStartDay());
+    Assert.assertEquals(DayOfWeek.MONDAY, modified.getTimes().get(1).getStartDay());
+
+    system.removeEvent("Prof. Lucia", event);
+    PlannerChangeEvent removed = changes.get(3);
+    Assert.assertEquals(Set.of("Student Anon", "Prof. Lucia"), removed.getUsers());
+    Assert.assertEquals(4, changes.size());
+
+    // the members of an invited group are affected too
+    system.addGroup("cs3500", new ArrayList<>(List.of("s1", "s2")));
+    system.createEvent("Prof. Lucia", "Lecture", "Friday", "1700", "Friday", "1800", true,
+            "zoom", new ArrayList<>(List.of("Prof. Lucia", "cs3500")));
+    Assert.assertEquals(Set.of("Prof. Lucia", "cs3500", "s1", "s2"),
+            changes.get(changes.size() - 1).getUsers());
+  }
+
+  /**
+   * Tests that users are found by a case-insensitive prefix of their IDs, in order and up to the
+   * limit, as users are read, added and removed.
+   */
+  @Test
+  public void testFindUsers() {
+    Assert.assertEquals(List.of(), system.findUsers("", 10));
+    system.readUserSchedule(new File("prof.xml"));
+    system.addUser("prof. x");
+    Assert.assertEquals(List.of("Prof. Lucia", "prof. x"), system.findUsers("PROF", 10));
+    Assert.assertEquals(List.of("Prof. Lucia"), system.findUsers("prof", 1));
+    Assert.assertEquals(List.of("Student Anon"), system.findUsers("st", 10));
+    Assert.assertEquals(system.getUsers().size(), system.findUsers("", 10).size());
+    Assert.assertEquals(List.of(), system.findUsers("x", 10));
+
+    system.removeUser("prof. x");
+    Assert.assertEquals(List.of("Prof. Lucia"), system.findUsers("prof", 10));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.findUsers(null, 10));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.findUsers("p", -1));
+  }
+
+  /**
+   * Tests that recurring events are stored once in every invitee's schedule and conflict with
+   * events and other recurring events on the days they repeat on, including when scheduling.
+   */
+  @Test
+  public void testRecurringEvents() {
+    system.addUser("ann");
+    system.addUser("bob");
+    RecurringEvent standup = new RecurringEvent("standup", "ann", List.of("ann", "bob"), true,
+            "zoom", new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY), "0900", 30,
+            1, RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED));
+    system.addRecurringEvent(standup);
+    Assert.assertEquals(List.of(standup), system.getSchedule("bob").getRecurringEvents());
+    Assert.assertEquals(List.of(), system.getSchedule("bob").getEvents());
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("bob", "sync",
+            "Wednesday", "0915", "Wednesday", "1000", true, "zoom",
+            new ArrayList<>(List.of("bob"))));
+    system.createEvent("bob", "sync", "Tuesday", "0900", "Tuesday", "1000", true, "zoom",
+            new ArrayList<>(List.of("bob")));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addRecurringEvent(
+            new RecurringEvent("retro", "bob", List.of("bob"), true, "zoom",
+                    new RecurrenceRule(Set.of(DayOfWeek.TUESDAY), "0930", 60, 2, 10,
+                            RecurrenceRule.UNBOUNDED))));
+
+    // one occurrence only reaches the first of its days in the planner's week
+    String lateDay = system.getFirstDayOfWeek().equalsIgnoreCase("Sunday") ? "Saturday" : "Sunday";
+    system.addRecurringEvent(new RecurringEvent("review", "cat", List.of("cat"), true, "zoom",
+            new RecurrenceRule(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY), "0900", 60, 1, 1,
+                    RecurrenceRule.UNBOUNDED)));
+    system.createEvent("cat", "lunch", lateDay, "0900", lateDay, "1000", true, "zoom",
+            new ArrayList<>(List.of("cat")));
+    String firstDay = system.getFirstDayOfWeek();
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("cat", "brunch",
+            firstDay, "0930", firstDay, "1030", true, "zoom", new ArrayList<>(List.of("cat"))));
+
+    system.setScheduleStrategy(new AnyTimeScheduleStrategy());
+    system.addRecurringEvent(new RecurringEvent("sleep", "dan", List.of("dan"), true, "home",
+            new RecurrenceRule(EnumSet.allOf(DayOfWeek.class), "0000", 600, 1,
+                    RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED)));
+    system.scheduleEvent("dan", "gym", false, "gym", 60, new ArrayList<>(List.of("dan")));
+    ReadOnlyEvent gym = system.getSchedule("dan").getEvents().get(0);
+    Assert.assertEquals(1000, gym.getStartTime());
+    Assert.assertEquals(system.getFirstDayOfWeek().toUpperCase(), gym.getStartDay().name());
+
+    system.removeRecurringEvent("bob", standup);
+    Assert.assertEquals(List.of(), system.getSchedule("bob").getRecurringEvents());
+    Assert.assertEquals(List.of(standup), system.getSchedule("ann").getRecurringEvents());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.removeRecurringEvent("bob", standup));
+    system.removeRecurringEvent("ann", standup);
+    Assert.assertEquals(List.of(), system.getSchedule("ann").getRecurringEvents());
+    Assert.assertTrue(system.removeUser("dan"));
+  }
+
+  /**
+   * Tests that dated events are added to the dated schedules of their invitees, conflict only
+   * with each other, and can be queried and searched for free times beyond a single week.
+   */
+  @Test
+  public void testDatedEvents() {
+    system.addUser("ann");
+    LocalDateTime monday = LocalDateTime.of(2024, 9, 2, 9, 0);
+    DatedEvent kickoff = new DatedEvent("kickoff", "ann", List.of("ann", "bob"), true, "zoom",
+            new DatedTime(monday, monday.plusHours(2)));
+    system.addDatedEvent(kickoff);
+    Assert.assertTrue(system.getUsers().contains("bob"));
+    Assert.assertEquals(List.of(kickoff), system.getDatedEvents("bob", monday.minusWeeks(1),
+            monday.plusWeeks(1)));
+    Assert.assertEquals(List.of(), system.getDatedEvents("bob", monday.plusWeeks(1),
+            monday.plusWeeks(2)));
+    Assert.assertEquals(List.of(), system.getDatedEvents("cat", monday, monday.plusDays(1)));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("review", "bob", List.of("bob"), true, "zoom",
+                    new DatedTime(monday.plusHours(1), monday.plusHours(3)))));
+    // the same time a week later is free
+    system.addDatedEvent(new DatedEvent("review", "bob", List.of("bob"), true, "zoom",
+            new DatedTime(monday.plusWeeks(1), monday.plusWeeks(1).plusHours(3))));
+    Assert.assertEquals(new DatedTime(monday.plusHours(2), monday.plusHours(3)),
+            system.findDatedTime(List.of("ann", "bob"), monday, monday.plusWeeks(2), 60));
+
+    system.removeDatedEvent("bob", kickoff);
+    Assert.assertEquals(List.of(), system.getDatedEvents("bob", monday, monday.plusDays(1)));
+    Assert.assertEquals(List.of(kickoff), system.getDatedEvents("ann", monday,
+            monday.plusDays(1)));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.removeDatedEvent("bob", kickoff));
+    Assert.assertTrue(system.removeUser("ann"));
+    Assert.assertEquals(List.of(), system.getDatedEvents("ann", monday, monday.plusDays(1)));
+  }
+
+  /**
+   * Tests that dated events are checked against the weekly and recurring events of their
+   * invitees on the day of the week they fall on, and against the bookings of their room.
+   */
+  @Test
+  public void testDatedEventsAgainstWeek() {
+    // the checks work before the first day of the week is set
+    PlannerSystem fresh = new NUPlannerSystem();
+    LocalDateTime early = LocalDateTime.of(2024, 9, 2, 9, 0);
+    fresh.addDatedEvent(new DatedEvent("call", "ann", List.of("ann"), true, "zoom",
+            new DatedTime(early, early.plusHours(1))));
+    system.setFirstDayOfWeek("Sunday");
+    system.createEvent("ann", "lecture", "Monday", "1000", "Monday", "1100", true, "zoom",
+            new ArrayList<>(List.of("ann")));
+    system.addRecurringEvent(new RecurringEvent("standup", "bob", List.of("bob"), true, "zoom",
+            new RecurrenceRule(Set.of(DayOfWeek.WEDNESDAY), "0900", 30, 1,
+                    RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED)));
+    LocalDateTime monday = LocalDateTime.of(2024, 9, 2, 10, 30);
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("call", "ann", List.of("ann"), true, "zoom",
+                    new DatedTime(monday, monday.plusHours(1)))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("call", "bob", List.of("bob"), true, "zoom",
+                    new DatedTime(monday.plusDays(16).minusHours(2), monday.plusDays(16)))));
+    system.addDatedEvent(new DatedEvent("call", "ann", List.of("ann", "bob"), true, "zoom",
+            new DatedTime(monday.plusDays(1), monday.plusDays(1).plusHours(1))));
+
+    system.addRoom(new Room("Seminar", 2));
+    system.createEvent("cat", "class", "Thursday", "1400", "Thursday", "1500", false, "Seminar",
+            new ArrayList<>(List.of("cat")));
+    LocalDateTime thursday = LocalDateTime.of(2024, 9, 5, 14, 30);
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("talk", "dan", List.of("dan"), false, "Seminar",
+                    new DatedTime(thursday, thursday.plusHours(1)))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("talk", "dan", List.of("dan", "eve", "fay"), false, "Seminar",
+                    new DatedTime(thursday.plusDays(1), thursday.plusDays(1).plusHours(1)))));
+    system.addDatedEvent(new DatedEvent("talk", "dan", List.of("dan"), false, "Seminar",
+            new DatedTime(thursday.plusDays(1), thursday.plusDays(1).plusHours(1))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addDatedEvent(
+            new DatedEvent("demo", "eve", List.of("eve"), false, "seminar",
+                    new DatedTime(thursday.plusDays(1), thursday.plusDays(1).plusHours(1)))));
+    system.addDatedEvent(new DatedEvent("demo", "eve", List.of("eve"), false, "Library",
+            new DatedTime(thursday.plusDays(1), thursday.plusDays(1).plusHours(1))));
+  }
+
+  /**
+   * Tests that queries over every schedule find exactly the matching events, whichever index
+   * answers them, and follow changes to the events.
+   */
+  @Test
+  public void testFindEvents() {
+    system.readUserSchedule(new File("prof.xml"));
+    Assert.assertEquals(List.of("CS3500 Afternoon Lecture"), names(EventQuery.all()
+            .atLocation("churchill hall 101 ").online(false)
+            .during("Tuesday", "1200", "Tuesday", "1700")));
+    Assert.assertEquals(List.of("CS3500 Morning Lecture", "CS3500 Afternoon Lecture"),
+            names(EventQuery.all().invitee("Chat").nameStartsWith("cs3500")));
+    Assert.assertEquals(List.of("Sleep"), names(EventQuery.all().hostedBy("Prof. Lucia")
+            .online(true)));
+    // the sleep event continues into the next week however the week starts
+    Assert.assertEquals(List.of("Sleep"), names(EventQuery.all()
+            .during("Sunday", "1100", "Sunday", "1300")));
+    Assert.assertEquals(List.of("Sleep"), names(EventQuery.all()
+            .during("Saturday", "2300", "Monday", "0100")));
+    Assert.assertEquals(List.of(), names(EventQuery.all().invitee("nobody")));
+    Assert.assertEquals(3, system.findEvents(EventQuery.all()).count());
+
+    ReadOnlyEvent lecture = system.findEvents(EventQuery.all().nameStartsWith("CS3500 M"))
+            .findFirst().orElseThrow();
+    system.modifyEvent("Prof. Lucia", lecture, "CS3500 Morning Lecture", "Wednesday", "0950",
+            "Wednesday", "1130", true, "Zoom",
+            new ArrayList<>(List.of("Prof. Lucia", "Student Anon")));
+    Assert.assertEquals(List.of("CS3500 Afternoon Lecture"), names(EventQuery.all()
+            .atLocation("Churchill Hall 101")));
+    Assert.assertEquals(List.of("CS3500 Morning Lecture"), names(EventQuery.all()
+            .during("Wednesday", "1000", "Wednesday", "1010").atLocation("zoom")));
+    system.removeEvent("Prof. Lucia", lecture);
+    Assert.assertEquals(List.of(), names(EventQuery.all().atLocation("Zoom")));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.findEvents(null));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> EventQuery.all().during("Monday", "0900", "Monday", "0900"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> EventQuery.all().atLocation(" "));
+  }
+
+  /**
+   * Tests that in-person events are conflict checked against the rooms they are held in, and that
+   * events scheduled in a room get the smallest free room holding their invitees.
+   */
+  @Test
+  public void testRooms() {
+    system.readUserSchedule(new File("prof.xml"));
+    system.addRoom(new Room("Churchill Hall 101", 40));
+    system.addRoom(new Room("Closet", 1));
+    system.addRoom(new Room("Seminar", 5));
+    Assert.assertEquals("[Closet (1), Seminar (5), Churchill Hall 101 (40)]",
+            system.getRooms().toString());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.addRoom(new Room("closet ", 3)));
+
+    // the lectures already held in the hall are booked into it
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("Ta", "Lab",
+            "Tuesday", "1000", "Tuesday", "1100", false, "churchill hall 101",
+            new ArrayList<>(List.of("Ta"))));
+    system.createEvent("Ta", "Lab", "Tuesday", "1000", "Tuesday", "1100", true,
+            "Churchill Hall 101", new ArrayList<>(List.of("Ta")));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("Ta", "Chat",
+            "Monday", "1000", "Monday", "1100", false, "Closet",
+            new ArrayList<>(List.of("Ta", "Tb"))));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.removeRoom("Churchill Hall 101"));
+    Assert.assertFalse(system.removeRoom("Attic"));
+
+    system.createEvent("Z", "Block", "Saturday", "0000", "Monday", "0000", false, "Seminar",
+            new ArrayList<>(List.of("Z")));
+    system.setScheduleStrategy(new AnyTimeScheduleStrategy());
+    system.scheduleEventInRoom("ann", "Meet", 60, new ArrayList<>(List.of("ann", "bob")));
+    system.scheduleEventInRoom("cat", "Think", 60, new ArrayList<>(List.of("cat")));
+    ReadOnlyEvent meet = system.findEvents(EventQuery.all().nameStartsWith("Meet"))
+            .findFirst().orElseThrow();
+    Assert.assertEquals("Churchill Hall 101", meet.getLocation());
+    Assert.assertEquals(DayOfWeek.valueOf(system.getFirstDayOfWeek()), meet.getStartDay());
+    Assert.assertEquals(List.of("Think"), system.findEvents(EventQuery.all()
+            .atLocation("Closet")).map(ReadOnlyEvent::getName).collect(Collectors.toList()));
+    List<String> crowd = new ArrayList<>(List.of("ann"));
+    for (int i = 0; i < 40; i++) {
+      crowd.add("guest" + i);
+    }
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.scheduleEventInRoom("ann", "Crowd", 60, crowd));
+
+    // removing the event frees its room
+    String day = system.getFirstDayOfWeek();
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("Ta", "Lab",
+            day, "0000", day, "0030", false, "Churchill Hall 101", new ArrayList<>(List.of("Ta"))));
+    system.removeEvent("ann", meet);
+    system.createEvent("Ta", "Lab", day, "0000", day, "0030", false, "Churchill Hall 101",
+            new ArrayList<>(List.of("Ta")));
+
+    // transactions check rooms against the events staged so far
+    PlannerTransaction transaction = system.beginTransaction();
+    transaction.createEvent("Tb", "Talk", "Wednesday", "1000", "Wednesday", "1100", false,
+            "Seminar", new ArrayList<>(List.of("Tb")));
+    Assert.assertThrows(IllegalArgumentException.class, () -> transaction.createEvent("Tc",
+            "Talk", "Wednesday", "1030", "Wednesday", "1130", false, "Seminar",
+            new ArrayList<>(List.of("Tc"))));
+    transaction.commit();
+    Assert.assertEquals(2, system.findEvents(EventQuery.all().atLocation("Seminar")).count());
+  }
+
+  /**
+   * Tests that an import is rejected as a whole if a group hosts one of its events.
+   */
+  @Test
+  public void testImportChecksHost() throws IOException {
+    system.addGroup("team", new ArrayList<>(List.of("ann")));
+    PlannerSystem other = new NUPlannerSystem();
+    other.createEvent("bob", "Sync", "Monday", "1000", "Monday", "1100", true, "zoom",
+            new ArrayList<>(List.of("bob")));
+    other.createEvent("team", "Retro", "Tuesday", "1000", "Tuesday", "1100", true, "zoom",
+            new ArrayList<>(List.of("team", "ann")));
+    File file = File.createTempFile("planner", ".xml");
+    file.deleteOnExit();
+    other.savePlanner(file.getPath());
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.readPlanner(file));
+    Assert.assertFalse(system.getUsers().contains("bob"));
+    Assert.assertEquals(List.of(), system.getSchedule("ann").getEvents());
+  }
+
+  /**
+   * Tests that a room is only added if the in-person events already held there fit in it and do
+   * not overlap each other.
+   */
+  @Test
+  public void testAddRoomChecksEvents() {
+    system.createEvent("ann", "Class", "Monday", "1000", "Monday", "1100", false, "Hall",
+            new ArrayList<>(List.of("ann", "bob", "cat")));
+    system.createEvent("dan", "Talk", "Monday", "1030", "Monday", "1130", false, "hall",
+            new ArrayList<>(List.of("dan")));
+    List<String> crowd = new ArrayList<>(List.of("eve"));
+    for (int i = 0; i < 10; i++) {
+      crowd.add("guest" + i);
+    }
+    system.createEvent("eve", "Stream", "Monday", "1030", "Monday", "1130", true, "Hall", crowd);
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.addRoom(new Room("Hall", 5)));
+    Assert.assertEquals(List.of(), system.getRooms());
+    system.removeEvent("dan", system.getSchedule("dan").getEvents().get(0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.addRoom(new Room("Hall", 2)));
+    // the online stream is not held in the room, however many are invited
+    system.addRoom(new Room("Hall", 3));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("fay", "Lab",
+            "Monday", "1030", "Monday", "1130", false, "Hall", new ArrayList<>(List.of("fay"))));
+  }
+
+  /**
+   * Tests that imported events are checked against the rooms and each other before any is added.
+   */
+  @Test
+  public void testImportChecksRooms() throws IOException {
+    system.createEvent("ann", "Class", "Monday", "1000", "Monday", "1100", false, "Hall",
+            new ArrayList<>(List.of("ann", "bob", "cat")));
+    system.addRoom(new Room("Hall", 3));
+
+    PlannerSystem other = new NUPlannerSystem();
+    other.createEvent("fay", "Lab", "Tuesday", "1000", "Tuesday", "1100", false, "Hall",
+            new ArrayList<>(List.of("fay")));
+    other.createEvent("gus", "Lab", "Tuesday", "1030", "Tuesday", "1130", false, "Hall",
+            new ArrayList<>(List.of("gus")));
+    File overlapping = File.createTempFile("planner", ".xml");
+    overlapping.deleteOnExit();
+    other.savePlanner(overlapping.getPath());
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.readPlanner(overlapping));
+    Assert.assertFalse(system.getUsers().contains("fay"));
+
+    other = new NUPlannerSystem();
+    other.createEvent("fay", "Lab", "Monday", "1030", "Monday", "1130", false, "Hall",
+            new ArrayList<>(List.of("fay")));
+    File booked = File.createTempFile("planner", ".xml");
+    booked.deleteOnExit();
+    other.savePlanner(booked.getPath());
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.readPlanner(booked));
+    Assert.assertFalse(system.getUsers().contains("fay"));
+  }
+
+  /**
+   * Tests that the lenient strategy needs the room of an event to be free, without counting it
+   * as an attendee or inviting it.
+   */
+  @Test
+  public void testRoomsLenient() {
+    system.addUser("ann");
+    system.addUser("bob");
+    system.addRoom(new Room("Closet", 2));
+    system.setScheduleStrategy(new LenientScheduleStrategy());
+
+    // with the only room booked all week, no time is found for either way of scheduling
+    system.createEvent("Z", "Block", "Monday", "0000", "Saturday", "0000", false, "Closet",
+            new ArrayList<>(List.of("Z")));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.scheduleEventInRoom("ann",
+            "Meet", 60, new ArrayList<>(List.of("ann", "bob"))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.scheduleEvent("ann",
+            "Chat", false, "Closet", 60, new ArrayList<>(List.of("ann", "bob"))));
+    system.removeEvent("Z", system.getSchedule("Z").getEvents().get(0));
+
+    system.scheduleEventInRoom("ann", "Meet", 60, new ArrayList<>(List.of("ann", "bob")));
+    ReadOnlyEvent meet = system.getSchedule("ann").getEvents().get(0);
+    Assert.assertEquals("Closet", meet.getLocation());
+    Assert.assertEquals(List.of("ann", "bob"), meet.getInvitees());
+    Assert.assertEquals(DayOfWeek.MONDAY, meet.getStartDay());
+    Assert.assertEquals(900, meet.getStartTime());
+
+    // cat is free at 09:00, but the room is not
+    system.scheduleEvent("cat", "Chat", false, "Closet", 60,
+            new ArrayList<>(List.of("cat", "bob")));
+    ReadOnlyEvent chat = system.getSchedule("cat").getEvents().get(0);
+    Assert.assertEquals(List.of("cat", "bob"), chat.getInvitees());
+    Assert.assertEquals(1000, chat.getStartTime());
+    Assert.assertEquals(Set.of("ann", "bob", "cat", "Z"), system.getUsers());
+  }
+
+  /**
+   * Tests that an event a group is invited to is stored once for the group, appears in every
+   * member's schedule through it, and is checked against all the members' schedules.
+   */
+  @Test
+  public void testGroups() {
+    system.addUser("prof");
+    system.addGroup("cs3500", new ArrayList<>(List.of("s1", "s2", "s3")));
+    Assert.assertEquals(Set.of("cs3500"), system.getGroups());
+    Assert.assertEquals(List.of("s1", "s2", "s3"), system.getGroupMembers("cs3500"));
+    Assert.assertTrue(system.getUsers().containsAll(List.of("s1", "s2", "s3")));
+
+    system.createEvent("s3", "Lunch", "Monday", "1200", "Monday", "1300", true, "home",
+            new ArrayList<>(List.of("s3")));
+    system.createEvent("prof", "Lecture", "Monday", "1000", "Monday", "1100", false, "Hall",
+            new ArrayList<>(List.of("prof", "cs3500")));
+    ReadOnlyEvent lecture = system.getSchedule("prof").getEvents().get(0);
+    Assert.assertEquals(List.of("prof", "cs3500"), lecture.getInvitees());
+    Assert.assertEquals(List.of(lecture), system.getSchedule("s1").getEvents());
+    Assert.assertEquals(List.of("Lunch", "Lecture"), system.findEvents(EventQuery.all()
+            .invitee("s3")).map(ReadOnlyEvent::getName).collect(Collectors.toList()));
+
+    // a member's own events and the group's events conflict both ways
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("s2", "Gym",
+            "Monday", "1030", "Monday", "1130", true, "gym", new ArrayList<>(List.of("s2"))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("prof", "Lab",
+            "Monday", "1230", "Monday", "1330", true, "lab",
+            new ArrayList<>(List.of("prof", "cs3500"))));
+    system.createEvent("s4", "Gym", "Monday", "1030", "Monday", "1130", true, "gym",
+            new ArrayList<>(List.of("s4")));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.addGroupMember("cs3500", "s4"));
+
+    // members leave the group rather than the event
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.removeEvent("s1", lecture));
+    // and transactions check groups as the planner does
+    PlannerTransaction transaction = system.beginTransaction();
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> transaction.removeEvent("s1", lecture));
+    Assert.assertThrows(IllegalArgumentException.class, () -> transaction.createEvent("cs3500",
+            "Party", "Friday", "1800", "Friday", "2000", true, "zoom",
+            new ArrayList<>(List.of("cs3500"))));
+    transaction.commit();
+    Assert.assertEquals(List.of(lecture), system.getSchedule("s1").getEvents());
+    Assert.assertEquals(0, system.findEvents(EventQuery.all().nameStartsWith("Party")).count());
+    Assert.assertTrue(system.removeGroupMember("cs3500", "s1"));
+    Assert.assertEquals(List.of(), system.getSchedule("s1").getEvents());
+    Assert.assertFalse(system.removeGroupMember("cs3500", "s1"));
+
+    // the members count towards the size of the room
+    system.addRoom(new Room("Nook", 2));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("prof",
+            "Office hours", "Tuesday", "1000", "Tuesday", "1100", false, "Nook",
+            new ArrayList<>(List.of("prof", "cs3500"))));
+
+    system.createEvent("s2", "Run", "Monday", "0900", "Monday", "1000", true, "park",
+            new ArrayList<>(List.of("s2")));
+    system.setScheduleStrategy(new WorkHourScheduleStrategy());
+    system.scheduleEvent("prof", "Review", true, "zoom", 60,
+            new ArrayList<>(List.of("prof", "cs3500")));
+    ReadOnlyEvent review = system.findEvents(EventQuery.all().nameStartsWith("Review"))
+            .findFirst().orElseThrow();
+    Assert.assertTrue(system.getSchedule("s2").hasEvent(review));
+    Assert.assertEquals(DayOfWeek.MONDAY, review.getStartDay());
+    Assert.assertEquals(1100, review.getStartTime());
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.addUser("cs3500"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.addGroup("prof", new ArrayList<>()));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.createEvent("cs3500",
+            "Party", "Friday", "1800", "Friday", "2000", true, "zoom",
+            new ArrayList<>(List.of("cs3500"))));
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.removeGroup("cs3500"));
+    Assert.assertFalse(system.removeGroup("cs4500"));
+
+    Assert.assertTrue(system.removeUser("s2"));
+    Assert.assertEquals(List.of("s3"), system.getGroupMembers("cs3500"));
+    system.removeEvent("prof", lecture);
+    system.removeEvent("prof", review);
+    Assert.assertTrue(system.removeGroup("cs3500"));
+    Assert.assertEquals(List.of("Lunch"), system.getSchedule("s3").getEvents().stream()
+            .map(ReadOnlyEvent::getName).collect(Collectors.toList()));
+  }
+
+  /**
+   * Gets the names of the events matching a query, in the order they are found.
+   *
+   * @param query The query.
+   * @return The names of the matching events.
+   */
+  private List<String> names(EventQuery query) {
+    return system.findEvents(query).map(ReadOnlyEvent::getName).collect(Collectors.toList());
+  }
+
+
+  /**
+   * Tests that events keep their IDs through changes and snapshots, are found by them, and are
+   * put into a given state, removed and added back by them.
+   */
+  @Test
+  public void testReplaceEvent() {
+    system.addUser("ann");
+    long version = system.getVersion();
+    system.createEvent("ann", "standup", "Monday", "0900", "Monday", "1000", true, "zoom",
+            new ArrayList<>(List.of("ann", "bob")));
+    ReadOnlyEvent standup = system.getSchedule("bob").getEvents().get(0);
+    long id = standup.getId();
+    Assert.assertSame(standup, system.getEventById(id));
+    system.modifyEvent("ann", standup, "sync", "Monday", "0900", "Monday", "1000", true,
+            "zoom", new ArrayList<>(List.of("ann", "bob")));
+    Assert.assertSame(standup, system.getEventById(id));
+
+    List<EventDelta> deltas = system.getChangesSince(version);
+    Assert.assertEquals(2, deltas.size());
+    Assert.assertNull(deltas.get(0).getBefore());
+    Assert.assertEquals(id, deltas.get(1).getId());
+    Assert.assertEquals("standup", deltas.get(1).getBefore().getName());
+    Assert.assertEquals(id, deltas.get(1).getAfter().getId());
+
+    system.replaceEvent(id, deltas.get(1).getBefore());
+    Assert.assertEquals("standup", standup.getName());
+    system.replaceEvent(id, null);
+    Assert.assertNull(system.getEventById(id));
+    Assert.assertEquals(List.of(), system.getSchedule("bob").getEvents());
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.replaceEvent(id, null));
+
+    system.createEvent("bob", "lunch", "Monday", "0930", "Monday", "1100", true, "zoom",
+            new ArrayList<>(List.of("bob")));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.replaceEvent(id, deltas.get(1).getAfter()));
+    Assert.assertNull(system.getEventById(id));
+    IEvent moved = new Event();
+    moved.setName("standup");
+    moved.setEventTimes("Tuesday", "0900", "Tuesday", "1000");
+    moved.setLocation(true, "zoom");
+    moved.setHost("ann");
+    moved.setInvitees(new ArrayList<>(List.of("ann", "bob")));
+    system.replaceEvent(id, moved);
+    Assert.assertEquals(id, system.getSchedule("ann").getEvents().get(0).getId());
+    Assert.assertNotSame(moved, system.getEventById(id));
+    Assert.assertEquals(6, system.getChangesSince(version).size());
+  }
+
+  /**
+   * Tests that a transaction validates each change against the changes staged before it, leaves
+   * the planner untouched until it commits, and then applies every change with one notification.
+   */
+  @Test
+  public void testTransactionCommit() {
+    system.addUser("ann");
+    system.addUser("bob");
+    system.createEvent("ann", "standup", "Monday", "0900", "Monday", "1000", true, "zoom",
+            new ArrayList<>(List.of("ann", "bob")));
+    ReadOnlyEvent standup = system.getSchedule("ann").getEvents().get(0);
+    List<PlannerChangeEvent> changes = new ArrayList<>();
+    system.addObserver(new Observer() {
+      @Override
+      public void update() {
+        Assert.fail("Expected a change event");
+      }
+
+      @Override
+      public void update(PlannerChangeEvent change) {
+        changes.add(change);
+      }
+    });
+
+    PlannerTransaction transaction = system.beginTransaction();
+    transaction.modifyEvent("ann", standup, "standup", "Monday", "1000", "Monday", "1100", true,
+            "zoom", new ArrayList<>(List.of("ann", "bob")));
+    // the slot only freed by the staged modification
+    ReadOnlyEvent review = transaction.createEvent("bob", "review", "Monday", "0900", "Monday",
+            "1000", false, "Room 1", new ArrayList<>(List.of("bob", "ann", "cat")));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> transaction.createEvent("cat", "clash", "Monday", "0930", "Monday", "0945", true,
+                "zoom", new ArrayList<>(List.of("cat"))));
+    transaction.removeEvent("cat", review);
+    Assert.assertEquals(0, changes.size());
+    Assert.assertEquals(900, standup.getStartTime());
+    Assert.assertEquals(1, system.getSchedule("bob").getEvents().size());
+
+    transaction.commit();
+    Assert.assertEquals(1, changes.size());
+    // the standup before and after, and the review
+    Assert.assertEquals(3, changes.get(0).getEvents().size());
+    // only the net result is applied, cat was uninvited before the commit
+    Assert.assertFalse(changes.get(0).usersChanged());
+    Assert.assertEquals(1000, standup.getStartTime());
+    Assert.assertEquals(List.of(standup, review), system.getSchedule("bob").getEvents());
+    Assert.assertSame(review, system.getSchedule("ann").getEvents().get(1));
+    Assert.assertEquals(List.of("bob", "ann"), review.getInvitees());
+    Assert.assertFalse(system.getUsers().contains("cat"));
+    Assert.assertThrows(IllegalStateException.class, transaction::commit);
+    Assert.assertThrows(IllegalStateException.class, transaction::rollback);
+  }
+
+  /**
+   * Tests that a failed or rolled back transaction leaves the planner unchanged, and that a
+   * transaction cannot commit over changes made to the planner since it began.
+   */
+  @Test
+  public void testTransactionRollback() {
+    system.addUser("ann");
+    system.createEvent("ann", "standup", "Monday", "0900", "Monday", "1000", true, "zoom",
+            new ArrayList<>(List.of("ann")));
+    ReadOnlyEvent standup = system.getSchedule("ann").getEvents().get(0);
+    long version = system.getVersion();
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> system.inTransaction(transaction -> {
+      transaction.removeEvent("ann", standup);
+      transaction.createEvent("ann", "focus", "Monday", "0900", "Monday", "1200", true, "home",
+              new ArrayList<>(List.of("ann")));
+      transaction.removeEvent("ann", standup);
+    }));
+    Assert.assertEquals(version, system.getVersion());
+    Assert.assertEquals(List.of(standup), system.getSchedule("ann").getEvents());
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.beginTransaction().removeEvent("bob", standup));
+
+    PlannerTransaction stale = system.beginTransaction();
+    stale.removeEvent("ann", standup);
+    system.createEvent("ann", "lunch", "Monday", "1200", "Monday", "1300", true, "home",
+            new ArrayList<>(List.of("ann")));
+    Assert.assertThrows(IllegalStateException.class, stale::commit);
+    Assert.assertEquals(2, system.getSchedule("ann").getEvents().size());
+
+    system.inTransaction(transaction -> transaction.removeEvent("ann", standup));
+    Assert.assertEquals(1, system.getSchedule("ann").getEvents().size());
+  }
+
   /**
    * Validates the constraints and error handling within the system's automatic scheduling feature.
    * The test ensures that invalid inputs such as null scheduling strategies or inappropriate event
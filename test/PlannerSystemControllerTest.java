@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.List;
 
 
+import controller.CommandExecutor;
 import controller.PlannerSystemController;
 import controller.ScheduleViewController;
 import plannersystem.PlannerSystem;
@@ -65,6 +66,8 @@ public class PlannerSystemControllerTest {
 
     Assert.assertEquals("This method sets the given planner system controller as a "
             + "listener for the view." + System.lineSeparator()
+            + "This method sets the lock the view holds while reading the model."
+            + System.lineSeparator()
             + "This method adds an observer to the system, to monitor system modifications."
             + System.lineSeparator()
             + "This method makes the view visible." + System.lineSeparator(), log.toString());
@@ -81,7 +84,7 @@ public class PlannerSystemControllerTest {
     scheduleController.launch(model);
 
     scheduleController.processButtonPress("Add calendar");
-    String result = result(3);
+    String result = result(4);
 
     Assert.assertEquals("This method gets the current selected user of the view."
             + System.lineSeparator() + "This method loads a file into the view."
@@ -94,13 +97,13 @@ public class PlannerSystemControllerTest {
             + System.lineSeparator() + "This method returns a desired file path for saving a file."
             + System.lineSeparator() + "This method saves the given user's schedule to an xml file "
             + "with the given file path, if no Exception is thrown." + System.lineSeparator()
-            + "This method refreshes the view.", result(7));
+            + "This method refreshes the view.", result(8));
 
     scheduleController.processButtonPress("Select user");
     Assert.assertEquals("This method gets the current selected user of the view."
             + System.lineSeparator()
             + "This method updates the schedule panel to that of the current user."
-            + System.lineSeparator() + "This method refreshes the view.", result(11));
+            + System.lineSeparator() + "This method refreshes the view.", result(12));
 
     IEvent event = new Event();
     event.setName("Something");
@@ -118,21 +121,98 @@ public class PlannerSystemControllerTest {
             + System.lineSeparator()
             + "This method creates an event in the system, if possible, otherwise throws an "
             + "Exception." + System.lineSeparator() + "This method refreshes the view.",
-            result(14));
+            result(15));
 
     scheduleController.processButtonPress("Remove event");
     Assert.assertEquals("This method gets the current selected user of the view."
             + System.lineSeparator() + "This method removes the event from all the invitees' "
             + "schedules, if userId is the host of the event, otherwise it removes the event from "
             + "only the user's schedule." + System.lineSeparator()
-            + "This method refreshes the view.", result(17));
+            + "This method refreshes the view.", result(18));
 
     // can check more than that because
     scheduleController.processButtonPress("Schedule Event");
     Assert.assertEquals("This method gets the current selected user of the view."
             + System.lineSeparator()
-            + "This method refreshes the view.", result(20));
+            + "This method refreshes the view.", result(21));
+
+  }
+
+  /**
+   * Tests that the overlay action asks the view for the users to combine and then refreshes it.
+   */
+  @Test
+  public void testOverlayUsers() {
+    scheduleController.launch(model);
+
+    scheduleController.processButtonPress("Overlay users");
+    Assert.assertEquals("This method gets the current selected user of the view."
+            + System.lineSeparator() + "This method selects the users shown in the overlay."
+            + System.lineSeparator() + "This method refreshes the view.", result(4));
+  }
 
+  /**
+   * Tests that undoing runs as model work on a worker, waiting for the model's write lock, so it
+   * never changes the model while it is being read.
+   */
+  @Test
+  public void testUndoTakesWriteLock() throws InterruptedException {
+    CommandExecutor executor = new CommandExecutor(1, Runnable::run);
+    PlannerSystemController controller = new ScheduleViewController(
+            new MockPlannerSystemView(log), executor);
+    controller.launch(model);
+    executor.getReadLock().lock();
+    try {
+      controller.processButtonPress("Undo");
+      Thread.sleep(50);
+      Assert.assertEquals(1, executor.getPendingCount());
+    } finally {
+      executor.getReadLock().unlock();
+    }
+    for (int i = 0; i < 500 && executor.getPendingCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, executor.getPendingCount());
+    // there was nothing to undo
+    Assert.assertTrue(log.toString().contains("This method displays error messages"));
+    executor.shutdown();
+  }
+
+  /**
+   * Tests that the commands waiting for a worker are cancelled on request, while the one
+   * already running is left to finish, and that the number of running commands is reported.
+   *
+   * @throws InterruptedException if interrupted while waiting for the commands.
+   */
+  @Test
+  public void testCancelCommands() throws InterruptedException {
+    CommandExecutor executor = new CommandExecutor(1, Runnable::run);
+    PlannerSystemView view = new MockPlannerSystemView(log);
+    executor.setProgressListener(view::showProgress);
+    PlannerSystemController controller = new ScheduleViewController(view, executor);
+    controller.launch(model);
+    executor.getReadLock().lock();
+    try {
+      // the first undo starts and waits for the write lock, the second waits for the worker
+      controller.processButtonPress("Undo");
+      Thread.sleep(50);
+      controller.processButtonPress("Undo");
+      Assert.assertEquals(2, executor.getPendingCount());
+      Assert.assertTrue(log.toString().contains("This method shows that 2 commands are running."));
+      controller.processButtonPress("Cancel command");
+      Assert.assertEquals(1, executor.getPendingCount());
+      Assert.assertFalse(log.toString().contains("This method displays error messages"));
+
+      controller.processButtonPress("Cancel command");
+      Assert.assertTrue(log.toString().contains("This method displays error messages"));
+    } finally {
+      executor.getReadLock().unlock();
+    }
+    for (int i = 0; i < 500 && executor.getPendingCount() > 0; i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(0, executor.getPendingCount());
+    executor.shutdown();
   }
 
   /**
@@ -0,0 +1,111 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+import java.util.List;
+
+import schedule.RecurrenceRule;
+import schedule.TimeUtilities;
+
+/**
+ * A test class for the {@link RecurrenceRule} class. Tests expanding occurrences inside a window,
+ * limiting them by count and last week, and testing overlaps with ranges of the planner week and
+ * with other rules.
+ */
+public class RecurrenceRuleTest {
+  private static final int WEEK = TimeUtilities.MINUTES_IN_WEEK;
+
+  /**
+   * Tests that only the occurrences inside the window are expanded, in order, up to the count
+   * and last week of the rule.
+   */
+  @Test
+  public void testOccurrences() {
+    RecurrenceRule rule = new RecurrenceRule(Set.of(DayOfWeek.WEDNESDAY, DayOfWeek.MONDAY),
+            "0900", 60, 2, 5, RecurrenceRule.UNBOUNDED);
+    Assert.assertEquals(List.of(1980L, 4860L, 2L * WEEK + 1980, 2L * WEEK + 4860,
+            4L * WEEK + 1980), rule.occurrences(0, 10L * WEEK, "Sunday"));
+    Assert.assertEquals(List.of(2L * WEEK + 1980, 2L * WEEK + 4860),
+            rule.occurrences(WEEK, 3L * WEEK, "Sunday"));
+    // the window starts in the middle of an occurrence
+    Assert.assertEquals(List.of(4860L), rule.occurrences(4900, 5000, "Sunday"));
+    Assert.assertEquals(List.of(), rule.occurrences(1_000_000L * WEEK, 1_000_001L * WEEK,
+            "Sunday"));
+
+    RecurrenceRule weekly = new RecurrenceRule(Set.of(DayOfWeek.MONDAY), "0900", 60, 1,
+            RecurrenceRule.UNBOUNDED, 3);
+    Assert.assertEquals(4, weekly.occurrences(0, 100L * WEEK, "Sunday").size());
+    RecurrenceRule forever = new RecurrenceRule(Set.of(DayOfWeek.MONDAY), "0900", 60, 1,
+            RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED);
+    Assert.assertEquals(List.of(1_000_000L * WEEK + 1980),
+            forever.occurrences(1_000_000L * WEEK, 1_000_001L * WEEK, "Sunday"));
+    Assert.assertEquals(List.of(1_000_000L * WEEK + 540),
+            forever.occurrences(1_000_000L * WEEK, 1_000_001L * WEEK, "Monday"));
+  }
+
+  /**
+   * Tests overlaps with ranges of the planner week, including ranges continuing into the next
+   * week and days never reached by a short count.
+   */
+  @Test
+  public void testOverlapsRange() {
+    RecurrenceRule rule = new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY),
+            "0900", 60, 3, 1, RecurrenceRule.UNBOUNDED);
+    Assert.assertTrue(rule.overlaps(1950, 1990, "Sunday"));
+    Assert.assertFalse(rule.overlaps(2040, 2100, "Sunday"));
+    // the only occurrence is on Monday
+    Assert.assertFalse(rule.overlaps(4860, 4900, "Sunday"));
+    Assert.assertEquals(1, rule.weeklyRanges("Sunday").length);
+
+    RecurrenceRule late = new RecurrenceRule(Set.of(DayOfWeek.SATURDAY), "2300", 120, 1, 10,
+            RecurrenceRule.UNBOUNDED);
+    Assert.assertTrue(late.overlaps(0, 30, "Sunday"));
+    Assert.assertFalse(late.overlaps(60, 90, "Sunday"));
+    Assert.assertTrue(late.overlaps(1470, 1500, "Saturday"));
+    Assert.assertFalse(late.overlaps(WEEK - 10, WEEK + 10, "Saturday"));
+  }
+
+  /**
+   * Tests overlaps between rules, which only overlap in the weeks both occur in.
+   */
+  @Test
+  public void testOverlapsRule() {
+    RecurrenceRule late = new RecurrenceRule(Set.of(DayOfWeek.SATURDAY), "2300", 120, 1, 1,
+            RecurrenceRule.UNBOUNDED);
+    RecurrenceRule everyOtherSunday = new RecurrenceRule(Set.of(DayOfWeek.SUNDAY), "0000", 30, 2,
+            RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED);
+    RecurrenceRule everySunday = new RecurrenceRule(Set.of(DayOfWeek.SUNDAY), "0000", 30, 1,
+            RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED);
+    // the Saturday of week 0 continues into week 1, which has no Sunday occurrence
+    Assert.assertFalse(late.overlaps(everyOtherSunday, "Sunday"));
+    Assert.assertTrue(late.overlaps(everySunday, "Sunday"));
+    Assert.assertTrue(everyOtherSunday.overlaps(late, "Saturday"));
+
+    RecurrenceRule mondays = new RecurrenceRule(Set.of(DayOfWeek.MONDAY), "0900", 60, 3,
+            RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED);
+    RecurrenceRule tuesdays = new RecurrenceRule(Set.of(DayOfWeek.TUESDAY), "0900", 60, 2,
+            RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED);
+    Assert.assertFalse(mondays.overlaps(tuesdays, "Sunday"));
+    Assert.assertTrue(mondays.overlaps(mondays, "Sunday"));
+  }
+
+  /**
+   * Tests that invalid rules are rejected.
+   */
+  @Test
+  public void testInvalidRules() {
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(Set.of(),
+            "0900", 60, 1, 1, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(
+            Set.of(DayOfWeek.MONDAY), "2500", 60, 1, 1, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(
+            Set.of(DayOfWeek.MONDAY), "0900", 1441, 1, 1, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(
+            Set.of(DayOfWeek.MONDAY), "0900", 60, 0, 1, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(
+            Set.of(DayOfWeek.MONDAY), "0900", 60, 1, 0, 1));
+    Assert.assertThrows(IllegalArgumentException.class, () -> new RecurrenceRule(
+            Set.of(DayOfWeek.MONDAY), "0900", 60, 1, 1, -1));
+  }
+}
@@ -0,0 +1,133 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import plannersystem.NUPlannerSystem;
+import plannersystem.PlannerSystem;
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.RecurrenceRule;
+import schedule.RecurringEvent;
+import schedule.Schedule;
+import view.ScheduleExporter;
+
+/**
+ * A test class for {@link ScheduleExporter}. Tests rendering a user's week without a window, and
+ * exporting the weeks of all users as PNG images.
+ */
+public class ScheduleExporterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private PlannerSystem system;
+  private ScheduleExporter exporter;
+
+  /**
+   * Creates a system of two users, one with a Monday event, and an exporter of 800 by 500 images.
+   */
+  @Before
+  public void init() {
+    IEvent event = new Event();
+    event.setName("something");
+    event.setEventTimes("Monday", "1000", "Monday", "1200");
+    event.setHost("john");
+    event.setInvitees(new ArrayList<>(List.of("john")));
+    event.setLocation(true, "somewhere");
+    ISchedule john = new Schedule("john");
+    john.addEvent(event);
+
+    system = new NUPlannerSystem(new ArrayList<>(List.of(john, new Schedule("jane doe"))));
+    system.setFirstDayOfWeek("SUNDAY");
+    exporter = new ScheduleExporter(system, 800, 500);
+  }
+
+  /**
+   * Tests that a user's week is rendered with the events where they occur.
+   */
+  @Test
+  public void testRender() {
+    BufferedImage image = exporter.render("john");
+    Assert.assertEquals(800, image.getWidth());
+    Assert.assertEquals(500, image.getHeight());
+    // Monday is the third column, 11:00 the twelfth row of 20 pixel cells
+    Assert.assertEquals(Color.RED.getRGB(), image.getRGB(100 * 2 + 50, 20 * 12 + 10));
+    Assert.assertEquals(Color.lightGray.getRGB(), exporter.render("jane doe")
+            .getRGB(100 * 2 + 50, 20 * 12 + 10));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> exporter.render("nobody"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ScheduleExporter(null, 800, 500));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ScheduleExporter(system, 0, 500));
+  }
+
+  /**
+   * Tests that the occurrences of a recurring event are drawn on every day it repeats on.
+   */
+  @Test
+  public void testRenderRecurring() {
+    system.addRecurringEvent(new RecurringEvent("standup", "jane doe", List.of("jane doe"), true,
+            "zoom", new RecurrenceRule(Set.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), "1000",
+            120, 1, RecurrenceRule.UNBOUNDED, RecurrenceRule.UNBOUNDED)));
+    BufferedImage image = exporter.render("jane doe");
+    Assert.assertEquals(Color.RED.getRGB(), image.getRGB(100 * 2 + 50, 20 * 12 + 10));
+    Assert.assertEquals(Color.RED.getRGB(), image.getRGB(100 * 5 + 50, 20 * 12 + 10));
+    Assert.assertEquals(Color.lightGray.getRGB(), image.getRGB(100 * 3 + 50, 20 * 12 + 10));
+  }
+
+  /**
+   * Tests that every user's week is written as an image named after the user.
+   */
+  @Test
+  public void testExportAll() throws IOException {
+    Path directory = folder.getRoot().toPath().resolve("weeks");
+    Map<String, Path> files = exporter.exportAll(directory);
+    Assert.assertEquals(Set.of("john", "jane doe"), files.keySet());
+    Assert.assertEquals(directory.resolve("jane_doe.png"), files.get("jane doe"));
+
+    for (String user : files.keySet()) {
+      File file = files.get(user).toFile();
+      BufferedImage image = ImageIO.read(file);
+      Assert.assertEquals(800, image.getWidth());
+      Assert.assertEquals(500, image.getHeight());
+      Assert.assertEquals(exporter.render(user).getRGB(250, 250), image.getRGB(250, 250));
+    }
+    Assert.assertThrows(IllegalArgumentException.class, () -> exporter.exportAll(null));
+  }
+
+  /**
+   * Tests that users whose names map to the same file name each get a file of their own.
+   */
+  @Test
+  public void testExportAllDistinctFiles() throws IOException {
+    system.addUser("jane_doe");
+    system.addUser("Jane Doe");
+    system.createEvent("jane_doe", "busy", "Monday", "1000", "Monday", "1200", true, "home",
+            new ArrayList<>(List.of("jane_doe")));
+    Path directory = folder.getRoot().toPath();
+    Map<String, Path> files = exporter.exportAll(directory);
+    Assert.assertEquals(4, Set.copyOf(files.values()).size());
+    Assert.assertEquals(directory.resolve("Jane_Doe.png"), files.get("Jane Doe"));
+    Assert.assertEquals(directory.resolve("jane_doe-2.png"), files.get("jane doe"));
+    Assert.assertEquals(directory.resolve("jane_doe-3.png"), files.get("jane_doe"));
+    Assert.assertEquals(Color.RED.getRGB(), ImageIO.read(files.get("jane_doe").toFile())
+            .getRGB(100 * 2 + 50, 20 * 12 + 10));
+  }
+}
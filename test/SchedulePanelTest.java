@@ -0,0 +1,258 @@
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import plannersystem.PlannerChangeEvent;
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.Schedule;
+import view.SchedulePanel;
+
+/**
+ * A test class for the cached rendering of {@link SchedulePanel}. Tests that the panel only asks
+ * for a repaint when its schedule, colors, size or first day of the week changed since it was
+ * last painted, that the events are drawn where they occur, and that changes only redraw the day
+ * columns they affect, that clicks find the event drawn under them, and the free/busy overlay of
+ * several schedules.
+ */
+public class SchedulePanelTest {
+
+  private SchedulePanel panel;
+  private ISchedule schedule;
+  private IEvent event;
+
+  /**
+   * Creates a panel showing an empty schedule, with a size of 800 by 500 pixels.
+   */
+  @Before
+  public void init() {
+    panel = new SchedulePanel();
+    schedule = new Schedule("john");
+    panel.setSchedule(schedule);
+    panel.setFirstDayOfWeek("Sunday");
+    panel.setSize(800, 500);
+
+    event = new Event();
+    event.setName("something");
+    event.setEventTimes("Monday", "1000", "Monday", "1200");
+    event.setHost("john");
+    event.setInvitees(new ArrayList<>(List.of("john")));
+    event.setLocation(true, "somewhere");
+  }
+
+  /**
+   * Tests that a repaint is needed only after something shown by the panel changed.
+   */
+  @Test
+  public void testNeedsRepaint() {
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+    Assert.assertFalse(panel.needsRepaint());
+
+    schedule.addEvent(event);
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+    Assert.assertFalse(panel.needsRepaint());
+
+    panel.setColorEvent();
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+
+    panel.setFirstDayOfWeek("Monday");
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+
+    panel.setSize(900, 500);
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+
+    panel.setSchedule(new Schedule("jane"));
+    Assert.assertTrue(panel.needsRepaint());
+    this.paint();
+    Assert.assertFalse(panel.needsRepaint());
+  }
+
+  /**
+   * Tests that events are drawn in the column of their day and the rows of their hours, in the
+   * host color, and disappear once removed.
+   */
+  @Test
+  public void testPaintEvents() {
+    schedule.addEvent(event);
+    // Monday is the third column with Sunday first, 11:00 is in the twelfth row
+    int x = panel.getCellWidth() * 2 + panel.getCellWidth() / 2;
+    int y = panel.getCellHeight() * 12 + panel.getCellHeight() / 2;
+    Assert.assertEquals(Color.RED.getRGB(), this.paint().getRGB(x, y));
+
+    schedule.removeEvent(event);
+    Assert.assertEquals(Color.lightGray.getRGB(), this.paint().getRGB(x, y));
+  }
+
+  /**
+   * Tests that a change affecting the shown user is painted by redrawing only its day columns,
+   * and that a change affecting other users does not require a repaint.
+   */
+  @Test
+  public void testRepaintChanges() {
+    this.paint();
+    PlannerChangeEvent other = new PlannerChangeEvent(Set.of("jane"), List.of(event), false);
+    panel.repaintChanges(other);
+    Assert.assertFalse(panel.needsRepaint());
+
+    schedule.addEvent(event);
+    panel.repaintChanges(new PlannerChangeEvent(Set.of("john"), List.of(event), false));
+    // the dirty Monday column covers the change, so no full repaint is needed
+    Assert.assertFalse(panel.needsRepaint());
+    int x = panel.getCellWidth() * 2 + panel.getCellWidth() / 2;
+    int y = panel.getCellHeight() * 12 + panel.getCellHeight() / 2;
+    Assert.assertEquals(Color.RED.getRGB(), this.paint().getRGB(x, y));
+
+    schedule.removeEvent(event);
+    panel.repaintChanges(new PlannerChangeEvent(Set.of("john"), List.of(event), false));
+    schedule.addEvent(event);
+    // a change after the announced one is not covered by the dirty columns
+    Assert.assertTrue(panel.needsRepaint());
+    Assert.assertEquals(Color.RED.getRGB(), this.paint().getRGB(x, y));
+
+    // nor is a change announced without naming the user, before the one marking a column
+    schedule.removeEvent(event);
+    panel.repaintChanges(other);
+    IEvent friday = new Event();
+    friday.setName("other");
+    friday.setEventTimes("Friday", "1000", "Friday", "1200");
+    friday.setHost("john");
+    friday.setInvitees(new ArrayList<>(List.of("john")));
+    friday.setLocation(true, "somewhere");
+    schedule.addEvent(friday);
+    panel.repaintChanges(new PlannerChangeEvent(Set.of("john"), List.of(friday), false));
+    Assert.assertTrue(panel.needsRepaint());
+    Assert.assertEquals(Color.lightGray.getRGB(), this.paint().getRGB(x, y));
+  }
+
+  /**
+   * Tests that the event under a point is found in the cells it is drawn in, including the
+   * columns of an event spanning several days, and that the lookup follows schedule changes.
+   */
+  @Test
+  public void testEventAt() {
+    int cellWidth = panel.getCellWidth();
+    int cellHeight = panel.getCellHeight();
+    int monday = cellWidth * 2 + cellWidth / 2;
+    Assert.assertNull(panel.eventAt(monday, cellHeight * 12));
+
+    schedule.addEvent(event);
+    Assert.assertSame(event, panel.eventAt(monday, cellHeight * 11));
+    Assert.assertSame(event, panel.eventAt(monday, cellHeight * 13 - 1));
+    Assert.assertNull(panel.eventAt(monday, cellHeight * 11 - 1));
+    Assert.assertNull(panel.eventAt(monday, cellHeight * 13));
+    Assert.assertNull(panel.eventAt(cellWidth / 2, cellHeight * 12));
+    Assert.assertNull(panel.eventAt(cellWidth * 3 + 1, cellHeight * 12));
+
+    IEvent weekend = new Event();
+    weekend.setName("weekend");
+    weekend.setEventTimes("Friday", "2200", "Sunday", "0100");
+    weekend.setHost("john");
+    weekend.setInvitees(new ArrayList<>(List.of("john")));
+    weekend.setLocation(true, "home");
+    schedule.addEvent(weekend);
+    // wraps around the week, so it is drawn to the end of Saturday only
+    Assert.assertSame(weekend, panel.eventAt(cellWidth * 6 + 1, cellHeight * 24));
+    Assert.assertSame(weekend, panel.eventAt(cellWidth * 7 + 1, cellHeight * 2));
+    Assert.assertNull(panel.eventAt(cellWidth * 6 + 1, cellHeight * 22));
+    Assert.assertNull(panel.eventAt(cellWidth + 1, cellHeight * 2));
+    Assert.assertSame(event, panel.eventAt(monday, cellHeight * 12));
+
+    schedule.removeEvent(event);
+    Assert.assertNull(panel.eventAt(monday, cellHeight * 12));
+  }
+
+  /**
+   * Tests that the overlay shades each slot by the share of the combined users busy in it, and
+   * follows changes to their schedules.
+   */
+  @Test
+  public void testOverlay() {
+    ISchedule jane = new Schedule("jane");
+    schedule.addEvent(event);
+    jane.addEvent(event);
+    int x = panel.getCellWidth() * 2 + panel.getCellWidth() / 2;
+    int busy = panel.getCellHeight() * 12 + panel.getCellHeight() / 2;
+    int free = panel.getCellHeight() * 14 + panel.getCellHeight() / 2;
+
+    panel.setOverlay(List.of(schedule, jane));
+    Assert.assertTrue(panel.isOverlayShown());
+    Assert.assertNull(panel.eventAt(x, busy));
+    BufferedImage both = this.paint();
+    Assert.assertEquals(Color.lightGray.getRGB(), both.getRGB(x, free));
+    Assert.assertNotEquals(Color.lightGray.getRGB(), both.getRGB(x, busy));
+    Assert.assertFalse(panel.needsRepaint());
+
+    jane.removeEvent(event);
+    Assert.assertTrue(panel.needsRepaint());
+    BufferedImage one = this.paint();
+    Assert.assertNotEquals(Color.lightGray.getRGB(), one.getRGB(x, busy));
+    // fewer busy users give a lighter shade
+    Assert.assertTrue(new Color(one.getRGB(x, busy)).getGreen()
+            > new Color(both.getRGB(x, busy)).getGreen());
+
+    panel.setOverlay(null);
+    Assert.assertFalse(panel.isOverlayShown());
+    Assert.assertTrue(panel.needsRepaint());
+    Assert.assertEquals(Color.RED.getRGB(), this.paint().getRGB(x, busy));
+  }
+
+  /**
+   * Tests that the overlay is repainted after a change to one of its schedules, even when the
+   * change does not name the schedule's user.
+   */
+  @Test
+  public void testOverlayRepaintChanges() {
+    List<String> repaints = new ArrayList<>();
+    SchedulePanel counting = new SchedulePanel() {
+      @Override
+      public void repaint(long time, int x, int y, int width, int height) {
+        repaints.add(x + "," + y);
+      }
+    };
+    counting.setSchedule(schedule);
+    counting.setFirstDayOfWeek("Sunday");
+    counting.setSize(800, 500);
+    counting.setOverlay(List.of(schedule));
+    BufferedImage image = new BufferedImage(800, 500, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    counting.paint(g);
+    repaints.clear();
+
+    PlannerChangeEvent unnamed = new PlannerChangeEvent(Set.of("group"), List.of(event), false);
+    counting.repaintChanges(unnamed);
+    Assert.assertEquals(List.of(), repaints);
+    schedule.addEvent(event);
+    counting.repaintChanges(unnamed);
+    Assert.assertEquals(1, repaints.size());
+    counting.paint(g);
+    g.dispose();
+    Assert.assertFalse(counting.needsRepaint());
+  }
+
+  /**
+   * Paints the panel into a new image of its size.
+   *
+   * @return The painted image.
+   */
+  private BufferedImage paint() {
+    BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(),
+            BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = image.createGraphics();
+    panel.paint(g);
+    g.dispose();
+    return image;
+  }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 
 import plannersystem.NUPlannerSystem;
 import plannersystem.PlannerSystem;
+import schedule.AvailabilityProfile;
 import schedule.Event;
 import schedule.IEvent;
 import schedule.ISchedule;
@@ -16,6 +17,7 @@ import schedule.ReadOnlyEvent;
 import schedule.Schedule;
 import schedule.Time;
 import schedulestrategy.AnyTimeScheduleStrategy;
+import schedulestrategy.ConstraintScheduleStrategy;
 import schedulestrategy.LenientScheduleStrategy;
 import schedulestrategy.ScheduleStrategy;
 import schedulestrategy.WorkHourScheduleStrategy;
@@ -205,4 +207,123 @@ public class ScheduleStrategyTest {
 
     Assert.assertEquals(scheduledEvent.getInvitees(), invitees);
   }
+
+  /**
+   * Tests the ConstraintScheduleStrategy, checking that each constraint moves the event to the
+   * time with the best score, that busy optional attendees are dropped and that a busy required
+   * attendee leaves no time.
+   */
+  @Test
+  public void testConstraintScheduling() {
+    ConstraintScheduleStrategy constraints = new ConstraintScheduleStrategy();
+    constraints.setFirstDayOfWeek("Sunday");
+    system.createEvent("Host", "Standup", "Monday", "0900", "Monday", "1000", true, "Zoom",
+            new ArrayList<>(List.of("Host", "Req")));
+    system.createEvent("Opt", "Class", "Monday", "1000", "Monday", "1100", true, "Zoom",
+            new ArrayList<>(List.of("Opt")));
+    List<ISchedule> scheduleList = new ArrayList<>(List.of(system.getSchedule("Host"),
+            system.getSchedule("Req"), system.getSchedule("Opt")));
+    List<String> invitees = new ArrayList<>(List.of("Host", "Req", "Opt"));
+    IEvent event = new Event();
+    event.setName("Sync");
+    event.setLocation(true, "Zoom");
+    event.setHost("Host");
+    event.setInvitees(invitees);
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> constraints.setWorkingHours("Host", "1700", "0900", 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> constraints.setBuffer(-1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> constraints.preferWindow("Monday", "0900", "Monday", "0900"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> constraints.scheduleEvent(event, 10080, scheduleList));
+
+    // without constraints every time scores the same, so the earliest free time is taken
+    Assert.assertEquals(new Time("Sunday", "0000", "Sunday", "0100"),
+            constraints.scheduleEvent(event, 60, scheduleList).getTime());
+
+    // Req's clock is an hour behind, so both work from 10:00 in the planner's time
+    constraints.setWorkingHours("Host", "0900", "1700", 0);
+    constraints.setWorkingHours("Req", "0900", "1700", -60);
+    constraints.addOptionalAttendee("Opt");
+    Assert.assertEquals(new Time("Monday", "1100", "Monday", "1200"),
+            constraints.scheduleEvent(event, 60, scheduleList).getTime());
+    Assert.assertEquals(invitees, event.getInvitees());
+
+    // Opt has no break right after class at 11:00
+    constraints.setBuffer(30);
+    Assert.assertEquals(new Time("Monday", "1130", "Monday", "1230"),
+            constraints.scheduleEvent(event, 60, scheduleList).getTime());
+
+    constraints.avoidWindow("Monday", "1100", "Monday", "1400");
+    Assert.assertEquals(new Time("Monday", "1400", "Monday", "1500"),
+            constraints.scheduleEvent(event, 60, scheduleList).getTime());
+
+    constraints.preferWindow("Tuesday", "0900", "Tuesday", "1200");
+    Assert.assertEquals(new Time("Tuesday", "1000", "Tuesday", "1100"),
+            constraints.scheduleEvent(event, 60, scheduleList).getTime());
+
+    // Away is never free for two hours, so the event goes ahead without Away as optional
+    system.createEvent("Away", "Trip", "Sunday", "0000", "Saturday", "2300", true, "Abroad",
+            new ArrayList<>(List.of("Away")));
+    List<ISchedule> awayList = new ArrayList<>(List.of(system.getSchedule("Host"),
+            system.getSchedule("Req"), system.getSchedule("Away")));
+    ConstraintScheduleStrategy optional = new ConstraintScheduleStrategy();
+    optional.setFirstDayOfWeek("Sunday");
+    event.setInvitees(new ArrayList<>(List.of("Host", "Req", "Away")));
+    // and a required attendee who is never free leaves no time
+    Assert.assertNull(optional.scheduleEvent(event, 120, awayList));
+
+    optional.addOptionalAttendee("Away");
+    ReadOnlyEvent scheduled = optional.scheduleEvent(event, 120, awayList);
+    Assert.assertEquals(new Time("Sunday", "0000", "Sunday", "0200"), scheduled.getTime());
+    Assert.assertEquals(List.of("Host", "Req"), scheduled.getInvitees());
+  }
+
+  /**
+   * Tests that the WorkHourScheduleStrategy and LenientScheduleStrategy schedule within the
+   * shifts of each user's availability profile, falling back to the standard work hours.
+   */
+  @Test
+  public void testAvailabilityProfiles() {
+    strategy = new WorkHourScheduleStrategy();
+    strategy.setFirstDayOfWeek("Sunday");
+    system.addUser("Nurse");
+    system.addUser("Doctor");
+    // the nurse works nights from Sunday to Thursday, the doctor early weekday mornings
+    AvailabilityProfile nights = AvailabilityProfile.none();
+    for (String day : List.of("Sunday", "Monday", "Tuesday", "Wednesday", "Thursday")) {
+      nights = nights.withShift(day, "2200", day, "2359");
+    }
+    nights = nights.withShift("Monday", "0000", "Monday", "0600");
+    system.setAvailability("Nurse", nights);
+    system.setAvailability("Doctor", AvailabilityProfile.weekdays("0500", "1300"));
+    List<ISchedule> scheduleList = new ArrayList<>(List.of(system.getSchedule("Nurse"),
+            system.getSchedule("Doctor")));
+    IEvent event = new Event();
+    event.setName("Handover");
+    event.setLocation(true, "Ward");
+    event.setHost("Nurse");
+    event.setInvitees(new ArrayList<>(List.of("Nurse", "Doctor")));
+
+    Assert.assertEquals(new Time("Monday", "0500", "Monday", "0600"),
+            strategy.scheduleEvent(event, 60, scheduleList).getTime());
+    Assert.assertNull(strategy.scheduleEvent(event, 61, scheduleList));
+
+    // a user without a profile keeps the standard work hours
+    system.addUser("Clerk");
+    scheduleList.add(system.getSchedule("Clerk"));
+    Assert.assertNull(strategy.scheduleEvent(event, 60, scheduleList));
+
+    // only the host and one other must be available, so the nurse meets the doctor
+    strategy = new LenientScheduleStrategy();
+    strategy.setFirstDayOfWeek("Sunday");
+    event.setInvitees(new ArrayList<>(List.of("Nurse", "Doctor", "Clerk")));
+    ReadOnlyEvent scheduled = strategy.scheduleEvent(event, 60, scheduleList);
+    Assert.assertEquals(new Time("Monday", "0500", "Monday", "0600"), scheduled.getTime());
+    Assert.assertEquals(List.of("Nurse", "Doctor"), scheduled.getInvitees());
+
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> system.setAvailability("Nobody", AvailabilityProfile.WORK_HOURS));
+  }
 }
@@ -113,4 +113,58 @@ public class ScheduleTest {
 
   }
 
+  /**
+   * Tests that the version of a schedule increases with every added or removed event, and stays
+   * the same for operations that don't change its events.
+   */
+  @Test
+  public void testVersion() {
+    Assert.assertEquals(0, schedule.getVersion());
+    schedule.addEvent(event);
+    Assert.assertEquals(1, schedule.getVersion());
+    schedule.sortSchedule();
+    schedule.getEvents().clear();
+    Assert.assertEquals(1, schedule.getVersion());
+    schedule.removeEvent(event);
+    Assert.assertEquals(2, schedule.getVersion());
+    // removing an event that isn't there changes nothing
+    schedule.removeEvent(event);
+    Assert.assertEquals(2, schedule.getVersion());
+  }
+
+  /**
+   * Tests that the events of a linked group schedule are the schedule's own for listing, lookups
+   * and overlaps, without being copied into it, and that the version follows them.
+   */
+  @Test
+  public void testGroups() {
+    ISchedule group = new Schedule("students");
+    group.addEvent(event);
+    long version = schedule.getVersion();
+    schedule.addGroup(group);
+    schedule.addGroup(group);
+    Assert.assertEquals(List.of(group), schedule.getGroups());
+    Assert.assertEquals(List.of(event), schedule.getEvents());
+    Assert.assertTrue(schedule.hasEvent(event));
+    Assert.assertEquals(event, schedule.getEvent(event));
+    Assert.assertEquals(event, schedule.findEvent("Monday", "1100", "SUNDAY"));
+    Assert.assertTrue(schedule.overlap(600, 610, "MONDAY"));
+    Assert.assertTrue(schedule.getVersion() > version);
+
+    // an event held both directly and through the group is listed once
+    schedule.addEvent(event);
+    Assert.assertEquals(List.of(event), schedule.getEvents());
+    schedule.removeEvent(event);
+
+    version = schedule.getVersion();
+    group.removeEvent(event);
+    Assert.assertTrue(schedule.getVersion() > version);
+    group.addEvent(event);
+    version = schedule.getVersion();
+    schedule.removeGroup(group);
+    Assert.assertTrue(schedule.getVersion() > version);
+    Assert.assertEquals(List.of(), schedule.getEvents());
+    Assert.assertFalse(schedule.overlap(600, 610, "MONDAY"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> schedule.addGroup(null));
+  }
 }
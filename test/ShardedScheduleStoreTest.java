@@ -0,0 +1,161 @@
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import plannersystem.NUPlannerSystem;
+import plannersystem.PlannerSystem;
+import plannersystem.ShardedScheduleStore;
+import schedule.ISchedule;
+import schedule.ReadOnlyEvent;
+import schedule.Schedule;
+
+/**
+ * A test class for {@link ShardedScheduleStore}. Tests saving and loading every user, saving and
+ * loading a single user, and that single user operations only touch that user's segment.
+ */
+public class ShardedScheduleStoreTest {
+
+  private Path directory;
+  private ShardedScheduleStore store;
+  private PlannerSystem planner;
+
+  /**
+   * Creates an empty store in a temporary directory and a planner holding the schedules read
+   * from prof.xml.
+   */
+  @Before
+  public void init() throws IOException {
+    directory = Files.createTempDirectory("store");
+    store = new ShardedScheduleStore(directory, 4);
+    planner = new NUPlannerSystem();
+    planner.setFirstDayOfWeek("Sunday");
+    planner.readUserSchedule(new File("prof.xml"));
+    planner.addUser("Idle");
+  }
+
+  /**
+   * Deletes the temporary store directory and its files.
+   */
+  @After
+  public void cleanUp() throws IOException {
+    for (String name : this.files()) {
+      Files.delete(directory.resolve(name));
+    }
+    Files.delete(directory);
+  }
+
+  /**
+   * Tests the validation of the store's arguments.
+   */
+  @Test
+  public void testInvalidArguments() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ShardedScheduleStore(null, 4));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> new ShardedScheduleStore(directory, 0));
+    Assert.assertThrows(IllegalArgumentException.class, () -> store.saveAll(null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> store.saveUser(null));
+    Assert.assertThrows(IllegalArgumentException.class, () -> store.loadUser("Nobody"));
+  }
+
+  /**
+   * Tests that saving every user and loading them back yields equal schedules, with events
+   * shared between users loaded as a single event, so the planner can be rebuilt from them.
+   */
+  @Test
+  public void testSaveAndLoadAll() {
+    store.saveAll(this.schedules());
+    List<ISchedule> loaded = store.loadAll();
+    Assert.assertEquals(planner.getUsers().size(), loaded.size());
+
+    Map<String, ISchedule> byUser = new HashMap<>();
+    for (ISchedule schedule : loaded) {
+      byUser.put(schedule.getUserName(), schedule);
+    }
+    for (String user : planner.getUsers()) {
+      Assert.assertEquals(planner.getSchedule(user).getEvents().size(),
+              byUser.get(user).getEvents().size());
+      for (ReadOnlyEvent event : planner.getSchedule(user).getEvents()) {
+        Assert.assertTrue(byUser.get(user).hasEvent(event));
+      }
+    }
+    ReadOnlyEvent lecture = byUser.get("Prof. Lucia").findEvent("Tuesday", "1000", "SUNDAY");
+    Assert.assertSame(lecture,
+            byUser.get("Student Anon").findEvent("Tuesday", "1000", "SUNDAY"));
+
+    PlannerSystem rebuilt = new NUPlannerSystem(loaded);
+    rebuilt.setFirstDayOfWeek("Sunday");
+    Assert.assertEquals(planner.getUsers(), rebuilt.getUsers());
+  }
+
+  /**
+   * Tests that saving and loading a single user reads and writes only that user's segment, and
+   * that saving a user replaces the schedule stored for them.
+   */
+  @Test
+  public void testSaveAndLoadUser() throws IOException {
+    store.saveAll(this.schedules());
+    int segment = store.segmentOf("Idle");
+    List<String> before = this.files();
+
+    ISchedule idle = new Schedule("Idle");
+    idle.addEvent(planner.getSchedule("Prof. Lucia").getEvents().get(0));
+    store.saveUser(idle);
+
+    List<String> after = this.files();
+    String prefix = String.format("segment-%04d", segment);
+    Assert.assertEquals(before.stream().filter(name -> !name.startsWith(prefix))
+            .collect(Collectors.toList()),
+            after.stream().filter(name -> !name.startsWith(prefix))
+            .collect(Collectors.toList()));
+    Assert.assertFalse(before.containsAll(after));
+
+    Assert.assertEquals(1, store.loadUser("Idle").getEvents().size());
+    for (String user : planner.getUsers()) {
+      if (!user.equals("Idle")) {
+        Assert.assertEquals(planner.getSchedule(user).getEvents().size(),
+                store.loadUser(user).getEvents().size());
+      }
+    }
+
+    ShardedScheduleStore reopened = new ShardedScheduleStore(directory, 4);
+    Assert.assertEquals(planner.getUsers().size(), reopened.loadAll().size());
+  }
+
+  /**
+   * Gets the schedules of every user in the planner.
+   *
+   * @return The list of schedules.
+   */
+  private List<ISchedule> schedules() {
+    List<ISchedule> schedules = new ArrayList<>();
+    for (String user : planner.getUsers()) {
+      schedules.add(planner.getSchedule(user));
+    }
+    return schedules;
+  }
+
+  /**
+   * Lists the names of the files in the store directory, sorted.
+   *
+   * @return The sorted file names.
+   */
+  private List<String> files() throws IOException {
+    try (Stream<Path> paths = Files.list(directory)) {
+      return paths.map(path -> path.getFileName().toString()).sorted()
+              .collect(Collectors.toList());
+    }
+  }
+}
@@ -6,6 +6,7 @@ import java.time.DayOfWeek;
 
 import schedule.ITime;
 import schedule.Time;
+import schedule.TimeUtilities;
 
 /**
  * A test class for the {@link schedule.Time} class.
@@ -156,4 +157,31 @@ public class TimeTest {
     other.setStartDay("Sunday");
     Assert.assertNotEquals(time, other);
   }
+
+  /**
+   * Tests the conversion of a {@link schedule.ITime} into minutes since the start of the week,
+   * including times that continue into a new week and weeks that do not start on Sunday, along
+   * with the parsing helpers used by lightweight imports.
+   */
+  @Test
+  public void testMinutesOfWeek() {
+    time = new Time("Monday", "1000", "Monday", "1100");
+    Assert.assertEquals(1440 + 600, time.getStartMinute("Sunday"));
+    Assert.assertEquals(1440 + 660, time.getEndMinute("Sunday"));
+    Assert.assertEquals(600, time.getStartMinute("Monday"));
+
+    time = new Time("Friday", "1800", "Sunday", "1200");
+    Assert.assertEquals(5 * 1440 + 1080, time.getStartMinute("Sunday"));
+    Assert.assertEquals(7 * 1440 + 720, time.getEndMinute("Sunday"));
+    Assert.assertEquals(6 * 1440 + 1080, time.getStartMinute("Saturday"));
+    Assert.assertEquals(7 * 1440 + 1440 + 720, time.getEndMinute("Saturday"));
+
+    Assert.assertEquals(570, TimeUtilities.parseMinuteOfDay(" 0930 "));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> TimeUtilities.parseMinuteOfDay("2400"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> TimeUtilities.parseMinuteOfDay("09:3"));
+    Assert.assertEquals(DayOfWeek.TUESDAY, TimeUtilities.parseDay("tuesday"));
+    Assert.assertThrows(IllegalArgumentException.class, () -> TimeUtilities.parseDay("Funday"));
+  }
 }
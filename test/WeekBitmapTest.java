@@ -0,0 +1,166 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import schedule.AvailabilityProfile;
+import schedule.Event;
+import schedule.IEvent;
+import schedule.ISchedule;
+import schedule.Schedule;
+import schedule.TimeUtilities;
+import schedule.WeekBitmap;
+
+/**
+ * A test class for the {@link WeekBitmap} class. Tests marking and testing busy ranges, including
+ * ranges crossing word boundaries and the end of the week, building the bitmap of a schedule,
+ * counting busy bitmaps per slot, and finding free ranges in a bitmap merged with availability
+ * profiles.
+ */
+public class WeekBitmapTest {
+
+  /**
+   * Tests marking ranges as busy and testing single minutes and ranges.
+   */
+  @Test
+  public void testBusyRanges() {
+    WeekBitmap bitmap = new WeekBitmap();
+    Assert.assertFalse(bitmap.isBusy(0, TimeUtilities.MINUTES_IN_WEEK));
+
+    bitmap.setBusy(60, 130);
+    Assert.assertFalse(bitmap.isBusy(59));
+    Assert.assertTrue(bitmap.isBusy(60));
+    Assert.assertTrue(bitmap.isBusy(64));
+    Assert.assertTrue(bitmap.isBusy(129));
+    Assert.assertFalse(bitmap.isBusy(130));
+    Assert.assertTrue(bitmap.isBusy(0, 61));
+    Assert.assertFalse(bitmap.isBusy(0, 60));
+    Assert.assertFalse(bitmap.isBusy(130, 1000));
+    Assert.assertFalse(bitmap.isBusy(60, 60));
+
+    // continues from the start of the week
+    bitmap.setBusy(TimeUtilities.MINUTES_IN_WEEK - 10, TimeUtilities.MINUTES_IN_WEEK + 10);
+    Assert.assertTrue(bitmap.isBusy(TimeUtilities.MINUTES_IN_WEEK - 1));
+    Assert.assertTrue(bitmap.isBusy(9));
+    Assert.assertFalse(bitmap.isBusy(10));
+    Assert.assertTrue(bitmap.isBusy(TimeUtilities.MINUTES_IN_WEEK - 20,
+            TimeUtilities.MINUTES_IN_WEEK - 9));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> bitmap.setBusy(10, 5));
+    Assert.assertThrows(IllegalArgumentException.class, () -> bitmap.setBusy(-1, 5));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> bitmap.isBusy(0, TimeUtilities.MINUTES_IN_WEEK + 1));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> bitmap.isBusy(TimeUtilities.MINUTES_IN_WEEK));
+  }
+
+  /**
+   * Tests that the bitmap of a schedule marks the minutes of its events, relative to the first
+   * day of the week.
+   */
+  @Test
+  public void testOfSchedule() {
+    ISchedule schedule = new Schedule("john");
+    IEvent event = new Event();
+    event.setName("something");
+    event.setEventTimes("Monday", "1000", "Monday", "1200");
+    event.setHost("john");
+    event.setInvitees(new ArrayList<>(List.of("john")));
+    event.setLocation(true, "somewhere");
+    schedule.addEvent(event);
+
+    WeekBitmap sunday = WeekBitmap.of(schedule, "Sunday");
+    int monday10 = TimeUtilities.MINUTES_IN_DAY + 600;
+    Assert.assertTrue(sunday.isBusy(monday10));
+    Assert.assertTrue(sunday.isBusy(monday10 + 119));
+    Assert.assertFalse(sunday.isBusy(monday10 + 120));
+    Assert.assertFalse(sunday.isBusy(monday10 - 1));
+
+    WeekBitmap monday = WeekBitmap.of(schedule, "Monday");
+    Assert.assertTrue(monday.isBusy(600));
+    Assert.assertFalse(monday.isBusy(monday10));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> WeekBitmap.of(null, "Sunday"));
+  }
+
+  /**
+   * Tests counting how many bitmaps are busy in each slot of the week.
+   */
+  @Test
+  public void testCountBusy() {
+    List<WeekBitmap> bitmaps = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      WeekBitmap bitmap = new WeekBitmap();
+      // every user is busy at 00:00, every third one until 00:30
+      bitmap.setBusy(0, i % 3 == 0 ? 30 : 10);
+      bitmaps.add(bitmap);
+    }
+    int[] counts = WeekBitmap.countBusy(bitmaps, 15);
+    Assert.assertEquals(TimeUtilities.MINUTES_IN_WEEK / 15, counts.length);
+    Assert.assertEquals(300, counts[0]);
+    Assert.assertEquals(100, counts[1]);
+    Assert.assertEquals(0, counts[2]);
+
+    Assert.assertEquals(0, WeekBitmap.countBusy(new ArrayList<>(), 60)[0]);
+    Assert.assertThrows(IllegalArgumentException.class, () -> WeekBitmap.countBusy(null, 15));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> WeekBitmap.countBusy(bitmaps, 7));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> WeekBitmap.countBusy(bitmaps, 0));
+  }
+
+  /**
+   * Tests finding the earliest and latest free ranges, skipping busy runs across words and
+   * wrapping past the end of the week, and freeing ranges and complementing a bitmap.
+   */
+  @Test
+  public void testFindFree() {
+    WeekBitmap bitmap = new WeekBitmap();
+    Assert.assertEquals(0, bitmap.findFree(0, 60));
+    Assert.assertEquals(500, bitmap.findFree(500, 60));
+    Assert.assertThrows(IllegalArgumentException.class, () -> bitmap.findFree(-1, 60));
+    Assert.assertThrows(IllegalArgumentException.class, () -> bitmap.findFree(0, 0));
+
+    bitmap.setBusy(0, 100);
+    bitmap.setBusy(130, 300);
+    // the gap from 100 to 130 is too short
+    Assert.assertEquals(300, bitmap.findFree(0, 60));
+    Assert.assertEquals(100, bitmap.findFree(0, 30));
+    Assert.assertEquals(300, bitmap.findFree(101, 30));
+
+    // a range at the end of the week continues into its start, which is busy
+    Assert.assertEquals(TimeUtilities.MINUTES_IN_WEEK - 60,
+            bitmap.findFree(TimeUtilities.MINUTES_IN_WEEK - 60, 60));
+    Assert.assertEquals(-1, bitmap.findFree(TimeUtilities.MINUTES_IN_WEEK - 60, 61));
+    Assert.assertEquals(-1, bitmap.findFree(TimeUtilities.MINUTES_IN_WEEK, 1));
+
+    // searching backwards takes the latest start, skipping busy runs
+    Assert.assertEquals(100, bitmap.findFreeBefore(160, 30));
+    Assert.assertEquals(-1, bitmap.findFreeBefore(300, 60));
+    Assert.assertEquals(-1, bitmap.findFreeBefore(100, 1));
+    Assert.assertEquals(500, bitmap.findFreeBefore(501, 60));
+    bitmap.setFree(130, 200);
+    Assert.assertEquals(140, bitmap.findFreeBefore(300, 60));
+    bitmap.setBusy(130, 200);
+
+    WeekBitmap complement = bitmap.complement();
+    Assert.assertTrue(complement.isBusy(100, 130));
+    Assert.assertFalse(complement.isBusy(0, 100));
+    Assert.assertEquals(0, complement.findFree(0, 100));
+    Assert.assertEquals(300, complement.complement().findFree(0, 100));
+    Assert.assertEquals(-1, new WeekBitmap().complement().findFree(0, 1));
+
+    // merged with the standard working hours, the first free hour is Monday at 09:00
+    WeekBitmap working = new WeekBitmap();
+    AvailabilityProfile.WORK_HOURS.markUnavailable(working, "Sunday");
+    Assert.assertEquals(TimeUtilities.MINUTES_IN_DAY + 9 * 60, working.findFree(0, 60));
+    Assert.assertEquals(-1, working.findFree(0, 9 * 60));
+    Assert.assertTrue(AvailabilityProfile.WORK_HOURS.isAvailable(9 * 60, 17 * 60, "Monday"));
+    Assert.assertFalse(AvailabilityProfile.WORK_HOURS.isAvailable(9 * 60, 17 * 60, "Sunday"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> AvailabilityProfile.none().withShift("Monday", "0900", "Monday", "0900"));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> AvailabilityProfile.weekdays("1700", "0900"));
+  }
+}